@@ -0,0 +1,127 @@
+package citadels.bench;
+
+import citadels.GameContext;
+import citadels.card.CharacterCard;
+import citadels.player.AIPlayer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the AI player's decisions: character selection and a full turn.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIPlayerBenchmark {
+
+    /**
+     * A late-game position rebuilt before every turn, so that hands, gold and
+     * the deck do not drift between invocations.
+     */
+    @State(Scope.Thread)
+    public static class TurnState {
+        /** Character to play the turn as */
+        @Param({"King", "Architect", "Warlord", "Magician"})
+        public String character;
+
+        /** Game the measured turn is played in */
+        GameContext ctx;
+        /** Player taking the measured turn */
+        AIPlayer player;
+        /** Role the player takes the turn as */
+        CharacterCard role;
+
+        @Setup(Level.Trial)
+        public void setUpTrial() {
+            BenchmarkSupport.silence();
+        }
+
+        @Setup(Level.Invocation)
+        public void setUpInvocation() {
+            ctx = BenchmarkSupport.lateGame(5, 3);
+            player = (AIPlayer) ctx.getPlayers().get(0);
+            ctx.getSelectedCharacters().values().removeIf(c -> c.getName().equals(character));
+            role = new CharacterCard(character, rankOf(character));
+            ctx.getSelectedCharacters().put(player, role);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            BenchmarkSupport.restore();
+        }
+    }
+
+    /**
+     * A player choosing between four characters.
+     */
+    @State(Scope.Thread)
+    public static class SelectionState {
+        /** Player making the choice */
+        AIPlayer player;
+        /** Characters offered to the AI */
+        List<CharacterCard> options;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            BenchmarkSupport.silence();
+            player = (AIPlayer) BenchmarkSupport.lateGame(5, 3).getPlayers().get(0);
+            options = new ArrayList<>();
+            options.add(new CharacterCard("Thief", 2));
+            options.add(new CharacterCard("King", 4));
+            options.add(new CharacterCard("Merchant", 6));
+            options.add(new CharacterCard("Warlord", 8));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            BenchmarkSupport.restore();
+        }
+    }
+
+    /**
+     * Plays one complete AI turn.
+     *
+     * @param s the turn fixture
+     * @return the player's gold afterwards
+     */
+    @Benchmark
+    public int takeTurn(TurnState s) {
+        s.player.takeTurn(s.ctx, s.role, s.ctx.getDistrictDeck());
+        return s.player.getGold();
+    }
+
+    /**
+     * Lets the AI choose from four characters.
+     *
+     * @param s the selection fixture
+     * @return the chosen character
+     */
+    @Benchmark
+    public CharacterCard selectCharacter(SelectionState s) {
+        return s.player.selectCharacter(s.options);
+    }
+
+    /**
+     * Looks up the rank of a character by name.
+     *
+     * @param name the character name
+     * @return the character's rank
+     */
+    private static int rankOf(String name) {
+        switch (name) {
+            case "King": return 4;
+            case "Architect": return 7;
+            case "Warlord": return 8;
+            case "Magician": return 3;
+            default: return 0;
+        }
+    }
+}
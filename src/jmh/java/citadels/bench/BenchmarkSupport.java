@@ -0,0 +1,100 @@
+package citadels.bench;
+
+import citadels.Game;
+import citadels.GameContext;
+import citadels.card.DistrictCard;
+import citadels.event.GameEventListener;
+import citadels.player.AIPlayer;
+import citadels.player.Player;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Shared fixtures for the benchmarks.
+ * Builds game contexts in a representative mid-game state that ignore their
+ * events, and silences any remaining console output, which would otherwise
+ * dominate every measurement.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+final class BenchmarkSupport {
+    /** Stream that discards everything written to it */
+    static final PrintStream NULL_OUT = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) { }
+
+        @Override
+        public void write(byte[] b, int off, int len) { }
+    });
+
+    /** The original System.out, restored after a benchmark trial */
+    private static PrintStream originalOut;
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Redirects System.out to a stream that discards all output.
+     */
+    static void silence() {
+        if (originalOut == null) {
+            originalOut = System.out;
+        }
+        System.setOut(NULL_OUT);
+    }
+
+    /**
+     * Restores the System.out that was active before {@link #silence()}.
+     */
+    static void restore() {
+        if (originalOut != null) {
+            System.setOut(originalOut);
+            originalOut = null;
+        }
+    }
+
+    /**
+     * Creates a freshly dealt game with the given number of AI players and
+     * characters already chosen for the first round.
+     *
+     * @param playerCount the number of AI players
+     * @return the game context
+     */
+    static GameContext newGame(int playerCount) {
+        GameContext ctx = new GameContext();
+        ctx.setEventListener(GameEventListener.NONE);
+        for (int i = 1; i <= playerCount; i++) {
+            ctx.getPlayers().add(new AIPlayer("Player " + i));
+        }
+        new Game(ctx).dealInitialCards();
+        Game.startCharacterSelectionPhase(ctx);
+        return ctx;
+    }
+
+    /**
+     * Creates a game in which every player has built the given number of
+     * districts and still holds some cards and gold, as near the end of a game.
+     *
+     * @param playerCount the number of AI players
+     * @param citySize the number of districts in every city
+     * @return the game context
+     */
+    static GameContext lateGame(int playerCount, int citySize) {
+        GameContext ctx = newGame(playerCount);
+        for (Player p : ctx.getPlayers()) {
+            for (int i = 0; i < citySize && !ctx.getDistrictDeck().isEmpty(); i++) {
+                DistrictCard card = ctx.getDistrictDeck().draw();
+                if (!p.hasDistrict(card.getName())) {
+                    p.getCity().add(card);
+                }
+            }
+            p.addGold(4);
+        }
+        return ctx;
+    }
+}
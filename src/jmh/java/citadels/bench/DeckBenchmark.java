@@ -0,0 +1,54 @@
+package citadels.bench;
+
+import citadels.card.DistrictCard;
+import citadels.card.DistrictDeckLoader;
+import citadels.util.Deck;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Deck} drawing and shuffling on the full district deck.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeckBenchmark {
+    /** Full district deck */
+    private Deck<DistrictCard> deck;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        deck = DistrictDeckLoader.loadFromTSV();
+    }
+
+    /**
+     * Draws the top card and puts it back at the bottom, as the AI does when it
+     * keeps one of two drawn cards. The deck size stays constant.
+     *
+     * @return the card that was cycled
+     */
+    @Benchmark
+    public DistrictCard drawAndPlaceOnBottom() {
+        DistrictCard card = deck.draw();
+        deck.placeOnBottom(card);
+        return card;
+    }
+
+    /**
+     * Shuffles the full deck.
+     *
+     * @return the shuffled deck
+     */
+    @Benchmark
+    public Deck<DistrictCard> shuffle() {
+        deck.shuffle();
+        return deck;
+    }
+}
@@ -0,0 +1,32 @@
+package citadels.bench;
+
+import citadels.card.DistrictCard;
+import citadels.card.DistrictDeckLoader;
+import citadels.util.Deck;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for loading the district deck from cards.tsv, which happens once per game.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistrictDeckLoaderBenchmark {
+
+    /**
+     * Loads and shuffles the full district deck.
+     *
+     * @return the loaded deck
+     */
+    @Benchmark
+    public Deck<DistrictCard> loadFromTSV() {
+        return DistrictDeckLoader.loadFromTSV();
+    }
+}
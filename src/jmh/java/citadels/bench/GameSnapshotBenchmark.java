@@ -0,0 +1,70 @@
+package citadels.bench;
+
+import citadels.GameContext;
+import citadels.GameSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for copying a whole game with GameSnapshot, as a search AI does
+ * before every playout.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameSnapshotBenchmark {
+    /** Game that is captured and restored */
+    private GameContext game;
+    /** Snapshot of the game */
+    private GameSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.silence();
+        game = BenchmarkSupport.lateGame(5, 4);
+        snapshot = GameSnapshot.capture(game);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkSupport.restore();
+    }
+
+    /**
+     * Captures the game.
+     *
+     * @return the snapshot
+     */
+    @Benchmark
+    public GameSnapshot capture() {
+        return GameSnapshot.capture(game);
+    }
+
+    /**
+     * Restores the game in place.
+     *
+     * @return the restored game
+     */
+    @Benchmark
+    public GameContext restore() {
+        snapshot.restore(game);
+        return game;
+    }
+
+    /**
+     * Creates an independent copy of the game.
+     *
+     * @return the new game
+     */
+    @Benchmark
+    public GameContext fork() {
+        return snapshot.fork();
+    }
+}
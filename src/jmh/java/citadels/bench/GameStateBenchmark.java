@@ -0,0 +1,92 @@
+package citadels.bench;
+
+import citadels.GameContext;
+import citadels.GameState;
+import citadels.util.Deck;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for saving and loading a full game to and from JSON.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameStateBenchmark {
+    /** Game that is saved */
+    private GameContext source;
+    /** Game that is loaded into */
+    private GameContext target;
+    /** Saved form of the source game */
+    private JSONObject saved;
+    /** Saved form of the source game as text */
+    private String savedText;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.silence();
+        source = BenchmarkSupport.lateGame(5, 4);
+        target = new GameContext(new Deck<>());
+        saved = GameState.saveGame(source);
+        savedText = saved.toJSONString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkSupport.restore();
+    }
+
+    /**
+     * Builds the JSON tree of the full game.
+     *
+     * @return the saved game
+     */
+    @Benchmark
+    public JSONObject saveGame() {
+        return GameState.saveGame(source);
+    }
+
+    /**
+     * Builds the JSON tree of the full game and renders it as text,
+     * as the savegame command does.
+     *
+     * @return the saved game as text
+     */
+    @Benchmark
+    public String saveGameToText() {
+        return GameState.saveGame(source).toJSONString();
+    }
+
+    /**
+     * Restores a game from an already parsed JSON tree.
+     *
+     * @return the restored context
+     */
+    @Benchmark
+    public GameContext loadGame() {
+        GameState.loadGame(target, saved);
+        return target;
+    }
+
+    /**
+     * Parses a saved game from text and restores it, as the loadgame command does.
+     *
+     * @return the restored context
+     * @throws ParseException if the saved text is not valid JSON
+     */
+    @Benchmark
+    public GameContext loadGameFromText() throws ParseException {
+        GameState.loadGame(target, (JSONObject) new JSONParser().parse(savedText));
+        return target;
+    }
+}
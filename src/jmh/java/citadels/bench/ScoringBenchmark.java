@@ -0,0 +1,62 @@
+package citadels.bench;
+
+import citadels.Game;
+import citadels.GameContext;
+import citadels.effect.PurpleCardEffects;
+import citadels.player.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for end-of-game scoring of a late-game position.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScoringBenchmark {
+    /** Game with seven districts in every city */
+    private GameContext ctx;
+    /** Player whose purple bonuses are scored */
+    private Player player;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.silence();
+        ctx = BenchmarkSupport.lateGame(7, 7);
+        player = ctx.getPlayers().get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkSupport.restore();
+    }
+
+    /**
+     * Scores every player and picks the winner, as Game.endGame does.
+     *
+     * @return the winner
+     */
+    @Benchmark
+    public Player endGameScoring() {
+        Map<Player, Integer> scores = Game.scoreGame(ctx);
+        return Game.findWinner(ctx, scores);
+    }
+
+    /**
+     * Calculates the purple district bonus of a single player.
+     *
+     * @return the bonus points
+     */
+    @Benchmark
+    public int bonusScore() {
+        return PurpleCardEffects.bonusScore(player);
+    }
+}
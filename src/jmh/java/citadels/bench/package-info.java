@@ -0,0 +1,9 @@
+/**
+ * Package containing JMH micro-benchmarks for the game's hot paths.
+ * Benchmarks live in the separate {@code jmh} source set and are run with
+ * {@code gradle jmh}; they are not part of the game jar.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+package citadels.bench;
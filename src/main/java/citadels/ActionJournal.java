@@ -0,0 +1,704 @@
+package citadels;
+
+import citadels.card.CardCatalog;
+import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.event.ForwardingEventListener;
+import citadels.event.GameEventListener;
+import citadels.player.Player;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only journal of the actions taken in a game, kept in a memory-mapped file
+ * so a crashed game can be recovered.
+ * The journal listens to the game's events (passing them on to another listener,
+ * usually the console) and appends a small record for every action that changes
+ * the game: characters chosen, assassinations and thefts, gold and cards taken,
+ * districts built and destroyed. At the start of every round, and every few turns
+ * if asked, it also appends a snapshot of the whole game in the binary save format.
+ * Records are written into the mapped file without a system call, so the journal is
+ * cheap enough to leave on; the file is forced to disk after every snapshot.
+ * <p>
+ * {@link #recover(Path, GameContext)} restores the last snapshot and replays the
+ * records of the turns completed after it, so the game resumes at the start of the
+ * turn that was in progress. Human turns report no events, so the journal always
+ * takes a snapshot after one.
+ * <p>
+ * Each record is a 4-byte header (the record type in the top byte and the payload
+ * length in the rest) followed by the payload. The header is written after the
+ * payload, and a zero header marks the end of the journal, so a record that was only
+ * half written when the game crashed is ignored.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class ActionJournal extends ForwardingEventListener implements Closeable {
+    /** Initial size of the mapped file, in bytes */
+    private static final int INITIAL_CAPACITY = 1 << 20;
+    /** Snapshot interval that snapshots only at the start of each round and after human turns */
+    public static final int EVERY_ROUND = Integer.MAX_VALUE;
+    /** Size of a record header, in bytes */
+    private static final int HEADER_BYTES = 4;
+    /** Largest payload a header can describe */
+    private static final int MAX_PAYLOAD = (1 << 24) - 1;
+
+    /**
+     * The kinds of records in a journal.
+     */
+    enum RecordType {
+        /** A character was called and the whole game saved: rank, assassinated, robbed, binary save */
+        SNAPSHOT,
+        /** A character was called: rank */
+        CALLED,
+        /** A player chose a character: seat, rank, name */
+        CHARACTER_CHOSEN,
+        /** The Assassin picked a victim: the character as stored in the context */
+        ASSASSINATED,
+        /** The Thief picked a victim: the character as stored in the context */
+        ROBBED,
+        /** A player's gold changed: seat, new gold */
+        GOLD,
+        /** A player drew from the deck and kept a card: seat, cards drawn, card kept */
+        CARD_DRAWN,
+        /** A player drew extra cards into their hand: seat, count */
+        EXTRA_CARDS,
+        /** The Magician swapped hands: seat, other seat */
+        HANDS_SWAPPED,
+        /** The Magician redrew their hand: seat, count */
+        HAND_REDRAWN,
+        /** A player built a district: seat, card, new gold */
+        BUILT,
+        /** The Warlord destroyed a district: warlord seat, victim seat, card, new warlord gold */
+        DESTROYED,
+        /** A player banked a card in their Museum: seat, card */
+        BANKED,
+        /** A player's turn ended, was lost or was skipped: seat, crown holder, rank */
+        TURN_ENDED;
+
+        /** Record types by code */
+        private static final RecordType[] BY_CODE = values();
+
+        /**
+         * Gets the code stored in the record header.
+         * @return the code, from 1
+         */
+        int code() {
+            return ordinal() + 1;
+        }
+
+        /**
+         * Gets the record type stored under a code.
+         *
+         * @param code the code from a record header
+         * @return the record type, or null if the code is unknown
+         */
+        static RecordType fromCode(int code) {
+            return code >= 1 && code <= BY_CODE.length ? BY_CODE[code - 1] : null;
+        }
+    }
+
+    /** The context of the game being journaled */
+    private final GameContext ctx;
+    /** The catalog cards are recorded with */
+    private final CardCatalog catalog;
+    /** The journal file */
+    private final FileChannel channel;
+    /** The mapped region of the journal file */
+    private MappedByteBuffer map;
+    /** Offset where the next record is written */
+    private int position;
+    /** Reused buffer a record's payload is encoded into */
+    private final BinarySaveFormat.Writer payload = new BinarySaveFormat.Writer(64);
+    /** Number of turns between snapshots */
+    private final int snapshotEvery;
+    /** Number of turns started since the last snapshot */
+    private int turnsSinceSnapshot;
+    /** Whether the last character called was played by a human */
+    private boolean humanCalled;
+    /**
+     * Whether the next character called must be snapshotted; true when the journal is
+     * opened, so records of a turn cut short by a crash are never completed by new ones
+     */
+    private boolean snapshotDue = true;
+
+    /**
+     * Opens a journal that snapshots the game at the start of every round, and
+     * replays the records of the turns after it to recover.
+     *
+     * @param file the journal file, created if it does not exist and appended to if it does
+     * @param ctx the context of the game to journal
+     * @param delegate the listener every event is passed on to
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public ActionJournal(Path file, GameContext ctx, GameEventListener delegate) throws IOException {
+        this(file, ctx, delegate, EVERY_ROUND);
+    }
+
+    /**
+     * Opens a journal.
+     *
+     * @param file the journal file, created if it does not exist and appended to if it does
+     * @param ctx the context of the game to journal
+     * @param delegate the listener every event is passed on to
+     * @param snapshotEvery the number of turns between snapshots, or {@link #EVERY_ROUND}
+     * @throws IOException if the file cannot be opened or mapped
+     * @throws IllegalArgumentException if snapshotEvery is not positive
+     */
+    public ActionJournal(Path file, GameContext ctx, GameEventListener delegate, int snapshotEvery)
+            throws IOException {
+        super(delegate);
+        if (snapshotEvery < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be positive: " + snapshotEvery);
+        }
+        this.ctx = ctx;
+        this.catalog = CardCatalog.getDefault();
+        this.snapshotEvery = snapshotEvery;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(INITIAL_CAPACITY, channel.size());
+        this.map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        this.position = endOf(map);
+    }
+
+    /**
+     * Appends a snapshot of the whole game and forces the journal to disk.
+     *
+     * @param rank the rank of the character being called
+     */
+    private void snapshot(int rank) {
+        byte[] state = GameState.saveBinary(ctx);
+        payload.reset();
+        payload.varint(rank);
+        optionalString(ctx.getAssassinatedCharacter());
+        optionalString(ctx.getRobbedCharacter());
+        payload.bytes(state);
+        append(RecordType.SNAPSHOT);
+        map.force();
+        turnsSinceSnapshot = 0;
+        snapshotDue = false;
+    }
+
+    /**
+     * Gets the number of bytes of records in the journal.
+     * @return the offset where the next record will be written
+     */
+    public int size() {
+        return position;
+    }
+
+    /**
+     * Forces the journal to disk and closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        map.force();
+        channel.close();
+    }
+
+    @Override
+    public void onCharacterChosen(Player player, CharacterCard character) {
+        super.onCharacterChosen(player, character);
+        payload.reset();
+        payload.varint(seatOf(player));
+        payload.varint(character.getRank());
+        payload.string(character.getName());
+        append(RecordType.CHARACTER_CHOSEN);
+    }
+
+    @Override
+    public void onCharacterCalled(int rank, CharacterCard character, Player player) {
+        super.onCharacterCalled(rank, character, player);
+        // Every round starts with a snapshot, so records never span a selection phase
+        if (snapshotDue || rank == 1 || humanCalled || (player != null && ++turnsSinceSnapshot >= snapshotEvery)) {
+            snapshot(rank);
+        } else {
+            payload.reset();
+            payload.varint(rank);
+            append(RecordType.CALLED);
+        }
+        humanCalled = player != null && player.isHuman();
+    }
+
+    @Override
+    public void onTurnLost(Player player, CharacterCard character) {
+        super.onTurnLost(player, character);
+        recordTurnEnded(player, character);
+    }
+
+    @Override
+    public void onTurnSkipped(Player player, CharacterCard character) {
+        super.onTurnSkipped(player, character);
+        recordTurnEnded(player, character);
+    }
+
+    @Override
+    public void onCharacterAssassinated(Player assassin, CharacterCard victim) {
+        super.onCharacterAssassinated(assassin, victim);
+        recordString(RecordType.ASSASSINATED, ctx.getAssassinatedCharacter());
+    }
+
+    @Override
+    public void onCharacterRobbed(Player thief, CharacterCard victim) {
+        super.onCharacterRobbed(thief, victim);
+        recordString(RecordType.ROBBED, ctx.getRobbedCharacter());
+    }
+
+    @Override
+    public void onGoldRobbed(Player victim, int amount) {
+        super.onGoldRobbed(victim, amount);
+        recordGold(victim);
+    }
+
+    @Override
+    public void onGoldTaken(Player player, int amount) {
+        super.onGoldTaken(player, amount);
+        recordGold(player);
+    }
+
+    @Override
+    public void onIncomeCollected(Player player, int amount) {
+        super.onIncomeCollected(player, amount);
+        recordGold(player);
+    }
+
+    @Override
+    public void onCardDrawn(Player player, DistrictCard kept, int drawn) {
+        super.onCardDrawn(player, kept, drawn);
+        payload.reset();
+        payload.varint(seatOf(player));
+        payload.varint(drawn);
+        BinarySaveFormat.writeCard(payload, kept, catalog);
+        append(RecordType.CARD_DRAWN);
+    }
+
+    @Override
+    public void onExtraCardsDrawn(Player player, int count) {
+        super.onExtraCardsDrawn(player, count);
+        recordCount(RecordType.EXTRA_CARDS, player, count);
+    }
+
+    @Override
+    public void onHandsSwapped(Player player, Player other) {
+        super.onHandsSwapped(player, other);
+        recordCount(RecordType.HANDS_SWAPPED, player, seatOf(other));
+    }
+
+    @Override
+    public void onHandRedrawn(Player player, int count) {
+        super.onHandRedrawn(player, count);
+        recordCount(RecordType.HAND_REDRAWN, player, count);
+    }
+
+    @Override
+    public void onDistrictBuilt(Player player, DistrictCard district) {
+        super.onDistrictBuilt(player, district);
+        payload.reset();
+        payload.varint(seatOf(player));
+        BinarySaveFormat.writeCard(payload, district, catalog);
+        payload.signed(player.getGold());
+        append(RecordType.BUILT);
+    }
+
+    @Override
+    public void onDistrictDestroyed(Player warlord, Player victim, DistrictCard district, int cost) {
+        super.onDistrictDestroyed(warlord, victim, district, cost);
+        payload.reset();
+        payload.varint(seatOf(warlord));
+        payload.varint(seatOf(victim));
+        BinarySaveFormat.writeCard(payload, district, catalog);
+        payload.signed(warlord.getGold());
+        append(RecordType.DESTROYED);
+    }
+
+    @Override
+    public void onCardBanked(Player player, DistrictCard card) {
+        super.onCardBanked(player, card);
+        payload.reset();
+        payload.varint(seatOf(player));
+        BinarySaveFormat.writeCard(payload, card, catalog);
+        append(RecordType.BANKED);
+    }
+
+    @Override
+    public void onTurnEnded(Player player, CharacterCard character) {
+        super.onTurnEnded(player, character);
+        recordTurnEnded(player, character);
+    }
+
+    /**
+     * Records the end of a turn.
+     *
+     * @param player the player whose turn ended
+     * @param character the character they played
+     */
+    private void recordTurnEnded(Player player, CharacterCard character) {
+        payload.reset();
+        payload.varint(seatOf(player));
+        payload.signed(ctx.getCrownPlayerIndex());
+        payload.varint(character != null ? character.getRank() : 0);
+        append(RecordType.TURN_ENDED);
+    }
+
+    /**
+     * Empties the journal once the game is over, so a finished game is not recovered.
+     */
+    @Override
+    public void onGameEnded(Player winner, List<Player> tied, CharacterCard mysteryDiscard) {
+        map.putInt(0, 0);
+        map.force();
+        position = 0;
+        super.onGameEnded(winner, tied, mysteryDiscard);
+    }
+
+    /**
+     * Records a player's current gold.
+     *
+     * @param player the player
+     */
+    private void recordGold(Player player) {
+        payload.reset();
+        payload.varint(seatOf(player));
+        payload.signed(player.getGold());
+        append(RecordType.GOLD);
+    }
+
+    /**
+     * Records a player and a number.
+     *
+     * @param type the record type
+     * @param player the player
+     * @param value the number
+     */
+    private void recordCount(RecordType type, Player player, int value) {
+        payload.reset();
+        payload.varint(seatOf(player));
+        payload.signed(value);
+        append(type);
+    }
+
+    /**
+     * Records a string, such as a character stored in the context.
+     *
+     * @param type the record type
+     * @param value the string, which may be null
+     */
+    private void recordString(RecordType type, String value) {
+        payload.reset();
+        optionalString(value);
+        append(type);
+    }
+
+    /**
+     * Encodes a string that may be null.
+     *
+     * @param value the string
+     */
+    private void optionalString(String value) {
+        payload.u8(value != null ? 1 : 0);
+        if (value != null) {
+            payload.string(value);
+        }
+    }
+
+    /**
+     * Gets a player's seat.
+     *
+     * @param player the player
+     * @return the player's index in the context
+     */
+    private int seatOf(Player player) {
+        return Math.max(0, ctx.getSeat(player));
+    }
+
+    /**
+     * Appends the encoded payload as a record, growing the mapped file if needed.
+     *
+     * @param type the record type
+     */
+    private void append(RecordType type) {
+        int length = payload.length();
+        if (length > MAX_PAYLOAD) {
+            throw new IllegalStateException("Journal record too large: " + length + " bytes");
+        }
+        int end = position + HEADER_BYTES + length;
+        ensureCapacity(end + HEADER_BYTES);
+
+        // Payload first, then the new end marker, then the header that makes the record visible
+        map.position(position + HEADER_BYTES);
+        map.put(payload.array(), 0, length);
+        map.putInt(end, 0);
+        map.putInt(position, (type.code() << 24) | length);
+        position = end;
+    }
+
+    /**
+     * Makes sure the mapped region reaches an offset, mapping a larger region if not.
+     *
+     * @param required the offset the region must reach
+     */
+    private void ensureCapacity(int required) {
+        if (required <= map.capacity()) {
+            return;
+        }
+        long size = map.capacity();
+        while (size < required) {
+            size *= 2;
+        }
+        try {
+            map.force();
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot grow journal", e);
+        }
+    }
+
+    /**
+     * Finds the end of the records in a journal.
+     *
+     * @param buffer the journal contents
+     * @return the offset just after the last complete record
+     */
+    private static int endOf(java.nio.ByteBuffer buffer) {
+        int pos = 0;
+        while (pos + HEADER_BYTES <= buffer.limit()) {
+            int header = buffer.getInt(pos);
+            RecordType type = RecordType.fromCode(header >>> 24);
+            int length = header & MAX_PAYLOAD;
+            if (type == null || pos + HEADER_BYTES + length > buffer.limit()) {
+                break;
+            }
+            pos += HEADER_BYTES + length;
+        }
+        return pos;
+    }
+
+    /**
+     * Recovers a game from a journal: restores the last snapshot, then replays the
+     * turns completed after it. The turn that was in progress is left out, so it can
+     * be played again from its start.
+     *
+     * @param file the journal file
+     * @param ctx the context to restore the game into
+     * @return the rank of the character whose turn comes next, 9 if the last turn
+     *         phase was over, or -1 if the journal holds no snapshot (the context is
+     *         then left unchanged)
+     * @throws IOException if the journal cannot be read
+     */
+    public static int recover(Path file, GameContext ctx) throws IOException {
+        if (!Files.exists(file)) {
+            return -1;
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+        }
+
+        // Find the last snapshot and the records of the turns completed after it
+        int end = endOf(buffer);
+        int snapshot = -1;
+        int nextRank = -1;
+        List<Integer> tail = new ArrayList<>();
+        int committed = 0;
+        for (int pos = 0; pos < end; pos += HEADER_BYTES + (buffer.getInt(pos) & MAX_PAYLOAD)) {
+            RecordType type = RecordType.fromCode(buffer.getInt(pos) >>> 24);
+            if (type == RecordType.SNAPSHOT) {
+                snapshot = pos;
+                tail.clear();
+                committed = 0;
+                nextRank = new BinarySaveFormat.Reader(payloadAt(buffer, pos), 0).varint();
+            } else if (snapshot >= 0) {
+                tail.add(pos);
+                if (type == RecordType.CALLED) {
+                    committed = tail.size();
+                    nextRank = new BinarySaveFormat.Reader(payloadAt(buffer, pos), 0).varint();
+                } else if (type == RecordType.TURN_ENDED) {
+                    committed = tail.size();
+                    BinarySaveFormat.Reader r = new BinarySaveFormat.Reader(payloadAt(buffer, pos), 0);
+                    r.varint();
+                    r.signed();
+                    nextRank = r.varint() + 1;
+                }
+            }
+        }
+        if (snapshot < 0) {
+            return -1;
+        }
+
+        BinarySaveFormat.Reader in = new BinarySaveFormat.Reader(payloadAt(buffer, snapshot), 0);
+        in.varint();
+        String assassinated = in.u8() != 0 ? in.string() : null;
+        String robbed = in.u8() != 0 ? in.string() : null;
+        GameState.loadBinary(ctx, in.bytes(in.remaining()));
+        ctx.setAssassinatedCharacter(assassinated);
+        ctx.setRobbedCharacter(robbed);
+
+        CardCatalog catalog = CardCatalog.getDefault();
+        for (int i = 0; i < committed; i++) {
+            int pos = tail.get(i);
+            RecordType type = RecordType.fromCode(buffer.getInt(pos) >>> 24);
+            apply(ctx, type, new BinarySaveFormat.Reader(payloadAt(buffer, pos), 0), catalog);
+        }
+        return nextRank;
+    }
+
+    /**
+     * Copies the payload of a record.
+     *
+     * @param buffer the journal contents
+     * @param pos the offset of the record
+     * @return the payload bytes
+     */
+    private static byte[] payloadAt(java.nio.ByteBuffer buffer, int pos) {
+        byte[] bytes = new byte[buffer.getInt(pos) & MAX_PAYLOAD];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(pos + HEADER_BYTES + i);
+        }
+        return bytes;
+    }
+
+    /**
+     * Applies one action record to a game.
+     *
+     * @param ctx the context of the game
+     * @param type the record type
+     * @param in the record payload
+     * @param catalog the catalog cards were recorded with
+     */
+    private static void apply(GameContext ctx, RecordType type, BinarySaveFormat.Reader in, CardCatalog catalog) {
+        List<Player> players = ctx.getPlayers();
+        switch (type) {
+            case ASSASSINATED:
+                ctx.setAssassinatedCharacter(in.u8() != 0 ? in.string() : null);
+                return;
+            case ROBBED:
+                ctx.setRobbedCharacter(in.u8() != 0 ? in.string() : null);
+                return;
+            case CALLED:
+                return;
+            default:
+                break;
+        }
+
+        int seat = in.varint();
+        if (seat >= players.size()) {
+            return;
+        }
+        Player player = players.get(seat);
+        switch (type) {
+            case CHARACTER_CHOSEN: {
+                int rank = in.varint();
+                ctx.getSelectedCharacters().put(player, new CharacterCard(in.string(), rank));
+                break;
+            }
+            case GOLD:
+                setGold(player, in.signed());
+                break;
+            case CARD_DRAWN: {
+                int drawn = in.varint();
+                DistrictCard kept = BinarySaveFormat.readCard(in, catalog);
+                DistrictCard first = ctx.getDistrictDeck().draw();
+                if (drawn >= 2) {
+                    DistrictCard second = ctx.getDistrictDeck().draw();
+                    if (first != null && first.getName().equals(kept.getName())) {
+                        ctx.getDistrictDeck().placeOnBottom(second);
+                        kept = first;
+                    } else {
+                        ctx.getDistrictDeck().placeOnBottom(first);
+                        kept = second != null ? second : kept;
+                    }
+                } else if (first != null) {
+                    kept = first;
+                }
+                player.drawCard(kept);
+                break;
+            }
+            case EXTRA_CARDS:
+            case HAND_REDRAWN: {
+                int count = in.signed();
+                List<DistrictCard> oldHand = new ArrayList<>(player.getHand());
+                if (type == RecordType.HAND_REDRAWN) {
+                    player.getHand().clear();
+                }
+                for (int i = 0; i < count; i++) {
+                    player.drawCard(ctx.getDistrictDeck().draw());
+                }
+                if (type == RecordType.HAND_REDRAWN) {
+                    oldHand.forEach(ctx.getDistrictDeck()::placeOnBottom);
+                }
+                break;
+            }
+            case HANDS_SWAPPED: {
+                int other = in.signed();
+                if (other >= 0 && other < players.size()) {
+                    List<DistrictCard> mine = new ArrayList<>(player.getHand());
+                    List<DistrictCard> theirs = players.get(other).getHand();
+                    player.getHand().clear();
+                    player.getHand().addAll(theirs);
+                    theirs.clear();
+                    theirs.addAll(mine);
+                }
+                break;
+            }
+            case BUILT: {
+                DistrictCard district = BinarySaveFormat.readCard(in, catalog);
+                removeByName(player.getHand(), district);
+                player.getCity().add(district);
+                setGold(player, in.signed());
+                break;
+            }
+            case DESTROYED: {
+                int victim = in.varint();
+                DistrictCard district = BinarySaveFormat.readCard(in, catalog);
+                if (victim < players.size()) {
+                    removeByName(players.get(victim).getCity(), district);
+                }
+                setGold(player, in.signed());
+                break;
+            }
+            case BANKED:
+                player.bankCard(BinarySaveFormat.readCard(in, catalog));
+                break;
+            case TURN_ENDED:
+                ctx.setCrownPlayerIndex(in.signed());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Sets a player's gold.
+     *
+     * @param player the player
+     * @param gold the new amount of gold
+     */
+    private static void setGold(Player player, int gold) {
+        player.addGold(gold - player.getGold());
+    }
+
+    /**
+     * Removes the first card with the same name as the given card.
+     *
+     * @param cards the cards to remove from
+     * @param card the card to remove
+     */
+    private static void removeByName(List<DistrictCard> cards, DistrictCard card) {
+        for (int i = 0; i < cards.size(); i++) {
+            if (cards.get(i).getName().equals(card.getName())) {
+                cards.remove(i);
+                return;
+            }
+        }
+    }
+}
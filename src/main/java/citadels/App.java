@@ -1,5 +1,18 @@
 package citadels;
 
+import citadels.jfr.JfrSupport;
+import citadels.metrics.GameMetrics;
+import citadels.replay.ReplayRecorder;
+import citadels.replay.Replayer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Entry point for the Citadels game. This class serves as the main entry point for 
  * the Citadels card game application. It initializes the game environment and starts 
@@ -23,10 +36,154 @@ public class App {
      * of the application. It creates a new instance of the Game class and starts 
      * the game by calling the run method.
      *
-     * @param args command-line arguments (not used in current implementation)
+     * @param args command-line arguments; {@code --seed=<n>} replays the game
+     *             determined by that seed instead of a random one,
+     *             {@code --journal=<file>} records the game in an {@link ActionJournal},
+     *             first recovering the game already recorded there after a crash,
+     *             {@code --record=<file>} records the seed and every input line in a
+     *             replay file for {@link Replayer}, and {@code --mcts=<ms>} gives every
+     *             AI opponent that much time per decision to search ahead with
+     *             {@link citadels.player.MctsAIPlayer}; {@code --metrics} times every
+     *             phase of the game for the {@code metrics} command, and
+     *             {@code --metrics=<s>} also prints the timings to standard error
+     *             every that many seconds, and {@code --jfr=<file>} records the game's
+     *             flight recorder events, with GC, lock and CPU events, to that file
      */
     public static void main(String[] args) {
         Game game = new Game();
-        game.run();
+        Path journalFile = null;
+        Path recordFile = null;
+        long mctsMillis = 0;
+        long metricsSeconds = -1;
+        Path jfrFile = null;
+        for (String arg : args) {
+            if (arg.startsWith("--journal=")) {
+                journalFile = Paths.get(arg.substring("--journal=".length()));
+                continue;
+            }
+            if (arg.startsWith("--record=")) {
+                recordFile = Paths.get(arg.substring("--record=".length()));
+                continue;
+            }
+            if (arg.startsWith("--mcts=")) {
+                try {
+                    mctsMillis = Long.parseLong(arg.substring("--mcts=".length()));
+                } catch (NumberFormatException e) {
+                    System.out.println("Invalid thinking time: " + arg.substring("--mcts=".length()));
+                    return;
+                }
+                continue;
+            }
+            if (arg.startsWith("--jfr=")) {
+                jfrFile = Paths.get(arg.substring("--jfr=".length()));
+                continue;
+            }
+            if (arg.equals("--metrics")) {
+                metricsSeconds = 0;
+                continue;
+            }
+            if (arg.startsWith("--metrics=")) {
+                try {
+                    metricsSeconds = Long.parseLong(arg.substring("--metrics=".length()));
+                } catch (NumberFormatException e) {
+                    metricsSeconds = -1;
+                }
+                if (metricsSeconds <= 0) {
+                    System.out.println("Invalid metrics interval: " + arg.substring("--metrics=".length()));
+                    return;
+                }
+                continue;
+            }
+            if (arg.startsWith("--seed=")) {
+                try {
+                    game = new Game(new GameContext(Long.parseLong(arg.substring("--seed=".length()))));
+                } catch (NumberFormatException e) {
+                    System.out.println("Invalid seed: " + arg.substring("--seed=".length()));
+                    return;
+                }
+            }
+        }
+
+        game.setMctsTimeBudget(mctsMillis);
+        GameContext ctx = game.getContext();
+        if (metricsSeconds >= 0) {
+            GameMetrics metrics = new GameMetrics();
+            ctx.setMetrics(metrics);
+            if (metricsSeconds > 0) {
+                metrics.printEvery(System.err, metricsSeconds, TimeUnit.SECONDS);
+            }
+        }
+        if (jfrFile != null) {
+            try {
+                JfrSupport.startRecording(jfrFile);
+            } catch (IOException | IllegalStateException e) {
+                System.out.println("Cannot record flight events to " + jfrFile + ": " + e.getMessage());
+                return;
+            }
+        }
+        int nextRank = -1;
+        if (journalFile != null) {
+            try {
+                nextRank = ActionJournal.recover(journalFile, ctx);
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println("Cannot recover journal " + journalFile + ": " + e.getMessage());
+                return;
+            }
+        }
+
+        ReplayRecorder recorder = null;
+        if (recordFile != null && nextRank >= 0) {
+            System.out.println("A recovered game cannot be recorded for replay.");
+        } else if (recordFile != null && mctsMillis > 0) {
+            // Searching opponents decide by the clock, so the seed and input do not reproduce the game
+            System.out.println("A game against searching opponents cannot be recorded for replay.");
+        } else if (recordFile != null) {
+            try {
+                recorder = new ReplayRecorder(recordFile, ctx.getSeed(), ctx.getEventListener());
+            } catch (IOException e) {
+                System.out.println("Cannot record replay " + recordFile + ": " + e.getMessage());
+                return;
+            }
+            ctx.setEventListener(recorder);
+            Game.setScanner(new Scanner(recorder.wrap(new InputStreamReader(System.in, StandardCharsets.UTF_8))));
+        }
+
+        try {
+            play(game, journalFile, nextRank);
+        } finally {
+            if (recorder != null) {
+                try {
+                    recorder.close();
+                } catch (IOException e) {
+                    System.out.println("Cannot close replay " + recordFile + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Plays the game, journaling it if a journal file was given.
+     *
+     * @param game the game to play
+     * @param journalFile the journal file, or null
+     * @param nextRank the rank to resume a recovered game from, or -1 to start a new game
+     */
+    private static void play(Game game, Path journalFile, int nextRank) {
+        if (journalFile == null) {
+            game.run();
+            return;
+        }
+
+        GameContext ctx = game.getContext();
+        try (ActionJournal journal = new ActionJournal(journalFile, ctx, ctx.getEventListener())) {
+            ctx.setEventListener(journal);
+            if (nextRank >= 0) {
+                game.resume(nextRank);
+            } else {
+                game.run();
+            }
+        } catch (IOException e) {
+            System.out.println("Cannot write journal " + journalFile + ": " + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,496 @@
+package citadels;
+
+import citadels.card.CardCatalog;
+import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.player.AIPlayer;
+import citadels.player.HumanPlayer;
+import citadels.player.Player;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the compact binary snapshot of a game.
+ * Cards are stored as their {@link CardCatalog} ids and numbers as varints
+ * (7 bits per byte, low bits first), so a whole game fits in a couple of
+ * hundred bytes. The layout of version 1 is:
+ * <pre>
+ *   magic "CTDB" | version | catalog fingerprint (4 bytes) | seed (8 bytes) | crown
+ *   players:    count, then per player: human flag (1 byte), name, gold, hand, city, banked
+ *   characters: count, then per entry: player index, rank, name
+ *   deck:       cards, top first
+ * </pre>
+ * A list of cards is its size followed by one entry per card: the card's id plus one,
+ * or 0 followed by name, color and cost for a card that is not in the catalog.
+ * Strings are a byte length followed by UTF-8 bytes; signed numbers are zig-zag encoded.
+ * Unlike the JSON format the deck keeps its order, so a loaded game continues exactly
+ * where it was saved.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+final class BinarySaveFormat {
+    /** Bytes every binary save starts with */
+    private static final byte[] MAGIC = {'C', 'T', 'D', 'B'};
+    /** Version of the layout written by this class */
+    static final int VERSION = 1;
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private BinarySaveFormat() {
+    }
+
+    /**
+     * Checks if data starts like a binary save.
+     *
+     * @param data the data to check
+     * @return true if the data has the binary save magic bytes
+     */
+    static boolean isBinary(byte[] data) {
+        return data != null && data.length >= MAGIC.length
+            && Arrays.equals(Arrays.copyOf(data, MAGIC.length), MAGIC);
+    }
+
+    /**
+     * Writes the state of a game.
+     *
+     * @param ctx the context of the game to save
+     * @param catalog the catalog numbering the cards
+     * @return the encoded game
+     */
+    static byte[] write(GameContext ctx, CardCatalog catalog) {
+        Writer out = new Writer(256);
+        out.bytes(MAGIC);
+        out.varint(VERSION);
+        out.fixed32(catalog.getFingerprint());
+        out.fixed64(ctx.getSeed());
+        out.signed(ctx.getCrownPlayerIndex());
+
+        List<Player> players = ctx.getPlayers();
+        out.varint(players.size());
+        for (Player p : players) {
+            out.u8(p.isHuman() ? 1 : 0);
+            out.string(p.getName());
+            out.signed(p.getGold());
+            writeCards(out, p.getHand().size(), p.getHand(), catalog);
+            writeCards(out, p.getCity().size(), p.getCity(), catalog);
+            writeCards(out, p.getBankedCards().size(), p.getBankedCards(), catalog);
+        }
+
+        Map<Player, CharacterCard> selected = ctx.getSelectedCharacters();
+        out.varint(selected.size());
+        for (Map.Entry<Player, CharacterCard> entry : selected.entrySet()) {
+            out.varint(ctx.getSeat(entry.getKey()));
+            out.varint(entry.getValue().getRank());
+            out.string(entry.getValue().getName());
+        }
+
+        writeCards(out, ctx.getDistrictDeck().size(), ctx.getDistrictDeck(), catalog);
+        return out.toByteArray();
+    }
+
+    /**
+     * Restores a game written by {@link #write(GameContext, CardCatalog)}, replacing
+     * the players, characters and deck of the context.
+     *
+     * @param ctx the context to restore the game into
+     * @param data the encoded game
+     * @param catalog the catalog numbering the cards
+     * @throws IllegalArgumentException if the data is not a binary save, is truncated,
+     *         has an unknown version or was written with a different catalog
+     */
+    static void read(GameContext ctx, byte[] data, CardCatalog catalog) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary save");
+        }
+        Reader in = new Reader(data, MAGIC.length);
+        int version = in.varint();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported save version: " + version);
+        }
+        if (in.fixed32() != catalog.getFingerprint()) {
+            throw new IllegalArgumentException("Save was written with a different card catalog");
+        }
+
+        long seed = in.fixed64();
+        int crown = in.signed();
+
+        // Decode everything before touching the context, so bad data leaves it unchanged
+        int playerCount = in.varint();
+        List<Player> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            boolean human = in.u8() != 0;
+            String name = in.string();
+            Player p = human ? new HumanPlayer(name) : new AIPlayer(name);
+            p.addGold(in.signed());
+            readCards(in, p.getHand(), catalog);
+            readCards(in, p.getCity(), catalog);
+            readCards(in, p.getBankedCards(), catalog);
+            players.add(p);
+        }
+
+        int characterCount = in.varint();
+        Map<Player, CharacterCard> characters = new LinkedHashMap<>();
+        for (int i = 0; i < characterCount; i++) {
+            int seat = in.varint();
+            int rank = in.varint();
+            String name = in.string();
+            if (seat < players.size()) {
+                characters.put(players.get(seat), new CharacterCard(name, rank));
+            }
+        }
+
+        List<DistrictCard> deck = new ArrayList<>();
+        readCards(in, deck, catalog);
+
+        ctx.getPlayers().clear();
+        ctx.getSelectedCharacters().clear();
+        ctx.getDistrictDeck().clear();
+        ctx.setSeed(seed);
+        ctx.setCrownPlayerIndex(crown);
+        for (Player p : players) {
+            if (p instanceof AIPlayer) {
+                ((AIPlayer) p).setRandom(ctx.getRandom().split());
+            }
+            ctx.getPlayers().add(p);
+        }
+        ctx.getSelectedCharacters().putAll(characters);
+        ctx.getDistrictDeck().addCards(deck);
+    }
+
+    /**
+     * Writes a list of cards.
+     *
+     * @param out the writer
+     * @param count the number of cards
+     * @param cards the cards to write
+     * @param catalog the catalog numbering the cards
+     */
+    private static void writeCards(Writer out, int count, Iterable<DistrictCard> cards, CardCatalog catalog) {
+        out.varint(count);
+        for (DistrictCard card : cards) {
+            writeCard(out, card, catalog);
+        }
+    }
+
+    /**
+     * Writes a single card as its id plus one, or 0 and its fields if it is not in the catalog.
+     *
+     * @param out the writer
+     * @param card the card to write
+     * @param catalog the catalog numbering the cards
+     */
+    static void writeCard(Writer out, DistrictCard card, CardCatalog catalog) {
+        int id = catalog.idOf(card);
+        out.varint(id + 1);
+        if (id < 0) {
+            out.string(card.getName());
+            out.string(card.getColor());
+            out.signed(card.getCost());
+        }
+    }
+
+    /**
+     * Reads a list of cards into a collection.
+     *
+     * @param in the reader
+     * @param cards the collection to add the cards to
+     * @param catalog the catalog numbering the cards
+     */
+    private static void readCards(Reader in, Collection<DistrictCard> cards, CardCatalog catalog) {
+        int count = in.varint();
+        for (int i = 0; i < count; i++) {
+            cards.add(readCard(in, catalog));
+        }
+    }
+
+    /**
+     * Reads a single card.
+     *
+     * @param in the reader
+     * @param catalog the catalog numbering the cards
+     * @return the shared catalog instance, or a new card if it is not in the catalog
+     */
+    static DistrictCard readCard(Reader in, CardCatalog catalog) {
+        int ref = in.varint();
+        if (ref == 0) {
+            String name = in.string();
+            String color = in.string();
+            return catalog.resolve(name, color, in.signed());
+        }
+        if (ref > catalog.size()) {
+            throw new IllegalArgumentException("Unknown card id: " + (ref - 1));
+        }
+        return catalog.get(ref - 1);
+    }
+
+    /**
+     * Growable buffer the encoded game is written to.
+     * It can be reset and reused, so encoding many small records allocates nothing.
+     */
+    static final class Writer {
+        /** The bytes written so far, followed by spare capacity */
+        private byte[] buf;
+        /** Number of bytes written */
+        private int len;
+
+        /**
+         * Creates a writer.
+         *
+         * @param capacity the initial capacity in bytes
+         */
+        Writer(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        /**
+         * Makes room for more bytes.
+         *
+         * @param extra the number of bytes about to be written
+         */
+        private void ensure(int extra) {
+            if (len + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+            }
+        }
+
+        /**
+         * Writes raw bytes.
+         *
+         * @param b the bytes
+         */
+        void bytes(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, buf, len, b.length);
+            len += b.length;
+        }
+
+        /**
+         * Writes a single byte.
+         *
+         * @param v the value, of which only the low 8 bits are written
+         */
+        void u8(int v) {
+            ensure(1);
+            buf[len++] = (byte) v;
+        }
+
+        /**
+         * Writes a non-negative int as a varint.
+         *
+         * @param v the value
+         */
+        void varint(int v) {
+            ensure(5);
+            while ((v & ~0x7f) != 0) {
+                buf[len++] = (byte) ((v & 0x7f) | 0x80);
+                v >>>= 7;
+            }
+            buf[len++] = (byte) v;
+        }
+
+        /**
+         * Writes a signed int as a zig-zag varint, so small negative numbers stay short.
+         *
+         * @param v the value
+         */
+        void signed(int v) {
+            varint((v << 1) ^ (v >> 31));
+        }
+
+        /**
+         * Writes an int as 4 bytes, most significant first.
+         *
+         * @param v the value
+         */
+        void fixed32(int v) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buf[len++] = (byte) (v >>> shift);
+            }
+        }
+
+        /**
+         * Writes a long as 8 bytes, most significant first.
+         *
+         * @param v the value
+         */
+        void fixed64(long v) {
+            fixed32((int) (v >>> 32));
+            fixed32((int) v);
+        }
+
+        /**
+         * Writes a string as its UTF-8 length and bytes.
+         *
+         * @param s the string
+         */
+        void string(String s) {
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length);
+            bytes(utf8);
+        }
+
+        /**
+         * Gets the bytes written.
+         * @return a copy of the written bytes
+         */
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, len);
+        }
+
+        /**
+         * Gets the buffer holding the bytes written, which is only valid until the next write.
+         * @return the buffer; the first {@link #length()} bytes are the bytes written
+         */
+        byte[] array() {
+            return buf;
+        }
+
+        /**
+         * Gets the number of bytes written.
+         * @return the length
+         */
+        int length() {
+            return len;
+        }
+
+        /**
+         * Discards the bytes written, keeping the buffer for reuse.
+         */
+        void reset() {
+            len = 0;
+        }
+    }
+
+    /**
+     * Cursor over an encoded game.
+     */
+    static final class Reader {
+        /** The encoded game */
+        private final byte[] data;
+        /** Index of the next byte to read */
+        private int pos;
+
+        /**
+         * Creates a reader.
+         *
+         * @param data the encoded game
+         * @param pos the index to start reading at
+         */
+        Reader(byte[] data, int pos) {
+            this.data = data;
+            this.pos = pos;
+        }
+
+        /**
+         * Gets the number of bytes left to read.
+         * @return the number of bytes after the current position
+         */
+        int remaining() {
+            return data.length - pos;
+        }
+
+        /**
+         * Reads the next byte.
+         *
+         * @return the byte as an unsigned value
+         */
+        int u8() {
+            return next();
+        }
+
+        /**
+         * Reads the next byte, failing if there is none.
+         *
+         * @return the byte as an unsigned value
+         */
+        private int next() {
+            if (pos >= data.length) {
+                throw new IllegalArgumentException("Truncated save data");
+            }
+            return data[pos++] & 0xff;
+        }
+
+        /**
+         * Reads raw bytes.
+         *
+         * @param n the number of bytes
+         * @return the bytes
+         */
+        byte[] bytes(int n) {
+            if (n < 0 || n > data.length - pos) {
+                throw new IllegalArgumentException("Truncated save data");
+            }
+            byte[] b = Arrays.copyOfRange(data, pos, pos + n);
+            pos += n;
+            return b;
+        }
+
+        /**
+         * Reads a varint.
+         *
+         * @return the value
+         */
+        int varint() {
+            int v = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = next();
+                v |= (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return v;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in save data");
+        }
+
+        /**
+         * Reads a zig-zag varint.
+         *
+         * @return the value
+         */
+        int signed() {
+            int v = varint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        /**
+         * Reads a 4-byte int.
+         *
+         * @return the value
+         */
+        int fixed32() {
+            int v = 0;
+            for (int i = 0; i < 4; i++) {
+                v = (v << 8) | next();
+            }
+            return v;
+        }
+
+        /**
+         * Reads an 8-byte long.
+         *
+         * @return the value
+         */
+        long fixed64() {
+            long high = fixed32() & 0xffffffffL;
+            return (high << 32) | (fixed32() & 0xffffffffL);
+        }
+
+        /**
+         * Reads a string.
+         *
+         * @return the string
+         */
+        String string() {
+            return new String(bytes(varint()), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package citadels;
+
+import citadels.card.CharacterCard;
+import citadels.player.Player;
+import citadels.util.Zobrist;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The characters picked by each player this round, which also keeps:
+ * <ul>
+ *   <li>A {@link Zobrist} hash of who holds which character</li>
+ *   <li>The seat holding each rank and the rank held at each seat, so a turn
+ *       finds the player to call without searching the map</li>
+ * </ul>
+ * The map is changed only through {@link #put}, {@link #remove} and {@link #clear}
+ * (and {@code putAll}, which calls {@code put}); its views are read-only, so
+ * neither the hash nor the seat arrays can fall out of date. A change to one
+ * assignment updates the arrays at the player's seat only; the {@link Seating}
+ * calls {@link #reseat()} to rebuild them when the players move. A player seated
+ * twice is indexed at the first seat. Players who are not seated may still be
+ * given characters; they are kept in the map only.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+final class CharacterAssignments extends AbstractMap<Player, CharacterCard> {
+    /** Highest character rank */
+    static final int MAX_RANK = 8;
+
+    /** The players whose seats the arrays refer to */
+    private final Seating seating;
+    /** The assignments */
+    private final Map<Player, CharacterCard> map = new HashMap<>();
+    /** Read-only view of the assignments */
+    private final Set<Map.Entry<Player, CharacterCard>> entries = Collections.unmodifiableMap(map).entrySet();
+    /** Sum of the keys of the assignments */
+    private long hash;
+    /** Seat holding each rank, or -1; a rank held twice keeps the first seat */
+    private final int[] seatByRank = new int[MAX_RANK + 1];
+    /** Rank held at each seat, or 0 */
+    private int[] rankBySeat = new int[MAX_RANK];
+    /** Number of assignments to players who are not seated */
+    private int unseated;
+
+    /**
+     * Creates an empty set of assignments for the players of a game.
+     *
+     * @param seating the players of the game, which report their moves to the assignments
+     */
+    CharacterAssignments(Seating seating) {
+        this.seating = seating;
+        Arrays.fill(seatByRank, -1);
+        seating.setAssignments(this);
+    }
+
+    @Override
+    public CharacterCard get(Object player) {
+        return map.get(player);
+    }
+
+    @Override
+    public boolean containsKey(Object player) {
+        return map.containsKey(player);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public CharacterCard put(Player player, CharacterCard character) {
+        boolean added = !map.containsKey(player);
+        CharacterCard old = map.put(player, character);
+        hash += key(player, character) - key(player, old);
+        int seat = seating.seatOf(player);
+        if (seat >= 0) {
+            setRank(seat, character == null ? 0 : character.getRank());
+        } else if (added) {
+            unseated++;
+        }
+        return old;
+    }
+
+    @Override
+    public CharacterCard remove(Object player) {
+        if (!map.containsKey(player)) {
+            return null;
+        }
+        CharacterCard old = map.remove(player);
+        hash -= key((Player) player, old);
+        int seat = seating.seatOf((Player) player);
+        if (seat >= 0) {
+            setRank(seat, 0);
+        } else {
+            unseated--;
+        }
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+        hash = 0;
+        Arrays.fill(seatByRank, -1);
+        Arrays.fill(rankBySeat, 0);
+        unseated = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<Player, CharacterCard>> entrySet() {
+        return entries;
+    }
+
+    /**
+     * Gets the seat of the player holding a rank.
+     *
+     * @param rank the rank of the character
+     * @return the first seat holding the rank, or -1 if no seated player holds it
+     */
+    int seatOf(int rank) {
+        return rank < 1 || rank > MAX_RANK ? -1 : seatByRank[rank];
+    }
+
+    /**
+     * Gets the rank held at a seat.
+     *
+     * @param seat the seat
+     * @return the rank of the character held at the seat, or 0 if there is none
+     */
+    int rankAt(int seat) {
+        return seat < 0 || seat >= seating.size() ? 0 : rankBySeat[seat];
+    }
+
+    /**
+     * Gets the player holding a rank, looking at the seated players first.
+     *
+     * @param rank the rank of the character
+     * @return the holder, or null if nobody holds the rank
+     */
+    Player holderOf(int rank) {
+        int seat = seatOf(rank);
+        if (seat >= 0) {
+            return seating.get(seat);
+        }
+        if (unseated > 0) {
+            for (Map.Entry<Player, CharacterCard> e : map.entrySet()) {
+                if (e.getValue() != null && e.getValue().getRank() == rank && seating.seatOf(e.getKey()) < 0) {
+                    return e.getKey();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Rebuilds the seat arrays from the map, after the players have moved.
+     */
+    void reseat() {
+        int seats = seating.size();
+        if (rankBySeat.length < seats) {
+            rankBySeat = new int[Math.max(seats, rankBySeat.length * 2)];
+        }
+        Arrays.fill(seatByRank, -1);
+        Arrays.fill(rankBySeat, 0);
+        int seated = 0;
+        for (int seat = 0; seat < seats; seat++) {
+            Player p = seating.get(seat);
+            if (seating.seatOf(p) != seat || !map.containsKey(p)) {
+                continue;
+            }
+            seated++;
+            CharacterCard c = map.get(p);
+            int rank = c == null ? 0 : c.getRank();
+            rankBySeat[seat] = rank;
+            if (rank >= 1 && rank <= MAX_RANK && seatByRank[rank] < 0) {
+                seatByRank[rank] = seat;
+            }
+        }
+        unseated = map.size() - seated;
+    }
+
+    /**
+     * Changes the rank held at a seat in both arrays.
+     *
+     * @param seat the seat
+     * @param rank the rank now held at the seat, or 0 if there is none
+     */
+    private void setRank(int seat, int rank) {
+        int oldRank = rankBySeat[seat];
+        rankBySeat[seat] = rank;
+        if (oldRank >= 1 && oldRank <= MAX_RANK && seatByRank[oldRank] == seat) {
+            seatByRank[oldRank] = firstSeatHolding(oldRank);
+        }
+        if (rank >= 1 && rank <= MAX_RANK && (seatByRank[rank] < 0 || seat < seatByRank[rank])) {
+            seatByRank[rank] = seat;
+        }
+    }
+
+    /**
+     * Finds the first seat holding a rank by looking at every seat.
+     *
+     * @param rank the rank
+     * @return the first seat holding the rank, or -1 if there is none
+     */
+    private int firstSeatHolding(int rank) {
+        int seats = seating.size();
+        for (int seat = 0; seat < seats; seat++) {
+            if (rankBySeat[seat] == rank) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the Zobrist hash of the assignments.
+     *
+     * @return the sum of the keys of every player and character pair
+     */
+    long hash() {
+        return hash;
+    }
+
+    /**
+     * Gets the key of a player holding a character. Players are told apart by
+     * name, so the key is the same in a copy of the game.
+     *
+     * @param player the player, or null
+     * @param character the character, or null
+     * @return the key, or 0 if either is null
+     */
+    private static long key(Player player, CharacterCard character) {
+        if (player == null || character == null) {
+            return 0;
+        }
+        long name = player.getName() == null ? 0 : player.getName().hashCode();
+        return Zobrist.key(Zobrist.CHARACTER, (name << 4) + character.getRank());
+    }
+}
@@ -1,12 +1,29 @@
 package citadels;
 
+import citadels.card.CharacterType;
 import citadels.card.DistrictCard;
+import citadels.jfr.JfrSupport;
+import citadels.jfr.LoadEvent;
+import citadels.jfr.SaveEvent;
+import citadels.metrics.GameMetrics;
 import citadels.player.Player;
+import citadels.player.PlayerInput;
+import citadels.player.ScannerInput;
+import citadels.replay.ReplayLog;
+import citadels.replay.ReplayResult;
+import citadels.replay.Replayer;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 
-import java.io.FileReader;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 /**
@@ -41,20 +58,44 @@ public class CommandHandler {
      * @param scanner the scanner for reading user input
      */
     public static void run(Player player, Scanner scanner) {
+        run(Game.getDefaultContext(), player, scanner);
+    }
+
+    /**
+     * Runs the command processing loop for a player's turn in the given game context.
+     *
+     * @param ctx the context of the game being played
+     * @param player the player whose turn it is
+     * @param scanner the scanner for reading user input
+     * @see #run(Player, Scanner)
+     */
+    public static void run(GameContext ctx, Player player, Scanner scanner) {
+        run(ctx, player, new ScannerInput(scanner));
+    }
+
+    /**
+     * Runs the command loop for a player's turn in the given context, reading from the given input.
+     *
+     * @param ctx the context of the game being played
+     * @param player the player whose turn it is
+     * @param playerInput the player's input
+     * @see #run(GameContext, Player, Scanner)
+     */
+    public static void run(GameContext ctx, Player player, PlayerInput playerInput) {
         boolean endTurn = false;
 
         // figure out how many builds this character gets
-        String role = Game.selectedCharacters.get(player).getName();
-        int maxBuilds = role.equalsIgnoreCase("Architect") ? 3 : 1;
+        CharacterType role = ctx.getSelectedCharacters().get(player).getType();
+        int maxBuilds = role == null ? 1 : role.getBuildLimit();
         int buildsDone = 0;
 
         // 1) Show hand up front
-        System.out.println("Your hand (you have " + player.getGold() + " gold):");
-        System.out.println("✓ = Affordable | ✗ = Too expensive | ⚠ = Already built");
-        System.out.println("----------------------------------------");
+        ctx.getOutput().println("Your hand (you have " + player.getGold() + " gold):");
+        ctx.getOutput().println("✓ = Affordable | ✗ = Too expensive | ⚠ = Already built");
+        ctx.getOutput().println("----------------------------------------");
         List<DistrictCard> hand = player.getHand();
         if (hand.isEmpty()) {
-            System.out.println("(empty)");
+            ctx.getOutput().println("(empty)");
         } else {
             for (int i = 0; i < hand.size(); i++) {
                 DistrictCard d = hand.get(i);
@@ -67,7 +108,7 @@ public class CommandHandler {
                     status = "✗";
                 }
                 
-                System.out.printf("%d. %s %s (%s), cost: %d gold%n",
+                ctx.getOutput().printf("%d. %s %s (%s), cost: %d gold%n",
                     i + 1,
                     status,
                     d.getName(),
@@ -77,43 +118,45 @@ public class CommandHandler {
         }
 
         // 2) Build prompt
-        System.out.printf(
+        ctx.getOutput().printf(
         "Now you may build up to %d district%s this turn.  Type 'build <card number>' or 't' to skip/build less.%n",
         maxBuilds,
         maxBuilds==1 ? "" : "s");
 
         while (!endTurn && buildsDone < maxBuilds) {
-            System.out.print("> ");
-            String raw = scanner.nextLine().trim();
+            ctx.getOutput().print("> ");
+            String raw = playerInput.nextLine().trim();
             String input = raw.matches("\\d+") ? "build " + raw : raw.toLowerCase();
 
             // Process commands based on input
             if (handleEndTurn(input)) {
-                System.out.println("You ended your turn.");
+                ctx.getOutput().println("You ended your turn.");
                 endTurn = true;
                 break;
             }
 
-            if (handleHandCommand(input, player, hand)) continue;
-            if (handleGoldCommand(input, player)) continue;
-            if (handleCityCommand(input, player)) continue;
-            if (handleBuildCommand(input, player, hand, maxBuilds, buildsDone)) {
+            if (handleHandCommand(ctx, input, player, hand)) continue;
+            if (handleGoldCommand(ctx, input, player)) continue;
+            if (handleCityCommand(ctx, input, player)) continue;
+            if (handleBuildCommand(ctx, input, player, hand, maxBuilds, buildsDone, playerInput)) {
                 buildsDone++;
                 if (buildsDone >= maxBuilds) {
                     endTurn = true;
                 }
                 continue;
             }
-            if (handleAllCommand(input, player)) continue;
-            if (handleMagicianAction(input, player)) continue;
-            if (handleInfoCommand(input)) continue;
-            if (handleSaveCommand(input, player)) continue;
-            if (handleLoadCommand(input)) continue;
-            if (handleDebugCommand(input)) continue;
-            if (handleHelpCommand(input)) continue;
+            if (handleAllCommand(ctx, input, player)) continue;
+            if (handleMagicianAction(ctx, input, player)) continue;
+            if (handleInfoCommand(ctx, input)) continue;
+            if (handleSaveCommand(ctx, input, player)) continue;
+            if (handleLoadCommand(ctx, input)) continue;
+            if (handleReplayCommand(ctx, input)) continue;
+            if (handleDebugCommand(ctx, input)) continue;
+            if (handleMetricsCommand(ctx, input)) continue;
+            if (handleHelpCommand(ctx, input)) continue;
 
             // Unknown command
-            System.out.println("Unknown command. Type 'help' for available commands.");
+            ctx.getOutput().println("Unknown command. Type 'help' for available commands.");
         }
     }
 
@@ -130,17 +173,18 @@ public class CommandHandler {
     /**
      * Handles the hand command, showing the player's current hand.
      *
+     * @param ctx the context of the game being played
      * @param input the command input
      * @param player the current player
      * @param hand the player's hand
      * @return true if the command was handled, false otherwise
      */
-    private static boolean handleHandCommand(String input, Player player, List<DistrictCard> hand) {
+    private static boolean handleHandCommand(GameContext ctx, String input, Player player, List<DistrictCard> hand) {
         if (!input.equals("hand")) return false;
         
-        System.out.println("Your hand (you have " + player.getGold() + " gold):");
-        System.out.println("✓ = Affordable | ✗ = Too expensive | ⚠ = Already built");
-        System.out.println("----------------------------------------");
+        ctx.getOutput().println("Your hand (you have " + player.getGold() + " gold):");
+        ctx.getOutput().println("✓ = Affordable | ✗ = Too expensive | ⚠ = Already built");
+        ctx.getOutput().println("----------------------------------------");
         for (int i = 0; i < hand.size(); i++) {
             DistrictCard d = hand.get(i);
             String status;
@@ -152,7 +196,7 @@ public class CommandHandler {
                 status = "✗";
             }
             
-            System.out.printf("%d. %s %s (%s), cost: %d gold%n",
+            ctx.getOutput().printf("%d. %s %s (%s), cost: %d gold%n",
                 i + 1,
                 status,
                 d.getName(),
@@ -165,25 +209,27 @@ public class CommandHandler {
     /**
      * Handles the gold command, showing the player's current gold.
      *
+     * @param ctx the context of the game being played
      * @param input the command input
      * @param player the current player
      * @return true if the command was handled, false otherwise
      */
-    private static boolean handleGoldCommand(String input, Player player) {
+    private static boolean handleGoldCommand(GameContext ctx, String input, Player player) {
         if (!input.equals("gold")) return false;
         
-        System.out.println("You have " + player.getGold() + " gold.");
+        ctx.getOutput().println("You have " + player.getGold() + " gold.");
         return true;
     }
 
     /**
      * Handles the city command, showing built districts for a player.
      *
+     * @param ctx the context of the game being played
      * @param input the command input
      * @param player the current player
      * @return true if the command was handled, false otherwise
      */
-    private static boolean handleCityCommand(String input, Player player) {
+    private static boolean handleCityCommand(GameContext ctx, String input, Player player) {
         if (!input.startsWith("city") && !input.startsWith("citadel") && !input.startsWith("list")) 
             return false;
 
@@ -192,20 +238,20 @@ public class CommandHandler {
         if (parts.length == 2) {
             try {
                 int idx = Integer.parseInt(parts[1]) - 1;
-                target = Game.players.get(idx);
+                target = ctx.getPlayers().get(idx);
             } catch (Exception e) {
-                System.out.println("Invalid player number.");
+                ctx.getOutput().println("Invalid player number.");
                 return true;
             }
         }
         
         List<DistrictCard> city = target.getCity();
         if (city.isEmpty()) {
-            System.out.println(target.getName() + " has built no districts.");
+            ctx.getOutput().println(target.getName() + " has built no districts.");
         } else {
-            System.out.println("Player " + target.getName() + " has built:");
+            ctx.getOutput().println("Player " + target.getName() + " has built:");
             for (DistrictCard d : city) {
-                System.out.println("- " + d.getName()
+                ctx.getOutput().println("- " + d.getName()
                     + " (" + d.getColor() + "), points: " + d.getCost());
             }
         }
@@ -216,27 +262,29 @@ public class CommandHandler {
      * Handles the build command, attempting to build a district from hand.
      * Gives players up to 3 chances when they try to build a district they can't afford.
      *
+     * @param ctx the context of the game being played
      * @param input the command input
      * @param player the current player
      * @param hand the player's hand
      * @param maxBuilds maximum number of builds allowed this turn
      * @param buildsDone number of builds already done this turn
+     * @param playerInput the player's input, for retries
      * @return true if the command was handled, false otherwise
      */
-    private static boolean handleBuildCommand(String input, Player player, List<DistrictCard> hand, 
-                                            int maxBuilds, int buildsDone) {
+    private static boolean handleBuildCommand(GameContext ctx, String input, Player player, List<DistrictCard> hand, 
+                                            int maxBuilds, int buildsDone, PlayerInput playerInput) {
         if (!input.startsWith("build ")) return false;
 
         String[] parts = input.split("\\s+");
         if (parts.length != 2) {
-            System.out.println("Usage: build <card number>");
+            ctx.getOutput().println("Usage: build <card number>");
             return false;
         }
 
         try {
             int cardNum = Integer.parseInt(parts[1]);
             if (cardNum < 1 || cardNum > hand.size()) {
-                System.out.println("Invalid card number. Must be between 1 and " + hand.size());
+                ctx.getOutput().println("Invalid card number. Must be between 1 and " + hand.size());
                 return false;
             }
 
@@ -254,9 +302,9 @@ public class CommandHandler {
                         DistrictCard card = hand.get(cardNum - 1);
                         if (player.getGold() < card.getCost()) {
                             // Show all districts with affordability indicators
-                            System.out.println("\nYour hand (you have " + player.getGold() + " gold):");
-                            System.out.println("✓ = Affordable | ✗ = Too expensive | ⚠ = Already built");
-                            System.out.println("----------------------------------------");
+                            ctx.getOutput().println("\nYour hand (you have " + player.getGold() + " gold):");
+                            ctx.getOutput().println("✓ = Affordable | ✗ = Too expensive | ⚠ = Already built");
+                            ctx.getOutput().println("----------------------------------------");
                             
                             for (int i = 0; i < hand.size(); i++) {
                                 DistrictCard d = hand.get(i);
@@ -269,7 +317,7 @@ public class CommandHandler {
                                     status = "✗";
                                 }
                                 
-                                System.out.printf("%d. %s %s (%s), cost: %d gold%n",
+                                ctx.getOutput().printf("%d. %s %s (%s), cost: %d gold%n",
                                     i + 1,
                                     status,
                                     d.getName(),
@@ -277,11 +325,11 @@ public class CommandHandler {
                                     d.getCost());
                             }
                             
-                            System.out.println("\nYou have " + (maxAttempts - attempts) + 
+                            ctx.getOutput().println("\nYou have " + (maxAttempts - attempts) + 
                                 " more attempt" + (maxAttempts - attempts == 1 ? "" : "s") + 
                                 " to build a district. Choose a different card or type 't' to end your turn.");
-                            System.out.print("> ");
-                            String newInput = Game.getScanner().nextLine().trim();
+                            ctx.getOutput().print("> ");
+                            String newInput = playerInput.nextLine().trim();
                             
                             if (newInput.equals("t") || newInput.equals("end")) {
                                 return false;
@@ -290,11 +338,11 @@ public class CommandHandler {
                             try {
                                 cardNum = Integer.parseInt(newInput);
                                 if (cardNum < 1 || cardNum > hand.size()) {
-                                    System.out.println("Invalid card number. Must be between 1 and " + hand.size());
+                                    ctx.getOutput().println("Invalid card number. Must be between 1 and " + hand.size());
                                     continue;
                                 }
                             } catch (NumberFormatException e) {
-                                System.out.println("Please enter a valid card number or 't' to end your turn.");
+                                ctx.getOutput().println("Please enter a valid card number or 't' to end your turn.");
                                 continue;
                             }
                         } else {
@@ -302,14 +350,14 @@ public class CommandHandler {
                             return false;
                         }
                     } else {
-                        System.out.println("You've used all your attempts to build a district this turn.");
+                        ctx.getOutput().println("You've used all your attempts to build a district this turn.");
                         return false;
                     }
                 }
             }
 
             if (buildSuccess && buildsDone < maxBuilds - 1) {
-                System.out.printf(
+                ctx.getOutput().printf(
                     "Built successfully! You have %d build%s remaining this turn.%n",
                     maxBuilds - buildsDone - 1,
                     (maxBuilds - buildsDone - 1)==1 ? "" : "s"
@@ -319,7 +367,7 @@ public class CommandHandler {
             return buildSuccess;
 
         } catch (NumberFormatException e) {
-            System.out.println("Please enter a valid card number.");
+            ctx.getOutput().println("Please enter a valid card number.");
             return false;
         }
     }
@@ -327,30 +375,32 @@ public class CommandHandler {
     /**
      * Handles the all command, showing game state for all players.
      *
+     * @param ctx the context of the game being played
      * @param input the command input
      * @param player the current player
      * @return true if the command was handled, false otherwise
      */
-    private static boolean handleAllCommand(String input, Player player) {
+    private static boolean handleAllCommand(GameContext ctx, String input, Player player) {
         if (!input.equals("all")) return false;
 
         // Show current player's state
-        System.out.printf("Player 1 (you): cards=%d gold=%d city=",
+        ctx.getOutput().printf("Player 1 (you): cards=%d gold=%d city=",
             player.getHand().size(), player.getGold());
         for (DistrictCard d : player.getCity()) {
-            System.out.print(d.getName() + " [" + d.getColor() + d.getCost() + "] ");
+            ctx.getOutput().print(d.getName() + " [" + d.getColor() + d.getCost() + "] ");
         }
-        System.out.println("\n");
+        ctx.getOutput().println("\n");
 
         // Show other players' states
-        for (int i = 2; i <= Game.players.size(); i++) {
-            Player p = Game.players.get(i - 1);
-            System.out.printf("Player %d: cards=%d gold=%d city=",
+        List<Player> players = ctx.getPlayers();
+        for (int i = 2; i <= players.size(); i++) {
+            Player p = players.get(i - 1);
+            ctx.getOutput().printf("Player %d: cards=%d gold=%d city=",
                 i, p.getHand().size(), p.getGold());
             for (DistrictCard d : p.getCity()) {
-                System.out.print(d.getName() + " [" + d.getColor() + d.getCost() + "] ");
+                ctx.getOutput().print(d.getName() + " [" + d.getColor() + d.getCost() + "] ");
             }
-            System.out.println("\n");
+            ctx.getOutput().println("\n");
         }
         return true;
     }
@@ -358,30 +408,31 @@ public class CommandHandler {
     /**
      * Handles Magician character actions (swap hands or redraw cards).
      *
+     * @param ctx the context of the game being played
      * @param input the command input
      * @param player the current player
      * @return true if the command was handled, false otherwise
      */
-    private static boolean handleMagicianAction(String input, Player player) {
+    private static boolean handleMagicianAction(GameContext ctx, String input, Player player) {
         if (!input.startsWith("action")) return false;
 
         String[] parts = input.split("\\s+");
         if (parts.length < 2) {
-            System.out.println("Usage: action swap <n> OR action redraw <i1,i2,...>");
+            ctx.getOutput().println("Usage: action swap <n> OR action redraw <i1,i2,...>");
             return true;
         }
 
-        if (!Game.selectedCharacters.get(player).getName().equals("Magician")) {
-            System.out.println("You are not the Magician. You cannot use 'action'.");
+        if (ctx.getSelectedCharacters().get(player).getType() != CharacterType.MAGICIAN) {
+            ctx.getOutput().println("You are not the Magician. You cannot use 'action'.");
             return true;
         }
 
         if (parts[1].equals("swap") && parts.length == 3) {
-            handleMagicianSwap(parts[2], player);
+            handleMagicianSwap(ctx, parts[2], player);
         } else if (parts[1].equals("redraw") && parts.length == 3) {
-            handleMagicianRedraw(parts[2], player);
+            handleMagicianRedraw(ctx, parts[2], player);
         } else {
-            System.out.println("Usage: action swap <n> OR action redraw <i1,i2,...>");
+            ctx.getOutput().println("Usage: action swap <n> OR action redraw <i1,i2,...>");
         }
         return true;
     }
@@ -389,15 +440,16 @@ public class CommandHandler {
     /**
      * Handles the Magician's hand swap ability.
      *
+     * @param ctx the context of the game being played
      * @param targetStr the target player number
      * @param player the current player
      */
-    private static void handleMagicianSwap(String targetStr, Player player) {
+    private static void handleMagicianSwap(GameContext ctx, String targetStr, Player player) {
         try {
             int targetIdx = Integer.parseInt(targetStr) - 1;
-            List<Player> plist = Game.players;
+            List<Player> plist = ctx.getPlayers();
             if (targetIdx < 0 || targetIdx >= plist.size() || plist.get(targetIdx) == player) {
-                System.out.println("Invalid player number.");
+                ctx.getOutput().println("Invalid player number.");
             } else {
                 Player tp = plist.get(targetIdx);
                 List<DistrictCard> tmp = new ArrayList<>(player.getHand());
@@ -405,20 +457,21 @@ public class CommandHandler {
                 player.getHand().addAll(tp.getHand());
                 tp.getHand().clear();
                 tp.getHand().addAll(tmp);
-                System.out.println("Swapped hands with " + tp.getName());
+                ctx.getOutput().println("Swapped hands with " + tp.getName());
             }
         } catch (Exception e) {
-            System.out.println("Invalid swap target.");
+            ctx.getOutput().println("Invalid swap target.");
         }
     }
 
     /**
      * Handles the Magician's card redraw ability.
      *
+     * @param ctx the context of the game being played
      * @param indexStr comma-separated list of card indices to redraw
      * @param player the current player
      */
-    private static void handleMagicianRedraw(String indexStr, Player player) {
+    private static void handleMagicianRedraw(GameContext ctx, String indexStr, Player player) {
         try {
             String[] indices = indexStr.split(",");
             List<DistrictCard> handList = player.getHand();
@@ -435,73 +488,55 @@ public class CommandHandler {
             
             for (int i : toRemove) handList.remove(i);
             for (DistrictCard d : toRedraw) {
-                Game.districtDeck.placeOnBottom(d);
+                ctx.getDistrictDeck().placeOnBottom(d);
             }
             
             for (int i = 0; i < toRedraw.size(); i++) {
-                DistrictCard drawn = Game.districtDeck.draw();
+                DistrictCard drawn = ctx.getDistrictDeck().draw();
                 if (drawn != null) {
                     handList.add(drawn);
                 }
             }
             
-            System.out.println("Redrew " + toRedraw.size() + " cards.");
+            ctx.getOutput().println("Redrew " + toRedraw.size() + " cards.");
         } catch (Exception e) {
-            System.out.println("Invalid redraw indices.");
+            ctx.getOutput().println("Invalid redraw indices.");
         }
     }
 
     /**
      * Handles the info command, showing information about characters and buildings.
      *
+     * @param ctx the context of the game being played
      * @param input the command input
      * @return true if the command was handled, false otherwise
      */
-    private static boolean handleInfoCommand(String input) {
+    private static boolean handleInfoCommand(GameContext ctx, String input) {
         if (!input.startsWith("info")) return false;
 
         String[] parts = input.split("\\s+");
         if (parts.length != 2) {
-            System.out.println("Usage: info <character or building name>");
+            ctx.getOutput().println("Usage: info <character or building name>");
             return true;
         }
 
+        CharacterType character = CharacterType.fromName(parts[1]);
+        if (character != null) {
+            ctx.getOutput().println(character.getDisplayName() + ": " + character.getDescription());
+            return true;
+        }
         switch (parts[1].toLowerCase()) {
-            case "assassin":
-                System.out.println("Assassin: Choose a character to assassinate. That player skips their turn.");
-                break;
-            case "thief":
-                System.out.println("Thief: Choose a character to rob. You steal their gold.");
-                break;
-            case "magician":
-                System.out.println("Magician: Swap hands or discard your hand and draw the same number.");
-                break;
-            case "king":
-                System.out.println("King: Gains income from yellow districts and takes the crown.");
-                break;
-            case "bishop":
-                System.out.println("Bishop: Gains income from blue districts. Warlord cannot destroy your city.");
-                break;
-            case "merchant":
-                System.out.println("Merchant: Gains one extra gold and income from green districts.");
-                break;
-            case "architect":
-                System.out.println("Architect: Draw 2 extra cards and may build up to 3 districts.");
-                break;
-            case "warlord":
-                System.out.println("Warlord: May destroy one district (pay cost - 1). Gains income from red districts.");
-                break;
             case "keep":
-                System.out.println("Keep: This district cannot be destroyed by the Warlord.");
+                ctx.getOutput().println("Keep: This district cannot be destroyed by the Warlord.");
                 break;
             case "laboratory":
-                System.out.println("Laboratory: Once per turn, discard a card to gain 1 gold.");
+                ctx.getOutput().println("Laboratory: Once per turn, discard a card to gain 1 gold.");
                 break;
             case "school":
-                System.out.println("School of Magic: Counts as any color for income purposes.");
+                ctx.getOutput().println("School of Magic: Counts as any color for income purposes.");
                 break;
             default:
-                System.out.println("No info available for '" + parts[1] + "'");
+                ctx.getOutput().println("No info available for '" + parts[1] + "'");
         }
         return true;
     }
@@ -509,63 +544,196 @@ public class CommandHandler {
     /**
      * Handles save commands for both single player and full game states.
      *
+     * @param ctx the context of the game being played
      * @param input the command input
      * @param player the current player
      * @return true if the command was handled, false otherwise
      */
-    private static boolean handleSaveCommand(String input, Player player) {
+    private static boolean handleSaveCommand(GameContext ctx, String input, Player player) {
         if (!input.startsWith("save") && !input.startsWith("savegame")) return false;
 
         boolean fullGame = input.startsWith("savegame");
         String[] parts = input.split("\\s+");
+        boolean binary = false;
+        if (fullGame && parts.length == 3 && parts[1].startsWith("--format=")) {
+            String format = parts[1].substring("--format=".length());
+            if (!format.equals("bin") && !format.equals("json")) {
+                ctx.getOutput().println("Unknown save format '" + format + "'. Use 'json' or 'bin'.");
+                return true;
+            }
+            binary = format.equals("bin");
+            parts = new String[] {parts[0], parts[2]};
+        }
         if (parts.length != 2) {
-            System.out.println("Usage: " + (fullGame ? "savegame" : "save") + " <filename>.json");
+            ctx.getOutput().println("Usage: " + (fullGame ? "savegame" : "save") + " <filename>.json");
             return true;
         }
 
-        try (FileWriter writer = new FileWriter(parts[1])) {
-            JSONObject state;
-            if (fullGame) {
-                state = GameState.saveGame();
-                System.out.println("Full game saved to " + parts[1]);
-            } else {
-                state = GameState.savePlayers(Collections.singletonList(player));
-                System.out.println("Game saved to " + parts[1]);
+        SaveEvent event = JfrSupport.records(ctx) ? SaveEvent.start(ctx, parts[1], fullGame) : null;
+        boolean saved = save(ctx, player, parts[1], fullGame, binary);
+        if (event != null) event.end(saved);
+        return true;
+    }
+
+    /**
+     * Saves the game or the current player to a file and reports the outcome.
+     *
+     * @param ctx the context of the game being played
+     * @param player the current player
+     * @param file the file to save to
+     * @param fullGame true to save the whole game, false for just the player
+     * @param binary true to save the whole game in the binary format
+     * @return true if the file was saved
+     */
+    private static boolean save(GameContext ctx, Player player, String file, boolean fullGame, boolean binary) {
+        if (binary) {
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write(GameState.saveBinary(ctx));
+                ctx.getOutput().println("Full game saved to " + file);
+                return true;
+            } catch (Exception e) {
+                ctx.getOutput().println("Failed to save game: " + e.getMessage());
+                return false;
+            }
+        }
+
+        if (fullGame) {
+            try {
+                GameState.writeGame(ctx, Paths.get(file));
+                ctx.getOutput().println("Full game saved to " + file);
+                return true;
+            } catch (Exception e) {
+                ctx.getOutput().println("Failed to save game: " + e.getMessage());
+                return false;
             }
+        }
+
+        try (FileWriter writer = new FileWriter(file)) {
+            JSONObject state = GameState.savePlayers(Collections.singletonList(player));
+            ctx.getOutput().println("Game saved to " + file);
             writer.write(state.toJSONString());
+            return true;
         } catch (Exception e) {
-            System.out.println("Failed to save game: " + e.getMessage());
+            ctx.getOutput().println("Failed to save game: " + e.getMessage());
+            return false;
         }
-        return true;
     }
 
     /**
      * Handles load commands for both single player and full game states.
+     * Full game saves in the binary format are recognised by their contents.
      *
+     * @param ctx the context of the game being played
      * @param input the command input
      * @return true if the command was handled, false otherwise
      */
-    private static boolean handleLoadCommand(String input) {
+    private static boolean handleLoadCommand(GameContext ctx, String input) {
         if (!input.startsWith("load") && !input.startsWith("loadgame")) return false;
 
         boolean fullGame = input.startsWith("loadgame");
         String[] parts = input.split("\\s+");
         if (parts.length != 2) {
-            System.out.println("Usage: " + (fullGame ? "loadgame" : "load") + " <filename>.json");
+            ctx.getOutput().println("Usage: " + (fullGame ? "loadgame" : "load") + " <filename>.json");
             return true;
         }
 
-        try (FileReader reader = new FileReader(parts[1])) {
-            JSONObject state = (JSONObject) new JSONParser().parse(reader);
+        LoadEvent event = JfrSupport.records(ctx) ? LoadEvent.start(ctx, parts[1], fullGame) : null;
+        boolean loaded = load(ctx, parts[1], fullGame);
+        if (event != null) event.end(loaded);
+        return true;
+    }
+
+    /**
+     * Loads the game or players from a file and reports the outcome.
+     *
+     * @param ctx the context of the game being played
+     * @param fileName the file to load from
+     * @param fullGame true to load the whole game, false for just the players
+     * @return true if the file was loaded
+     */
+    private static boolean load(GameContext ctx, String fileName, boolean fullGame) {
+        try {
+            Path file = Paths.get(fileName);
             if (fullGame) {
-                GameState.loadGame(state);
-                System.out.println("Game loaded from " + parts[1]);
+                if (isBinarySave(file)) {
+                    GameState.loadBinary(ctx, Files.readAllBytes(file));
+                } else {
+                    GameState.readGame(ctx, file);
+                }
+                ctx.getOutput().println("Game loaded from " + fileName);
             } else {
-                List<Player> loaded = GameState.loadPlayers(state);
-                System.out.println("Loaded " + loaded.size() + " player(s).");
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    JSONObject state = (JSONObject) new JSONParser().parse(reader);
+                    List<Player> loaded = GameState.loadPlayers(state);
+                    ctx.getOutput().println("Loaded " + loaded.size() + " player(s).");
+                }
             }
+            return true;
         } catch (Exception e) {
-            System.out.println("Failed to load game: " + e.getMessage());
+            ctx.getOutput().println("Failed to load game: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Checks if a save file is in the binary format by reading its first bytes.
+     *
+     * @param file the save file
+     * @return true if the file starts like a binary save
+     * @throws IOException if the file cannot be read
+     */
+    private static boolean isBinarySave(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] header = new byte[4];
+            int read = 0;
+            while (read < header.length) {
+                int n = in.read(header, read, header.length - read);
+                if (n < 0) break;
+                read += n;
+            }
+            return read == header.length && GameState.isBinary(header);
+        }
+    }
+
+    /**
+     * Handles the replay command, playing a recorded game headlessly and showing its scores.
+     * The game being played is not affected.
+     *
+     * @param ctx the context of the game being played
+     * @param input the command input
+     * @return true if the command was handled, false otherwise
+     */
+    private static boolean handleReplayCommand(GameContext ctx, String input) {
+        if (!input.startsWith("replay")) return false;
+
+        String[] parts = input.split("\\s+");
+        if (parts.length != 2 && parts.length != 3) {
+            ctx.getOutput().println("Usage: replay <file> [turns]");
+            return true;
+        }
+
+        try {
+            ReplayLog log = ReplayLog.read(Paths.get(parts[1]));
+            Replayer replayer = new Replayer();
+            if (parts.length == 3) {
+                replayer.setMaxTurns(Integer.parseInt(parts[2]));
+            }
+            ReplayResult result = replayer.play(log);
+            ctx.getOutput().println("Replayed " + result.getTurns() + " turns"
+                + (result.isFinished() ? " to the end of the game." : "."));
+            for (Map.Entry<String, Integer> e : result.getScores().entrySet()) {
+                ctx.getOutput().println("  " + e.getKey() + ": " + e.getValue() + " points");
+            }
+            if (result.getWinner() != null) {
+                ctx.getOutput().println("Winner: " + result.getWinner());
+            }
+            if (result.isFinished() && !log.getScores().isEmpty()) {
+                ctx.getOutput().println(result.matches(log)
+                    ? "Scores match the recording."
+                    : "Scores differ from the recording: " + log.getScores());
+            }
+        } catch (Exception e) {
+            ctx.getOutput().println("Failed to replay game: " + e.getMessage());
         }
         return true;
     }
@@ -573,40 +741,67 @@ public class CommandHandler {
     /**
      * Handles the debug command to toggle debug mode.
      *
+     * @param ctx the context of the game being played
      * @param input the command input
      * @return true if the command was handled, false otherwise
      */
-    private static boolean handleDebugCommand(String input) {
+    private static boolean handleDebugCommand(GameContext ctx, String input) {
         if (!input.equals("debug")) return false;
 
-        Game.debugMode = !Game.debugMode;
-        System.out.println("Debug mode is now " + (Game.debugMode ? "ON" : "OFF"));
+        ctx.setDebugMode(!ctx.isDebugMode());
+        ctx.getOutput().println("Debug mode is now " + (ctx.isDebugMode() ? "ON" : "OFF"));
+        return true;
+    }
+
+    /**
+     * Handles the metrics command, showing how long each phase of the game has
+     * taken so far; {@code metrics reset} starts counting again.
+     *
+     * @param ctx the context of the game being played
+     * @param input the command input
+     * @return true if the command was handled, false otherwise
+     */
+    private static boolean handleMetricsCommand(GameContext ctx, String input) {
+        if (!input.equals("metrics") && !input.equals("metrics reset")) return false;
+
+        GameMetrics metrics = ctx.getMetrics();
+        if (metrics == null) {
+            ctx.getOutput().println("Metrics are off. Start the game with --metrics to collect them.");
+        } else if (input.equals("metrics reset")) {
+            metrics.reset();
+            ctx.getOutput().println("Metrics reset.");
+        } else {
+            metrics.printReport(ctx.getOutput());
+        }
         return true;
     }
 
     /**
      * Handles the help command, showing available commands.
      *
+     * @param ctx the context of the game being played
      * @param input the command input
      * @return true if the command was handled, false otherwise
      */
-    private static boolean handleHelpCommand(String input) {
+    private static boolean handleHelpCommand(GameContext ctx, String input) {
         if (!input.equals("help")) return false;
 
-        System.out.println("Available commands:");
-        System.out.println("'t' or 'end'      — end your turn");
-        System.out.println("hand             — show your hand");
-        System.out.println("gold             — show your gold");
-        System.out.println("city [n]         — show built districts (optional player n)");
-        System.out.println("build <n>        — build a district from your hand");
-        System.out.println("all              — show status of all players");
-        System.out.println("action swap/redraw (Magician only)");
-        System.out.println("info <n>      — get info on a character or building");
-        System.out.println("save <file>      — save your player");
-        System.out.println("load <file>      — load your player");
-        System.out.println("savegame <file>  — save full game");
-        System.out.println("loadgame <file>  — load full game");
-        System.out.println("debug, help");
+        ctx.getOutput().println("Available commands:");
+        ctx.getOutput().println("'t' or 'end'      — end your turn");
+        ctx.getOutput().println("hand             — show your hand");
+        ctx.getOutput().println("gold             — show your gold");
+        ctx.getOutput().println("city [n]         — show built districts (optional player n)");
+        ctx.getOutput().println("build <n>        — build a district from your hand");
+        ctx.getOutput().println("all              — show status of all players");
+        ctx.getOutput().println("action swap/redraw (Magician only)");
+        ctx.getOutput().println("info <n>      — get info on a character or building");
+        ctx.getOutput().println("save <file>      — save your player");
+        ctx.getOutput().println("load <file>      — load your player");
+        ctx.getOutput().println("savegame <file>  — save full game (--format=bin for binary)");
+        ctx.getOutput().println("loadgame <file>  — load full game");
+        ctx.getOutput().println("replay <file> [turns] — replay a recorded game");
+        ctx.getOutput().println("metrics [reset]  — show how long each phase of the game takes");
+        ctx.getOutput().println("debug, help");
         return true;
     }
 }
@@ -1,12 +1,25 @@
 package citadels;
 
 import citadels.card.CharacterCard;
+import citadels.card.CharacterType;
 import citadels.card.DistrictCard;
+import citadels.card.DistrictColor;
 import citadels.card.DistrictDeckLoader;
 import citadels.effect.PurpleCardEffects;
+import citadels.effect.WarlordTargets;
+import citadels.event.GameEventListener;
+import citadels.event.ScoreBonus;
+import citadels.jfr.AIDecisionEvent;
+import citadels.jfr.CharacterSelectionEvent;
+import citadels.jfr.JfrSupport;
+import citadels.jfr.RoundEvent;
+import citadels.jfr.TurnEvent;
+import citadels.metrics.GameMetrics;
 import citadels.player.AIPlayer;
 import citadels.player.HumanPlayer;
+import citadels.player.MctsAIPlayer;
 import citadels.player.Player;
+import citadels.player.PlayerInput;
 import citadels.util.Deck;
 import org.json.simple.JSONObject;
 import java.util.*;
@@ -33,44 +46,110 @@ public class Game {
         ROUND_END
     }
 
+    /** Context backing the static API, used by the interactive game and the tests */
+    private static final GameContext defaultContext = new GameContext();
+
     /** Scanner for reading user input */
     protected static Scanner scanner = new Scanner(System.in);
-    /** Maps players to their selected character cards */
-    public static final Map<Player, CharacterCard> selectedCharacters = new HashMap<>();
-    /** List of all players in the game */
-    public static final List<Player> players = new ArrayList<>();
-    /** Deck of district cards */
-    public static final Deck<DistrictCard> districtDeck = DistrictDeckLoader.loadFromTSV();
-    /** Debug mode flag */
-    public static boolean debugMode = false;
-    /** Current phase of the game */
-    private static GamePhase currentPhase = GamePhase.SELECTION;
-    /** Flag indicating if the game is over */
-    private static boolean gameOver = false;
-    /** Reference to the winning player */
-    private static Player winner = null;
-    /** Flag indicating if a round is in progress */
-    private static boolean roundInProgress = false;
-
-    /** Index of the player with the crown */
-    private static int crownPlayerIndex;
+    /** Input of games without their own, reading from whatever {@link #scanner} is at the time */
+    private static final PlayerInput consoleInput = () -> scanner.nextLine();
+    /** Maps players to their selected character cards (default context) */
+    public static final Map<Player, CharacterCard> selectedCharacters = defaultContext.getSelectedCharacters();
+    /** List of all players in the game (default context) */
+    public static final List<Player> players = defaultContext.getPlayers();
+    /** Deck of district cards (default context) */
+    public static final Deck<DistrictCard> districtDeck = defaultContext.getDistrictDeck();
+    /** Debug mode flag of the default context; other contexts keep their own */
+    public static volatile boolean debugMode = false;
+
     /** Pool of available character cards */
     private static final List<CharacterCard> characterPool = createDefaultCharacters();
-    /** List of visible discarded character cards */
-    public static final List<CharacterCard> visibleDiscard = new ArrayList<>();
-    /** The face-down discarded character card */
-    private static CharacterCard mysteryDiscard;
-    /** Name of the assassinated character */
-    private static String assassinatedCharacter = null;
-    /** Name of the robbed character */
-    private static String robbedCharacter = null;
+    /** List of visible discarded character cards (default context) */
+    public static final List<CharacterCard> visibleDiscard = defaultContext.getVisibleDiscard();
+
+    /** The context this game instance is played in */
+    private final GameContext context;
+    /** Thinking time of each AI opponent in milliseconds, or 0 for the plain heuristic AI */
+    private long mctsTimeBudgetMillis;
+
+    /**
+     * Creates a new game that plays in the default context.
+     */
+    public Game() {
+        this(defaultContext);
+    }
+
+    /**
+     * Creates a new game that plays in the given context.
+     *
+     * @param context the context holding this game's state
+     */
+    public Game(GameContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Gets the context backing the static game API.
+     * @return the default GameContext
+     */
+    public static GameContext getDefaultContext() {
+        return defaultContext;
+    }
+
+    /**
+     * Gets the context this game instance is played in.
+     * @return this game's GameContext
+     */
+    public GameContext getContext() {
+        return context;
+    }
+
+    /**
+     * Gets the eight character cards, in rank order.
+     * @return an unmodifiable list of the characters
+     */
+    public static List<CharacterCard> getCharacterPool() {
+        return Collections.unmodifiableList(characterPool);
+    }
+
+    /**
+     * Gets the character card of a rank.
+     * @param rank the rank, from 1 to 8
+     * @return the character, or null if there is no character of that rank
+     */
+    public static CharacterCard getCharacter(int rank) {
+        return rank < 1 || rank > characterPool.size() ? null : characterPool.get(rank - 1);
+    }
+
+    /**
+     * Gets the character card with a name.
+     * @param name the name of the character, in any case
+     * @return the character, or null if there is no character with that name
+     */
+    public static CharacterCard getCharacter(String name) {
+        for (int i = 0; i < characterPool.size(); i++) {
+            if (characterPool.get(i).getName().equalsIgnoreCase(name)) {
+                return characterPool.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Makes the AI opponents created by {@link #run()} search ahead with
+     * {@link MctsAIPlayer} instead of playing the fixed heuristics.
+     * @param millis the thinking time per decision, or 0 for the heuristic AI (default)
+     */
+    public void setMctsTimeBudget(long millis) {
+        this.mctsTimeBudgetMillis = millis;
+    }
 
     /**
      * Sets whether a round is currently in progress.
      * @param inProgress true if a round is in progress, false otherwise
      */
     public static void setRoundInProgress(boolean inProgress) {
-        roundInProgress = inProgress;
+        defaultContext.setRoundInProgress(inProgress);
     }
 
     /**
@@ -78,50 +157,50 @@ public class Game {
      * @return true if a round is in progress, false otherwise
      */
     public static boolean isRoundInProgress() { 
-        return roundInProgress; 
+        return defaultContext.isRoundInProgress(); 
     }
 
     /**
      * Gets the current phase of the game.
      * @return the current GamePhase
      */
-    public static GamePhase getCurrentPhase() { return currentPhase; }
+    public static GamePhase getCurrentPhase() { return defaultContext.getCurrentPhase(); }
 
     /**
      * Sets the current phase of the game.
      * @param phase the new GamePhase to set
      */
-    public static void setCurrentPhase(GamePhase phase) { currentPhase = phase; }
+    public static void setCurrentPhase(GamePhase phase) { defaultContext.setCurrentPhase(phase); }
 
     /**
      * Gets the name of the assassinated character.
      * @return the name of the assassinated character, or null if no character was assassinated
      */
-    public static String getAssassinatedCharacter() { return assassinatedCharacter; }
+    public static String getAssassinatedCharacter() { return defaultContext.getAssassinatedCharacter(); }
 
     /**
      * Sets the game over state.
      * @param over true to end the game, false to continue
      */
-    public static void setGameOver(boolean over) { gameOver = over; }
+    public static void setGameOver(boolean over) { defaultContext.setGameOver(over); }
 
     /**
      * Sets the winner of the game.
      * @param p the Player who won the game
      */
-    public static void setWinner(Player p) { winner = p; }
+    public static void setWinner(Player p) { defaultContext.setWinner(p); }
 
     /**
      * Checks if the game is over.
      * @return true if the game is over, false otherwise
      */
-    public static boolean isGameOver() { return gameOver; }
+    public static boolean isGameOver() { return defaultContext.isGameOver(); }
 
     /**
      * Gets the winner of the game.
      * @return the Player who won the game, or null if the game isn't over
      */
-    public static Player getWinner() { return winner; }
+    public static Player getWinner() { return defaultContext.getWinner(); }
 
     /**
      * Main game loop that runs the Citadels game.
@@ -134,38 +213,62 @@ public class Game {
      * </ul>
      */
     public void run() {
-        System.out.println("Enter how many players [4-7]:");
+        context.getOutput().println("Enter how many players [4-7]:");
         int count = layerCount();
 
-        System.out.println("Shuffling deck...");
-        System.out.println("Adding characters...");
-        System.out.println("Dealing cards...");
+        context.getOutput().println("Shuffling deck...");
+        context.getOutput().println("Adding characters...");
+        context.getOutput().println("Dealing cards...");
 
         createPlayers(count);
         dealInitialCards();
 
-        System.out.println("Starting Citadels with " + count + " players...");
-        System.out.println("You are player 1");
+        context.getOutput().println("Starting Citadels with " + count + " players...");
+        context.getOutput().println("You are player 1");
+
+        playRounds();
+    }
+
+    /**
+     * Resumes a game restored into this game's context part way through a round,
+     * such as one recovered from an {@link ActionJournal}. The turn phase goes on
+     * from the given rank, and the game then continues as in {@link #run()}.
+     *
+     * @param fromRank the rank of the character whose turn comes next,
+     *                 or 9 if the turn phase was over
+     */
+    public void resume(int fromRank) {
+        context.getOutput().println("Resuming Citadels with " + context.getPlayers().size() + " players...");
+        context.setCurrentPhase(GamePhase.TURN);
+        context.setRoundInProgress(true);
+        playTurnPhase(context, fromRank);
+        finishRound(context);
+        playRounds();
+    }
 
+    /**
+     * Plays rounds until the game ends or the player exits, handling player input between rounds.
+     */
+    private void playRounds() {
         while (true) {
-            playRound();
-            System.out.println("Round complete. Type 't' to continue or 'exit' to quit.");
+            playRound(context);
+            if (context.isGameOver()) return;
+            context.getOutput().println("Round complete. Type 't' to continue or 'exit' to quit.");
             while (true) {
-                System.out.print("> ");
-                String input = scanner.nextLine().trim().toLowerCase();
+                context.getOutput().print("> ");
+                String input = context.getInput().nextLine().trim().toLowerCase();
 
                 if (input.equals("gold")) {
-                    showAllPlayerGold();
+                    showAllPlayerGold(context);
                     continue;
                 }
 
                 if (input.equals("exit")) return;
                 if (input.equals("t")) break;
 
-                System.out.println("Unknown command. Type 't', 'exit', or 'gold'.");
+                context.getOutput().println("Unknown command. Type 't', 'exit', or 'gold'.");
             }
         }
-
     }
 
     /**
@@ -178,121 +281,175 @@ public class Game {
      * </ul>
      */
     public static void playRound() {
+        playRound(defaultContext);
+    }
 
-        if (getCurrentPhase() != GamePhase.ROUND_END && getCurrentPhase() != GamePhase.SELECTION) {
-        System.out.println("Cannot start selection phase now. Current phase: " + getCurrentPhase());
+    /**
+     * Executes a single round of the game in the given context.
+     *
+     * @param ctx the context of the game being played
+     * @see #playRound()
+     */
+    public static void playRound(GameContext ctx) {
+        List<Player> players = ctx.getPlayers();
+
+        if (ctx.getCurrentPhase() != GamePhase.ROUND_END && ctx.getCurrentPhase() != GamePhase.SELECTION) {
+        ctx.getOutput().println("Cannot start selection phase now. Current phase: " + ctx.getCurrentPhase());
         return;
         }
 
-        if (roundInProgress) {
-            System.out.println("Round is already in progress.");
+        if (ctx.isRoundInProgress()) {
+            ctx.getOutput().println("Round is already in progress.");
             return;
         }
-        setCurrentPhase(GamePhase.SELECTION);
-        roundInProgress = true;
+        ctx.setCurrentPhase(GamePhase.SELECTION);
+        ctx.setRoundInProgress(true);
 
         // Announce crowned player and wait for 't'
-        Player crowned = players.get(crownPlayerIndex);
-        System.out.println(crowned.getName() + " is the crowned player and goes first.");
-        System.out.println("Press t to process turns");
+        Player crowned = players.get(ctx.getCrownPlayerIndex());
+        ctx.getOutput().println(crowned.getName() + " is the crowned player and goes first.");
+        ctx.getOutput().println("Press t to process turns");
         while (true) {
-            System.out.print("> ");
-            String cmd = scanner.nextLine().trim().toLowerCase();
+            ctx.getOutput().print("> ");
+            String cmd = ctx.getInput().nextLine().trim().toLowerCase();
 
             if (cmd.equals("gold")) {
                 for (Player p : players) {
-                    System.out.println(p.getName() + " has " + p.getGold() + " gold.");
+                    ctx.getOutput().println(p.getName() + " has " + p.getGold() + " gold.");
                 }
                 continue;
             }
 
             if (cmd.equals("t")) break;
 
-            System.out.println("It is not your turn. Press t to continue with other player turns.");
+            ctx.getOutput().println("It is not your turn. Press t to continue with other player turns.");
         }
 
         // SELECTION PHASE
-        System.out.println("================================");
-        System.out.println("SELECTION PHASE");
-        System.out.println("================================");
+        RoundEvent roundEvent = JfrSupport.records(ctx) ? RoundEvent.start(ctx) : null;
+        ctx.getEventListener().onPhaseStarted(GamePhase.SELECTION);
 
         // Clear special effect state
-        assassinatedCharacter = null;
-        robbedCharacter = null;
+        ctx.setAssassinatedCharacter(null);
+        ctx.setRobbedCharacter(null);
 
-        startCharacterSelectionPhase();
-
-        System.out.println("Character choosing is over, action round will now begin.");
+        startCharacterSelectionPhase(ctx);
 
         // Now the Turn Phase keypress guard
-        setCurrentPhase(GamePhase.TURN);
-        System.out.println("================================");
-        System.out.println("TURN PHASE");
-        System.out.println("================================");
+        ctx.setCurrentPhase(GamePhase.TURN);
+        ctx.getEventListener().onPhaseStarted(GamePhase.TURN);
 
         // Process each rank in order
-        for (int rank = 1; rank <= 8; rank++) {
+        playTurnPhase(ctx);
+        finishRound(ctx);
+        if (roundEvent != null) roundEvent.end(ctx);
+    }
+
+    /**
+     * Ends the round being played and ends the game if a city is complete.
+     *
+     * @param ctx the context of the game being played
+     */
+    private static void finishRound(GameContext ctx) {
+        ctx.setRoundInProgress(false);
+        ctx.setCurrentPhase(GamePhase.ROUND_END);
+        // After all 8 ranks, check for game end
+        Player finisher = findCompletedCity(ctx);
+        if (finisher != null) {
+            ctx.getEventListener().onCityCompleted(finisher);
+            endGame(ctx);
+        }
+
+    }
+
+    /**
+     * Plays one round without waiting for input: clears last round's targets, lets
+     * every player pick a character, plays the turn phase and ends the round.
+     * Unlike {@link #playRound(GameContext)} this neither announces the phases nor
+     * ends the game when a city is complete; callers check {@link #findCompletedCity(GameContext)}.
+     *
+     * @param ctx the context of the game being played
+     */
+    public static void playHeadlessRound(GameContext ctx) {
+        ctx.setAssassinatedCharacter(null);
+        ctx.setRobbedCharacter(null);
+        startCharacterSelectionPhase(ctx);
+        ctx.setCurrentPhase(GamePhase.TURN);
+        playTurnPhase(ctx);
+        ctx.setCurrentPhase(GamePhase.ROUND_END);
+    }
+
+    /**
+     * Calls each character by rank and lets the player who picked it take their turn.
+     * Assassinated characters are announced and skipped. Unlike {@link #playRound(GameContext)}
+     * this does not wait for input between turns, so all-AI games can run headless.
+     *
+     * @param ctx the context of the game being played
+     */
+    public static void playTurnPhase(GameContext ctx) {
+        playTurnPhase(ctx, 1);
+    }
+
+    /**
+     * Calls each character from the given rank on and lets the player who picked it
+     * take their turn, as in {@link #playTurnPhase(GameContext)}.
+     *
+     * @param ctx the context of the game being played
+     * @param fromRank the rank of the first character to call
+     */
+    public static void playTurnPhase(GameContext ctx, int fromRank) {
+        GameEventListener events = ctx.getEventListener();
+        GameMetrics metrics = ctx.getMetrics();
+        for (int rank = Math.max(1, fromRank); rank <= 8; rank++) {
+            long start = metrics == null ? 0 : metrics.start();
+
             // 1) Find canonical card
-            CharacterCard canon = null;
-            for (CharacterCard c : characterPool) {
-                if (c.getRank() == rank) {
-                    canon = c;
-                    break;
-                }
-            }
+            CharacterCard canon = getCharacter(rank);
 
             // 2) Find who picked it
-            CharacterCard picked = null;
-            Player picker = null;
-            for (Map.Entry<Player,CharacterCard> e : selectedCharacters.entrySet()) {
-                if (e.getValue().getRank() == rank) {
-                    picked = e.getValue();
-                    picker = e.getKey();
-                    break;
-                }
-            }
+            Player picker = ctx.getCharacterHolder(rank);
+            CharacterCard picked = picker == null ? null : ctx.getSelectedCharacters().get(picker);
 
 
-            // 3) Announce with special King message
-            System.out.println(rank + ": " + canon.getName());
+            // 3) Announce
+            events.onCharacterCalled(rank, picked != null ? picked : canon, picker);
             if (picked == null) {
-                System.out.println("No one is the " + canon.getName());
                 continue;
             }
-            if (rank == 4) {
-                System.out.println(picker.getName() + " is the King");
-            } else {
-                System.out.println(picker.getName() + " is the " + picked.getName());
-            }
 
             // 4) Assassin skip
-            if (picked.getName().equalsIgnoreCase(assassinatedCharacter)) {
-                System.out.println(picker.getName() + " was assassinated and loses their turn.");
+            if (ctx.isAssassinated(picked)) {
+                events.onTurnLost(picker, picked);
                 continue;
             }
 
             // 5) Execute turn
-            GameState.setCurrentPlayer(picker);
-            GameState.setCurrentCharacter(picked);
+            ctx.setCurrentPlayer(picker);
+            ctx.setCurrentCharacter(picked);
+            TurnEvent turnEvent = JfrSupport.records(ctx) ? TurnEvent.start(ctx, picked, picker) : null;
             if (picker instanceof HumanPlayer) {
-                handlePlayerTurn(picker, picked);
+                handlePlayerTurn(ctx, picker, picked);
             } else {
-                picker.takeTurn();
+                picker.takeTurn(ctx);
             }
+            if (turnEvent != null) turnEvent.commit();
+            if (metrics != null) metrics.recordTurn(rank, start);
         }
+    }
 
-        // End of round cleanup
-        roundInProgress = false;
-        setCurrentPhase(GamePhase.ROUND_END);
-        // After all 8 ranks, check for game end
-        for (Player p : players) {
+    /**
+     * Finds the first player who has built 7 or more districts, which ends the game.
+     *
+     * @param ctx the context of the game being played
+     * @return the first player with a completed city, or null if the game goes on
+     */
+    public static Player findCompletedCity(GameContext ctx) {
+        for (Player p : ctx.getPlayers()) {
             if (p.getCity().size() >= 7) {
-                System.out.println(p.getName() + " has built 7 or more districts. The game ends!");
-                endGame();
-                return;
+                return p;
             }
         }
-
+        return null;
     }
 
     /**
@@ -301,87 +458,120 @@ public class Game {
      * or when the game needs to end prematurely.
      */
     public static void endGame() {
+        endGame(defaultContext);
+    }
+
+    /**
+     * Ends the game played in the given context and calculates final scores.
+     *
+     * @param ctx the context of the game being ended
+     * @see #endGame()
+     */
+    public static void endGame(GameContext ctx) {
+        CharacterCard mysteryDiscard = ctx.getMysteryDiscard();
         boolean testMode = System.getProperty("test.env") != null;
         if (testMode) {
-            System.out.println("[TEST MODE] Skipping System.exit");
+            ctx.getOutput().println("[TEST MODE] Skipping System.exit");
         }
 
-        System.out.println("\n--- Final Scores ---");
-        Map<Player, Integer> scores = new HashMap<>();
-        Map<Player, Integer> baseScores = new HashMap<>();
+        Map<Player, Integer> scores = scoreGame(ctx);
+        List<Player> tied = findTopScorers(scores);
+        Player winner = findWinner(ctx, scores);
+
+        ctx.setGameOver(true);
+        ctx.setWinner(winner);
+        ctx.getEventListener().onGameEnded(winner, tied, mysteryDiscard);
+        if (!testMode && ctx.isExitOnGameEnd()) System.exit(0);
+    }
+
+    /**
+     * Calculates the final score of every player in the given game.
+     * The score is the cost of all built districts plus bonuses for having all
+     * colors, completing the city and purple district effects.
+     *
+     * @param ctx the context of the game being scored
+     * @return each player's total score, in seat order
+     */
+    public static Map<Player, Integer> scoreGame(GameContext ctx) {
+        GameMetrics metrics = ctx.getMetrics();
+        long start = metrics == null ? 0 : metrics.start();
+        GameEventListener events = ctx.getEventListener();
+        events.onScoringStarted();
+        Map<Player, Integer> scores = new LinkedHashMap<>();
         Player firstToFinish = null;
 
-        for (Player player : players) {
-            int baseScore = player.getCity().stream().mapToInt(DistrictCard::getCost).sum();
+        for (Player player : ctx.getPlayers()) {
+            int baseScore = player.getBaseScore();
             int bonus = 0;
 
-            Set<String> colors = new HashSet<>();
-            for (DistrictCard card : player.getCity()) {
-                colors.add(PurpleCardEffects.effectiveColor(card, player, ""));
-            }
-
-            if (colors.containsAll(Arrays.asList("red", "blue", "green", "yellow", "purple"))) {
+            if (DistrictColor.isComplete(player.getColorMask())) {
                 bonus += 3;
-                System.out.println(player.getName() + " has all district colors (+3 bonus)");
+                events.onBonusScored(player, ScoreBonus.ALL_COLORS, 3);
             }
 
             if (player.getCity().size() >= 8) {
                 if (firstToFinish == null) {
                     firstToFinish = player;
                     bonus += 4;
-                    System.out.println(player.getName() + " finished city first (+4 bonus)");
+                    events.onBonusScored(player, ScoreBonus.FIRST_COMPLETE_CITY, 4);
                 } else {
                     bonus += 2;
-                    System.out.println(player.getName() + " also completed city (+2 bonus)");
+                    events.onBonusScored(player, ScoreBonus.COMPLETE_CITY, 2);
                 }
             }
 
-            bonus += PurpleCardEffects.bonusScore(player);
+            bonus += PurpleCardEffects.bonusScore(player, events);
             int total = baseScore + bonus;
             scores.put(player, total);
-            baseScores.put(player, baseScore);
-            System.out.println(player.getName() + ": " + total + " points (base=" + baseScore + ", bonus=" + bonus + ")");
+            events.onScoreComputed(player, baseScore, bonus, total);
         }
 
-        int maxScore = Collections.max(scores.values());
-        List<Player> tied = new ArrayList<>();
-        for (Map.Entry<Player, Integer> e : scores.entrySet()) {
-            if (e.getValue() == maxScore) tied.add(e.getKey());
-        }
-
-        Player winner = null;
+        if (metrics != null) metrics.record(GameMetrics.Phase.SCORING, start);
+        return scores;
+    }
 
+    /**
+     * Picks the winner from the final scores. Ties are broken in favour of the
+     * player holding the highest ranked character.
+     *
+     * @param ctx the context of the game being scored
+     * @param scores the final scores from {@link #scoreGame(GameContext)}
+     * @return the winning player, or null if the tie cannot be broken
+     */
+    public static Player findWinner(GameContext ctx, Map<Player, Integer> scores) {
+        List<Player> tied = findTopScorers(scores);
         if (tied.size() == 1) {
-            winner = tied.get(0);
-        } else {
-            int highestRank = -1;
-            Player best = null;
-            for (Player p : tied) {
-                CharacterCard c = selectedCharacters.get(p);
-                if (c != null && c.getRank() > highestRank) {
-                    highestRank = c.getRank();
-                    best = p;
-                }
-            }
-            if (best != null) {
-                winner = best;
-            } else {
-                System.out.println("\nIt's a tie between:");
-                for (Player p : tied) {
-                    System.out.println("- " + p.getName());
-                }
-                System.out.println("Mystery discarded character was: " + (mysteryDiscard != null ? mysteryDiscard.getName() : "Unknown"));
-                System.out.println("\nThanks for playing Citadels!");
-                if (!testMode) System.exit(0);
-                return;
+            return tied.get(0);
+        }
+
+        int highestRank = -1;
+        Player best = null;
+        for (Player p : tied) {
+            CharacterCard c = ctx.getSelectedCharacters().get(p);
+            if (c != null && c.getRank() > highestRank) {
+                highestRank = c.getRank();
+                best = p;
             }
         }
+        return best;
+    }
 
-        System.out.println("\nWinner: " + winner.getName());
-        System.out.println("Mystery discarded character was: " + (mysteryDiscard != null ? mysteryDiscard.getName() : "Unknown"));
-        System.out.println("\nCongratulations, " + winner.getName() + " wins the game!");
-        System.out.println("Thanks for playing Citadels!");
-        if (!testMode) System.exit(0);
+    /**
+     * Collects all players sharing the highest score.
+     *
+     * @param scores the final scores of all players
+     * @return the players with the maximum score
+     */
+    private static List<Player> findTopScorers(Map<Player, Integer> scores) {
+        List<Player> tied = new ArrayList<>();
+        if (scores.isEmpty()) {
+            return tied;
+        }
+        int maxScore = Collections.max(scores.values());
+        for (Map.Entry<Player, Integer> e : scores.entrySet()) {
+            if (e.getValue() == maxScore) tied.add(e.getKey());
+        }
+        return tied;
     }
 
     /**
@@ -393,12 +583,12 @@ public class Game {
     int layerCount() {
         while (true) {
             try {
-                System.out.print("> ");
-                int count = Integer.parseInt(scanner.nextLine().trim());
+                context.getOutput().print("> ");
+                int count = Integer.parseInt(context.getInput().nextLine().trim());
                 if (count >= 4 && count <= 7) return count;
-                System.out.println("Must be between 4 and 7 players.");
+                context.getOutput().println("Must be between 4 and 7 players.");
             } catch (NumberFormatException e) {
-                System.out.println("Please enter a number.");
+                context.getOutput().println("Please enter a number.");
             }
         }
     }
@@ -410,21 +600,28 @@ public class Game {
      * @param count number of players to create
      */
     void createPlayers(int count) {
+        List<Player> players = context.getPlayers();
         players.clear();
         players.add(new HumanPlayer("Player 1"));
         for (int i = 2; i <= count; i++) {
-            players.add(new AIPlayer("Player " + i));
+            if (mctsTimeBudgetMillis > 0) {
+                MctsAIPlayer ai = new MctsAIPlayer("Player " + i, context.getRandom().split());
+                ai.setTimeBudget(mctsTimeBudgetMillis);
+                players.add(ai);
+            } else {
+                players.add(new AIPlayer("Player " + i, context.getRandom().split()));
+            }
         }
     }
 
     /**
      * Deals initial cards and gold to all players.
      */
-    void dealInitialCards() {
-        for (Player p : players) {
+    public void dealInitialCards() {
+        for (Player p : context.getPlayers()) {
             // Deal 4 cards to each player
             for (int i = 0; i < 4; i++) {
-                p.drawCard(districtDeck.draw());
+                p.drawCard(context.getDistrictDeck().draw());
             }
             // Give 2 gold to each player
             p.addGold(2);
@@ -441,15 +638,32 @@ public class Game {
      * </ul>
      */
     public static void startCharacterSelectionPhase() {
+        startCharacterSelectionPhase(defaultContext);
+    }
+
+    /**
+     * Initiates and manages the character selection phase in the given context.
+     *
+     * @param ctx the context of the game being played
+     * @see #startCharacterSelectionPhase()
+     */
+    public static void startCharacterSelectionPhase(GameContext ctx) {
+        GameMetrics metrics = ctx.getMetrics();
+        long start = metrics == null ? 0 : metrics.start();
+        CharacterSelectionEvent selectionEvent = JfrSupport.records(ctx) ? CharacterSelectionEvent.start(ctx) : null;
+        List<Player> players = ctx.getPlayers();
+        List<CharacterCard> visibleDiscard = ctx.getVisibleDiscard();
+        GameEventListener events = ctx.getEventListener();
+
         // 1) Shuffle and clear out last round's selections
         List<CharacterCard> shuffled = new ArrayList<>(characterPool);
-        Collections.shuffle(shuffled);
+        ctx.getRandom().shuffle(shuffled);
         visibleDiscard.clear();
-        selectedCharacters.clear();
+        ctx.getSelectedCharacters().clear();
 
         // 2) Mystery (face-down) discard
-        mysteryDiscard = shuffled.remove(0);
-        System.out.println("A mystery character was removed.");
+        ctx.setMysteryDiscard(shuffled.remove(0));
+        events.onCharacterRemoved(ctx.getMysteryDiscard(), false);
 
         // 3) Face-up discards based on player count
         int numFaceUp;
@@ -461,39 +675,37 @@ public class Game {
 
         for (int i = 0; i < numFaceUp; i++) {
             CharacterCard c = shuffled.remove(0);
-            if (c.getName().equalsIgnoreCase("King")) {
-                System.out.println("King was removed.");
-                System.out.println("The King cannot be visibly removed, trying again..");
-                System.out.println("A mystery character was removed.");
+            if (c.getType() == CharacterType.KING) {
+                events.onKingReturned(c);
                 shuffled.add(c);
-                Collections.shuffle(shuffled);
+                ctx.getRandom().shuffle(shuffled);
                 i--;
                 continue;
             }
             visibleDiscard.add(c);
-            System.out.println(c.getName() + " was removed.");
+            events.onCharacterRemoved(c, true);
         }
 
         // 4) Character drafting phase
         List<CharacterCard> draft = new ArrayList<>(shuffled);
         int total = players.size();
         for (int turn = 0; turn < total; turn++) {
-            Player p = players.get((crownPlayerIndex + turn) % total);
-            System.out.println(p.getName() + " is choosing a character.");
+            Player p = players.get((ctx.getCrownPlayerIndex() + turn) % total);
+            events.onCharacterChoosing(p);
 
             CharacterCard chosen;
             if (p instanceof HumanPlayer) {
-                System.out.println("Choose your character. Available characters:");
+                ctx.getOutput().println("Choose your character. Available characters:");
                 for (int j = 0; j < draft.size(); j++) {
-                    System.out.printf("%d. %s%n", j + 1, draft.get(j).getName());
+                    ctx.getOutput().printf("%d. %s%n", j + 1, draft.get(j).getName());
                 }
                 chosen = null;
                 while (chosen == null) {
-                    System.out.print("> ");
-                    String in = scanner.nextLine().trim();
+                    ctx.getOutput().print("> ");
+                    String in = ctx.getInput().nextLine().trim();
 
                     if (in.equalsIgnoreCase("gold")) {
-                        showAllPlayerGold();
+                        showAllPlayerGold(ctx);
                         continue;
                     }
 
@@ -513,17 +725,26 @@ public class Game {
                     }
 
                     if (chosen == null) {
-                        System.out.println("Invalid choice. Enter a number 1–" + draft.size() + " or the character's name.");
+                        ctx.getOutput().println("Invalid choice. Enter a number 1–" + draft.size() + " or the character's name.");
                     }
                 }
+            } else if (p instanceof AIPlayer) {
+                long choiceStart = metrics == null ? 0 : metrics.start();
+                AIDecisionEvent decision = JfrSupport.records(ctx)
+                    ? AIDecisionEvent.start(ctx, p, AIDecisionEvent.CHARACTER) : null;
+                chosen = ((AIPlayer) p).chooseCharacter(ctx, draft);
+                if (decision != null) decision.end(chosen);
+                if (metrics != null) metrics.record(GameMetrics.Phase.AI_CHARACTER_CHOICE, choiceStart);
             } else {
-                chosen = draft.remove(0);
-                System.out.println(p.getName() + " chose a character.");
+                chosen = draft.get(0);
             }
 
             draft.remove(chosen);
-            selectedCharacters.put(p, chosen);
+            ctx.getSelectedCharacters().put(p, chosen);
+            events.onCharacterChosen(p, chosen);
         }
+        if (selectionEvent != null) selectionEvent.end(ctx);
+        if (metrics != null) metrics.record(GameMetrics.Phase.CHARACTER_SELECTION, start);
     }
 
     /**
@@ -533,152 +754,156 @@ public class Game {
      * @param shuffled the shuffled list of character cards to choose from
      */
     public static void playerCharacterSelection(List<CharacterCard> shuffled) {
+        playerCharacterSelection(defaultContext, shuffled);
+    }
+
+    /**
+     * Handles the character selection process for each player in the given context.
+     *
+     * @param ctx the context of the game being played
+     * @param shuffled the shuffled list of character cards to choose from
+     */
+    public static void playerCharacterSelection(GameContext ctx, List<CharacterCard> shuffled) {
+        List<Player> players = ctx.getPlayers();
         int total = players.size();
-        int idx = crownPlayerIndex;
+        int idx = ctx.getCrownPlayerIndex();
         for (int i = 0; i < total; i++) {
             Player p = players.get(idx % total);
-            System.out.println(p.getName() + " is choosing a character.");
+            ctx.getEventListener().onCharacterChoosing(p);
             CharacterCard chosen;
             if (p instanceof HumanPlayer) {
-                System.out.println("Choose your character. Available characters:");
+                ctx.getOutput().println("Choose your character. Available characters:");
                 for (int j = 0; j < shuffled.size(); j++) {
-                    System.out.println((j + 1) + ". " + shuffled.get(j).getName());
+                    ctx.getOutput().println((j + 1) + ". " + shuffled.get(j).getName());
                 }
                 int sel = -1;
                 while (sel < 1 || sel > shuffled.size()) {
-                    System.out.print("> ");
-                    try { sel = Integer.parseInt(scanner.nextLine().trim()); }
-                    catch (Exception ignored) {}
+                    ctx.getOutput().print("> ");
+                    try { sel = Integer.parseInt(ctx.getInput().nextLine().trim()); }
+                    catch (NumberFormatException ignored) {}
                 }
                 chosen = shuffled.remove(sel - 1);
-                System.out.println("You chose: " + chosen.getName());
+                ctx.getOutput().println("You chose: " + chosen.getName());
             } else {
                 chosen = shuffled.remove(0);
-                System.out.println(p.getName() + " chose a character.");
             }
-            selectedCharacters.put(p, chosen);
+            ctx.getSelectedCharacters().put(p, chosen);
+            ctx.getEventListener().onCharacterChosen(p, chosen);
             idx++;
         }
     }
 
-    private static boolean isSelection = false;
-    public static void setSelectionPhase(boolean value) { isSelection = value; }
-    public static boolean getSelectionPhase() { return isSelection; }
+    public static void setSelectionPhase(boolean value) { defaultContext.setSelectionPhase(value); }
+    public static boolean getSelectionPhase() { return defaultContext.getSelectionPhase(); }
 
     public static boolean isSelectionPhase() {
+        return isSelectionPhase(defaultContext);
+    }
+
+    public static boolean isSelectionPhase(GameContext ctx) {
+        List<Player> players = ctx.getPlayers();
+        List<CharacterCard> visibleDiscard = ctx.getVisibleDiscard();
+        Map<Player, CharacterCard> selectedCharacters = ctx.getSelectedCharacters();
+        GameEventListener events = ctx.getEventListener();
         selectedCharacters.clear();
         List<CharacterCard> deck = new ArrayList<>(characterPool);
-        Collections.shuffle(deck);
+        ctx.getRandom().shuffle(deck);
 
-        mysteryDiscard = deck.remove(0);
-        System.out.println("A mystery character was removed.");
+        ctx.setMysteryDiscard(deck.remove(0));
+        events.onCharacterRemoved(ctx.getMysteryDiscard(), false);
 
         int faceUp = (players.size() == 4) ? 2
                      : (players.size() == 5) ? 1 : 0;
         visibleDiscard.clear();
         for (int i = 0; i < faceUp; i++) {
             CharacterCard c = deck.remove(0);
-            if (c.getName().equalsIgnoreCase("King")) {
+            if (c.getType() == CharacterType.KING) {
                 deck.add(c);
-                Collections.shuffle(deck);
+                ctx.getRandom().shuffle(deck);
                 i--;
             } else {
                 visibleDiscard.add(c);
-                System.out.println(c.getName() + " was removed.");
+                events.onCharacterRemoved(c, true);
             }
         }
 
         List<CharacterCard> draft = new ArrayList<>(deck);
         for (int i = 0; i < players.size(); i++) {
-            Player p = players.get((crownPlayerIndex + i) % players.size());
-            System.out.println(p.getName() + " is choosing a character.");
+            Player p = players.get((ctx.getCrownPlayerIndex() + i) % players.size());
+            events.onCharacterChoosing(p);
             CharacterCard chosen;
             if (p instanceof HumanPlayer) {
-                System.out.println("Choose your character. Available characters:");
+                ctx.getOutput().println("Choose your character. Available characters:");
                 for (CharacterCard cc : draft) {
-                    System.out.println("- " + cc.getName());
+                    ctx.getOutput().println("- " + cc.getName());
                 }
                 Optional<CharacterCard> opt;
                 do {
-                    System.out.print("> ");
+                    ctx.getOutput().print("> ");
                     opt = draft.stream()
-                               .filter(c -> c.getName().equalsIgnoreCase(scanner.nextLine().trim()))
+                               .filter(c -> c.getName().equalsIgnoreCase(ctx.getInput().nextLine().trim()))
                                .findFirst();
                 } while (!opt.isPresent());
                 chosen = opt.get();
             } else {
-                chosen = draft.remove(new Random().nextInt(draft.size()));
-                System.out.println(p.getName() + " chose a character.");
+                chosen = draft.remove(ctx.getRandom().nextInt(draft.size()));
             }
             draft.remove(chosen);
             selectedCharacters.put(p, chosen);
+            events.onCharacterChosen(p, chosen);
         }
         return true;
     }
 
     public static void processTurnPhase() {
-        setCurrentPhase(GamePhase.TURN);
-        roundInProgress = true;
+        processTurnPhase(defaultContext);
+    }
+
+    public static void processTurnPhase(GameContext ctx) {
+        ctx.setCurrentPhase(GamePhase.TURN);
+        ctx.setRoundInProgress(true);
 
         for (int rank = 1; rank <= 8; rank++) {
             // 1) Find the canonical character for this rank
-            CharacterCard canon = null;
-            for (CharacterCard c : characterPool) {
-                if (c.getRank() == rank) {
-                    canon = c;
-                    break;
-                }
-            }
+            CharacterCard canon = getCharacter(rank);
 
             // 2) Find who picked it (if anyone)
-            CharacterCard picked = null;
-            Player picker = null;
-            for (Map.Entry<Player, CharacterCard> e : selectedCharacters.entrySet()) {
-                if (e.getValue().getRank() == rank) {
-                    picked = e.getValue();
-                    picker = e.getKey();
-                    break;
-                }
-            }
+            Player picker = ctx.getCharacterHolder(rank);
+            CharacterCard picked = picker == null ? null : ctx.getSelectedCharacters().get(picker);
 
             // 3) Announce
-            System.out.println(rank + ": " + (canon != null ? canon.getName() : "Unknown"));
-            if (picked == null) {
-                System.out.println("No one is the " + (canon != null ? canon.getName() : "Unknown"));
-            } else {
-                System.out.println(picker.getName() + " is the " + picked.getName());
-            }
+            ctx.getEventListener().onCharacterCalled(rank, picked != null ? picked : canon, picker);
 
             // 4) *** Pause here and wait for 't' ***
             while (true) {
-                System.out.print("> ");
-                String cmd = scanner.nextLine().trim().toLowerCase();
+                ctx.getOutput().print("> ");
+                String cmd = ctx.getInput().nextLine().trim().toLowerCase();
                 if (cmd.equals("t")) {
                     break;
                 }
-                System.out.println("It is not your turn. Press t to continue with other player turns.");
+                ctx.getOutput().println("It is not your turn. Press t to continue with other player turns.");
             }
 
             // 5) If nobody picked it OR they were assassinated, skip execution
             if (picked == null
-                || picked.getName().equalsIgnoreCase(assassinatedCharacter)) {
+                || ctx.isAssassinated(picked)) {
                 if (picked != null) {
-                    System.out.println(picker.getName() + " was assassinated and loses their turn.");
+                    ctx.getEventListener().onTurnLost(picker, picked);
                 }
                 continue;
             }
 
             // 6) Execute the turn
-            GameState.setCurrentPlayer(picker);
-            GameState.setCurrentCharacter(picked);
+            ctx.setCurrentPlayer(picker);
+            ctx.setCurrentCharacter(picked);
             if (picker instanceof HumanPlayer) {
-                handlePlayerTurn(picker, picked);
+                handlePlayerTurn(ctx, picker, picked);
             } else {
-                picker.takeTurn();
+                picker.takeTurn(ctx);
             }
         }
 
-        roundInProgress = false;
+        ctx.setRoundInProgress(false);
     }
 
     /**
@@ -689,80 +914,87 @@ public class Game {
      * @param character the character card the player is using this turn
      */
     public static void handlePlayerTurn(Player player, CharacterCard character) {
-        String name = character.getName();
+        handlePlayerTurn(defaultContext, player, character);
+    }
+
+    /**
+     * Processes a player's turn in the given context.
+     *
+     * @param ctx the context of the game being played
+     * @param player the player whose turn it is
+     * @param character the character card the player is using this turn
+     */
+    public static void handlePlayerTurn(GameContext ctx, Player player, CharacterCard character) {
+        List<Player> players = ctx.getPlayers();
+        Deck<DistrictCard> districtDeck = ctx.getDistrictDeck();
+        CharacterType type = character.getType();
 
         // — ASSASSIN —
-        if (name.equals("Assassin")) {
-            System.out.println("Your turn.");
-            System.out.println("Who do you want to kill? Choose a character from 2–8:");
+        if (type == CharacterType.ASSASSIN) {
+            ctx.getOutput().println("Your turn.");
+            ctx.getOutput().println("Who do you want to kill? Choose a character from 2–8:");
             while (true) {
-                System.out.print("> ");
-                String in = scanner.nextLine().trim().toLowerCase();
-                if (handleInfoCommands(in, player)) continue;
+                ctx.getOutput().print("> ");
+                String in = ctx.getInput().nextLine().trim().toLowerCase();
+                if (handleInfoCommands(ctx, in, player)) continue;
                 if (in.equals("t") || in.equals("end")) {
-                    System.out.println("You skipped that step.");
+                    ctx.getOutput().println("You skipped that step.");
                     return;
                 }
                 try {
-                    int rank = Integer.parseInt(in);
-                    for (CharacterCard c : characterPool) {
-                        if (c.getRank() == rank) {
-                            assassinatedCharacter = c.getName();
-                            System.out.println("You have killed the " + assassinatedCharacter);
-                            return;
-                        }
+                    CharacterCard c = getCharacter(Integer.parseInt(in));
+                    if (c != null) {
+                        ctx.setAssassinatedCharacter(c.getName());
+                        ctx.getOutput().println("You have killed the " + ctx.getAssassinatedCharacter());
+                        return;
                     }
                 } catch (NumberFormatException ignored) {}
-                    System.out.println("Invalid choice. Enter a number 2–8, or 't'/'end' to skip.");
+                    ctx.getOutput().println("Invalid choice. Enter a number 2–8, or 't'/'end' to skip.");
             }
         }
 
         // — THIEF —
-        if (name.equals("Thief")) {
-            System.out.println("Your turn.");
-            System.out.println("Who do you want to steal from? Choose a character from 2–8:");
+        if (type == CharacterType.THIEF) {
+            ctx.getOutput().println("Your turn.");
+            ctx.getOutput().println("Who do you want to steal from? Choose a character from 2–8:");
             while (true) {
-                System.out.print("> ");
-                String in = scanner.nextLine().trim().toLowerCase();
-                if (handleInfoCommands(in, player)) continue;
+                ctx.getOutput().print("> ");
+                String in = ctx.getInput().nextLine().trim().toLowerCase();
+                if (handleInfoCommands(ctx, in, player)) continue;
                 if (in.equals("t") || in.equals("end")) return;
                 try {
-                    int rank = Integer.parseInt(in);
-                    for (CharacterCard c : characterPool) {
-                        if (c.getRank() == rank && !c.getName().equalsIgnoreCase("Assassin")) {
-                            robbedCharacter = c.getName();
-                            System.out.println("You chose to steal from the " + robbedCharacter);
-                            // fall through into normal draw/build phase
-                            in = "break";
-                            break;
-                        }
+                    CharacterCard c = getCharacter(Integer.parseInt(in));
+                    if (c != null && c.getType() != CharacterType.ASSASSIN) {
+                        ctx.setRobbedCharacter(c.getName());
+                        ctx.getOutput().println("You chose to steal from the " + ctx.getRobbedCharacter());
+                        // fall through into normal draw/build phase
+                        break;
                     }
-                    if ("break".equals(in)) break;
                 } catch (NumberFormatException ignored) {}
-                System.out.println("Invalid choice. Enter a number 2–8, or 't' to skip.");
+                ctx.getOutput().println("Invalid choice. Enter a number 2–8, or 't' to skip.");
             }
         }
 
         // — MAGICIAN —
-        if (name.equals("Magician")) {
-            System.out.println("Your turn.");
-            System.out.println("Do you want to swap hands with another player, redraw your hand, or skip? [swap/redraw/skip]");
+        if (type == CharacterType.MAGICIAN) {
+            ctx.getOutput().println("Your turn.");
+            ctx.getOutput().println("Do you want to swap hands with another player, redraw your hand, or skip? [swap/redraw/skip]");
             while (true) {
-                System.out.print("> ");
-                String in = scanner.nextLine().trim().toLowerCase();
-                if (handleInfoCommands(in, player)) continue;
+                ctx.getOutput().print("> ");
+                String in = ctx.getInput().nextLine().trim().toLowerCase();
+                if (handleInfoCommands(ctx, in, player)) continue;
                 if (in.equals("skip") || in.equals("t") || in.equals("end")) break;
                 if (in.equals("swap")) {
                     // list other players
                     List<Player> others = new ArrayList<>(players);
                     others.remove(player);
-                    System.out.println("Choose a player to swap with:");
+                    ctx.getOutput().println("Choose a player to swap with:");
                     for (int i = 0; i < others.size(); i++) {
-                        System.out.println((i+1) + ". " + others.get(i).getName());
+                        ctx.getOutput().println((i+1) + ". " + others.get(i).getName());
                     }
                     while (true) {
-                        System.out.print("> ");
-                        String sel = scanner.nextLine().trim();
+                        ctx.getOutput().print("> ");
+                        String sel = ctx.getInput().nextLine().trim();
                         try {
                             int idx = Integer.parseInt(sel) - 1;
                             Player target = others.get(idx);
@@ -771,10 +1003,10 @@ public class Game {
                             player.getHand().addAll(target.getHand());
                             target.getHand().clear();
                             target.getHand().addAll(tmp);
-                            System.out.println("Swapped hands with " + target.getName());
+                            ctx.getOutput().println("Swapped hands with " + target.getName());
                             break;
                         } catch (Exception e) {
-                            System.out.println("Invalid selection.");
+                            ctx.getOutput().println("Invalid selection.");
                         }
                     }
                     break;
@@ -782,156 +1014,118 @@ public class Game {
                     int cnt = player.getHand().size();
                     player.getHand().clear();
                     for (int i = 0; i < cnt; i++) player.drawCard(districtDeck.draw());
-                    System.out.println("You redrew " + cnt + " cards.");
+                    ctx.getOutput().println("You redrew " + cnt + " cards.");
                     break;
                 } else {
-                    System.out.println("Unknown option. Use swap, redraw, or skip.");
+                    ctx.getOutput().println("Unknown option. Use swap, redraw, or skip.");
                 }
             }
         }
 
         // — SKIP IF ASSASSINATED OR ROBBED —
-        if (name.equalsIgnoreCase(assassinatedCharacter)) {
-            System.out.println(player.getName() + " was assassinated and skips their turn.");
+        if (ctx.isAssassinated(character)) {
+            ctx.getOutput().println(player.getName() + " was assassinated and skips their turn.");
             return;
         }
-        if (name.equalsIgnoreCase(robbedCharacter)) {
-            for (Player p : players) {
-                if (selectedCharacters.get(p).getName().equalsIgnoreCase("Thief")) {
-                    System.out.println(player.getName() + " was robbed by " + p.getName() + "!");
-                    p.addGold(player.getGold());
-                    player.addGold(-player.getGold());
-                    break;
-                }
+        if (ctx.isRobbed(character)) {
+            Player thief = ctx.getCharacterHolder(CharacterType.THIEF.getRank());
+            if (thief != null) {
+                ctx.getOutput().println(player.getName() + " was robbed by " + thief.getName() + "!");
+                thief.addGold(player.getGold());
+                player.addGold(-player.getGold());
             }
             return;
         }
 
         // — NORMAL ACTION ROUND —
-        System.out.println("Your turn.");
+        ctx.getOutput().println("Your turn.");
 
         // 1) Collect or draw
-        System.out.println("Collect 2 gold or draw two cards and pick one [gold/cards]:");
+        ctx.getOutput().println("Collect 2 gold or draw two cards and pick one [gold/cards]:");
         while (true) {
-            System.out.print("> ");
-            String choice = scanner.nextLine().trim().toLowerCase();
+            ctx.getOutput().print("> ");
+            String choice = ctx.getInput().nextLine().trim().toLowerCase();
             if (choice.equals("t") || choice.equals("end")) return;
             if (choice.equals("gold")) {
                 player.addGold(2);
-                System.out.println(player.getName() + " received 2 gold.");
+                ctx.getOutput().println(player.getName() + " received 2 gold.");
                 break;
             }
             if (choice.equals("cards")) {
                 DistrictCard c1 = districtDeck.draw();
                 DistrictCard c2 = districtDeck.draw();
                 while (true) {
-                    System.out.println("Choose a card by typing '1', '2', 'card 1', or 'card 2', or 't' to skip:");
-                    System.out.println("  1) " + c1.getName() + " [" + c1.getColor() + c1.getCost() + "]");
-                    System.out.println("  2) " + c2.getName() + " [" + c2.getColor() + c2.getCost() + "]");
-                    System.out.print("> ");
-                    String pick = scanner.nextLine().trim().toLowerCase();
+                    ctx.getOutput().println("Choose a card by typing '1', '2', 'card 1', or 'card 2', or 't' to skip:");
+                    ctx.getOutput().println("  1) " + c1.getName() + " [" + c1.getColor() + c1.getCost() + "]");
+                    ctx.getOutput().println("  2) " + c2.getName() + " [" + c2.getColor() + c2.getCost() + "]");
+                    ctx.getOutput().print("> ");
+                    String pick = ctx.getInput().nextLine().trim().toLowerCase();
                     if (pick.equals("t") || pick.equals("end")) return;
                     if (pick.equals("1") || pick.equals("card 1")) { player.drawCard(c1); break; }
                     if (pick.equals("2") || pick.equals("card 2")) { player.drawCard(c2); break; }
-                    System.out.println("Invalid choice. Enter '1','2','card 1','card 2', or 't'.");
+                    ctx.getOutput().println("Invalid choice. Enter '1','2','card 1','card 2', or 't'.");
                 }
                 break;
             }
-            System.out.println("Invalid input. Enter 'gold', 'cards', 't', or 'end'.");
+            ctx.getOutput().println("Invalid input. Enter 'gold', 'cards', 't', or 'end'.");
         }
 
         // 2) Apply purple card effects & calculate role income
-        PurpleCardEffects.applyTurnEffects(player, scanner);
-        int income = 0;
-        switch (name.toLowerCase()) {
-            case "king":
-                income = (int) player.getCity().stream()
-                    .filter(d -> PurpleCardEffects.effectiveColor(d, player, "king").equals("yellow"))
-                    .count();
-                crownPlayerIndex = players.indexOf(player);
-                break;
-            case "bishop":
-                // Count actual blue districts in your city
-                int blueCount = (int) player.getCity().stream()
-                    .filter(d -> d.getColor().equalsIgnoreCase("blue"))
-                    .count();
-                income = blueCount;
-                break;
-            case "merchant":
-                income = (int) player.getCity().stream()
-                    .filter(d -> PurpleCardEffects.effectiveColor(d, player, "merchant").equals("green"))
-                    .count() + 1;
-                break;
-            case "architect":
-                player.drawCard(districtDeck.draw());
-                player.drawCard(districtDeck.draw());
-                break;
-            case "warlord":
-                income = (int) player.getCity().stream()
-                    .filter(d -> PurpleCardEffects.effectiveColor(d, player, "warlord").equals("red"))
-                    .count();
-                break;
+        PurpleCardEffects.applyTurnEffects(ctx, player, ctx.getInput());
+        int income = PurpleCardEffects.characterIncome(player, type, true);
+        if (type == CharacterType.KING) {
+            ctx.setCrownPlayerIndex(ctx.getSeat(player));
+        }
+        for (int i = 0; type != null && i < type.getExtraCards(); i++) {
+            player.drawCard(districtDeck.draw());
         }
         if (income > 0) {
             player.addGold(income);
-            System.out.println(player.getName() + " gains " + income + " gold (now has " + player.getGold() + ").");
+            ctx.getOutput().println(player.getName() + " gains " + income + " gold (now has " + player.getGold() + ").");
         }
 
         // 3) Warlord destruction
-        if (name.equalsIgnoreCase("warlord")) {
-            for (Player target : players) {
-                if (target == player) continue;
-                CharacterCard targetCard = selectedCharacters.get(target);
-                if (targetCard.getName().equalsIgnoreCase("Bishop") &&
-                    !targetCard.getName().equalsIgnoreCase(assassinatedCharacter)) {
-                    continue;}
-
-                if (target.getCity().isEmpty()) continue;
-                DistrictCard victim = target.getCity().get(0);
-                if (!PurpleCardEffects.isProtectedFromWarlord(victim, target)) {
-                    int cost = PurpleCardEffects.getWarlordDestructionCost(victim, target);
-                    if (player.getGold() >= cost && cost >= 0) {
-                        player.addGold(-cost);
-                        target.getCity().remove(0);
-                        System.out.println(player.getName() + " destroyed "
-                            + target.getName() + "'s " + victim.getName());
-                    }
-                    break;
-                }
+        if (type == CharacterType.WARLORD) {
+            Player target = WarlordTargets.findVictim(ctx, player, player.getGold());
+            int index = target == null ? -1 : WarlordTargets.findDistrict(target, player.getGold());
+            if (index >= 0) {
+                int cost = PurpleCardEffects.getWarlordDestructionCost(target.getCity().get(index), target);
+                DistrictCard victim = target.getCity().remove(index);
+                player.addGold(-cost);
+                ctx.getEventListener().onDistrictDestroyed(player, target, victim, cost);
             }
         }
 
-        if (player.getCity().stream().anyMatch(card -> card.getName().equalsIgnoreCase("Museum"))
-            && !player.getHand().isEmpty()) {
+        if (player.hasDistrict("Museum") && !player.getHand().isEmpty()) {
 
-            System.out.println("You may bank 1 card at the Museum for +1 point at game end.");
-            System.out.println("Your hand:");
+            ctx.getOutput().println("You may bank 1 card at the Museum for +1 point at game end.");
+            ctx.getOutput().println("Your hand:");
             for (int i = 0; i < player.getHand().size(); i++) {
                 DistrictCard c = player.getHand().get(i);
-                System.out.println((i + 1) + ". " + c.getName() + " [" + c.getColor() + c.getCost() + "]");
+                ctx.getOutput().println((i + 1) + ". " + c.getName() + " [" + c.getColor() + c.getCost() + "]");
             }
 
             while (true) {
-                System.out.print("Enter card number to bank or 't' to skip: ");
-                String in = scanner.nextLine().trim().toLowerCase();
+                ctx.getOutput().print("Enter card number to bank or 't' to skip: ");
+                String in = ctx.getInput().nextLine().trim().toLowerCase();
                 if (in.equals("t") || in.equals("end")) break;
                 try {
                     int idx = Integer.parseInt(in) - 1;
                     if (idx >= 0 && idx < player.getHand().size()) {
                         DistrictCard toBank = player.getHand().remove(idx);
                         player.bankCard(toBank);
-                        System.out.println("Banked: " + toBank.getName());
+                        ctx.getOutput().println("Banked: " + toBank.getName());
                         break;
                     }
                 } catch (NumberFormatException ignored) {}
-                System.out.println("Invalid input.");
+                ctx.getOutput().println("Invalid input.");
             }
         }
 
         // 4) Build phase & other commands
-        CommandHandler.run(player, scanner);
+        CommandHandler.run(ctx, player, ctx.getInput());
 
-        System.out.println(player.getName() + "'s turn ends.\n");
+        ctx.getOutput().println(player.getName() + "'s turn ends.\n");
     }
 
     /**
@@ -940,10 +1134,22 @@ public class Game {
      * @return the current Player object
      */
     public static Player currentPlayer() {
-        return players.stream()
-            .filter(p -> !selectedCharacters.containsKey(p))
-            .findFirst()
-            .orElse(null);
+        return currentPlayer(defaultContext);
+    }
+
+    /**
+     * Gets the first player in the given context who has not chosen a character yet.
+     *
+     * @param ctx the context of the game being played
+     * @return the current Player object
+     */
+    public static Player currentPlayer(GameContext ctx) {
+        for (Player p : ctx.getPlayers()) {
+            if (!ctx.getSelectedCharacters().containsKey(p)) {
+                return p;
+            }
+        }
+        return null;
     }
 
     /**
@@ -953,7 +1159,18 @@ public class Game {
      * @return true if the player has chosen a character, false otherwise
      */
     public static boolean hasChosenCharacter(Player player) {
-        return selectedCharacters.containsKey(player);
+        return hasChosenCharacter(defaultContext, player);
+    }
+
+    /**
+     * Checks if a player has already chosen a character this round in the given context.
+     *
+     * @param ctx the context of the game being played
+     * @param player the player to check
+     * @return true if the player has chosen a character, false otherwise
+     */
+    public static boolean hasChosenCharacter(GameContext ctx, Player player) {
+        return ctx.getSelectedCharacters().containsKey(player);
     }
 
     public static void processTurn() {
@@ -963,34 +1180,36 @@ public class Game {
     public int askPlayerCount() {
         while (true) {
             try {
-                System.out.print("> ");
-                int n = Integer.parseInt(scanner.nextLine().trim());
+                context.getOutput().print("> ");
+                int n = Integer.parseInt(context.getInput().nextLine().trim());
                 if (n >= 4 && n <= 7) return n;
-            } catch (Exception ignored) {}
+            } catch (NumberFormatException ignored) {}
         }
     }
 
     public static void loadGame(JSONObject root) {
-        GameState.loadGame(root);
+        loadGame(defaultContext, root);
+    }
+
+    public static void loadGame(GameContext ctx, JSONObject root) {
+        GameState.loadGame(ctx, root);
         if (root.containsKey("mysteryDiscard")) {
             String name = (String) root.get("mysteryDiscard");
-            mysteryDiscard = characterPool.stream()
-                .filter(c -> c.getName().equalsIgnoreCase(name))
-                .findFirst().orElse(null);
+            ctx.setMysteryDiscard(getCharacter(name));
         }
     }
 
 
     public static void setCrownPlayerIndex(int idx) {
-        crownPlayerIndex = idx;
+        defaultContext.setCrownPlayerIndex(idx);
     }
 
     public static int getCrownPlayerIndex() {
-        return crownPlayerIndex;
+        return defaultContext.getCrownPlayerIndex();
     }
 
     public static void setAssassinatedCharacter(String name) {
-        assassinatedCharacter = name;
+        defaultContext.setAssassinatedCharacter(name);
     }
 
     /**
@@ -1000,14 +1219,9 @@ public class Game {
      */
     private static List<CharacterCard> createDefaultCharacters() {
         List<CharacterCard> chars = new ArrayList<>();
-        chars.add(new CharacterCard("Assassin", 1));
-        chars.add(new CharacterCard("Thief", 2));
-        chars.add(new CharacterCard("Magician", 3));
-        chars.add(new CharacterCard("King", 4));
-        chars.add(new CharacterCard("Bishop", 5));
-        chars.add(new CharacterCard("Merchant", 6));
-        chars.add(new CharacterCard("Architect", 7));
-        chars.add(new CharacterCard("Warlord", 8));
+        for (CharacterType type : CharacterType.values()) {
+            chars.add(new CharacterCard(type.getDisplayName(), type.getRank()));
+        }
         return chars;
     }
 
@@ -1017,7 +1231,7 @@ public class Game {
      * @param name the name of the robbed character
      */
     public static void setRobbedCharacter(String name) {
-        robbedCharacter = name;
+        defaultContext.setRobbedCharacter(name);
     }
 
     /**
@@ -1026,15 +1240,24 @@ public class Game {
      * @return the name of the robbed character, or null if no character was robbed
      */
     public static String getRobbedCharacter() {
-        return robbedCharacter;
+        return defaultContext.getRobbedCharacter();
     }
 
     /**
      * Displays the current gold count for all players.
      */
     public static void showAllPlayerGold() {
-    for (Player p : players) {
-        System.out.println(p.getName() + " has " + p.getGold() + " gold.");
+        showAllPlayerGold(defaultContext);
+    }
+
+    /**
+     * Displays the current gold count for all players in the given context.
+     *
+     * @param ctx the context of the game being played
+     */
+    public static void showAllPlayerGold(GameContext ctx) {
+    for (Player p : ctx.getPlayers()) {
+        ctx.getOutput().println(p.getName() + " has " + p.getGold() + " gold.");
     }
     }
 
@@ -1046,41 +1269,53 @@ public class Game {
      * @return true if the command was handled, false otherwise
      */
     public static boolean handleInfoCommands(String input, Player player) {
+        return handleInfoCommands(defaultContext, input, player);
+    }
+
+    /**
+     * Handles information commands during a player's turn in the given context.
+     *
+     * @param ctx the context of the game being played
+     * @param input the command input from the player
+     * @param player the current player
+     * @return true if the command was handled, false otherwise
+     */
+    public static boolean handleInfoCommands(GameContext ctx, String input, Player player) {
         switch (input) {
             case "gold":
-                showAllPlayerGold();
+                showAllPlayerGold(ctx);
                 return true;
             case "hand":
                 List<DistrictCard> hand = player.getHand();
                 if (hand.isEmpty()) {
-                    System.out.println("Your hand is empty.");
+                    ctx.getOutput().println("Your hand is empty.");
                 } else {
-                    System.out.println("Your hand:");
+                    ctx.getOutput().println("Your hand:");
                     for (int i = 0; i < hand.size(); i++) {
                         DistrictCard d = hand.get(i);
-                        System.out.println((i + 1) + ". " + d.getName() + " (" + d.getColor() + "), cost: " + d.getCost());
+                        ctx.getOutput().println((i + 1) + ". " + d.getName() + " (" + d.getColor() + "), cost: " + d.getCost());
                     }
                 }
                 return true;
             case "city":
             case "citadel":
                 List<DistrictCard> city = player.getCity();
-                System.out.println("Your city:");
+                ctx.getOutput().println("Your city:");
                 if (city.isEmpty()) {
-                    System.out.println("(no districts built yet)");
+                    ctx.getOutput().println("(no districts built yet)");
                 } else {
                     for (DistrictCard d : city) {
-                        System.out.println("- " + d.getName() + " (" + d.getColor() + "), cost: " + d.getCost());
+                        ctx.getOutput().println("- " + d.getName() + " (" + d.getColor() + "), cost: " + d.getCost());
                     }
                 }
                 return true;
             case "all":
-                for (Player p : players) {
-                    System.out.print(p.getName() + ": gold=" + p.getGold() + ", city=");
+                for (Player p : ctx.getPlayers()) {
+                    ctx.getOutput().print(p.getName() + ": gold=" + p.getGold() + ", city=");
                     for (DistrictCard d : p.getCity()) {
-                        System.out.print(d.getName() + " [" + d.getColor() + d.getCost() + "] ");
+                        ctx.getOutput().print(d.getName() + " [" + d.getColor() + d.getCost() + "] ");
                     }
-                    System.out.println();
+                    ctx.getOutput().println();
                 }
                 return true;
             default:
@@ -1104,6 +1339,16 @@ public class Game {
         return scanner;
     }
 
+    /**
+     * Gets the input of games that have none of their own, such as the console game.
+     * It reads from the scanner set with {@link #setScanner(Scanner)} at the time of
+     * each read, so replacing the scanner takes effect at once.
+     * @return the console input
+     */
+    public static PlayerInput getConsoleInput() {
+        return consoleInput;
+    }
+
     public static void setCurrentPlayer(Player player) {
         // ... existing code ...
     }
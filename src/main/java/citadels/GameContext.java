@@ -0,0 +1,549 @@
+package citadels;
+
+import citadels.card.CharacterCard;
+import citadels.card.CharacterType;
+import citadels.card.DistrictCard;
+import citadels.card.DistrictDeckLoader;
+import citadels.event.ConsoleEventRenderer;
+import citadels.event.GameEventListener;
+import citadels.metrics.GameMetrics;
+import citadels.player.Player;
+import citadels.player.PlayerInput;
+import citadels.util.Deck;
+import citadels.util.GameRandom;
+import citadels.util.Zobrist;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Holds all mutable state belonging to a single game of Citadels.
+ * Every game owns exactly one context, which keeps track of:
+ * <ul>
+ *   <li>The players and the characters they picked this round</li>
+ *   <li>The district deck and the discarded character cards</li>
+ *   <li>The crown holder, assassinated and robbed characters</li>
+ *   <li>The current player, character and game phase</li>
+ *   <li>Per-turn purple card usage (e.g., Laboratory)</li>
+ *   <li>The game's seed and random source</li>
+ *   <li>The listener that is told about everything happening in the game</li>
+ *   <li>Where the game reads its prompts' answers from and prints to</li>
+ *   <li>The latency metrics the game records, if any</li>
+ *   <li>Whether the game emits flight recorder events</li>
+ *   <li>Whether the player turned on debug mode</li>
+ * </ul>
+ * Because nothing in here is static, any number of independent games can be
+ * played at the same time in one JVM, as long as each game uses its own context.
+ * The static API of {@link Game} and {@link GameState} operates on
+ * {@link Game#getDefaultContext()}.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class GameContext {
+    /** Gives the Zobrist key of a district in the deck */
+    private static final ToLongFunction<DistrictCard> DECK_KEYS =
+        card -> Zobrist.key(Zobrist.DECK, card.getHashKey());
+
+    /** List of all players in the game, indexed by seat and name */
+    private final Seating players = new Seating();
+    /** Maps players to their selected character cards, indexed by seat and rank */
+    private final CharacterAssignments selectedCharacters = new CharacterAssignments(players);
+    /** Deck of district cards */
+    private final Deck<DistrictCard> districtDeck;
+    /** List of visible discarded character cards */
+    private final List<CharacterCard> visibleDiscard = new ArrayList<>();
+    /** Names of players who have used their Laboratory this turn */
+    private final Set<String> labUsed = new HashSet<>();
+
+    /** Index of the player with the crown */
+    private int crownPlayerIndex;
+    /** The face-down discarded character card */
+    private CharacterCard mysteryDiscard;
+    /** Name of the assassinated character */
+    private String assassinatedCharacter;
+    /** Name of the robbed character */
+    private String robbedCharacter;
+    /** The assassinated character, found from its recorded name or rank */
+    private CharacterType assassinated;
+    /** The robbed character, found from its recorded name or rank */
+    private CharacterType robbed;
+
+    /** The player whose turn it currently is */
+    private Player currentPlayer;
+    /** The character card being played in the current turn */
+    private CharacterCard currentCharacter;
+
+    /** Current phase of the game */
+    private Game.GamePhase currentPhase = Game.GamePhase.SELECTION;
+    /** Flag indicating if a round is in progress */
+    private boolean roundInProgress;
+    /** Flag indicating if the selection phase is active */
+    private boolean selectionPhase;
+    /** Flag indicating if the game is over */
+    private boolean gameOver;
+    /** Reference to the winning player */
+    private Player winner;
+
+    /** Seed the game's random source was started from */
+    private long seed;
+    /** Random source for character selection and AI decisions */
+    private GameRandom random;
+    /** Listener receiving the game's events; prints them to the console by default */
+    private GameEventListener eventListener = new ConsoleEventRenderer();
+    /** Input the game's prompts read from, or null to use {@link Game#getConsoleInput()} */
+    private PlayerInput input;
+    /** Stream the game prints to, or null to use the current {@code System.out} */
+    private PrintStream output;
+    /** Whether the end of the game exits the program */
+    private boolean exitOnGameEnd = true;
+    /** Latency metrics of the game, or null to collect none */
+    private GameMetrics metrics;
+    /** Whether the game emits flight recorder events */
+    private boolean flightRecorded = true;
+    /** Whether the player turned on debug mode */
+    private boolean debugMode;
+
+    /**
+     * Creates a new game context with a freshly seeded random source and
+     * a freshly loaded and shuffled district deck.
+     */
+    public GameContext() {
+        this(GameRandom.newSeed());
+    }
+
+    /**
+     * Creates a new game context whose shuffles and random decisions are all
+     * derived from the given seed, so the game can be reproduced exactly.
+     *
+     * @param seed the seed of the game
+     */
+    public GameContext(long seed) {
+        this.seed = seed;
+        this.random = new GameRandom(seed);
+        this.districtDeck = DistrictDeckLoader.loadFromTSV(random.split());
+        districtDeck.setHashKeys(DECK_KEYS);
+    }
+
+    /**
+     * Creates a new game context using the given district deck and a freshly seeded random source.
+     *
+     * @param districtDeck the deck of district cards this game draws from
+     */
+    public GameContext(Deck<DistrictCard> districtDeck) {
+        this.districtDeck = districtDeck;
+        districtDeck.setHashKeys(DECK_KEYS);
+        setSeed(GameRandom.newSeed());
+    }
+
+    /**
+     * Gets the list of players in this game.
+     * @return the mutable list of players
+     */
+    public List<Player> getPlayers() { return players; }
+
+    /**
+     * Gets the characters selected by each player this round.
+     * @return the mutable map of players to their characters
+     */
+    public Map<Player, CharacterCard> getSelectedCharacters() { return selectedCharacters; }
+
+    /**
+     * Gets the seat of a player, without searching the list of players.
+     * @param player the player
+     * @return the player's index in {@link #getPlayers()}, or -1 if the player is not in this game
+     */
+    public int getSeat(Player player) { return players.seatOf(player); }
+
+    /**
+     * Gets the player with a name, without searching the list of players.
+     * @param name the player's name, which must match exactly
+     * @return the first player with the name, or null if there is none
+     */
+    public Player getPlayer(String name) {
+        int seat = players.seatOf(name);
+        return seat < 0 ? null : players.get(seat);
+    }
+
+    /**
+     * Gets the seat of the player who picked the character of a rank this round.
+     * @param rank the rank of the character
+     * @return the seat, or -1 if no player in this game picked the character
+     */
+    public int getCharacterSeat(int rank) { return selectedCharacters.seatOf(rank); }
+
+    /**
+     * Gets the player who picked the character of a rank this round.
+     * @param rank the rank of the character
+     * @return the player, or null if nobody picked the character
+     */
+    public Player getCharacterHolder(int rank) { return selectedCharacters.holderOf(rank); }
+
+    /**
+     * Gets the rank of the character picked by the player at a seat this round.
+     * @param seat the seat
+     * @return the rank, or 0 if the player has not picked a character
+     */
+    public int getCharacterRank(int seat) { return selectedCharacters.rankAt(seat); }
+
+    /**
+     * Gets the district deck of this game.
+     * @return the district deck
+     */
+    public Deck<DistrictCard> getDistrictDeck() { return districtDeck; }
+
+    /**
+     * Gets the character cards discarded face up this round.
+     * @return the mutable list of visible discards
+     */
+    public List<CharacterCard> getVisibleDiscard() { return visibleDiscard; }
+
+    /**
+     * Gets the names of players who have used their Laboratory this turn.
+     * @return the mutable set of player names
+     */
+    public Set<String> getLaboratoryUsage() { return labUsed; }
+
+    /**
+     * Gets the seed the game's random source was started from.
+     * @return the seed
+     */
+    public long getSeed() { return seed; }
+
+    /**
+     * Restarts the game's random source, and the district deck's, from the given seed.
+     * The cards themselves are left untouched.
+     * @param seed the new seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.random = new GameRandom(seed);
+        districtDeck.setRandom(random.split());
+    }
+
+    /**
+     * Gets the random source used for character selection and AI decisions.
+     * @return the game's random source
+     */
+    public GameRandom getRandom() { return random; }
+
+    /**
+     * Gets the listener that receives this game's events.
+     * @return the event listener
+     */
+    public GameEventListener getEventListener() { return eventListener; }
+
+    /**
+     * Sets the listener that receives this game's events, e.g.
+     * {@link GameEventListener#NONE} to play silently.
+     * @param listener the event listener
+     */
+    public void setEventListener(GameEventListener listener) { eventListener = listener; }
+
+    /**
+     * Gets the index of the player holding the crown.
+     * @return the crown holder's index in {@link #getPlayers()}
+     */
+    public int getCrownPlayerIndex() { return crownPlayerIndex; }
+
+    /**
+     * Sets the index of the player holding the crown.
+     * @param idx the crown holder's index in {@link #getPlayers()}
+     */
+    public void setCrownPlayerIndex(int idx) { crownPlayerIndex = idx; }
+
+    /**
+     * Gets the face-down discarded character card.
+     * @return the mystery discard, or null if none was removed yet
+     */
+    public CharacterCard getMysteryDiscard() { return mysteryDiscard; }
+
+    /**
+     * Sets the face-down discarded character card.
+     * @param card the mystery discard
+     */
+    public void setMysteryDiscard(CharacterCard card) { mysteryDiscard = card; }
+
+    /**
+     * Gets the name of the assassinated character.
+     * @return the name of the assassinated character, or null if no character was assassinated
+     */
+    public String getAssassinatedCharacter() { return assassinatedCharacter; }
+
+    /**
+     * Sets the name of the assassinated character.
+     * @param name the name of the assassinated character
+     */
+    public void setAssassinatedCharacter(String name) {
+        assassinatedCharacter = name;
+        assassinated = CharacterType.parse(name);
+    }
+
+    /**
+     * Gets the name of the robbed character.
+     * @return the name of the robbed character, or null if no character was robbed
+     */
+    public String getRobbedCharacter() { return robbedCharacter; }
+
+    /**
+     * Sets the name of the robbed character.
+     * @param name the name of the robbed character
+     */
+    public void setRobbedCharacter(String name) {
+        robbedCharacter = name;
+        robbed = CharacterType.parse(name);
+    }
+
+    /**
+     * Checks whether a character was assassinated this round. The Assassin's
+     * target may be recorded by name (as the console game does) or by rank
+     * (as the AI does); either matches.
+     * @param character the character to check
+     * @return true if the character was assassinated
+     */
+    public boolean isAssassinated(CharacterCard character) {
+        return matches(character, assassinated, assassinatedCharacter);
+    }
+
+    /**
+     * Checks whether a character was robbed this round, by name or by rank.
+     * @param character the character to check
+     * @return true if the character was robbed
+     * @see #isAssassinated(CharacterCard)
+     */
+    public boolean isRobbed(CharacterCard character) {
+        return matches(character, robbed, robbedCharacter);
+    }
+
+    /**
+     * Gets the player whose turn it currently is.
+     * @return the current player
+     */
+    public Player getCurrentPlayer() { return currentPlayer; }
+
+    /**
+     * Sets the player whose turn it currently is.
+     * @param player the current player
+     */
+    public void setCurrentPlayer(Player player) { currentPlayer = player; }
+
+    /**
+     * Gets the character card being played in the current turn.
+     * @return the current character card
+     */
+    public CharacterCard getCurrentCharacter() { return currentCharacter; }
+
+    /**
+     * Sets the character card being played in the current turn.
+     * @param character the current character card
+     */
+    public void setCurrentCharacter(CharacterCard character) { currentCharacter = character; }
+
+    /**
+     * Gets the current phase of the game.
+     * @return the current GamePhase
+     */
+    public Game.GamePhase getCurrentPhase() { return currentPhase; }
+
+    /**
+     * Sets the current phase of the game.
+     * @param phase the new GamePhase to set
+     */
+    public void setCurrentPhase(Game.GamePhase phase) { currentPhase = phase; }
+
+    /**
+     * Checks if a round is currently in progress.
+     * @return true if a round is in progress, false otherwise
+     */
+    public boolean isRoundInProgress() { return roundInProgress; }
+
+    /**
+     * Sets whether a round is currently in progress.
+     * @param inProgress true if a round is in progress, false otherwise
+     */
+    public void setRoundInProgress(boolean inProgress) { roundInProgress = inProgress; }
+
+    /**
+     * Checks if the selection phase flag is set.
+     * @return true if the selection phase is active
+     */
+    public boolean getSelectionPhase() { return selectionPhase; }
+
+    /**
+     * Sets the selection phase flag.
+     * @param value true if the selection phase is active
+     */
+    public void setSelectionPhase(boolean value) { selectionPhase = value; }
+
+    /**
+     * Checks if the game is over.
+     * @return true if the game is over, false otherwise
+     */
+    public boolean isGameOver() { return gameOver; }
+
+    /**
+     * Sets the game over state.
+     * @param over true to end the game, false to continue
+     */
+    public void setGameOver(boolean over) { gameOver = over; }
+
+    /**
+     * Gets the winner of the game.
+     * @return the Player who won the game, or null if the game isn't over
+     */
+    public Player getWinner() { return winner; }
+
+    /**
+     * Sets the winner of the game.
+     * @param p the Player who won the game
+     */
+    public void setWinner(Player p) { winner = p; }
+
+    /**
+     * Gets the input the game's prompts read from.
+     * @return the input set with {@link #setInput(PlayerInput)}, or {@link Game#getConsoleInput()} if none was set
+     */
+    public PlayerInput getInput() { return input != null ? input : Game.getConsoleInput(); }
+
+    /**
+     * Sets the input the game's prompts read from, so that games played at the
+     * same time can each read from their own player.
+     * @param input the input to read from, or null to use {@link Game#getConsoleInput()}
+     */
+    public void setInput(PlayerInput input) { this.input = input; }
+
+    /**
+     * Gets the stream the game prints its prompts and messages to.
+     * @return the stream set with {@link #setOutput(PrintStream)}, or the current {@code System.out} if none was set
+     */
+    public PrintStream getOutput() { return output != null ? output : System.out; }
+
+    /**
+     * Sets the stream the game prints its prompts and messages to. Game events are
+     * printed by the {@link #setEventListener(GameEventListener) event listener},
+     * which needs to be given the same stream.
+     * @param output the stream to print to, or null to use the current {@code System.out}
+     */
+    public void setOutput(PrintStream output) { this.output = output; }
+
+    /**
+     * Checks whether the end of the game exits the program, as it does for the console game.
+     * @return true if {@link Game#endGame(GameContext)} calls {@code System.exit}
+     */
+    public boolean isExitOnGameEnd() { return exitOnGameEnd; }
+
+    /**
+     * Sets whether the end of the game exits the program. Games hosted alongside
+     * others turn this off, and {@link Game#run()} then returns once the game is over.
+     * @param exit true to exit when the game ends
+     */
+    public void setExitOnGameEnd(boolean exit) { exitOnGameEnd = exit; }
+
+    /**
+     * Gets the latency metrics the game records into.
+     * @return the metrics, or null if the game collects none
+     */
+    public GameMetrics getMetrics() { return metrics; }
+
+    /**
+     * Sets the latency metrics the game records into. Several games may share one instance.
+     * @param metrics the metrics, or null to collect none (default)
+     */
+    public void setMetrics(GameMetrics metrics) { this.metrics = metrics; }
+
+    /**
+     * Checks whether the game emits {@link citadels.jfr flight recorder events}.
+     * @return true unless turned off
+     */
+    public boolean isFlightRecorded() { return flightRecorded; }
+
+    /**
+     * Sets whether the game emits flight recorder events. Games played out only to
+     * look ahead, such as forks of a snapshot, turn them off so a recording shows real games.
+     * @param recorded true to emit events (default)
+     */
+    public void setFlightRecorded(boolean recorded) { flightRecorded = recorded; }
+
+    /**
+     * Checks whether debug mode is on in this game. The default context keeps the
+     * flag in {@link Game#debugMode}, as the static API always has.
+     * @return true if the debug command turned it on
+     */
+    public boolean isDebugMode() { return this == Game.getDefaultContext() ? Game.debugMode : debugMode; }
+
+    /**
+     * Turns debug mode on or off in this game only.
+     * @param on true to turn debug mode on
+     */
+    public void setDebugMode(boolean on) {
+        if (this == Game.getDefaultContext()) {
+            Game.debugMode = on;
+        } else {
+            debugMode = on;
+        }
+    }
+
+    /**
+     * Gets a {@link Zobrist} hash of the position: every player's gold, hand, city and
+     * banked cards by seat, the cards in the deck, who picked which character, and
+     * the crown, the face-up discards, the ranks of the assassinated and robbed
+     * characters and the character being played. The players, the deck and the
+     * picks keep their hashes up to date as the game changes, so this only
+     * combines a few numbers per player. The order of the deck, the random sources and the event listener
+     * are not part of the position, so copies of a game and games that reach the
+     * same position by different moves hash the same.
+     *
+     * @return the hash of the position
+     */
+    public long getPositionHash() {
+        long h = selectedCharacters.hash() + districtDeck.getContentHash();
+        for (int seat = 0; seat < players.size(); seat++) {
+            h += Zobrist.key(Zobrist.SEAT, players.get(seat).getStateHash() + seat);
+        }
+
+        int discards = 0;
+        for (int i = 0; i < visibleDiscard.size(); i++) {
+            discards |= 1 << visibleDiscard.get(i).getRank();
+        }
+        long table = crownPlayerIndex;
+        table = table * 31 + discards;
+        table = table * 31 + targetKey(assassinated, assassinatedCharacter);
+        table = table * 31 + targetKey(robbed, robbedCharacter);
+        table = table * 31 + (currentCharacter == null ? 0 : currentCharacter.getRank());
+        return h + Zobrist.key(Zobrist.TABLE, table);
+    }
+
+    /**
+     * Gets the part of the position hash for the target of the Assassin or the
+     * Thief, which is the target's rank whether it was recorded by name or by rank.
+     *
+     * @param target the recorded target's character, or null
+     * @param recorded the recorded target's name or rank, or null
+     * @return the rank, the hash of a recorded name that is no character, or 0 if there is no target
+     */
+    private static int targetKey(CharacterType target, String recorded) {
+        if (target != null) {
+            return target.getRank();
+        }
+        return recorded == null ? 0 : recorded.hashCode();
+    }
+
+    /**
+     * Checks whether a character is the target recorded for the Assassin or the Thief.
+     *
+     * @param character the character to check, or null
+     * @param target the recorded target's character, or null
+     * @param recorded the recorded target's name or rank, or null
+     * @return true if the character is the target
+     */
+    private static boolean matches(CharacterCard character, CharacterType target, String recorded) {
+        if (character == null || recorded == null) {
+            return false;
+        }
+        if (character.getType() != null) {
+            return character.getType() == target;
+        }
+        return character.getName().equalsIgnoreCase(recorded);  // A card of another name
+    }
+}
@@ -0,0 +1,358 @@
+package citadels;
+
+import citadels.card.CardCatalog;
+import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.event.GameEventListener;
+import citadels.player.AIPlayer;
+import citadels.player.HumanPlayer;
+import citadels.player.Player;
+import citadels.util.Deck;
+import citadels.util.GameRandom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable copy of the complete state of a game, for AIs that search ahead.
+ * A search captures the position once, then restores it into a scratch game before
+ * every playout, or forks independent games from it, thousands of times per decision.
+ * <p>
+ * To keep that cheap, every card is held as its {@link CardCatalog} id in one flat
+ * {@code int} array (each player's hand, city and banked cards, then the deck), and
+ * the per-player numbers sit in another, so capturing fills a few arrays and restoring
+ * refills the game's existing lists and deck in place. Characters are kept by reference,
+ * since character cards never change. The snapshot covers the players, the deck and
+ * the state of every random source, the characters picked and discarded, the crown,
+ * the assassinated and robbed characters, Laboratory usage, and the turn in progress.
+ * The event listener is not part of the game state and is left alone.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public final class GameSnapshot {
+    /** Number of ints stored per player */
+    private static final int PLAYER_FIELDS = 5;
+    /** Offset of a player's gold */
+    private static final int GOLD = 0;
+    /** Offset of the number of cards in a player's hand */
+    private static final int HAND = 1;
+    /** Offset of the number of districts in a player's city */
+    private static final int CITY = 2;
+    /** Offset of the number of a player's banked cards */
+    private static final int BANKED = 3;
+    /** Offset of a player's flags */
+    private static final int FLAGS = 4;
+    /** Flag set if the player is human */
+    private static final int FLAG_HUMAN = 1;
+    /** Flag set if the player has used their Laboratory this turn */
+    private static final int FLAG_LABORATORY = 2;
+    /** Game phases, indexed by ordinal */
+    private static final Game.GamePhase[] PHASES = Game.GamePhase.values();
+
+    /** The catalog card ids refer to */
+    private final CardCatalog catalog;
+    /** Every card: each player's hand, city and banked cards in seat order, then the deck */
+    private final int[] cards;
+    /** Cards not in the catalog, referred to from {@link #cards} as {@code -(index + 1)} */
+    private final DistrictCard[] extras;
+    /** {@link #PLAYER_FIELDS} ints per player, in seat order */
+    private final int[] playerData;
+    /** Player names, in seat order */
+    private final String[] names;
+    /** Character picked by each player, in seat order, or null */
+    private final CharacterCard[] characters;
+    /** Random state of each player, in seat order; only set for AI players */
+    private final long[] playerRandom;
+    /** Which players have a random state */
+    private final boolean[] hasRandom;
+    /** Number of cards in the deck */
+    private final int deckSize;
+
+    /** The face-up discarded characters */
+    private final CharacterCard[] visibleDiscard;
+    /** The face-down discarded character, or null */
+    private final CharacterCard mysteryDiscard;
+    /** The assassinated character as stored in the context, or null */
+    private final String assassinated;
+    /** The robbed character as stored in the context, or null */
+    private final String robbed;
+    /** Index of the crown holder */
+    private final int crown;
+    /** Seat of the player taking their turn, or -1 */
+    private final int currentSeat;
+    /** The character being played this turn, or null */
+    private final CharacterCard currentCharacter;
+    /** Ordinal of the game phase */
+    private final int phase;
+    /** Whether a round is in progress */
+    private final boolean roundInProgress;
+    /** Whether the game is over */
+    private final boolean gameOver;
+    /** Seat of the winner, or -1 */
+    private final int winnerSeat;
+    /** The game's seed */
+    private final long seed;
+    /** State of the game's random source */
+    private final long randomState;
+    /** State of the deck's random source */
+    private final long deckRandomState;
+
+    /**
+     * Captures a game, numbering its cards with the default catalog.
+     *
+     * @param ctx the context of the game
+     * @return a snapshot of the game
+     */
+    public static GameSnapshot capture(GameContext ctx) {
+        return new GameSnapshot(ctx, CardCatalog.getDefault());
+    }
+
+    /**
+     * Captures a game, numbering its cards with the given catalog.
+     *
+     * @param ctx the context of the game
+     * @param catalog the catalog numbering the cards
+     * @return a snapshot of the game
+     */
+    public static GameSnapshot capture(GameContext ctx, CardCatalog catalog) {
+        return new GameSnapshot(ctx, catalog);
+    }
+
+    /**
+     * Creates a snapshot of a game.
+     *
+     * @param ctx the context of the game
+     * @param catalog the catalog numbering the cards
+     */
+    private GameSnapshot(GameContext ctx, CardCatalog catalog) {
+        this.catalog = catalog;
+        List<Player> players = ctx.getPlayers();
+        Map<Player, CharacterCard> selected = ctx.getSelectedCharacters();
+        Set<String> labUsed = ctx.getLaboratoryUsage();
+        Deck<DistrictCard> deck = ctx.getDistrictDeck();
+        int count = players.size();
+
+        int total = deck.size();
+        for (Player p : players) {
+            total += p.getHand().size() + p.getCity().size() + p.getBankedCards().size();
+        }
+        cards = new int[total];
+        playerData = new int[count * PLAYER_FIELDS];
+        names = new String[count];
+        characters = new CharacterCard[count];
+        playerRandom = new long[count];
+        hasRandom = new boolean[count];
+
+        List<DistrictCard> unknown = null;
+        int pos = 0;
+        for (int seat = 0; seat < count; seat++) {
+            Player p = players.get(seat);
+            int base = seat * PLAYER_FIELDS;
+            playerData[base + GOLD] = p.getGold();
+            playerData[base + HAND] = p.getHand().size();
+            playerData[base + CITY] = p.getCity().size();
+            playerData[base + BANKED] = p.getBankedCards().size();
+            playerData[base + FLAGS] = (p.isHuman() ? FLAG_HUMAN : 0)
+                | (!labUsed.isEmpty() && labUsed.contains(p.getName()) ? FLAG_LABORATORY : 0);
+            names[seat] = p.getName();
+            characters[seat] = selected.isEmpty() ? null : selected.get(p);
+            if (p instanceof AIPlayer && ((AIPlayer) p).getRandom() != null) {
+                playerRandom[seat] = ((AIPlayer) p).getRandom().getState();
+                hasRandom[seat] = true;
+            }
+            unknown = encode(p.getHand(), pos, unknown);
+            pos += p.getHand().size();
+            unknown = encode(p.getCity(), pos, unknown);
+            pos += p.getCity().size();
+            unknown = encode(p.getBankedCards(), pos, unknown);
+            pos += p.getBankedCards().size();
+        }
+        deckSize = deck.size();
+        for (int i = 0; i < deckSize; i++) {
+            unknown = encodeCard(deck.peek(i), pos++, unknown);
+        }
+        extras = unknown == null ? new DistrictCard[0] : unknown.toArray(new DistrictCard[0]);
+
+        visibleDiscard = ctx.getVisibleDiscard().toArray(new CharacterCard[0]);
+        mysteryDiscard = ctx.getMysteryDiscard();
+        assassinated = ctx.getAssassinatedCharacter();
+        robbed = ctx.getRobbedCharacter();
+        crown = ctx.getCrownPlayerIndex();
+        currentSeat = ctx.getCurrentPlayer() == null ? -1 : ctx.getSeat(ctx.getCurrentPlayer());
+        currentCharacter = ctx.getCurrentCharacter();
+        phase = ctx.getCurrentPhase() == null ? -1 : ctx.getCurrentPhase().ordinal();
+        roundInProgress = ctx.isRoundInProgress();
+        gameOver = ctx.isGameOver();
+        winnerSeat = ctx.getWinner() == null ? -1 : ctx.getSeat(ctx.getWinner());
+        seed = ctx.getSeed();
+        randomState = ctx.getRandom() == null ? 0 : ctx.getRandom().getState();
+        deckRandomState = deck.getRandom() == null ? 0 : deck.getRandom().getState();
+    }
+
+    /**
+     * Stores the ids of a list of cards.
+     *
+     * @param list the cards
+     * @param pos the index of the first card in {@link #cards}
+     * @param unknown cards not in the catalog so far, or null
+     * @return the cards not in the catalog, or null if there are none
+     */
+    private List<DistrictCard> encode(List<DistrictCard> list, int pos, List<DistrictCard> unknown) {
+        for (int i = 0, n = list.size(); i < n; i++) {
+            unknown = encodeCard(list.get(i), pos + i, unknown);
+        }
+        return unknown;
+    }
+
+    /**
+     * Stores the id of a card, or a reference to it if it is not in the catalog.
+     *
+     * @param card the card
+     * @param pos its index in {@link #cards}
+     * @param unknown cards not in the catalog so far, or null
+     * @return the cards not in the catalog, or null if there are none
+     */
+    private List<DistrictCard> encodeCard(DistrictCard card, int pos, List<DistrictCard> unknown) {
+        int id = catalog.idOf(card);
+        if (id < 0) {
+            if (unknown == null) {
+                unknown = new ArrayList<>();
+            }
+            unknown.add(card);
+            id = -unknown.size();
+        }
+        cards[pos] = id;
+        return unknown;
+    }
+
+    /**
+     * Gets a card from its stored id.
+     *
+     * @param ref the stored id
+     * @return the card
+     */
+    private DistrictCard decode(int ref) {
+        return ref >= 0 ? catalog.get(ref) : extras[-ref - 1];
+    }
+
+    /**
+     * Gets the number of players in the captured game.
+     * @return the player count
+     */
+    public int getPlayerCount() {
+        return names.length;
+    }
+
+    /**
+     * Puts the captured game back into a context holding the same players, such
+     * as the one it was captured from or one created by {@link #fork()}. Players
+     * are matched by seat, and their lists are refilled in place.
+     *
+     * @param ctx the context to restore into
+     * @throws IllegalArgumentException if the context has a different number of players
+     */
+    public void restore(GameContext ctx) {
+        List<Player> players = ctx.getPlayers();
+        if (players.size() != names.length) {
+            throw new IllegalArgumentException("Snapshot has " + names.length
+                + " players, the game has " + players.size());
+        }
+        // Restarting from the seed replaces the random sources, so it must come before their states
+        if (ctx.getSeed() != seed) {
+            ctx.setSeed(seed);
+        }
+        Map<Player, CharacterCard> selected = ctx.getSelectedCharacters();
+        Set<String> labUsed = ctx.getLaboratoryUsage();
+        selected.clear();
+        labUsed.clear();
+
+        int pos = 0;
+        for (int seat = 0; seat < names.length; seat++) {
+            Player p = players.get(seat);
+            int base = seat * PLAYER_FIELDS;
+            p.addGold(playerData[base + GOLD] - p.getGold());
+            pos = fill(p.getHand(), pos, playerData[base + HAND]);
+            pos = fill(p.getCity(), pos, playerData[base + CITY]);
+            pos = fill(p.getBankedCards(), pos, playerData[base + BANKED]);
+            if (characters[seat] != null) {
+                selected.put(p, characters[seat]);
+            }
+            if ((playerData[base + FLAGS] & FLAG_LABORATORY) != 0) {
+                labUsed.add(p.getName());
+            }
+            if (hasRandom[seat] && p instanceof AIPlayer && ((AIPlayer) p).getRandom() != null) {
+                ((AIPlayer) p).getRandom().setState(playerRandom[seat]);
+            }
+        }
+
+        Deck<DistrictCard> deck = ctx.getDistrictDeck();
+        deck.clear();
+        for (int i = 0; i < deckSize; i++) {
+            deck.addCard(decode(cards[pos++]));
+        }
+        if (deck.getRandom() != null) {
+            deck.getRandom().setState(deckRandomState);
+        }
+
+        List<CharacterCard> discard = ctx.getVisibleDiscard();
+        discard.clear();
+        discard.addAll(Arrays.asList(visibleDiscard));
+        ctx.setMysteryDiscard(mysteryDiscard);
+        ctx.setAssassinatedCharacter(assassinated);
+        ctx.setRobbedCharacter(robbed);
+        ctx.setCrownPlayerIndex(crown);
+        ctx.setCurrentPlayer(currentSeat >= 0 ? players.get(currentSeat) : null);
+        ctx.setCurrentCharacter(currentCharacter);
+        ctx.setCurrentPhase(phase >= 0 ? PHASES[phase] : null);
+        ctx.setRoundInProgress(roundInProgress);
+        ctx.setGameOver(gameOver);
+        ctx.setWinner(winnerSeat >= 0 ? players.get(winnerSeat) : null);
+        if (ctx.getRandom() != null) {
+            ctx.getRandom().setState(randomState);
+        }
+    }
+
+    /**
+     * Refills a list with stored cards.
+     *
+     * @param list the list to refill
+     * @param pos the index of the first card in {@link #cards}
+     * @param count the number of cards
+     * @return the index after the last card
+     */
+    private int fill(List<DistrictCard> list, int pos, int count) {
+        list.clear();
+        for (int i = 0; i < count; i++) {
+            list.add(decode(cards[pos + i]));
+        }
+        return pos + count;
+    }
+
+    /**
+     * Creates an independent game in the captured state, with its own players, deck
+     * and random sources. Human players are copied as humans and the others as
+     * {@link AIPlayer}s. The new game reports its events to {@link GameEventListener#NONE}
+     * and emits no flight recorder events.
+     *
+     * @return the context of the new game
+     */
+    public GameContext fork() {
+        GameContext ctx = new GameContext(new Deck<>(new GameRandom(seed)));
+        ctx.setEventListener(GameEventListener.NONE);
+        ctx.setFlightRecorded(false);
+        List<Player> players = ctx.getPlayers();
+        for (int seat = 0; seat < names.length; seat++) {
+            if ((playerData[seat * PLAYER_FIELDS + FLAGS] & FLAG_HUMAN) != 0) {
+                players.add(new HumanPlayer(names[seat]));
+            } else {
+                players.add(new AIPlayer(names[seat], new GameRandom(seed)));
+            }
+        }
+        restore(ctx);
+        return ctx;
+    }
+}
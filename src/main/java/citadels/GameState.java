@@ -1,13 +1,24 @@
 package citadels;
 
+import citadels.card.CardCatalog;
 import citadels.card.CharacterCard;
 import citadels.card.DistrictCard;
+import citadels.metrics.GameMetrics;
 import citadels.player.AIPlayer;
 import citadels.player.HumanPlayer;
 import citadels.player.Player;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
-
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 /**
@@ -15,21 +26,19 @@ import java.util.*;
  * This class handles:
  * <ul>
  *   <li>Current player and character tracking</li>
- *   <li>Game state serialization to JSON</li>
- *   <li>Game state deserialization from JSON</li>
+ *   <li>Game state serialization to JSON or a compact binary format</li>
+ *   <li>Game state deserialization from JSON or the binary format</li>
  *   <li>Player state management</li>
  * </ul>
- * The class is designed as a utility class with only static methods.
+ * The class is designed as a utility class with only static methods. Methods without
+ * a {@link GameContext} parameter operate on {@link Game#getDefaultContext()}.
  *
  * @author Lakshya Sakhuja
  * @version 7.0
  */
 public class GameState {
-
-    /** The player whose turn it currently is */
-    private static Player currentPlayer;
-    /** The character card being played in the current turn */
-    private static CharacterCard currentCharacter;
+    /** Buffer size, in bytes, of the file channels used by streaming saves and loads */
+    private static final int STREAM_BUFFER = 64 * 1024;
 
     /**
      * Private constructor to prevent instantiation of this utility class.
@@ -46,7 +55,7 @@ public class GameState {
      * @param player the player whose turn it is
      */
     public static void setCurrentPlayer(Player player) {
-        currentPlayer = player;
+        Game.getDefaultContext().setCurrentPlayer(player);
     }
 
     /**
@@ -55,7 +64,7 @@ public class GameState {
      * @return the player whose turn it is
      */
     public static Player getCurrentPlayer() {
-        return currentPlayer;
+        return Game.getDefaultContext().getCurrentPlayer();
     }
 
     /**
@@ -64,7 +73,7 @@ public class GameState {
      * @param character the character card being played
      */
     public static void setCurrentCharacter(CharacterCard character) {
-        currentCharacter = character;
+        Game.getDefaultContext().setCurrentCharacter(character);
     }
 
     /**
@@ -73,7 +82,7 @@ public class GameState {
      * @return the current character card
      */
     public static CharacterCard getCurrentCharacter() {
-        return currentCharacter;
+        return Game.getDefaultContext().getCurrentCharacter();
     }
 
     /**
@@ -88,20 +97,33 @@ public class GameState {
      *
      * @return a JSONObject containing the complete game state
      */
-    @SuppressWarnings("unchecked")
     public static JSONObject saveGame() {
+        return saveGame(Game.getDefaultContext());
+    }
+
+    /**
+     * Saves the complete state of the game played in the given context to a JSON object.
+     *
+     * @param ctx the context of the game to save
+     * @return a JSONObject containing the complete game state
+     */
+    @SuppressWarnings("unchecked")
+    public static JSONObject saveGame(GameContext ctx) {
+        GameMetrics metrics = ctx.getMetrics();
+        long start = metrics == null ? 0 : metrics.start();
         JSONObject root = new JSONObject();
 
-        root.put("crown", Game.getCrownPlayerIndex());
+        root.put("seed", ctx.getSeed());
+        root.put("crown", ctx.getCrownPlayerIndex());
 
         JSONObject characterMap = new JSONObject();
-        for (Map.Entry<Player, CharacterCard> entry : Game.selectedCharacters.entrySet()) {
+        for (Map.Entry<Player, CharacterCard> entry : ctx.getSelectedCharacters().entrySet()) {
             characterMap.put(entry.getKey().getName(), entry.getValue().getName());
         }
         root.put("characters", characterMap);
 
         JSONArray playersArray = new JSONArray();
-        for (Player p : Game.players) {
+        for (Player p : ctx.getPlayers()) {
             JSONObject obj = new JSONObject();
             obj.put("name", p.getName());
             obj.put("gold", p.getGold());
@@ -131,7 +153,7 @@ public class GameState {
         root.put("players", playersArray);
 
         JSONArray deckArray = new JSONArray();
-        for (DistrictCard d : Game.districtDeck) {
+        for (DistrictCard d : ctx.getDistrictDeck()) {
             JSONObject dObj = new JSONObject();
             dObj.put("name", d.getName());
             dObj.put("color", d.getColor());
@@ -140,6 +162,7 @@ public class GameState {
         }
         root.put("deck", deckArray);
 
+        if (metrics != null) metrics.record(GameMetrics.Phase.SAVE, start);
         return root;
     }
 
@@ -157,20 +180,40 @@ public class GameState {
      * @param root the JSONObject containing the game state to load
      */
     public static void loadGame(JSONObject root) {
+        loadGame(Game.getDefaultContext(), root);
+    }
+
+    /**
+     * Loads a complete game state from a JSON object into the given context.
+     * Saved cards are resolved to the shared instances of the {@link CardCatalog},
+     * so they keep their deck quantity and purple ability text.
+     *
+     * @param ctx the context to restore the game into
+     * @param root the JSONObject containing the game state to load
+     */
+    public static void loadGame(GameContext ctx, JSONObject root) {
         if (root == null) {
             return;
         }
+        GameMetrics metrics = ctx.getMetrics();
+        long start = metrics == null ? 0 : metrics.start();
+        CardCatalog catalog = CardCatalog.getDefault();
 
-        Game.players.clear();
-        Game.selectedCharacters.clear();
-        Game.districtDeck.clear();
+        ctx.getPlayers().clear();
+        ctx.getSelectedCharacters().clear();
+        ctx.getDistrictDeck().clear();
+
+        Object seedObj = root.get("seed");
+        if (seedObj instanceof Number) {
+            ctx.setSeed(((Number) seedObj).longValue());
+        }
 
         if (root.containsKey("crown")) {
             Object crownObj = root.get("crown");
             int crownIndex;
             if (crownObj instanceof Number) {
                 crownIndex = ((Number) crownObj).intValue();
-                Game.setCrownPlayerIndex(crownIndex);
+                ctx.setCrownPlayerIndex(crownIndex);
             }
         }
 
@@ -183,7 +226,7 @@ public class GameState {
                 String name = (String) obj.get("name");
                 if (name == null) continue;
                 
-                Player p = name.equals("Player 1") ? new HumanPlayer(name) : new AIPlayer(name);
+                Player p = name.equals("Player 1") ? new HumanPlayer(name) : new AIPlayer(name, ctx.getRandom().split());
                 
                 Object goldObj = obj.get("gold");
                 if (goldObj instanceof Number) {
@@ -199,13 +242,7 @@ public class GameState {
                         String color = (String) d.get("color");
                         Object costObj = d.get("cost");
                         if (cardName != null && color != null && costObj instanceof Number) {
-                            p.drawCard(new DistrictCard(
-                                cardName,
-                                color,
-                                ((Number) costObj).intValue(),
-                                1,
-                                null
-                            ));
+                            p.drawCard(catalog.resolve(cardName, color, ((Number) costObj).intValue()));
                         }
                     }
                 }
@@ -219,18 +256,12 @@ public class GameState {
                         String color = (String) d.get("color");
                         Object costObj = d.get("cost");
                         if (cardName != null && color != null && costObj instanceof Number) {
-                            p.getCity().add(new DistrictCard(
-                                cardName,
-                                color,
-                                ((Number) costObj).intValue(),
-                                1,
-                                null
-                            ));
+                            p.getCity().add(catalog.resolve(cardName, color, ((Number) costObj).intValue()));
                         }
                     }
                 }
 
-                Game.players.add(p);
+                ctx.getPlayers().add(p);
             }
         }
 
@@ -241,12 +272,10 @@ public class GameState {
                 String cname = (String) characterMap.get(k);
                 if (pname == null || cname == null) continue;
 
-                Player p = Game.players.stream()
-                        .filter(pl -> pl.getName().equals(pname))
-                        .findFirst().orElse(null);
-
+                Player p = ctx.getPlayer(pname);
                 if (p != null) {
-                    Game.selectedCharacters.put(p, new CharacterCard(cname, 0));
+                    CharacterCard c = Game.getCharacter(cname);
+                    ctx.getSelectedCharacters().put(p, c != null ? c : new CharacterCard(cname, 0));
                 }
             }
         }
@@ -260,19 +289,142 @@ public class GameState {
                 String color = (String) d.get("color");
                 Object costObj = d.get("cost");
                 if (cardName != null && color != null && costObj instanceof Number) {
-                    Game.districtDeck.addCard(new DistrictCard(
-                        cardName,
-                        color,
-                        ((Number) costObj).intValue(),
-                        1,
-                        null
-                    ));
+                    ctx.getDistrictDeck().addCard(catalog.resolve(cardName, color, ((Number) costObj).intValue()));
                 }
             }
-            Game.districtDeck.shuffle();
+            ctx.getDistrictDeck().shuffle();
+        }
+        if (metrics != null) metrics.record(GameMetrics.Phase.LOAD, start);
+    }
+
+    /**
+     * Writes the complete state of the game played in the given context as JSON,
+     * token by token. The output has the schema of {@link #saveGame(GameContext)}
+     * but no {@code JSONObject} tree is built.
+     *
+     * @param ctx the context of the game to save
+     * @param out the output to write to; it is flushed but not closed
+     * @throws IOException if writing fails
+     */
+    public static void writeGame(GameContext ctx, Writer out) throws IOException {
+        GameMetrics metrics = ctx.getMetrics();
+        long start = metrics == null ? 0 : metrics.start();
+        JsonSaveStream.write(ctx, out);
+        if (metrics != null) metrics.record(GameMetrics.Phase.SAVE, start);
+    }
+
+    /**
+     * Writes the complete state of the game played in the given context to a JSON file
+     * through a buffered file channel.
+     *
+     * @param ctx the context of the game to save
+     * @param file the file to write, replaced if it exists
+     * @throws IOException if the file cannot be written
+     * @see #writeGame(GameContext, Writer)
+     */
+    public static void writeGame(GameContext ctx, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer out = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), STREAM_BUFFER)) {
+            writeGame(ctx, out);
+        }
+    }
+
+    /**
+     * Reads a complete game state saved as JSON into the given context, reacting to
+     * the parser's tokens instead of building a {@code JSONObject} tree. The context
+     * ends up as it would after {@link #loadGame(GameContext, JSONObject)}.
+     *
+     * @param ctx the context to restore the game into
+     * @param in the input to read from; it is not closed
+     * @throws IOException if reading fails
+     * @throws ParseException if the input is not valid JSON
+     */
+    public static void readGame(GameContext ctx, Reader in) throws IOException, ParseException {
+        GameMetrics metrics = ctx.getMetrics();
+        long start = metrics == null ? 0 : metrics.start();
+        JsonSaveStream.read(ctx, in);
+        if (metrics != null) metrics.record(GameMetrics.Phase.LOAD, start);
+    }
+
+    /**
+     * Reads a complete game state from a JSON file through a buffered file channel.
+     *
+     * @param ctx the context to restore the game into
+     * @param file the file to read
+     * @throws IOException if the file cannot be read
+     * @throws ParseException if the file is not valid JSON
+     * @see #readGame(GameContext, Reader)
+     */
+    public static void readGame(GameContext ctx, Path file) throws IOException, ParseException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             Reader in = Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), STREAM_BUFFER)) {
+            readGame(ctx, in);
         }
     }
 
+    /**
+     * Saves the complete game state in the compact binary format.
+     *
+     * @return the encoded game
+     * @see #saveBinary(GameContext)
+     */
+    public static byte[] saveBinary() {
+        return saveBinary(Game.getDefaultContext());
+    }
+
+    /**
+     * Saves the complete state of the game played in the given context in the
+     * compact binary format. It holds the same information as {@link #saveGame(GameContext)}
+     * plus banked cards and character ranks, with cards stored as {@link CardCatalog} ids,
+     * and keeps the deck in order.
+     *
+     * @param ctx the context of the game to save
+     * @return the encoded game
+     */
+    public static byte[] saveBinary(GameContext ctx) {
+        GameMetrics metrics = ctx.getMetrics();
+        long start = metrics == null ? 0 : metrics.start();
+        byte[] data = BinarySaveFormat.write(ctx, CardCatalog.getDefault());
+        if (metrics != null) metrics.record(GameMetrics.Phase.SAVE, start);
+        return data;
+    }
+
+    /**
+     * Loads a complete game state saved by {@link #saveBinary()}.
+     *
+     * @param data the encoded game
+     * @throws IllegalArgumentException if the data is not a valid binary save
+     */
+    public static void loadBinary(byte[] data) {
+        loadBinary(Game.getDefaultContext(), data);
+    }
+
+    /**
+     * Loads a complete game state saved by {@link #saveBinary(GameContext)} into the given context.
+     *
+     * @param ctx the context to restore the game into
+     * @param data the encoded game
+     * @throws IllegalArgumentException if the data is not a binary save, is truncated,
+     *         has an unsupported version or was saved with a different card catalog
+     */
+    public static void loadBinary(GameContext ctx, byte[] data) {
+        GameMetrics metrics = ctx.getMetrics();
+        long start = metrics == null ? 0 : metrics.start();
+        BinarySaveFormat.read(ctx, data, CardCatalog.getDefault());
+        if (metrics != null) metrics.record(GameMetrics.Phase.LOAD, start);
+    }
+
+    /**
+     * Checks if data is a binary save rather than JSON.
+     *
+     * @param data the contents of a save file
+     * @return true if the data starts like a binary save
+     */
+    public static boolean isBinary(byte[] data) {
+        return BinarySaveFormat.isBinary(data);
+    }
+
     /**
      * Saves the state of specific players to a JSON object.
      * This is primarily used for single-player game modes.
@@ -341,6 +493,7 @@ public class GameState {
         if (root == null || !root.containsKey("players")) {
             return result;
         }
+        CardCatalog catalog = CardCatalog.getDefault();
 
         JSONArray arr = (JSONArray) root.get("players");
         for (Object o : arr) {
@@ -366,13 +519,7 @@ public class GameState {
                     String color = (String) d.get("color");
                     Object costObj = d.get("cost");
                     if (cardName != null && color != null && costObj instanceof Number) {
-                        p.drawCard(new DistrictCard(
-                            cardName,
-                            color,
-                            ((Number) costObj).intValue(),
-                            1,
-                            null
-                        ));
+                        p.drawCard(catalog.resolve(cardName, color, ((Number) costObj).intValue()));
                     }
                 }
             }
@@ -386,13 +533,7 @@ public class GameState {
                     String color = (String) d.get("color");
                     Object costObj = d.get("cost");
                     if (cardName != null && color != null && costObj instanceof Number) {
-                        p.getCity().add(new DistrictCard(
-                            cardName,
-                            color,
-                            ((Number) costObj).intValue(),
-                            1,
-                            null
-                        ));
+                        p.getCity().add(catalog.resolve(cardName, color, ((Number) costObj).intValue()));
                     }
                 }
             }
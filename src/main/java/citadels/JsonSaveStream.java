@@ -0,0 +1,379 @@
+package citadels;
+
+import citadels.card.CardCatalog;
+import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.player.AIPlayer;
+import citadels.player.HumanPlayer;
+import citadels.player.Player;
+import org.json.simple.JSONValue;
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes and reads full game saves in the JSON format of
+ * {@link GameState#saveGame(GameContext)} one token at a time.
+ * Saving writes straight to the output instead of building a {@code JSONObject}
+ * tree, and loading reacts to the parser's events instead of building one, so
+ * only the resolved cards, players and characters are kept, not the document.
+ * <p>
+ * JSON objects have no key order, so a load applies the game in the same order as
+ * {@link GameState#loadGame(GameContext, org.json.simple.JSONObject)} once the whole
+ * document is read: the seed, the crown, the players, their characters, and finally
+ * the shuffled deck. Both loaders leave a context in the same state. Nothing is
+ * applied until the document has been read, so a save that fails to parse leaves
+ * the context as it was.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+final class JsonSaveStream {
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private JsonSaveStream() {
+    }
+
+    /**
+     * Writes the state of a game as JSON.
+     *
+     * @param ctx the context of the game to save
+     * @param out the output to write to; it is flushed but not closed
+     * @throws IOException if writing fails
+     */
+    static void write(GameContext ctx, Writer out) throws IOException {
+        out.write("{\"seed\":");
+        out.write(Long.toString(ctx.getSeed()));
+        out.write(",\"crown\":");
+        out.write(Integer.toString(ctx.getCrownPlayerIndex()));
+
+        out.write(",\"characters\":{");
+        boolean first = true;
+        for (Map.Entry<Player, CharacterCard> entry : ctx.getSelectedCharacters().entrySet()) {
+            if (!first) out.write(',');
+            first = false;
+            writeString(out, entry.getKey().getName());
+            out.write(':');
+            writeString(out, entry.getValue().getName());
+        }
+
+        out.write("},\"players\":[");
+        first = true;
+        for (Player p : ctx.getPlayers()) {
+            if (!first) out.write(',');
+            first = false;
+            out.write("{\"name\":");
+            writeString(out, p.getName());
+            out.write(",\"gold\":");
+            out.write(Integer.toString(p.getGold()));
+            out.write(",\"hand\":");
+            writeCards(out, p.getHand());
+            out.write(",\"city\":");
+            writeCards(out, p.getCity());
+            out.write('}');
+        }
+
+        out.write("],\"deck\":");
+        writeCards(out, ctx.getDistrictDeck());
+        out.write('}');
+        out.flush();
+    }
+
+    /**
+     * Writes a JSON array of cards.
+     *
+     * @param out the output
+     * @param cards the cards to write
+     * @throws IOException if writing fails
+     */
+    private static void writeCards(Writer out, Iterable<DistrictCard> cards) throws IOException {
+        out.write('[');
+        boolean first = true;
+        for (DistrictCard d : cards) {
+            if (!first) out.write(',');
+            first = false;
+            out.write("{\"name\":");
+            writeString(out, d.getName());
+            out.write(",\"color\":");
+            writeString(out, d.getColor());
+            out.write(",\"cost\":");
+            out.write(Integer.toString(d.getCost()));
+            out.write('}');
+        }
+        out.write(']');
+    }
+
+    /**
+     * Writes a JSON string, or null.
+     *
+     * @param out the output
+     * @param s the string
+     * @throws IOException if writing fails
+     */
+    private static void writeString(Writer out, String s) throws IOException {
+        if (s == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        out.write(JSONValue.escape(s));
+        out.write('"');
+    }
+
+    /**
+     * Reads a game written as JSON into a context, replacing its players, characters and deck.
+     * The context is changed only once the whole input has been read.
+     *
+     * @param ctx the context to restore the game into
+     * @param in the input to read from; it is not closed
+     * @throws IOException if reading fails
+     * @throws ParseException if the input is not valid JSON
+     */
+    static void read(GameContext ctx, Reader in) throws IOException, ParseException {
+        LoadHandler handler = new LoadHandler(ctx, CardCatalog.getDefault());
+        new JSONParser().parse(in, handler);
+        handler.finish();
+    }
+
+    /**
+     * A player read from the save, waiting for the whole document to be read.
+     */
+    private static final class PlayerRecord {
+        /** The player's name */
+        String name;
+        /** The player's gold, or null if it was missing */
+        Number gold;
+        /** Cards in the player's hand */
+        final List<DistrictCard> hand = new ArrayList<>();
+        /** Cards in the player's city */
+        final List<DistrictCard> city = new ArrayList<>();
+    }
+
+    /**
+     * Receives the parser's events and collects the game, which {@link #finish()} applies.
+     * It tracks the keys leading to the current value, e.g. {@code players/hand/cost}.
+     */
+    private static final class LoadHandler implements ContentHandler {
+        /** Deepest key path of the save schema */
+        private static final int MAX_DEPTH = 3;
+
+        /** The context being restored */
+        private final GameContext ctx;
+        /** The catalog saved cards are resolved with */
+        private final CardCatalog catalog;
+
+        /** Keys leading to the current value */
+        private final String[] path = new String[MAX_DEPTH];
+        /** Number of keys on the path, which can exceed the deepest key kept */
+        private int depth;
+
+        /** The seed, or null if the save has none */
+        private Number seed;
+        /** The crown holder, or null if the save has none */
+        private Number crown;
+        /** Players read so far */
+        private final List<PlayerRecord> players = new ArrayList<>();
+        /** Character names by player name */
+        private final Map<String, String> characters = new LinkedHashMap<>();
+        /** Cards of the deck read so far */
+        private final List<DistrictCard> deck = new ArrayList<>();
+
+        /** The player being read, or null */
+        private PlayerRecord player;
+        /** Name of the card being read */
+        private String cardName;
+        /** Color of the card being read */
+        private String cardColor;
+        /** Cost of the card being read */
+        private Number cardCost;
+
+        /**
+         * Creates a handler.
+         *
+         * @param ctx the context being restored
+         * @param catalog the catalog saved cards are resolved with
+         */
+        LoadHandler(GameContext ctx, CardCatalog catalog) {
+            this.ctx = ctx;
+            this.catalog = catalog;
+        }
+
+        /**
+         * Gets a key on the current path.
+         *
+         * @param level the level, from 0 for the top-level key
+         * @return the key, or null if the path is not that deep
+         */
+        private String key(int level) {
+            return level < depth && level < MAX_DEPTH ? path[level] : null;
+        }
+
+        @Override
+        public void startJSON() {
+        }
+
+        @Override
+        public void endJSON() {
+        }
+
+        @Override
+        public boolean startObject() {
+            if (depth == 1 && "players".equals(key(0))) {
+                player = new PlayerRecord();
+            }
+            cardName = null;
+            cardColor = null;
+            cardCost = null;
+            return true;
+        }
+
+        @Override
+        public boolean endObject() {
+            String section = key(0);
+            if (depth == 1 && "deck".equals(section)) {
+                DistrictCard card = card();
+                if (card != null) {
+                    deck.add(card);
+                }
+            } else if (depth == 2 && "players".equals(section) && player != null) {
+                DistrictCard card = card();
+                if (card != null) {
+                    if ("hand".equals(key(1))) {
+                        player.hand.add(card);
+                    } else if ("city".equals(key(1))) {
+                        player.city.add(card);
+                    }
+                }
+            } else if (depth == 1 && "players".equals(section) && player != null) {
+                if (player.name != null) {
+                    players.add(player);
+                }
+                player = null;
+            }
+            return true;
+        }
+
+        /**
+         * Resolves the card whose fields were just read.
+         *
+         * @return the card, or null if a field is missing
+         */
+        private DistrictCard card() {
+            if (cardName == null || cardColor == null || cardCost == null) {
+                return null;
+            }
+            return catalog.resolve(cardName, cardColor, cardCost.intValue());
+        }
+
+        @Override
+        public boolean startObjectEntry(String key) {
+            if (depth < MAX_DEPTH) {
+                path[depth] = key;
+            }
+            depth++;
+            return true;
+        }
+
+        @Override
+        public boolean endObjectEntry() {
+            depth--;
+            return true;
+        }
+
+        @Override
+        public boolean startArray() {
+            return true;
+        }
+
+        @Override
+        public boolean endArray() {
+            return true;
+        }
+
+        @Override
+        public boolean primitive(Object value) {
+            String section = key(0);
+            String field = depth == 0 ? null : key(depth - 1);
+            if (depth == 1) {
+                if ("seed".equals(section) && value instanceof Number) {
+                    seed = (Number) value;
+                } else if ("crown".equals(section) && value instanceof Number) {
+                    crown = (Number) value;
+                }
+            } else if (depth == 2 && "characters".equals(section)) {
+                if (value instanceof String) {
+                    characters.put(field, (String) value);
+                }
+            } else if (depth == 2 && "players".equals(section) && player != null) {
+                if ("name".equals(field) && value instanceof String) {
+                    player.name = (String) value;
+                } else if ("gold".equals(field) && value instanceof Number) {
+                    player.gold = (Number) value;
+                }
+            } else if ((depth == 2 && "deck".equals(section))
+                    || (depth == 3 && "players".equals(section))) {
+                if ("name".equals(field) && value instanceof String) {
+                    cardName = (String) value;
+                } else if ("color".equals(field) && value instanceof String) {
+                    cardColor = (String) value;
+                } else if ("cost".equals(field) && value instanceof Number) {
+                    cardCost = (Number) value;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Applies everything read to the context, in the order the tree loader uses.
+         */
+        void finish() {
+            ctx.getPlayers().clear();
+            ctx.getSelectedCharacters().clear();
+            ctx.getDistrictDeck().clear();
+
+            if (seed != null) {
+                ctx.setSeed(seed.longValue());
+            }
+            if (crown != null) {
+                ctx.setCrownPlayerIndex(crown.intValue());
+            }
+
+            Map<String, Player> byName = new LinkedHashMap<>();
+            for (PlayerRecord r : players) {
+                Player p = r.name.equals("Player 1") ? new HumanPlayer(r.name) : new AIPlayer(r.name, ctx.getRandom().split());
+                if (r.gold != null) {
+                    p.addGold(r.gold.intValue());
+                }
+                for (DistrictCard d : r.hand) {
+                    p.drawCard(d);
+                }
+                p.getCity().addAll(r.city);
+                ctx.getPlayers().add(p);
+                byName.putIfAbsent(r.name, p);
+            }
+
+            for (Map.Entry<String, String> entry : characters.entrySet()) {
+                Player p = byName.get(entry.getKey());
+                if (p != null) {
+                    CharacterCard c = Game.getCharacter(entry.getValue());
+                    ctx.getSelectedCharacters().put(p, c != null ? c : new CharacterCard(entry.getValue(), 0));
+                }
+            }
+
+            for (int i = 0; i < deck.size(); i++) {
+                ctx.getDistrictDeck().addCard(deck.get(i));
+            }
+            ctx.getDistrictDeck().shuffle();
+        }
+    }
+}
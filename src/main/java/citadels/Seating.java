@@ -0,0 +1,134 @@
+package citadels;
+
+import citadels.player.Player;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * The players of a game in seat order.
+ * It behaves like any other list, but also keeps an index of each player's seat,
+ * by the player and by name, so finding a player's seat does not search the list.
+ * Every way of changing the list goes through {@link #add(int, Player)},
+ * {@link #set(int, Player)}, {@link #remove(int)} or {@link #clear()}, which
+ * rebuild the index and tell the {@link CharacterAssignments} the seats have moved.
+ * A game seats its players once, so rebuilding is cheaper than keeping the index
+ * up to date piece by piece.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+final class Seating extends AbstractList<Player> implements RandomAccess {
+    /** The players in seat order */
+    private final List<Player> players = new ArrayList<>();
+    /** Seat of each player; a player seated twice keeps the first seat */
+    private final Map<Player, Integer> seatByPlayer = new IdentityHashMap<>();
+    /** Seat of each player name; a name used twice keeps the first seat */
+    private final Map<String, Integer> seatByName = new HashMap<>();
+    /** The characters picked by the players, told whenever the seats change */
+    private CharacterAssignments assignments;
+
+    @Override
+    public Player get(int seat) {
+        return players.get(seat);
+    }
+
+    @Override
+    public int size() {
+        return players.size();
+    }
+
+    @Override
+    public void add(int seat, Player player) {
+        players.add(seat, player);
+        modCount++;
+        reindex();
+    }
+
+    @Override
+    public Player set(int seat, Player player) {
+        Player old = players.set(seat, player);
+        reindex();
+        return old;
+    }
+
+    @Override
+    public Player remove(int seat) {
+        Player old = players.remove(seat);
+        modCount++;
+        reindex();
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        players.clear();
+        modCount++;
+        reindex();
+    }
+
+    @Override
+    public int indexOf(Object player) {
+        Integer seat = seatByPlayer.get(player);
+        return seat == null ? -1 : seat;
+    }
+
+    @Override
+    public boolean contains(Object player) {
+        return seatByPlayer.containsKey(player);
+    }
+
+    /**
+     * Gets the seat of a player.
+     *
+     * @param player the player
+     * @return the player's seat, or -1 if the player is not seated
+     */
+    int seatOf(Player player) {
+        Integer seat = seatByPlayer.get(player);
+        return seat == null ? -1 : seat;
+    }
+
+    /**
+     * Gets the seat of the player with a name.
+     *
+     * @param name the player's name, which must match exactly
+     * @return the first seat of a player with the name, or -1 if there is none
+     */
+    int seatOf(String name) {
+        Integer seat = seatByName.get(name);
+        return seat == null ? -1 : seat;
+    }
+
+    /**
+     * Sets the characters to tell whenever the seats change.
+     *
+     * @param assignments the characters picked by the players
+     */
+    void setAssignments(CharacterAssignments assignments) {
+        this.assignments = assignments;
+    }
+
+    /**
+     * Rebuilds the seat index from the list.
+     */
+    private void reindex() {
+        seatByPlayer.clear();
+        seatByName.clear();
+        for (int seat = players.size() - 1; seat >= 0; seat--) {
+            Player p = players.get(seat);
+            seatByPlayer.put(p, seat);
+            if (p != null) {
+                seatByName.put(p.getName(), seat);
+            }
+        }
+        if (assignments != null) {
+            assignments.reseat();
+        }
+    }
+}
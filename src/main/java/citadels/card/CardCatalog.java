@@ -0,0 +1,235 @@
+package citadels.card;
+
+import citadels.util.Deck;
+import citadels.util.GameRandom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable registry of every distinct district card.
+ * The catalog is loaded from a TSV resource once and gives each distinct
+ * district a dense int id (0 to {@link #size()} - 1). Decks, hands and cities
+ * all share the catalog's {@link DistrictCard} instances instead of creating a
+ * new object per copy, so a game's cards can also be stored as plain int arrays
+ * of ids (see {@link #toIds(Collection)} and {@link #fromIds(int[], int)}).
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public final class CardCatalog {
+    /** Resource path of the standard district card list */
+    public static final String DEFAULT_RESOURCE = "/citadels/cards.tsv";
+    /** Catalogs already loaded, by resource path */
+    private static final Map<String, CardCatalog> LOADED = new ConcurrentHashMap<>();
+
+    /** Shared district instances, indexed by id */
+    private final DistrictCard[] districts;
+    /** District ids by name (the first district of a name wins) */
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    /** Total number of cards in a full deck, counting every copy */
+    private final int deckSize;
+    /** Hash of every district's name, color, cost and quantity, in id order */
+    private final int fingerprint;
+
+    /**
+     * Creates a catalog of the given districts, numbering them in list order.
+     *
+     * @param entries one entry per distinct district, with its quantity in the deck
+     */
+    public CardCatalog(List<DistrictCard> entries) {
+        districts = new DistrictCard[entries.size()];
+        int total = 0;
+        int hash = districts.length;
+        for (int id = 0; id < districts.length; id++) {
+            DistrictCard e = entries.get(id);
+            districts[id] = new DistrictCard(id, e.getName(), e.getColor(), e.getCost(),
+                e.getQuantity(), e.getAbility());
+            idsByName.putIfAbsent(e.getName(), id);
+            total += e.getQuantity();
+            hash = 31 * hash + e.getName().hashCode();
+            hash = 31 * hash + e.getColor().hashCode();
+            hash = 31 * hash + e.getCost();
+            hash = 31 * hash + e.getQuantity();
+        }
+        deckSize = total;
+        fingerprint = hash;
+    }
+
+    /**
+     * Gets the catalog of the standard district cards.
+     *
+     * @return the shared default catalog
+     * @throws RuntimeException if the card list cannot be found
+     */
+    public static CardCatalog getDefault() {
+        return forResource(DEFAULT_RESOURCE);
+    }
+
+    /**
+     * Gets the catalog loaded from a TSV resource, loading it on first use.
+     *
+     * @param resource the resource path of the card list
+     * @return the shared catalog for that resource
+     * @throws RuntimeException if the resource cannot be found
+     */
+    public static CardCatalog forResource(String resource) {
+        CardCatalog catalog = LOADED.get(resource);
+        if (catalog == null) {
+            catalog = new CardCatalog(DistrictDeckLoader.readDistricts(resource));
+            CardCatalog raced = LOADED.putIfAbsent(resource, catalog);
+            if (raced != null) {
+                catalog = raced;
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Gets the number of distinct districts.
+     * @return the number of ids in this catalog
+     */
+    public int size() { return districts.length; }
+
+    /**
+     * Gets the number of cards in a full deck, counting every copy.
+     * @return the full deck size
+     */
+    public int getDeckSize() { return deckSize; }
+
+    /**
+     * Gets a hash of the districts and their ids. Data that stores cards as ids
+     * (e.g., binary saves) records it, so it is only ever read back with a
+     * catalog that numbers the same cards the same way.
+     * @return the catalog fingerprint
+     */
+    public int getFingerprint() { return fingerprint; }
+
+    /**
+     * Gets the shared instance of a district.
+     *
+     * @param id the district's id
+     * @return the district card
+     * @throws ArrayIndexOutOfBoundsException if the id is not in this catalog
+     */
+    public DistrictCard get(int id) {
+        return districts[id];
+    }
+
+    /**
+     * Gets all districts in id order.
+     * @return an unmodifiable list of the shared district instances
+     */
+    public List<DistrictCard> getDistricts() {
+        return Collections.unmodifiableList(Arrays.asList(districts));
+    }
+
+    /**
+     * Gets the id of the district with the given name.
+     *
+     * @param name the district's name
+     * @return the id, or -1 if no district has that name
+     */
+    public int idOf(String name) {
+        Integer id = idsByName.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the id of a card if it is one of this catalog's shared instances.
+     *
+     * @param card the card to look up
+     * @return the id, or -1 if the card does not belong to this catalog
+     */
+    public int idOf(DistrictCard card) {
+        int id = card.getId();
+        return id >= 0 && id < districts.length && districts[id] == card ? id : -1;
+    }
+
+    /**
+     * Gets the shared instance of the district with the given name.
+     *
+     * @param name the district's name
+     * @return the district card, or null if no district has that name
+     */
+    public DistrictCard lookup(String name) {
+        int id = idOf(name);
+        return id < 0 ? null : districts[id];
+    }
+
+    /**
+     * Resolves a card described by name, color and cost (as stored in a save file)
+     * to its shared instance, keeping its quantity and ability text. Cards that are
+     * not in the catalog, or differ from it, are created as stand-alone cards.
+     *
+     * @param name the district's name
+     * @param color the district's color
+     * @param cost the district's cost
+     * @return the shared instance, or a new uncatalogued card
+     */
+    public DistrictCard resolve(String name, String color, int cost) {
+        DistrictCard card = lookup(name);
+        if (card != null && card.getCost() == cost && card.getColor().equalsIgnoreCase(color)) {
+            return card;
+        }
+        return new DistrictCard(name, color, cost, 1, null);
+    }
+
+    /**
+     * Creates a full deck holding every copy of every district, shuffled with the given random source.
+     *
+     * @param random the random source the deck shuffles with
+     * @return a new shuffled deck of shared instances
+     */
+    public Deck<DistrictCard> newDeck(GameRandom random) {
+        Deck<DistrictCard> deck = new Deck<>(random);
+        for (DistrictCard card : districts) {
+            for (int i = 0; i < card.getQuantity(); i++) {
+                deck.addCard(card);
+            }
+        }
+        deck.shuffle();
+        return deck;
+    }
+
+    /**
+     * Converts cards to their ids.
+     *
+     * @param cards the cards, which must all belong to this catalog
+     * @return the ids, in iteration order
+     * @throws IllegalArgumentException if a card is not one of this catalog's instances
+     */
+    public int[] toIds(Collection<DistrictCard> cards) {
+        int[] ids = new int[cards.size()];
+        int i = 0;
+        for (DistrictCard card : cards) {
+            int id = idOf(card);
+            if (id < 0) {
+                throw new IllegalArgumentException("Card is not in the catalog: " + card);
+            }
+            ids[i++] = id;
+        }
+        return ids;
+    }
+
+    /**
+     * Converts ids back to the shared card instances.
+     *
+     * @param ids the ids to convert
+     * @param count the number of ids to convert, starting from index 0
+     * @return a new mutable list of the cards
+     */
+    public List<DistrictCard> fromIds(int[] ids, int count) {
+        List<DistrictCard> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(districts[ids[i]]);
+        }
+        return cards;
+    }
+}
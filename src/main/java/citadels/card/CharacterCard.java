@@ -13,6 +13,8 @@ public class CharacterCard {
     private final String name;
     /** The rank of the character (1-8) */
     private final int rank;
+    /** The character of the same name, or null for a card of another name */
+    private final CharacterType type;
 
     /**
      * Creates a new character card.
@@ -23,6 +25,7 @@ public class CharacterCard {
     public CharacterCard(String name, int rank) {
         this.name = name;
         this.rank = rank;
+        this.type = CharacterType.fromName(name);
     }
 
     /**
@@ -43,6 +46,15 @@ public class CharacterCard {
         return rank;
     }
 
+    /**
+     * Gets the character this card plays, found from its name when the card is created.
+     *
+     * @return the character, or null if the card's name is not one of the eight characters
+     */
+    public CharacterType getType() {
+        return type;
+    }
+
     /**
      * Returns a string representation of the character card.
      * The format is "rank: name".
@@ -0,0 +1,178 @@
+package citadels.card;
+
+/**
+ * The eight characters of Citadels and what each one does, as a table:
+ * <pre>
+ *   rank  character   income   bonus  extra cards  builds  school at console
+ *     1   Assassin    -          0        0          1       -
+ *     2   Thief       -          0        0          1       -
+ *     3   Magician    -          0        0          1       -
+ *     4   King        yellow     0        0          1       yes
+ *     5   Bishop      blue       0        0          1       no
+ *     6   Merchant    green      1        0          1       yes
+ *     7   Architect   -          0        2          3       -
+ *     8   Warlord     red        0        0          1       yes
+ * </pre>
+ * The School of Magic pays income to every character that earns it, except
+ * that the console game pays the Bishop only for districts that really are blue.
+ * The abilities that need a decision (killing, robbing, exchanging cards,
+ * destroying) are chosen by switching on the type, so a turn never compares
+ * character names. Every {@link CharacterCard} knows its type.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public enum CharacterType {
+    /** Kills a character, whose holder loses the turn */
+    ASSASSIN("Assassin", 1, null, 0, 0, 1, false,
+        "Choose a character to assassinate. That player skips their turn."),
+    /** Robs a character, taking all of its holder's gold */
+    THIEF("Thief", 2, null, 0, 0, 1, false,
+        "Choose a character to rob. You steal their gold."),
+    /** Exchanges hands with a player, or redraws */
+    MAGICIAN("Magician", 3, null, 0, 0, 1, false,
+        "Swap hands or discard your hand and draw the same number."),
+    /** Takes the crown */
+    KING("King", 4, DistrictColor.YELLOW, 0, 0, 1, true,
+        "Gains income from yellow districts and takes the crown."),
+    /** Protects the city from the Warlord */
+    BISHOP("Bishop", 5, DistrictColor.BLUE, 0, 0, 1, false,
+        "Gains income from blue districts. Warlord cannot destroy your city."),
+    /** Earns one extra gold */
+    MERCHANT("Merchant", 6, DistrictColor.GREEN, 1, 0, 1, true,
+        "Gains one extra gold and income from green districts."),
+    /** Draws two extra cards and builds up to three districts */
+    ARCHITECT("Architect", 7, null, 0, 2, 3, false,
+        "Draw 2 extra cards and may build up to 3 districts."),
+    /** Destroys a district */
+    WARLORD("Warlord", 8, DistrictColor.RED, 0, 0, 1, true,
+        "May destroy one district (pay cost - 1). Gains income from red districts.");
+
+    /** The characters, indexed by rank; index 0 is unused */
+    private static final CharacterType[] BY_RANK = new CharacterType[values().length + 1];
+
+    static {
+        for (CharacterType t : values()) {
+            BY_RANK[t.rank] = t;
+        }
+    }
+
+    /** Name shown to players */
+    private final String displayName;
+    /** Rank, which is the order of the turns */
+    private final int rank;
+    /** Color of the districts paying income, or null */
+    private final DistrictColor incomeColor;
+    /** Gold earned every turn on top of the income */
+    private final int bonusGold;
+    /** Cards drawn every turn on top of the resources */
+    private final int extraCards;
+    /** Most districts built in a turn */
+    private final int buildLimit;
+    /** Whether the School of Magic pays income in the console game */
+    private final boolean schoolAtConsole;
+    /** What the character does, for the info command */
+    private final String description;
+
+    CharacterType(String displayName, int rank, DistrictColor incomeColor, int bonusGold,
+                  int extraCards, int buildLimit, boolean schoolAtConsole, String description) {
+        this.displayName = displayName;
+        this.rank = rank;
+        this.incomeColor = incomeColor;
+        this.bonusGold = bonusGold;
+        this.extraCards = extraCards;
+        this.buildLimit = buildLimit;
+        this.schoolAtConsole = schoolAtConsole;
+        this.description = description;
+    }
+
+    /**
+     * Gets the name shown to players.
+     * @return the character's name (e.g., "King")
+     */
+    public String getDisplayName() { return displayName; }
+
+    /**
+     * Gets the rank of the character.
+     * @return the rank, from 1 to 8
+     */
+    public int getRank() { return rank; }
+
+    /**
+     * Gets the color of the districts paying the character income.
+     * @return the color, or null if the character earns no district income
+     */
+    public DistrictColor getIncomeColor() { return incomeColor; }
+
+    /**
+     * Gets the gold the character earns every turn on top of district income.
+     * @return the bonus gold
+     */
+    public int getBonusGold() { return bonusGold; }
+
+    /**
+     * Gets the cards the character draws every turn on top of the resources.
+     * @return the number of extra cards
+     */
+    public int getExtraCards() { return extraCards; }
+
+    /**
+     * Gets the most districts the character may build in a turn.
+     * @return the build limit
+     */
+    public int getBuildLimit() { return buildLimit; }
+
+    /**
+     * Checks whether the School of Magic pays the character income in the console game.
+     * @return true if the School of Magic counts as a district of the income color at the console
+     */
+    public boolean isSchoolPaidAtConsole() { return schoolAtConsole; }
+
+    /**
+     * Gets what the character does, as told by the info command.
+     * @return the description
+     */
+    public String getDescription() { return description; }
+
+    /**
+     * Looks up a character by rank.
+     *
+     * @param rank the rank
+     * @return the character, or null if there is no character of that rank
+     */
+    public static CharacterType fromRank(int rank) {
+        return rank < 1 || rank >= BY_RANK.length ? null : BY_RANK[rank];
+    }
+
+    /**
+     * Looks up a character by name, ignoring case.
+     *
+     * @param name the character's name
+     * @return the character, or null if the name is null or not a character
+     */
+    public static CharacterType fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (int rank = 1; rank < BY_RANK.length; rank++) {
+            if (BY_RANK[rank].displayName.equalsIgnoreCase(name)) {
+                return BY_RANK[rank];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Looks up a character named the way the game records its targets: by name,
+     * or by rank written as a single digit.
+     *
+     * @param key the character's name or rank
+     * @return the character, or null if the key is null or names no character
+     */
+    public static CharacterType parse(String key) {
+        if (key != null && key.length() == 1 && key.charAt(0) >= '1' && key.charAt(0) <= '9') {
+            return fromRank(key.charAt(0) - '0');
+        }
+        return fromName(key);
+    }
+}
@@ -1,5 +1,7 @@
 package citadels.card;
 
+import citadels.util.Zobrist;
+
 /**
  * Represents a district card in the Citadels game.
  * District cards are used by players to build their city. Each district has
@@ -10,16 +12,22 @@ package citadels.card;
  * @version 7.0
  */
 public class DistrictCard {
+    /** Id of this district in its {@link CardCatalog}, or -1 if it is not catalogued */
+    private final int id;
     /** The name of the district */
     private final String name;
     /** The color/type of the district (yellow, blue, green, red, or purple) */
     private final String color;
+    /** The color as an enum, or null if the color is not a district color */
+    private final DistrictColor districtColor;
     /** The cost in gold to build this district */
     private final int cost;
     /** The number of copies of this card in the deck */
     private final int quantity;
     /** The special ability text (only for purple districts) */
     private final String ability; // null unless color == "purple"
+    /** Key of this district for Zobrist hashing, shared by all equal districts */
+    private final long hashKey;
 
     /**
      * Creates a new district card.
@@ -31,13 +39,37 @@ public class DistrictCard {
      * @param ability the special ability text (null for non-purple districts)
      */
     public DistrictCard(String name, String color, int cost, int quantity, String ability) {
+        this(-1, name, color, cost, quantity, ability);
+    }
+
+    /**
+     * Creates a new catalogued district card.
+     *
+     * @param id the district's id in its catalog
+     * @param name the name of the district
+     * @param color the color/type of the district
+     * @param cost the cost in gold to build this district
+     * @param quantity the number of copies of this card in the deck
+     * @param ability the special ability text (null for non-purple districts)
+     */
+    DistrictCard(int id, String name, String color, int cost, int quantity, String ability) {
+        this.id = id;
         this.name = name;
         this.color = color != null ? color.toLowerCase() : null;
+        this.districtColor = DistrictColor.fromName(color);
         this.cost = cost;
         this.quantity = quantity;
         this.ability = ability;
+        this.hashKey = Zobrist.cardKey(name, cost, this.color);
     }
 
+    /**
+     * Gets the id of this district in its {@link CardCatalog}.
+     * All copies of a catalogued district share the same instance and id.
+     * @return the dense catalog id, or -1 for cards created outside a catalog
+     */
+    public int getId() { return id; }
+
     /**
      * Gets the name of the district.
      * @return the district's name
@@ -50,6 +82,19 @@ public class DistrictCard {
      */
     public String getColor() { return color; }
 
+    /**
+     * Gets the color/type of the district as an enum.
+     * @return the district's color, or null if it is not one of the five district colors
+     */
+    public DistrictColor getDistrictColor() { return districtColor; }
+
+    /**
+     * Gets the bit of this district's color in a color mask.
+     * @return the color's bit, or 0 if the district has no known color
+     * @see DistrictColor#maskOf(Iterable)
+     */
+    public int getColorBit() { return districtColor == null ? 0 : districtColor.bit(); }
+
     /**
      * Gets the cost to build this district.
      * @return the cost in gold
@@ -62,6 +107,14 @@ public class DistrictCard {
      */
     public int getQuantity() { return quantity; }
 
+    /**
+     * Gets the key of this district for Zobrist hashing. Districts with the same
+     * name, cost and color share a key, whether or not they are catalogued.
+     * @return the district's key
+     * @see Zobrist
+     */
+    public long getHashKey() { return hashKey; }
+
     /**
      * Gets the special ability text for purple districts.
      * @return the ability text, or null for non-purple districts
@@ -75,7 +128,7 @@ public class DistrictCard {
      * @return true if this is a purple district, false otherwise
      */
     public boolean isPurple() {
-        return "purple".equalsIgnoreCase(color);
+        return districtColor == DistrictColor.PURPLE;
     }
 
     /**
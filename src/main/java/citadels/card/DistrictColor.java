@@ -0,0 +1,111 @@
+package citadels.card;
+
+/**
+ * The five district colors of Citadels.
+ * Each color owns one bit, so a set of colors (e.g., the colors present in a
+ * player's city) can be kept in a single int and checked with bit operations
+ * instead of building a set of color names:
+ * <pre>
+ *   int mask = DistrictColor.maskOf(player.getCity());
+ *   boolean rainbow = DistrictColor.isComplete(mask);
+ * </pre>
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public enum DistrictColor {
+    /** Noble districts, taxed by the King */
+    YELLOW,
+    /** Religious districts, taxed by the Bishop */
+    BLUE,
+    /** Trade districts, taxed by the Merchant */
+    GREEN,
+    /** Military districts, taxed by the Warlord */
+    RED,
+    /** Special districts with their own abilities */
+    PURPLE;
+
+    /** Mask with the bit of every color set */
+    public static final int ALL = (1 << values().length) - 1;
+
+    /** Cached copy of {@link #values()}, indexed by ordinal */
+    private static final DistrictColor[] VALUES = values();
+
+    /** Lowercase name, as used in the card list and save files */
+    private final String label = name().toLowerCase();
+
+    /**
+     * Gets the bit representing this color in a color mask.
+     * @return a mask with only this color's bit set
+     */
+    public int bit() { return 1 << ordinal(); }
+
+    /**
+     * Gets the lowercase name of this color.
+     * @return the color's name (e.g., "yellow")
+     */
+    public String getLabel() { return label; }
+
+    /**
+     * Looks up a color by name, ignoring case.
+     *
+     * @param name the color's name
+     * @return the color, or null if the name is null or not a district color
+     */
+    public static DistrictColor fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (DistrictColor c : VALUES) {
+            if (c.label.equalsIgnoreCase(name)) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builds the mask of the colors present among some districts.
+     *
+     * @param districts the districts to inspect
+     * @return the mask of their colors
+     */
+    public static int maskOf(Iterable<DistrictCard> districts) {
+        int mask = 0;
+        for (DistrictCard d : districts) {
+            mask |= d.getColorBit();
+        }
+        return mask;
+    }
+
+    /**
+     * Checks whether a mask contains a color.
+     *
+     * @param mask the color mask
+     * @param color the color to look for
+     * @return true if the color's bit is set
+     */
+    public static boolean contains(int mask, DistrictColor color) {
+        return (mask & color.bit()) != 0;
+    }
+
+    /**
+     * Counts the colors in a mask.
+     *
+     * @param mask the color mask
+     * @return the number of distinct colors
+     */
+    public static int count(int mask) {
+        return Integer.bitCount(mask & ALL);
+    }
+
+    /**
+     * Checks whether a mask contains all five colors.
+     *
+     * @param mask the color mask
+     * @return true if every color's bit is set
+     */
+    public static boolean isComplete(int mask) {
+        return (mask & ALL) == ALL;
+    }
+}
@@ -1,11 +1,14 @@
 package citadels.card;
 
 import citadels.util.Deck;
+import citadels.util.GameRandom;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Utility class for loading the district cards deck from a TSV (Tab-Separated Values) file.
@@ -28,18 +31,43 @@ public class DistrictDeckLoader {
 
     /**
      * Loads the district cards from the cards.tsv resource file and creates a shuffled deck.
-     * The file is expected to be in the resources/citadels directory.
+     * The file is expected to be in the resources/citadels directory, and is only read once;
+     * every copy of a district in the deck is the shared instance from its {@link CardCatalog}.
      * The first line of the file is assumed to be a header and is skipped.
      *
      * @return a shuffled Deck containing all district cards
      * @throws RuntimeException if the file cannot be found or read
      */
     public static Deck<DistrictCard> loadFromTSV() {
-        Deck<DistrictCard> deck = new Deck<>();
+        return loadFromTSV(new GameRandom());
+    }
 
-        InputStream stream = DistrictDeckLoader.class.getResourceAsStream(CARDS_FILE);
+    /**
+     * Loads the district cards from the cards.tsv resource file and creates a deck
+     * shuffled with the given random source, so the same seed always yields the same order.
+     *
+     * @param random the random source the deck shuffles with
+     * @return a shuffled Deck containing all district cards
+     * @throws RuntimeException if the file cannot be found or read
+     */
+    public static Deck<DistrictCard> loadFromTSV(GameRandom random) {
+        return CardCatalog.forResource(CARDS_FILE).newDeck(random);
+    }
+
+    /**
+     * Reads the distinct districts listed in a TSV resource, one card per line
+     * with the quantity it has in the deck. Invalid lines are reported and skipped.
+     *
+     * @param resource the resource path of the card list
+     * @return the districts in file order
+     * @throws RuntimeException if the resource cannot be found
+     */
+    static List<DistrictCard> readDistricts(String resource) {
+        List<DistrictCard> districts = new ArrayList<>();
+
+        InputStream stream = DistrictDeckLoader.class.getResourceAsStream(resource);
         if (stream == null) {
-            throw new RuntimeException(CARDS_FILE + " not found");
+            throw new RuntimeException(resource + " not found");
         }
 
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
@@ -79,9 +107,7 @@ public class DistrictDeckLoader {
                         continue;
                     }
 
-                    for (int i = 0; i < quantity; i++) {
-                        deck.addCard(new DistrictCard(name, color, cost, 1, ability));
-                    }
+                    districts.add(new DistrictCard(name, color, cost, quantity, ability));
                 } catch (NumberFormatException e) {
                     System.err.println("Skipping line with invalid numbers: " + line);
                 }
@@ -90,7 +116,6 @@ public class DistrictDeckLoader {
             // Ignore close errors
         }
 
-        deck.shuffle();
-        return deck;
+        return districts;
     }
 }
@@ -1,7 +1,15 @@
 package citadels.effect;
 
+import citadels.Game;
+import citadels.GameContext;
+import citadels.card.CharacterType;
 import citadels.card.DistrictCard;
+import citadels.card.DistrictColor;
+import citadels.event.GameEventListener;
+import citadels.event.ScoreBonus;
 import citadels.player.Player;
+import citadels.player.PlayerInput;
+import citadels.player.ScannerInput;
 
 import java.util.*;
 import java.util.function.BooleanSupplier;
@@ -16,21 +24,29 @@ import java.util.function.BooleanSupplier;
  *   <li>Color modification effects (e.g., School of Magic)</li>
  *   <li>Cost modification effects (e.g., Great Wall)</li>
  * </ul>
+ * Per-turn usage is tracked in the {@link GameContext} of the game being played;
+ * overloads without a context use {@link Game#getDefaultContext()}.
  *
  * @author Lakshya Sakhuja
  * @version 7.0
  */
 public class PurpleCardEffects {
 
-    /** Tracks which players have used their Laboratory this turn */
-    private static final Set<String> labUsed = new HashSet<>();
-
     /**
      * Resets the tracking of Laboratory usage for a new turn.
      * Should be called at the start of each game turn.
      */
     public static void resetTurnUsage() {
-        labUsed.clear();
+        resetTurnUsage(Game.getDefaultContext());
+    }
+
+    /**
+     * Resets the tracking of Laboratory usage for a new turn in the given game.
+     *
+     * @param ctx the context of the game being played
+     */
+    public static void resetTurnUsage(GameContext ctx) {
+        ctx.getLaboratoryUsage().clear();
     }
 
     /**
@@ -44,24 +60,48 @@ public class PurpleCardEffects {
      * @param scanner scanner for reading user input (for human players)
      */
     public static void applyTurnEffects(Player player, Scanner scanner) {
-        for (DistrictCard card : player.getCity()) {
-            String name = card.getName().toLowerCase();
-            if (name.equals("laboratory") && !labUsed.contains(player.getName())) {
+        applyTurnEffects(Game.getDefaultContext(), player, scanner);
+    }
+
+    /**
+     * Applies special effects that can be used during a player's turn in the given game.
+     *
+     * @param ctx the context of the game being played
+     * @param player the player whose turn it is
+     * @param scanner scanner for reading user input (for human players)
+     */
+    public static void applyTurnEffects(GameContext ctx, Player player, Scanner scanner) {
+        applyTurnEffects(ctx, player, new ScannerInput(scanner));
+    }
+
+    /**
+     * Applies special effects that can be used during a player's turn in the given game,
+     * reading a human player's answers from the given input.
+     *
+     * @param ctx the context of the game being played
+     * @param player the player whose turn it is
+     * @param input the player's input (for human players)
+     */
+    public static void applyTurnEffects(GameContext ctx, Player player, PlayerInput input) {
+        Set<String> labUsed = ctx.getLaboratoryUsage();
+        List<DistrictCard> city = player.getCity();
+        for (int c = 0; c < city.size(); c++) {
+            if ("Laboratory".equalsIgnoreCase(city.get(c).getName()) && !labUsed.contains(player.getName())) {
                 if (player.isHuman()) {
-                    System.out.println("Use Laboratory to discard a card for 1 gold? (yes/no)");
-                    String response = scanner.nextLine().trim().toLowerCase();
+                    ctx.getOutput().println("Use Laboratory to discard a card for 1 gold? (yes/no)");
+                    String response = input.nextLine().trim().toLowerCase();
                     if (response.equals("yes") && !player.getHand().isEmpty()) {
-                        System.out.println("Choose a card to discard:");
+                        ctx.getOutput().println("Choose a card to discard:");
                         for (int i = 0; i < player.getHand().size(); i++) {
                             DistrictCard d = player.getHand().get(i);
-                            System.out.println((i + 1) + ". " + d.getName() + " (Cost: " + d.getCost() + ")");
+                            ctx.getOutput().println((i + 1) + ". " + d.getName() + " (Cost: " + d.getCost() + ")");
                         }
                         try {
-                            int choice = Integer.parseInt(scanner.nextLine().trim()) - 1;
+                            int choice = Integer.parseInt(input.nextLine().trim()) - 1;
                             if (choice >= 0 && choice < player.getHand().size()) {
                                 player.getHand().remove(choice);
                                 player.addGold(1);
-                                System.out.println("Discarded card. +1 gold.");
+                                ctx.getOutput().println("Discarded card. +1 gold.");
                                 labUsed.add(player.getName());
                             }
                         } catch (Exception ignored) {}
@@ -86,40 +126,50 @@ public class PurpleCardEffects {
      * @return total bonus points
      */
     public static int bonusScore(Player player) {
+        return bonusScore(player, Game.getDefaultContext().getEventListener());
+    }
+
+    /**
+     * Calculates bonus points from special district effects, reporting each
+     * bonus to the given listener.
+     *
+     * @param player the player to calculate bonuses for
+     * @param events the listener told about every bonus awarded
+     * @return total bonus points
+     * @see #bonusScore(Player)
+     */
+    public static int bonusScore(Player player, GameEventListener events) {
         int bonus = 0;
-        Set<String> colors = new HashSet<>();
-        boolean hauntedCity = false;
-
-        for (DistrictCard d : player.getCity()) {
-            String color = d.getColor();
-            if (d.getName().equalsIgnoreCase("Haunted City")) {
-                hauntedCity = true;
-                continue;
-            }
-            colors.add(color);
+        int colors = player.getColorMask();
+        int hauntedCities = player.countDistricts("Haunted City");
+        boolean hauntedCity = hauntedCities > 0;
+
+        // The Haunted City itself does not count towards the purple districts
+        if (hauntedCity && player.countDistricts(DistrictColor.PURPLE) <= hauntedCities) {
+            colors &= ~DistrictColor.PURPLE.bit();
         }
 
-        if (hauntedCity && colors.size() == 4) {
+        int distinct = DistrictColor.count(colors);
+        if (hauntedCity && distinct == 4) {
             bonus += 3;
-            System.out.println("Bonus +3 for 4 colors + Haunted City");
-        } else if (!hauntedCity && colors.size() >= 5) {
+            events.onBonusScored(player, ScoreBonus.HAUNTED_CITY, 3);
+        } else if (!hauntedCity && distinct >= 5) {
             bonus += 3;
-            System.out.println("Bonus +3 for 5 distinct colors");
+            events.onBonusScored(player, ScoreBonus.FIVE_COLORS, 3);
         }
 
-        for (DistrictCard d : player.getCity()) {
-            String name = d.getName().toLowerCase();
-            if (name.equals("university")) {
-                bonus += 2;
-                System.out.println("Bonus +2 for University");
-            } else if (name.equals("dragon gate")) {
-                bonus += 2;
-                System.out.println("Bonus +2 for Dragon Gate");
-            } else if (name.equals("museum")) {
-                int banked = player.getBankedCards().size();
-                bonus += banked;
-                System.out.println("Bonus +" + banked + " for Museum (banked cards)");
-            }
+        for (int i = player.countDistricts("University"); i > 0; i--) {
+            bonus += 2;
+            events.onBonusScored(player, ScoreBonus.UNIVERSITY, 2);
+        }
+        for (int i = player.countDistricts("Dragon Gate"); i > 0; i--) {
+            bonus += 2;
+            events.onBonusScored(player, ScoreBonus.DRAGON_GATE, 2);
+        }
+        for (int i = player.countDistricts("Museum"); i > 0; i--) {
+            int banked = player.getBankedCards().size();
+            bonus += banked;
+            events.onBonusScored(player, ScoreBonus.MUSEUM, banked);
         }
 
         return bonus;
@@ -179,29 +229,63 @@ public class PurpleCardEffects {
      */
     public static String effectiveColor(DistrictCard card, Player player, String character) {
         if (card.getName().equalsIgnoreCase("School Of Magic")) {
-            switch (character.toLowerCase()) {
-                case "king": return "yellow";
-                case "bishop": return "blue";
-                case "merchant": return "green";
-                case "warlord": return "red";
+            CharacterType type = CharacterType.fromName(character);
+            if (type != null && type.getIncomeColor() != null) {
+                return type.getIncomeColor().getLabel();
             }
         }
         return card.getColor();
     }
 
+    /**
+     * Counts the districts of a player that pay income to a character of the given color.
+     * The School of Magic counts as a district of every color.
+     *
+     * @param player the player collecting income
+     * @param color the color the character collects income for
+     * @return the number of districts that pay income
+     */
+    public static int incomeDistricts(Player player, DistrictColor color) {
+        return player.countDistricts(color) + player.countDistricts("School Of Magic");
+    }
+
+    /**
+     * Calculates the gold a character earns at the start of its holder's turn:
+     * one gold for each district of the character's income color, plus any bonus.
+     * The School of Magic counts unless this is the console game and the character
+     * is not {@link CharacterType#isSchoolPaidAtConsole() paid for it there}.
+     *
+     * @param player the player collecting income
+     * @param type the character the player is playing, or null
+     * @param console true for a turn played at the console, false for an AI turn
+     * @return the gold earned
+     */
+    public static int characterIncome(Player player, CharacterType type, boolean console) {
+        if (type == null || type.getIncomeColor() == null) {
+            return 0;
+        }
+        int districts = console && !type.isSchoolPaidAtConsole()
+            ? player.countDistricts(type.getIncomeColor())
+            : incomeDistricts(player, type.getIncomeColor());
+        return districts + type.getBonusGold();
+    }
+
     /**
      * Checks if a district is protected from the Warlord's destruction ability.
      * Protected districts include:
      * <ul>
      *   <li>Keep: Cannot be destroyed</li>
+     *   <li>Great Wall: Cannot be destroyed</li>
      * </ul>
+     * Only the district itself is looked at, so the answer never changes while
+     * the district stays in a city.
      *
      * @param card the district card to check
-     * @param owner the player who owns the district
+     * @param owner the player who owns the district, which may be null
      * @return true if the district is protected from the Warlord
      */
     public static boolean isProtectedFromWarlord(DistrictCard card, Player owner) {
-        return card.getName().equalsIgnoreCase("Keep");
+        return card.getName().equalsIgnoreCase("Keep") || card.getName().equalsIgnoreCase("Great Wall");
     }
 
     /**
@@ -217,12 +301,7 @@ public class PurpleCardEffects {
      */
     public static int getWarlordDestructionCost(DistrictCard card, Player owner) {
         int baseCost = card.getCost() - 1;
-        for (DistrictCard d : owner.getCity()) {
-            if (d.getName().equalsIgnoreCase("Great Wall")) {
-                return baseCost + 1;
-            }
-        }
-        return baseCost;
+        return owner.hasGreatWall() ? baseCost + 1 : baseCost;
     }
 
     /**
@@ -231,6 +310,17 @@ public class PurpleCardEffects {
      * @return a BooleanSupplier that determines if Laboratory can be used
      */
     public static BooleanSupplier canUseLaboratory() {
+        return canUseLaboratory(Game.getDefaultContext());
+    }
+
+    /**
+     * Checks if a player can use their Laboratory this turn in the given game.
+     *
+     * @param ctx the context of the game being played
+     * @return a BooleanSupplier that determines if Laboratory can be used
+     */
+    public static BooleanSupplier canUseLaboratory(GameContext ctx) {
+        Set<String> labUsed = ctx.getLaboratoryUsage();
         return () -> labUsed.isEmpty();
     }
 
@@ -238,6 +328,15 @@ public class PurpleCardEffects {
      * Marks a player's Laboratory as used for this turn.
      */
     public static void markLaboratoryUsed() {
-        labUsed.add("test");
+        markLaboratoryUsed(Game.getDefaultContext());
+    }
+
+    /**
+     * Marks a player's Laboratory as used for this turn in the given game.
+     *
+     * @param ctx the context of the game being played
+     */
+    public static void markLaboratoryUsed(GameContext ctx) {
+        ctx.getLaboratoryUsage().add("test");
     }
 }
@@ -0,0 +1,106 @@
+package citadels.effect;
+
+import citadels.GameContext;
+import citadels.card.CharacterCard;
+import citadels.card.CharacterType;
+import citadels.card.DistrictCard;
+import citadels.player.Player;
+
+import java.util.List;
+
+/**
+ * Finds the district the Warlord should destroy: the most expensive one he can
+ * afford, in the city of a player the Bishop does not protect. Ties go to the
+ * player seated first and then to the district built first.
+ * <p>
+ * Every city keeps the costs of its destroyable districts in a bit mask (see
+ * {@link Player#getDestroyableCosts()}), so finding the victim looks at one word
+ * per player instead of at every district, and both the console game and the AI
+ * ask the same question the same way.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public final class WarlordTargets {
+
+    private WarlordTargets() {
+    }
+
+    /**
+     * Finds the player whose city holds the most expensive district the Warlord can destroy.
+     *
+     * @param ctx the context of the game being played
+     * @param warlord the player playing the Warlord
+     * @param gold the gold the Warlord may spend
+     * @return the victim, or null if there is no district the Warlord can destroy
+     */
+    public static Player findVictim(GameContext ctx, Player warlord, int gold) {
+        List<Player> players = ctx.getPlayers();
+        Player victim = null;
+        int highestCost = -1;
+        for (int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
+            if (p == warlord || isShielded(ctx, p)) {
+                continue;
+            }
+            int cost = highestAffordable(p.getDestroyableCosts(), gold + 1 - (p.hasGreatWall() ? 1 : 0));
+            if (cost > highestCost) {
+                victim = p;
+                highestCost = cost;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Finds the district the Warlord should destroy in a city.
+     *
+     * @param victim the player whose city is attacked
+     * @param gold the gold the Warlord may spend
+     * @return the index in the victim's city of the most expensive district the
+     *         Warlord can destroy, or -1 if there is none
+     */
+    public static int findDistrict(Player victim, int gold) {
+        List<DistrictCard> city = victim.getCity();
+        int index = -1;
+        int highestCost = Integer.MIN_VALUE;
+        for (int i = 0; i < city.size(); i++) {
+            DistrictCard d = city.get(i);
+            if (!PurpleCardEffects.isProtectedFromWarlord(d, victim)
+                    && PurpleCardEffects.getWarlordDestructionCost(d, victim) <= gold
+                    && d.getCost() > highestCost) {
+                index = i;
+                highestCost = d.getCost();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether the Bishop protects a player's city: the player picked the
+     * Bishop and the Bishop was not assassinated.
+     *
+     * @param ctx the context of the game being played
+     * @param player the player to check
+     * @return true if the Warlord may not destroy the player's districts
+     */
+    public static boolean isShielded(GameContext ctx, Player player) {
+        CharacterCard c = ctx.getSelectedCharacters().get(player);
+        return c != null && c.getType() == CharacterType.BISHOP && !ctx.isAssassinated(c);
+    }
+
+    /**
+     * Gets the highest cost in a mask of district costs that is no higher than a limit.
+     *
+     * @param costs a mask of district costs
+     * @param limit the highest cost wanted
+     * @return the cost, or -1 if there is none
+     */
+    private static int highestAffordable(long costs, int limit) {
+        if (limit < 0) {
+            return -1;
+        }
+        long affordable = limit >= 63 ? costs : costs & ((1L << (limit + 1)) - 1);
+        return 63 - Long.numberOfLeadingZeros(affordable);
+    }
+}
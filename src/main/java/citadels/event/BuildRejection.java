@@ -0,0 +1,16 @@
+package citadels.event;
+
+/**
+ * The reasons a district cannot be built.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public enum BuildRejection {
+    /** The chosen hand index does not exist */
+    INVALID_INDEX,
+    /** The player already has a district with that name */
+    ALREADY_BUILT,
+    /** The player cannot pay for the district */
+    NOT_ENOUGH_GOLD
+}
@@ -0,0 +1,270 @@
+package citadels.event;
+
+import citadels.Game;
+import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.player.Player;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Prints game events as the text of the classic console game.
+ * By default every line goes to whatever {@code System.out} is at the time of
+ * the event, so redirecting {@code System.out} keeps working as it always has.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class ConsoleEventRenderer implements GameEventListener {
+    /** Banner line printed around phase titles */
+    private static final String BANNER = "================================";
+
+    /** Fixed stream to print to, or null to use the current System.out */
+    private final PrintStream out;
+
+    /**
+     * Creates a renderer printing to the current {@code System.out}.
+     */
+    public ConsoleEventRenderer() {
+        this(null);
+    }
+
+    /**
+     * Creates a renderer printing to the given stream.
+     *
+     * @param out the stream to print to, or null to use the current {@code System.out}
+     */
+    public ConsoleEventRenderer(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Gets the stream to print the next line to.
+     * @return the target stream
+     */
+    private PrintStream out() {
+        return out != null ? out : System.out;
+    }
+
+    @Override
+    public void onPhaseStarted(Game.GamePhase phase) {
+        PrintStream o = out();
+        if (phase == Game.GamePhase.SELECTION) {
+            o.println(BANNER);
+            o.println("SELECTION PHASE");
+            o.println(BANNER);
+        } else if (phase == Game.GamePhase.TURN) {
+            o.println("Character choosing is over, action round will now begin.");
+            o.println(BANNER);
+            o.println("TURN PHASE");
+            o.println(BANNER);
+        }
+    }
+
+    @Override
+    public void onCharacterRemoved(CharacterCard character, boolean faceUp) {
+        out().println(faceUp ? character.getName() + " was removed." : "A mystery character was removed.");
+    }
+
+    @Override
+    public void onKingReturned(CharacterCard king) {
+        PrintStream o = out();
+        o.println("King was removed.");
+        o.println("The King cannot be visibly removed, trying again..");
+        o.println("A mystery character was removed.");
+    }
+
+    @Override
+    public void onCharacterChoosing(Player player) {
+        out().println(player.getName() + " is choosing a character.");
+    }
+
+    @Override
+    public void onCharacterChosen(Player player, CharacterCard character) {
+        // Human players see their own choice; only AI choices are announced
+        if (!player.isHuman()) {
+            out().println(player.getName() + " chose a character.");
+        }
+    }
+
+    @Override
+    public void onCharacterCalled(int rank, CharacterCard character, Player player) {
+        PrintStream o = out();
+        String name = character != null ? character.getName() : "Unknown";
+        o.println(rank + ": " + name);
+        if (player == null) {
+            o.println("No one is the " + name);
+        } else {
+            o.println(player.getName() + " is the " + name);
+        }
+    }
+
+    @Override
+    public void onTurnLost(Player player, CharacterCard character) {
+        out().println(player.getName() + " was assassinated and loses their turn.");
+    }
+
+    @Override
+    public void onTurnSkipped(Player player, CharacterCard character) {
+        out().println(player.getName() + " was assassinated and skips their turn.");
+    }
+
+    @Override
+    public void onTurnEnded(Player player, CharacterCard character) {
+        out().println(player.getName() + " ends turn as " + character.getRank() + ": " + character.getName());
+    }
+
+    @Override
+    public void onCharacterAssassinated(Player assassin, CharacterCard victim) {
+        out().println(assassin.getName() + " assassinated " + victim.getName());
+    }
+
+    @Override
+    public void onCharacterRobbed(Player thief, CharacterCard victim) {
+        out().println(thief.getName() + " robbed " + victim.getName());
+    }
+
+    @Override
+    public void onGoldRobbed(Player victim, int amount) {
+        out().println(victim.getName() + " was robbed of " + amount + " gold.");
+    }
+
+    @Override
+    public void onGoldTaken(Player player, int amount) {
+        out().println(player.getName() + " took " + amount + " gold (has " + player.getGold() + ")");
+    }
+
+    @Override
+    public void onCardDrawn(Player player, DistrictCard kept, int drawn) {
+        if (drawn >= 2) {
+            out().println(player.getName() + " drew two and kept " + kept.getName());
+        } else {
+            out().println(player.getName() + " drew one card");
+        }
+    }
+
+    @Override
+    public void onExtraCardsDrawn(Player player, int count) {
+        out().println(player.getName() + " drew " + count + (count == 1 ? " extra card." : " extra cards."));
+    }
+
+    @Override
+    public void onHandsSwapped(Player player, Player other) {
+        out().println(player.getName() + " swapped hands with " + other.getName());
+    }
+
+    @Override
+    public void onHandRedrawn(Player player, int count) {
+        out().println(player.getName() + " redrew their hand");
+    }
+
+    @Override
+    public void onIncomeCollected(Player player, int amount) {
+        out().println(player.getName() + " gains " + amount + " gold from role income.");
+    }
+
+    @Override
+    public void onDistrictBuilt(Player player, DistrictCard district) {
+        PrintStream o = out();
+        o.println("Built: " + district.getName());
+        // AI players also narrate what it cost them
+        if (!player.isHuman()) {
+            o.println(player.getName() + " built " + district.getName()
+                + " [" + district.getColor() + district.getCost()
+                + "]. Remaining gold=" + player.getGold());
+        }
+    }
+
+    @Override
+    public void onBuildRejected(Player player, DistrictCard district, BuildRejection reason) {
+        switch (reason) {
+            case INVALID_INDEX:
+                out().println("Invalid card index.");
+                break;
+            case ALREADY_BUILT:
+                out().println("You already have a " + district.getName() + " in your city.");
+                break;
+            case NOT_ENOUGH_GOLD:
+                out().println("Not enough gold to build " + district.getName()
+                    + ". (Cost: " + district.getCost() + ", you have: " + player.getGold() + ")");
+                break;
+        }
+    }
+
+    @Override
+    public void onDistrictDestroyed(Player warlord, Player victim, DistrictCard district, int cost) {
+        out().println(warlord.getName() + " destroyed " + victim.getName() + "'s "
+            + district.getName() + " for " + cost + " gold.");
+    }
+
+    @Override
+    public void onCardBanked(Player player, DistrictCard card) {
+        out().println(player.getName() + " banked " + card.getName() + " in Museum");
+    }
+
+    @Override
+    public void onCityCompleted(Player player) {
+        out().println(player.getName() + " has built 7 or more districts. The game ends!");
+    }
+
+    @Override
+    public void onScoringStarted() {
+        out().println("\n--- Final Scores ---");
+    }
+
+    @Override
+    public void onBonusScored(Player player, ScoreBonus bonus, int points) {
+        PrintStream o = out();
+        switch (bonus) {
+            case ALL_COLORS:
+                o.println(player.getName() + " has all district colors (+" + points + " bonus)");
+                break;
+            case FIRST_COMPLETE_CITY:
+                o.println(player.getName() + " finished city first (+" + points + " bonus)");
+                break;
+            case COMPLETE_CITY:
+                o.println(player.getName() + " also completed city (+" + points + " bonus)");
+                break;
+            case HAUNTED_CITY:
+                o.println("Bonus +" + points + " for 4 colors + Haunted City");
+                break;
+            case FIVE_COLORS:
+                o.println("Bonus +" + points + " for 5 distinct colors");
+                break;
+            case UNIVERSITY:
+                o.println("Bonus +" + points + " for University");
+                break;
+            case DRAGON_GATE:
+                o.println("Bonus +" + points + " for Dragon Gate");
+                break;
+            case MUSEUM:
+                o.println("Bonus +" + points + " for Museum (banked cards)");
+                break;
+        }
+    }
+
+    @Override
+    public void onScoreComputed(Player player, int base, int bonus, int total) {
+        out().println(player.getName() + ": " + total + " points (base=" + base + ", bonus=" + bonus + ")");
+    }
+
+    @Override
+    public void onGameEnded(Player winner, List<Player> tied, CharacterCard mysteryDiscard) {
+        PrintStream o = out();
+        String mystery = mysteryDiscard != null ? mysteryDiscard.getName() : "Unknown";
+        if (winner == null) {
+            o.println("\nIt's a tie between:");
+            for (Player p : tied) {
+                o.println("- " + p.getName());
+            }
+            o.println("Mystery discarded character was: " + mystery);
+            o.println("\nThanks for playing Citadels!");
+            return;
+        }
+        o.println("\nWinner: " + winner.getName());
+        o.println("Mystery discarded character was: " + mystery);
+        o.println("\nCongratulations, " + winner.getName() + " wins the game!");
+        o.println("Thanks for playing Citadels!");
+    }
+}
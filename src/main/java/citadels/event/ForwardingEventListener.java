@@ -0,0 +1,174 @@
+package citadels.event;
+
+import citadels.Game;
+import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.player.Player;
+
+import java.util.List;
+
+/**
+ * A listener that passes every event on to another listener.
+ * Subclasses override the events they want to observe and call {@code super}
+ * to keep the delegate informed, which lets extra behaviour (e.g., journaling)
+ * be layered over a renderer without changing it.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class ForwardingEventListener implements GameEventListener {
+    /** The listener every event is passed on to */
+    private final GameEventListener delegate;
+
+    /**
+     * Creates a listener that forwards to the given listener.
+     *
+     * @param delegate the listener to forward to, or null to forward to {@link GameEventListener#NONE}
+     */
+    public ForwardingEventListener(GameEventListener delegate) {
+        this.delegate = delegate != null ? delegate : GameEventListener.NONE;
+    }
+
+    /**
+     * Gets the listener events are forwarded to.
+     * @return the delegate
+     */
+    public GameEventListener getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void onPhaseStarted(Game.GamePhase phase) {
+        delegate.onPhaseStarted(phase);
+    }
+
+    @Override
+    public void onCharacterRemoved(CharacterCard character, boolean faceUp) {
+        delegate.onCharacterRemoved(character, faceUp);
+    }
+
+    @Override
+    public void onKingReturned(CharacterCard king) {
+        delegate.onKingReturned(king);
+    }
+
+    @Override
+    public void onCharacterChoosing(Player player) {
+        delegate.onCharacterChoosing(player);
+    }
+
+    @Override
+    public void onCharacterChosen(Player player, CharacterCard character) {
+        delegate.onCharacterChosen(player, character);
+    }
+
+    @Override
+    public void onCharacterCalled(int rank, CharacterCard character, Player player) {
+        delegate.onCharacterCalled(rank, character, player);
+    }
+
+    @Override
+    public void onTurnLost(Player player, CharacterCard character) {
+        delegate.onTurnLost(player, character);
+    }
+
+    @Override
+    public void onTurnSkipped(Player player, CharacterCard character) {
+        delegate.onTurnSkipped(player, character);
+    }
+
+    @Override
+    public void onTurnEnded(Player player, CharacterCard character) {
+        delegate.onTurnEnded(player, character);
+    }
+
+    @Override
+    public void onCharacterAssassinated(Player assassin, CharacterCard victim) {
+        delegate.onCharacterAssassinated(assassin, victim);
+    }
+
+    @Override
+    public void onCharacterRobbed(Player thief, CharacterCard victim) {
+        delegate.onCharacterRobbed(thief, victim);
+    }
+
+    @Override
+    public void onGoldRobbed(Player victim, int amount) {
+        delegate.onGoldRobbed(victim, amount);
+    }
+
+    @Override
+    public void onGoldTaken(Player player, int amount) {
+        delegate.onGoldTaken(player, amount);
+    }
+
+    @Override
+    public void onCardDrawn(Player player, DistrictCard kept, int drawn) {
+        delegate.onCardDrawn(player, kept, drawn);
+    }
+
+    @Override
+    public void onExtraCardsDrawn(Player player, int count) {
+        delegate.onExtraCardsDrawn(player, count);
+    }
+
+    @Override
+    public void onHandsSwapped(Player player, Player other) {
+        delegate.onHandsSwapped(player, other);
+    }
+
+    @Override
+    public void onHandRedrawn(Player player, int count) {
+        delegate.onHandRedrawn(player, count);
+    }
+
+    @Override
+    public void onIncomeCollected(Player player, int amount) {
+        delegate.onIncomeCollected(player, amount);
+    }
+
+    @Override
+    public void onDistrictBuilt(Player player, DistrictCard district) {
+        delegate.onDistrictBuilt(player, district);
+    }
+
+    @Override
+    public void onBuildRejected(Player player, DistrictCard district, BuildRejection reason) {
+        delegate.onBuildRejected(player, district, reason);
+    }
+
+    @Override
+    public void onDistrictDestroyed(Player warlord, Player victim, DistrictCard district, int cost) {
+        delegate.onDistrictDestroyed(warlord, victim, district, cost);
+    }
+
+    @Override
+    public void onCardBanked(Player player, DistrictCard card) {
+        delegate.onCardBanked(player, card);
+    }
+
+    @Override
+    public void onCityCompleted(Player player) {
+        delegate.onCityCompleted(player);
+    }
+
+    @Override
+    public void onScoringStarted() {
+        delegate.onScoringStarted();
+    }
+
+    @Override
+    public void onBonusScored(Player player, ScoreBonus bonus, int points) {
+        delegate.onBonusScored(player, bonus, points);
+    }
+
+    @Override
+    public void onScoreComputed(Player player, int base, int bonus, int total) {
+        delegate.onScoreComputed(player, base, bonus, total);
+    }
+
+    @Override
+    public void onGameEnded(Player winner, List<Player> tied, CharacterCard mysteryDiscard) {
+        delegate.onGameEnded(winner, tied, mysteryDiscard);
+    }
+}
@@ -0,0 +1,246 @@
+package citadels.event;
+
+import citadels.Game;
+import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.player.Player;
+
+import java.util.List;
+
+/**
+ * Receives the events of a game as they happen.
+ * Every event has its own typed callback with the data that describes it,
+ * and every callback does nothing by default, so a listener only overrides
+ * the events it is interested in. Events are delivered synchronously on the
+ * thread playing the game.
+ * <p>
+ * {@link ConsoleEventRenderer} prints events as the classic console text;
+ * {@link #NONE} ignores them, which lets headless simulations skip all
+ * message formatting.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public interface GameEventListener {
+
+    /** Listener that ignores every event */
+    GameEventListener NONE = new GameEventListener() { };
+
+    /**
+     * A new phase of a round begins.
+     *
+     * @param phase the phase that starts
+     */
+    default void onPhaseStarted(Game.GamePhase phase) { }
+
+    /**
+     * A character card was removed from the round before the draft.
+     *
+     * @param character the removed character
+     * @param faceUp true if it was discarded face up, false for the mystery discard
+     */
+    default void onCharacterRemoved(CharacterCard character, boolean faceUp) { }
+
+    /**
+     * The King was drawn as a face-up discard and returned to the draft.
+     *
+     * @param king the King card
+     */
+    default void onKingReturned(CharacterCard king) { }
+
+    /**
+     * A player starts choosing a character.
+     *
+     * @param player the choosing player
+     */
+    default void onCharacterChoosing(Player player) { }
+
+    /**
+     * A player has chosen a character.
+     *
+     * @param player the player
+     * @param character the chosen character
+     */
+    default void onCharacterChosen(Player player, CharacterCard character) { }
+
+    /**
+     * A character is called during the turn phase.
+     *
+     * @param rank the character's rank
+     * @param character the called character, or null if it is unknown
+     * @param player the player who chose it, or null if nobody did
+     */
+    default void onCharacterCalled(int rank, CharacterCard character, Player player) { }
+
+    /**
+     * A called player loses their turn because their character was assassinated.
+     *
+     * @param player the player
+     * @param character the assassinated character
+     */
+    default void onTurnLost(Player player, CharacterCard character) { }
+
+    /**
+     * A player notices at the start of their turn that they were assassinated and skips it.
+     *
+     * @param player the player
+     * @param character the assassinated character
+     */
+    default void onTurnSkipped(Player player, CharacterCard character) { }
+
+    /**
+     * A player ends their turn.
+     *
+     * @param player the player
+     * @param character the character they played
+     */
+    default void onTurnEnded(Player player, CharacterCard character) { }
+
+    /**
+     * The Assassin picked a character to kill.
+     *
+     * @param assassin the player playing the Assassin
+     * @param victim the assassinated character
+     */
+    default void onCharacterAssassinated(Player assassin, CharacterCard victim) { }
+
+    /**
+     * The Thief picked a character to rob.
+     *
+     * @param thief the player playing the Thief
+     * @param victim the robbed character
+     */
+    default void onCharacterRobbed(Player thief, CharacterCard victim) { }
+
+    /**
+     * A robbed player handed over their gold.
+     *
+     * @param victim the robbed player
+     * @param amount the amount of gold taken
+     */
+    default void onGoldRobbed(Player victim, int amount) { }
+
+    /**
+     * A player took gold instead of drawing cards.
+     *
+     * @param player the player
+     * @param amount the amount of gold taken
+     */
+    default void onGoldTaken(Player player, int amount) { }
+
+    /**
+     * A player drew cards instead of taking gold and kept one of them.
+     *
+     * @param player the player
+     * @param kept the card kept
+     * @param drawn the number of cards drawn
+     */
+    default void onCardDrawn(Player player, DistrictCard kept, int drawn) { }
+
+    /**
+     * A player drew extra cards from their character's ability (e.g., the Architect).
+     *
+     * @param player the player
+     * @param count the number of cards drawn
+     */
+    default void onExtraCardsDrawn(Player player, int count) { }
+
+    /**
+     * The Magician swapped hands with another player.
+     *
+     * @param player the player playing the Magician
+     * @param other the player swapped with
+     */
+    default void onHandsSwapped(Player player, Player other) { }
+
+    /**
+     * The Magician discarded their hand and drew new cards.
+     *
+     * @param player the player playing the Magician
+     * @param count the number of cards redrawn
+     */
+    default void onHandRedrawn(Player player, int count) { }
+
+    /**
+     * A player collected income from their character.
+     *
+     * @param player the player
+     * @param amount the amount of gold collected
+     */
+    default void onIncomeCollected(Player player, int amount) { }
+
+    /**
+     * A player built a district.
+     *
+     * @param player the player
+     * @param district the district built
+     */
+    default void onDistrictBuilt(Player player, DistrictCard district) { }
+
+    /**
+     * A player tried to build a district but could not.
+     *
+     * @param player the player
+     * @param district the district, or null if the chosen card does not exist
+     * @param reason why the district cannot be built
+     */
+    default void onBuildRejected(Player player, DistrictCard district, BuildRejection reason) { }
+
+    /**
+     * The Warlord destroyed a district.
+     *
+     * @param warlord the player playing the Warlord
+     * @param victim the owner of the district
+     * @param district the destroyed district
+     * @param cost the gold paid to destroy it
+     */
+    default void onDistrictDestroyed(Player warlord, Player victim, DistrictCard district, int cost) { }
+
+    /**
+     * A player banked a card in their Museum.
+     *
+     * @param player the player
+     * @param card the banked card
+     */
+    default void onCardBanked(Player player, DistrictCard card) { }
+
+    /**
+     * A player completed their city, which ends the game after this round.
+     *
+     * @param player the player
+     */
+    default void onCityCompleted(Player player) { }
+
+    /**
+     * Final scoring begins.
+     */
+    default void onScoringStarted() { }
+
+    /**
+     * A player was awarded bonus points.
+     *
+     * @param player the player
+     * @param bonus the kind of bonus
+     * @param points the number of points
+     */
+    default void onBonusScored(Player player, ScoreBonus bonus, int points) { }
+
+    /**
+     * A player's final score has been computed.
+     *
+     * @param player the player
+     * @param base the points from built districts
+     * @param bonus the bonus points
+     * @param total the final score
+     */
+    default void onScoreComputed(Player player, int base, int bonus, int total) { }
+
+    /**
+     * The game is over.
+     *
+     * @param winner the winner, or null if the game ended in a tie
+     * @param tied the players sharing the top score if there is no winner
+     * @param mysteryDiscard the character discarded face down in the last round, or null
+     */
+    default void onGameEnded(Player winner, List<Player> tied, CharacterCard mysteryDiscard) { }
+}
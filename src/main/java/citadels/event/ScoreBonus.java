@@ -0,0 +1,26 @@
+package citadels.event;
+
+/**
+ * The kinds of bonus points awarded when a game is scored.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public enum ScoreBonus {
+    /** The city holds a district of every color */
+    ALL_COLORS,
+    /** The player was the first to complete their city */
+    FIRST_COMPLETE_CITY,
+    /** The player completed their city, but not first */
+    COMPLETE_CITY,
+    /** Four colors plus the Haunted City standing in for the fifth */
+    HAUNTED_CITY,
+    /** Five distinct colors, as counted by the purple card effects */
+    FIVE_COLORS,
+    /** The University is worth extra points */
+    UNIVERSITY,
+    /** The Dragon Gate is worth extra points */
+    DRAGON_GATE,
+    /** One point per card banked in the Museum */
+    MUSEUM
+}
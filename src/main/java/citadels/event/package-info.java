@@ -0,0 +1,12 @@
+/**
+ * Package containing the game's event notifications.
+ * The engine reports what happens during a game (characters removed and
+ * chosen, gold taken, cards drawn, districts built and destroyed, scores)
+ * to a {@link citadels.event.GameEventListener} instead of printing it, so
+ * the same engine can drive the console, a silent simulation or any other
+ * front end.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+package citadels.event;
@@ -0,0 +1,85 @@
+package citadels.jfr;
+
+import citadels.GameContext;
+import citadels.card.CharacterCard;
+import citadels.player.Player;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An AI player making up its mind: choosing a character in the draft, or
+ * playing out its turn.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+@Name("citadels.AIDecision")
+@Label("AI Decision")
+@Category({"Citadels"})
+@Description("An AI player choosing a character or playing its turn")
+@StackTrace(false)
+public final class AIDecisionEvent extends Event {
+    /** Type of the event, which tells whether a running recording has enabled it */
+    private static final EventType TYPE = EventType.getEventType(AIDecisionEvent.class);
+
+    /** Decision of picking a character in the draft */
+    public static final String CHARACTER = "character";
+    /** Decision of how to play a turn */
+    public static final String TURN = "turn";
+
+    /** Seed of the game, which tells the games of one process apart */
+    @Label("Game Seed")
+    long game;
+    /** Name of the AI player */
+    @Label("Player")
+    String player;
+    /** Kind of AI player */
+    @Label("Player Type")
+    String playerType;
+    /** What was decided, {@value #CHARACTER} or {@value #TURN} */
+    @Label("Decision")
+    String decision;
+    /** Character picked, or whose turn was played */
+    @Label("Character")
+    String character;
+
+    /**
+     * Starts timing a decision.
+     *
+     * @param ctx the context of the game being played
+     * @param player the AI player deciding
+     * @param decision {@link #CHARACTER} or {@link #TURN}
+     * @return the event, to {@link #end(CharacterCard) end} once decided,
+     *         or null if no running recording has enabled it
+     */
+    public static AIDecisionEvent start(GameContext ctx, Player player, String decision) {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        AIDecisionEvent event = new AIDecisionEvent();
+        event.game = ctx.getSeed();
+        event.player = player.getName();
+        event.playerType = player.getClass().getSimpleName();
+        event.decision = decision;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the decision and records it.
+     *
+     * @param chosen the character picked, or whose turn was played
+     */
+    public void end(CharacterCard chosen) {
+        if (chosen != null) {
+            character = chosen.getName();
+        }
+        commit();
+    }
+}
@@ -0,0 +1,69 @@
+package citadels.jfr;
+
+import citadels.GameContext;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The draft at the start of a round, in which every player picks a character.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+@Name("citadels.CharacterSelection")
+@Label("Character Selection")
+@Category({"Citadels"})
+@Description("The draft in which every player picks a character")
+@StackTrace(false)
+public final class CharacterSelectionEvent extends Event {
+    /** Type of the event, which tells whether a running recording has enabled it */
+    private static final EventType TYPE = EventType.getEventType(CharacterSelectionEvent.class);
+
+    /** Seed of the game, which tells the games of one process apart */
+    @Label("Game Seed")
+    long game;
+    /** Player holding the crown, who picks first */
+    @Label("Crowned Player")
+    String crownPlayer;
+    /** Number of players */
+    @Label("Players")
+    int players;
+    /** Number of characters discarded face up */
+    @Label("Face-up Discards")
+    int faceUpDiscards;
+
+    /**
+     * Starts timing a draft.
+     *
+     * @param ctx the context of the game being played
+     * @return the event, to {@link #end(GameContext) end} when every player has picked,
+     *         or null if no running recording has enabled it
+     */
+    public static CharacterSelectionEvent start(GameContext ctx) {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        CharacterSelectionEvent event = new CharacterSelectionEvent();
+        event.game = ctx.getSeed();
+        event.players = ctx.getPlayers().size();
+        event.crownPlayer = ctx.getPlayers().get(ctx.getCrownPlayerIndex()).getName();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the draft and records it.
+     *
+     * @param ctx the context of the game being played
+     */
+    public void end(GameContext ctx) {
+        faceUpDiscards = ctx.getVisibleDiscard().size();
+        commit();
+    }
+}
@@ -0,0 +1,117 @@
+package citadels.jfr;
+
+import citadels.GameContext;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * Checks whether the running JVM can record the game's events and starts recordings
+ * with the bundled settings.
+ * <p>
+ * The JFR API is part of Java 11 and of Java 8 from update 262 on. On older
+ * runtimes {@link #AVAILABLE} is false and the engine never touches the event
+ * classes, so they are never loaded. Where it is true, the engine asks for an
+ * event in every game that {@link #records(GameContext) records} them, and each
+ * event's {@code start} checks its cached event type first: unless a running
+ * recording has enabled the event, nothing is created and {@code start} returns null.
+ * <p>
+ * A recording can be started with {@link #startRecording(Path)}, or from the
+ * command line with {@code -XX:StartFlightRecording:settings=citadels.jfc,filename=game.jfr}
+ * after extracting the settings from the jar or taking them from {@code src/main/resources}.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public final class JfrSupport {
+    /** Classpath resource holding the bundled recording settings */
+    public static final String SETTINGS = "/citadels/citadels.jfc";
+    /** Whether the JVM has the JFR API */
+    public static final boolean AVAILABLE = detect();
+
+    /** Largest recording kept on disk, in bytes */
+    private static final long MAX_RECORDING_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * Prevents instantiation.
+     */
+    private JfrSupport() {
+    }
+
+    /**
+     * Checks whether a game should emit events: the JVM can record them and the
+     * game has not turned them off.
+     *
+     * @param ctx the context of the game
+     * @return true if the game's events should be emitted
+     * @see GameContext#isFlightRecorded()
+     */
+    public static boolean records(GameContext ctx) {
+        return AVAILABLE && ctx.isFlightRecorded();
+    }
+
+    /**
+     * Starts recording to a file with the bundled settings until the JVM exits.
+     * The file is written when the JVM exits, or when the returned recording is
+     * stopped or closed; older events are dropped once the recording reaches
+     * {@value #MAX_RECORDING_SIZE} bytes, so it can be left running.
+     *
+     * @param file the file to write the recording to
+     * @return the running recording
+     * @throws IOException if the settings cannot be read or the file cannot be written
+     * @throws IllegalStateException if the JVM cannot record
+     */
+    public static Recording startRecording(Path file) throws IOException {
+        if (!AVAILABLE) {
+            throw new IllegalStateException("This JVM has no flight recorder.");
+        }
+        Recording recording = new Recording(loadSettings());
+        recording.setName("Citadels");
+        recording.setToDisk(true);
+        recording.setMaxSize(MAX_RECORDING_SIZE);
+        recording.setDumpOnExit(true);
+        recording.setDestination(file);
+        recording.start();
+        return recording;
+    }
+
+    /**
+     * Reads the bundled recording settings.
+     *
+     * @return the settings
+     * @throws IOException if the settings cannot be read
+     */
+    public static Configuration loadSettings() throws IOException {
+        InputStream in = JfrSupport.class.getResourceAsStream(SETTINGS);
+        if (in == null) {
+            throw new IOException("Missing recording settings " + SETTINGS);
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        } catch (ParseException e) {
+            throw new IOException("Invalid recording settings " + SETTINGS + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Checks whether the JFR API can be loaded.
+     *
+     * @return true if it can
+     */
+    private static boolean detect() {
+        try {
+            Class.forName("jdk.jfr.Event", false, JfrSupport.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package citadels.jfr;
+
+import citadels.GameContext;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Loading a game, or a single player, with the {@code load} commands.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+@Name("citadels.Load")
+@Label("Load")
+@Category({"Citadels"})
+@Description("Loading a game or a player from the command line")
+@StackTrace(false)
+public final class LoadEvent extends Event {
+    /** Type of the event, which tells whether a running recording has enabled it */
+    private static final EventType TYPE = EventType.getEventType(LoadEvent.class);
+
+    /** Seed of the game, which tells the games of one process apart */
+    @Label("Game Seed")
+    long game;
+    /** File loaded from */
+    @Label("File")
+    String file;
+    /** What was loaded: {@code game} or {@code player} */
+    @Label("Content")
+    String content;
+    /** Whether it succeeded */
+    @Label("Succeeded")
+    boolean succeeded;
+
+    /**
+     * Starts timing a load.
+     *
+     * @param ctx the context of the game being played
+     * @param file the file loaded from
+     * @param fullGame true for a whole game, false for a single player
+     * @return the event, to {@link #end(boolean) end} when done,
+     *         or null if no running recording has enabled it
+     */
+    public static LoadEvent start(GameContext ctx, String file, boolean fullGame) {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        LoadEvent event = new LoadEvent();
+        event.game = ctx.getSeed();
+        event.file = file;
+        event.content = fullGame ? "game" : "player";
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the load and records it.
+     *
+     * @param succeeded whether it succeeded
+     */
+    public void end(boolean succeeded) {
+        this.succeeded = succeeded;
+        commit();
+    }
+}
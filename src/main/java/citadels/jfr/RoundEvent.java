@@ -0,0 +1,70 @@
+package citadels.jfr;
+
+import citadels.GameContext;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A round of a game, from the character draft to the end of the last turn.
+ * The wait for the player to start the round is not part of it.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+@Name("citadels.Round")
+@Label("Round")
+@Category({"Citadels"})
+@Description("A round, from the character draft to the last turn")
+@StackTrace(false)
+public final class RoundEvent extends Event {
+    /** Type of the event, which tells whether a running recording has enabled it */
+    private static final EventType TYPE = EventType.getEventType(RoundEvent.class);
+
+    /** Seed of the game, which tells the games of one process apart */
+    @Label("Game Seed")
+    long game;
+    /** Player holding the crown */
+    @Label("Crowned Player")
+    String crownPlayer;
+    /** Number of players */
+    @Label("Players")
+    int players;
+    /** Whether the round ended the game */
+    @Label("Game Over")
+    boolean gameOver;
+
+    /**
+     * Starts timing a round.
+     *
+     * @param ctx the context of the game being played
+     * @return the event, to {@link #end(GameContext) end} when the round is over,
+     *         or null if no running recording has enabled it
+     */
+    public static RoundEvent start(GameContext ctx) {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        RoundEvent event = new RoundEvent();
+        event.game = ctx.getSeed();
+        event.players = ctx.getPlayers().size();
+        event.crownPlayer = ctx.getPlayers().get(ctx.getCrownPlayerIndex()).getName();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the round and records it.
+     *
+     * @param ctx the context of the game being played
+     */
+    public void end(GameContext ctx) {
+        gameOver = ctx.isGameOver();
+        commit();
+    }
+}
@@ -0,0 +1,71 @@
+package citadels.jfr;
+
+import citadels.GameContext;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Saving a game, or a single player, with the {@code save} commands.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+@Name("citadels.Save")
+@Label("Save")
+@Category({"Citadels"})
+@Description("Saving a game or a player from the command line")
+@StackTrace(false)
+public final class SaveEvent extends Event {
+    /** Type of the event, which tells whether a running recording has enabled it */
+    private static final EventType TYPE = EventType.getEventType(SaveEvent.class);
+
+    /** Seed of the game, which tells the games of one process apart */
+    @Label("Game Seed")
+    long game;
+    /** File saved to */
+    @Label("File")
+    String file;
+    /** What was saved: {@code game} or {@code player} */
+    @Label("Content")
+    String content;
+    /** Whether it succeeded */
+    @Label("Succeeded")
+    boolean succeeded;
+
+    /**
+     * Starts timing a save.
+     *
+     * @param ctx the context of the game being played
+     * @param file the file saved to
+     * @param fullGame true for a whole game, false for a single player
+     * @return the event, to {@link #end(boolean) end} when done,
+     *         or null if no running recording has enabled it
+     */
+    public static SaveEvent start(GameContext ctx, String file, boolean fullGame) {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        SaveEvent event = new SaveEvent();
+        event.game = ctx.getSeed();
+        event.file = file;
+        event.content = fullGame ? "game" : "player";
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the save and records it.
+     *
+     * @param succeeded whether it succeeded
+     */
+    public void end(boolean succeeded) {
+        this.succeeded = succeeded;
+        commit();
+    }
+}
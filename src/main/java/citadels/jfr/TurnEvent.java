@@ -0,0 +1,68 @@
+package citadels.jfr;
+
+import citadels.GameContext;
+import citadels.card.CharacterCard;
+import citadels.player.Player;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A character's turn, whether a human or an AI player takes it.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+@Name("citadels.Turn")
+@Label("Turn")
+@Category({"Citadels"})
+@Description("A character's turn, human or AI")
+@StackTrace(false)
+public final class TurnEvent extends Event {
+    /** Type of the event, which tells whether a running recording has enabled it */
+    private static final EventType TYPE = EventType.getEventType(TurnEvent.class);
+
+    /** Seed of the game, which tells the games of one process apart */
+    @Label("Game Seed")
+    long game;
+    /** Name of the character */
+    @Label("Character")
+    String character;
+    /** Rank of the character */
+    @Label("Rank")
+    int rank;
+    /** Name of the player taking the turn */
+    @Label("Player")
+    String player;
+    /** Whether the player is human */
+    @Label("Human")
+    boolean human;
+
+    /**
+     * Starts timing a turn.
+     *
+     * @param ctx the context of the game being played
+     * @param character the character whose turn it is
+     * @param player the player taking the turn
+     * @return the event, to {@link #commit() commit} when the turn is over,
+     *         or null if no running recording has enabled it
+     */
+    public static TurnEvent start(GameContext ctx, CharacterCard character, Player player) {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        TurnEvent event = new TurnEvent();
+        event.game = ctx.getSeed();
+        event.character = character.getName();
+        event.rank = character.getRank();
+        event.player = player.getName();
+        event.human = player.isHuman();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Package containing the Java Flight Recorder events of a game.
+ * Rounds, character selections, turns, AI decisions, saves and loads are
+ * recorded as JFR events, so a stalled game can be lined up with the GC, lock
+ * and CPU events of the same recording. The bundled {@code citadels/citadels.jfc}
+ * settings enable them with the JVM events worth correlating.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+package citadels.jfr;
@@ -0,0 +1,209 @@
+package citadels.metrics;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms of the phases of a game.
+ * A game collects metrics when its {@link citadels.GameContext} has a {@code GameMetrics};
+ * without one, each instrumented phase costs a single null check. One instance may
+ * be shared by many games, such as every session of a server, and recorded into
+ * from all their threads. Games forked for searching or simulation start without
+ * metrics, so only the real games are measured.
+ * <p>
+ * Phases are timed with {@link #start()} and {@link #record(Phase, long)}:
+ * <pre>{@code
+ * GameMetrics metrics = ctx.getMetrics();
+ * long start = metrics == null ? 0 : metrics.start();
+ * ...
+ * if (metrics != null) metrics.record(GameMetrics.Phase.SCORING, start);
+ * }</pre>
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class GameMetrics {
+
+    /**
+     * The timed phases.
+     */
+    public enum Phase {
+        /** Shuffling, discarding and drafting the characters, human picks included */
+        CHARACTER_SELECTION("selection"),
+        /** A character's turn, from being called to the end of the turn; also kept per rank */
+        TURN("turn"),
+        /** An AI player picking a character */
+        AI_CHARACTER_CHOICE("ai.character"),
+        /** An AI player's whole turn */
+        AI_TURN("ai.turn"),
+        /** Scoring the game */
+        SCORING("scoring"),
+        /** Saving the game */
+        SAVE("save"),
+        /** Loading a game */
+        LOAD("load");
+
+        /** Name of the phase in reports */
+        private final String label;
+
+        /**
+         * Creates a phase.
+         *
+         * @param label the name of the phase in reports
+         */
+        Phase(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Gets the name of the phase in reports.
+         * @return the label
+         */
+        public String getLabel() { return label; }
+    }
+
+    /** Shared thread printing periodic reports */
+    private static final ScheduledExecutorService DUMPER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "citadels-metrics");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Histogram of each phase */
+    private final Map<Phase, LatencyHistogram> phases = new EnumMap<>(Phase.class);
+    /** Histogram of the turns of each rank, indexed by rank */
+    private final LatencyHistogram[] turnsByRank = new LatencyHistogram[9];
+
+    /**
+     * Creates empty metrics.
+     */
+    public GameMetrics() {
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new LatencyHistogram());
+        }
+        for (int rank = 1; rank < turnsByRank.length; rank++) {
+            turnsByRank[rank] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Gets the time a phase starts at.
+     * @return the current {@link System#nanoTime()}
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a phase that started at the given time and ends now.
+     *
+     * @param phase the phase
+     * @param startNanos the time from {@link #start()}
+     */
+    public void record(Phase phase, long startNanos) {
+        phases.get(phase).record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records a character's turn that started at the given time and ends now.
+     *
+     * @param rank the character's rank, from 1 to 8
+     * @param startNanos the time from {@link #start()}
+     */
+    public void recordTurn(int rank, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        phases.get(Phase.TURN).record(nanos);
+        if (rank >= 1 && rank < turnsByRank.length) {
+            turnsByRank[rank].record(nanos);
+        }
+    }
+
+    /**
+     * Gets the histogram of a phase.
+     *
+     * @param phase the phase
+     * @return its histogram
+     */
+    public LatencyHistogram get(Phase phase) {
+        return phases.get(phase);
+    }
+
+    /**
+     * Gets the histogram of the turns of one character.
+     *
+     * @param rank the character's rank
+     * @return the histogram of that rank's turns
+     * @throws IllegalArgumentException if the rank is not between 1 and 8
+     */
+    public LatencyHistogram getTurn(int rank) {
+        if (rank < 1 || rank >= turnsByRank.length) {
+            throw new IllegalArgumentException("Rank must be between 1 and 8: " + rank);
+        }
+        return turnsByRank[rank];
+    }
+
+    /**
+     * Forgets everything recorded.
+     */
+    public void reset() {
+        for (LatencyHistogram h : phases.values()) {
+            h.reset();
+        }
+        for (int rank = 1; rank < turnsByRank.length; rank++) {
+            turnsByRank[rank].reset();
+        }
+    }
+
+    /**
+     * Prints a table of every phase that was recorded, with times in microseconds.
+     *
+     * @param out the stream to print to
+     */
+    public void printReport(PrintStream out) {
+        out.printf("%-14s %8s %10s %10s %10s %10s %10s%n", "phase", "count", "mean us", "p50 us", "p90 us", "p99 us", "max us");
+        for (Phase phase : Phase.values()) {
+            printRow(out, phase.getLabel(), phases.get(phase));
+            if (phase == Phase.TURN) {
+                for (int rank = 1; rank < turnsByRank.length; rank++) {
+                    printRow(out, "  rank " + rank, turnsByRank[rank]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Prints a report every period until the returned task is cancelled.
+     *
+     * @param out the stream to print to
+     * @param period the time between reports
+     * @param unit the unit of the period
+     * @return the scheduled reports, to cancel them
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    public ScheduledFuture<?> printEvery(PrintStream out, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        return DUMPER.scheduleAtFixedRate(() -> printReport(out), period, period, unit);
+    }
+
+    /**
+     * Prints one line of the report, if anything was recorded.
+     *
+     * @param out the stream to print to
+     * @param label the name of the row
+     * @param h the histogram
+     */
+    private static void printRow(PrintStream out, String label, LatencyHistogram h) {
+        if (h.getCount() == 0) {
+            return;
+        }
+        out.printf("%-14s %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n", label, h.getCount(), h.getMean() / 1e3,
+            h.getPercentile(0.5) / 1e3, h.getPercentile(0.9) / 1e3, h.getPercentile(0.99) / 1e3, h.getMax() / 1e3);
+    }
+}
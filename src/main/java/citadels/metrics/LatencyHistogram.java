@@ -0,0 +1,146 @@
+package citadels.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations in nanoseconds with a fixed relative precision, in the
+ * style of HdrHistogram. Values are counted in buckets that split every power of
+ * two into {@value #SUB_BUCKETS} equal parts, so a value is reported within about
+ * 6% of what was recorded, from a nanosecond to centuries, in a few kilobytes.
+ * <p>
+ * Recording is a handful of atomic increments and never allocates or locks, so
+ * any number of threads can record into one histogram at the same time. Reading
+ * while others record sees a consistent enough picture for reporting, not an
+ * exact snapshot.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public final class LatencyHistogram {
+    /** Number of bits of a value kept below its leading one */
+    private static final int SUB_BUCKET_BITS = 4;
+    /** Number of buckets each power of two is split into */
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Number of buckets needed for every non-negative long */
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /** Number of values in each bucket */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    /** Number of values recorded */
+    private final LongAdder count = new LongAdder();
+    /** Sum of the values recorded */
+    private final LongAdder total = new LongAdder();
+    /** Largest value recorded */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds; negative durations count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        count.increment();
+        total.add(value);
+        long seen = max.get();
+        while (value > seen && !max.compareAndSet(seen, value)) {
+            seen = max.get();
+        }
+    }
+
+    /**
+     * Gets the number of durations recorded.
+     * @return the count
+     */
+    public long getCount() { return count.sum(); }
+
+    /**
+     * Gets the largest duration recorded.
+     * @return the maximum in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMax() { return max.get(); }
+
+    /**
+     * Gets the mean of the durations recorded.
+     * @return the mean in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    /**
+     * Gets a percentile of the durations recorded: the largest value that the
+     * given fraction of the durations do not exceed, to the precision of the buckets.
+     *
+     * @param fraction the fraction, between 0 and 1, such as 0.99 for the 99th percentile
+     * @return the percentile in nanoseconds, at most {@link #getMax()}, or 0 if nothing was recorded
+     * @throws IllegalArgumentException if the fraction is not between 0 and 1
+     */
+    public long getPercentile(double fraction) {
+        if (!(fraction >= 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("Fraction must be between 0 and 1: " + fraction);
+        }
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            n += counts.get(i);
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestInBucket(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Forgets every duration recorded.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+
+    /**
+     * Gets the bucket of a value.
+     *
+     * @param value a non-negative value
+     * @return the bucket index
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Gets the largest value that falls into a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the bucket's upper bound
+     */
+    static long highestInBucket(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
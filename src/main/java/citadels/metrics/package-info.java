@@ -0,0 +1,9 @@
+/**
+ * Package containing the latency metrics of a game.
+ * Times the phases of a round, AI decisions and saves in log-linear histograms
+ * that cost a null check per phase when no metrics are collected.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+package citadels.metrics;
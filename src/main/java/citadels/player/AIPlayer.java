@@ -1,10 +1,19 @@
 package citadels.player;
 
 import citadels.Game;
+import citadels.GameContext;
 import citadels.card.CharacterCard;
+import citadels.card.CharacterType;
 import citadels.card.DistrictCard;
+import citadels.card.DistrictColor;
 import citadels.effect.PurpleCardEffects;
+import citadels.effect.WarlordTargets;
+import citadels.event.GameEventListener;
+import citadels.jfr.AIDecisionEvent;
+import citadels.jfr.JfrSupport;
+import citadels.metrics.GameMetrics;
 import citadels.util.Deck;
+import citadels.util.GameRandom;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -19,9 +28,11 @@ import java.util.stream.Collectors;
  * @version 7.0
  */
 public class AIPlayer extends Player {
+    /** Rank of every character as the string the game records targets by, indexed by rank */
+    private static final String[] RANK_KEYS = {"0", "1", "2", "3", "4", "5", "6", "7", "8"};
+
     /** Random number generator for making probabilistic decisions */
-    @SuppressWarnings("unused")
-	private static final Random RNG = new Random();
+    private GameRandom random;
 
     /**
      * Creates a new AI player with the specified name.
@@ -29,9 +40,33 @@ public class AIPlayer extends Player {
      * @param name the name of the player
      */
     public AIPlayer(String name) {
+        this(name, new GameRandom());
+    }
+
+    /**
+     * Creates a new AI player with the specified name that makes its
+     * probabilistic decisions with the given random source.
+     *
+     * @param name the name of the player
+     * @param random the random source, usually split off the game's
+     */
+    public AIPlayer(String name, GameRandom random) {
         super(name);
+        this.random = random;
     }
 
+    /**
+     * Gets the random source this player makes probabilistic decisions with.
+     * @return the random source
+     */
+    public GameRandom getRandom() { return random; }
+
+    /**
+     * Sets the random source this player makes probabilistic decisions with.
+     * @param random the random source
+     */
+    public void setRandom(GameRandom random) { this.random = random; }
+
     /**
      * Indicates that this is not a human player.
      *
@@ -67,8 +102,8 @@ public class AIPlayer extends Player {
         // a) emergency card need
         if (cards <= 1) {
             List<CharacterCard> want = options.stream()
-                .filter(c -> c.getName().equalsIgnoreCase("Magician")
-                          || c.getName().equalsIgnoreCase("Architect"))
+                .filter(c -> c.getType() == CharacterType.MAGICIAN
+                          || c.getType() == CharacterType.ARCHITECT)
                 .collect(Collectors.toList());
             if (!want.isEmpty()) {
                 return want.get(0);  // Always pick first for deterministic testing
@@ -78,8 +113,8 @@ public class AIPlayer extends Player {
         // b) spending priority
         if (gold >= 6 && built < 4) {
             List<CharacterCard> want = options.stream()
-                .filter(c -> c.getName().equalsIgnoreCase("Warlord")
-                          || c.getName().equalsIgnoreCase("Merchant"))
+                .filter(c -> c.getType() == CharacterType.WARLORD
+                          || c.getType() == CharacterType.MERCHANT)
                 .collect(Collectors.toList());
             if (!want.isEmpty()) {
                 return want.get(0);  // Always pick first for deterministic testing
@@ -87,14 +122,9 @@ public class AIPlayer extends Player {
         }
 
         // c) endgame rainbow bonus
-        Set<String> colors = getCity().stream()
-            .map(DistrictCard::getColor)
-            .map(String::toLowerCase)
-            .collect(Collectors.toSet());
-        if (colors.containsAll(new HashSet<>(
-                Arrays.asList("red","blue","green","yellow","purple")))) {
+        if (DistrictColor.isComplete(getColorMask())) {
             Optional<CharacterCard> king = options.stream()
-                .filter(c -> c.getName().equalsIgnoreCase("King"))
+                .filter(c -> c.getType() == CharacterType.KING)
                 .findFirst();
             if (king.isPresent()) {
                 return king.get();
@@ -107,31 +137,59 @@ public class AIPlayer extends Player {
             .orElse(null);
     }
 
+    /**
+     * Picks a character during the draft of the given game. The plain AI takes the
+     * first character left in the shuffled draft; subclasses may think harder.
+     *
+     * @param context the context of the game being played
+     * @param draft the characters still available, never empty
+     * @return the chosen character, one of {@code draft}
+     */
+    public CharacterCard chooseCharacter(GameContext context, List<CharacterCard> draft) {
+        return draft.get(0);
+    }
+
     /**
      * Executes this AI player's turn using the current game state.
      * Delegates to the two-argument version of takeTurn.
      */
     @Override
     public void takeTurn() {
-        CharacterCard role = Game.selectedCharacters.get(this);
+        takeTurn(Game.getDefaultContext());
+    }
+
+    /**
+     * Executes this AI player's turn using the state of the given game.
+     *
+     * @param context the context of the game being played
+     */
+    @Override
+    public void takeTurn(GameContext context) {
+        CharacterCard role = context.getSelectedCharacters().get(this);
         if (role == null) {
             return;  // No character assigned
         }
 
         // Check if assassinated
-        if (String.valueOf(role.getRank()).equals(Game.getAssassinatedCharacter())) {
-            System.out.println(getName() + " was assassinated and skips their turn.");
+        if (context.isAssassinated(role)) {
+            context.getEventListener().onTurnSkipped(this, role);
             return;
         }
 
         // Check if robbed
-        if (String.valueOf(role.getRank()).equals(Game.getRobbedCharacter())) {
+        if (context.isRobbed(role)) {
             int stolenGold = getGold();
             addGold(-stolenGold);  // Remove all gold
-            System.out.println(getName() + " was robbed of " + stolenGold + " gold.");
+            context.getEventListener().onGoldRobbed(this, stolenGold);
         }
 
-        takeTurn(role, Game.districtDeck);
+        GameMetrics metrics = context.getMetrics();
+        long start = metrics == null ? 0 : metrics.start();
+        AIDecisionEvent decision = JfrSupport.records(context)
+            ? AIDecisionEvent.start(context, this, AIDecisionEvent.TURN) : null;
+        takeTurn(context, role, context.getDistrictDeck());
+        if (decision != null) decision.end(role);
+        if (metrics != null) metrics.record(GameMetrics.Phase.AI_TURN, start);
     }
 
     /**
@@ -149,46 +207,37 @@ public class AIPlayer extends Player {
      * @param districtDeck the deck of district cards
      */
     public void takeTurn(CharacterCard role, Deck<DistrictCard> districtDeck) {
+        takeTurn(Game.getDefaultContext(), role, districtDeck);
+    }
+
+    /**
+     * Executes a full AI turn with the given role and district deck in the given game.
+     *
+     * @param context the context of the game being played
+     * @param role the character card the AI is playing as
+     * @param districtDeck the deck of district cards
+     * @see #takeTurn(CharacterCard, Deck)
+     */
+    public void takeTurn(GameContext context, CharacterCard role, Deck<DistrictCard> districtDeck) {
         if (role == null || districtDeck == null) {
             return;
         }
 
-        String name = role.getName();
-
-        // 1) Assassin special action
-        if ("Assassin".equalsIgnoreCase(name)) {
-            for (int targetRank = 8; targetRank >= 2; targetRank--) {  // Start with highest rank
-                final int rank = targetRank;
-                Optional<CharacterCard> victim = Game.selectedCharacters.values().stream()
-                    .filter(c -> c.getRank() == rank
-                              && !"Assassin".equalsIgnoreCase(c.getName()))
-                    .findFirst();
-                if (victim.isPresent()) {
-                    Game.setAssassinatedCharacter(String.valueOf(victim.get().getRank()));
-                    System.out.println(getName() + " assassinated " + victim.get().getName());
-                    break;
-                }
-            }
-        }
+        CharacterType type = role.getType();
+        GameEventListener events = context.getEventListener();
 
-        // 2) Thief special action
-        if ("Thief".equalsIgnoreCase(name)) {
-            Player richest = Game.players.stream()
-                .filter(p -> 
-                {CharacterCard c = Game.selectedCharacters.get(p);
-                    if (c == null || c.getRank() == 1  // Can't rob Assassin (rank 1)
-                        || String.valueOf(c.getRank()).equals(Game.getAssassinatedCharacter())) {
-                        return false;
-                    }
-                    return true;
-                })
-                .max(Comparator.comparingInt(Player::getGold))
-                .orElse(null);
-            if (richest != null) {
-                Game.setRobbedCharacter(
-                    String.valueOf(Game.selectedCharacters.get(richest).getRank()));
-                System.out.println(getName() + " robbed "
-                    + Game.selectedCharacters.get(richest).getName());
+        // 1) Assassin and Thief special actions
+        if (type == CharacterType.ASSASSIN) {
+            CharacterCard victim = chooseAssassinTarget(context);
+            if (victim != null) {
+                context.setAssassinatedCharacter(rankKey(victim.getRank()));
+                events.onCharacterAssassinated(this, victim);
+            }
+        } else if (type == CharacterType.THIEF) {
+            CharacterCard target = chooseThiefTarget(context);
+            if (target != null) {
+                context.setRobbedCharacter(rankKey(target.getRank()));
+                events.onCharacterRobbed(this, target);
             }
         }
 
@@ -201,113 +250,65 @@ public class AIPlayer extends Player {
                     DistrictCard pick = (c1.getCost() >= c2.getCost()) ? c1 : c2;
                     drawCard(pick);
                     districtDeck.placeOnBottom(c1 == pick ? c2 : c1);
-                    System.out.println(getName() + " drew two and kept " + pick.getName());
+                    events.onCardDrawn(this, pick, 2);
                 } else {
                     drawCard(c1);
-                    System.out.println(getName() + " drew one card");
+                    events.onCardDrawn(this, c1, 1);
                 }
             }
         } else {
             addGold(2);
-            System.out.println(getName() + " took 2 gold (has " + getGold() + ")");
+            events.onGoldTaken(this, 2);
         }
 
         // 4) Purple‐card effects & role income
-        PurpleCardEffects.applyTurnEffects(this, null);
-        int income = 0;
-        switch (name.toLowerCase()) {
-            case "king":
-                income = (int) getCity().stream()
-                    .filter(d -> PurpleCardEffects.effectiveColor(d, this, "king").equals("yellow"))
-                    .count();
-                Game.setCrownPlayerIndex(Game.players.indexOf(this));
-                break;
-            case "bishop":
-                income = (int) getCity().stream()
-                    .filter(d -> PurpleCardEffects.effectiveColor(d, this, "bishop").equals("blue"))
-                    .count();
-                break;
-            case "merchant":
-                income = (int) getCity().stream()
-                    .filter(d -> PurpleCardEffects.effectiveColor(d, this, "merchant").equals("green"))
-                    .count() + 1;  // Merchant gets 1 bonus gold
-                break;
-            case "architect":
-                if (!districtDeck.isEmpty()) {
-                    drawCard(districtDeck.draw());
-                    if (!districtDeck.isEmpty()) {
-                        drawCard(districtDeck.draw());
-                        System.out.println(getName() + " drew 2 extra cards.");
-                    } else {
-                        System.out.println(getName() + " drew 1 extra card.");
-                    }
-                }
-                break;
-            case "warlord":
-                income = (int) getCity().stream()
-                    .filter(d -> PurpleCardEffects.effectiveColor(d, this, "warlord").equals("red"))
-                    .count();
-                break;
-            case "magician":
-                // Try to swap with richest player if they have more cards
-                Player swapTarget = Game.players.stream()
-                    .filter(p -> p != this)
-                    .filter(p -> p.getHand().size() > getHand().size())
-                    .max(Comparator.comparingInt(p -> p.getHand().size()))
-                    .orElse(null);
-                
-                if (swapTarget != null) {
-                    List<DistrictCard> myHand = new ArrayList<>(getHand());
-                    List<DistrictCard> theirHand = new ArrayList<>(swapTarget.getHand());
-                    getHand().clear();
-                    swapTarget.getHand().clear();
-                    getHand().addAll(theirHand);
-                    swapTarget.getHand().addAll(myHand);
-                    System.out.println(getName() + " swapped hands with " + swapTarget.getName());
-                } else if (!getHand().isEmpty()) {
-                    // Redraw if can't swap
-                    List<DistrictCard> oldHand = new ArrayList<>(getHand());
-                    getHand().clear();
-                    for (int i = 0; i < oldHand.size() && !districtDeck.isEmpty(); i++) {
-                        drawCard(districtDeck.draw());
-                    }
-                    oldHand.forEach(districtDeck::placeOnBottom);
-                    System.out.println(getName() + " redrew their hand");
-                }
-                break;
+        PurpleCardEffects.applyTurnEffects(context, this, (PlayerInput) null);
+        int income = PurpleCardEffects.characterIncome(this, type, false);
+        if (type == CharacterType.KING) {
+            context.setCrownPlayerIndex(context.getSeat(this));
+        } else if (type == CharacterType.MAGICIAN) {
+            // Try to swap with the player holding the most cards if they have more
+            Player swapTarget = chooseMagicianTarget(context);
+            if (swapTarget != null) {
+                exchangeHands(getHand(), swapTarget.getHand());
+                events.onHandsSwapped(this, swapTarget);
+            } else if (!getHand().isEmpty()) {
+                // Redraw if can't swap
+                redrawHand(districtDeck);
+                events.onHandRedrawn(this, getHand().size());
+            }
+        }
+        int extraCards = 0;
+        while (type != null && extraCards < type.getExtraCards() && !districtDeck.isEmpty()) {
+            drawCard(districtDeck.draw());
+            extraCards++;
+        }
+        if (extraCards > 0) {
+            events.onExtraCardsDrawn(this, extraCards);
         }
         if (income > 0) {
             addGold(income);
-            System.out.println(getName() + " gains " + income + " gold from role income.");
+            events.onIncomeCollected(this, income);
         }
 
         // 5) Warlord destruction
-        if ("Warlord".equalsIgnoreCase(name)) {
-            destroyWithWarlord();
+        if (type == CharacterType.WARLORD) {
+            destroyWithWarlord(context);
         }
 
         // 6) Build districts
-        int maxBuilds = "Architect".equalsIgnoreCase(name) ? 3 : 1;
+        int maxBuilds = type == null ? 1 : type.getBuildLimit();
         int builds = 0;
-        
-        while (builds < maxBuilds) {
-            List<DistrictCard> buildable = getHand().stream()
-                .filter(c -> c.getCost() <= getGold()
-                         && !hasDistrict(c.getName()))
-                .sorted(Comparator.comparingInt(DistrictCard::getCost).reversed())
-                .collect(Collectors.toList());
 
-            if (buildable.isEmpty()) {
+        while (builds < maxBuilds) {
+            DistrictCard toBuild = chooseDistrictToBuild(context);
+            if (toBuild == null) {
                 break;
             }
 
-            DistrictCard toBuild = buildable.get(0);
-            int idx = getHand().indexOf(toBuild);
-            if (buildDistrict(idx)) {
+            int idx = indexInHand(toBuild);
+            if (buildDistrict(idx, events)) {
                 builds++;
-                System.out.println(getName() + " built " + toBuild.getName() 
-                    + " [" + toBuild.getColor() + toBuild.getCost() 
-                    + "]. Remaining gold=" + getGold());
             } else {
                 break;
             }
@@ -317,10 +318,100 @@ public class AIPlayer extends Player {
         if (hasDistrict("Museum") && !getHand().isEmpty()) {
             DistrictCard toBank = getHand().get(0);  // Bank first card
             bankCard(toBank);
-            System.out.println(getName() + " banked " + toBank.getName() + " in Museum");
+            events.onCardBanked(this, toBank);
         }
 
-        System.out.println(getName() + " ends turn as " + role.getRank() + ": " + role.getName());
+        events.onTurnEnded(this, role);
+    }
+
+    /**
+     * Chooses the character to kill as the Assassin: the highest ranked character
+     * picked by another player.
+     *
+     * @param context the context of the game being played
+     * @return the character to kill, or null to kill nobody
+     */
+    protected CharacterCard chooseAssassinTarget(GameContext context) {
+        List<Player> players = context.getPlayers();
+        Map<Player, CharacterCard> selected = context.getSelectedCharacters();
+        for (int targetRank = 8; targetRank >= 2; targetRank--) {  // Start with highest rank
+            int seat = context.getCharacterSeat(targetRank);
+            if (seat >= 0) {
+                CharacterCard c = selected.get(players.get(seat));
+                if (c.getType() != CharacterType.ASSASSIN) {
+                    return c;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Chooses the character to rob as the Thief: the one picked by the richest
+     * player, leaving out the Assassin and the assassinated character.
+     *
+     * @param context the context of the game being played
+     * @return the character to rob, or null to rob nobody
+     */
+    protected CharacterCard chooseThiefTarget(GameContext context) {
+        List<Player> players = context.getPlayers();
+        Map<Player, CharacterCard> selected = context.getSelectedCharacters();
+        CharacterCard target = null;
+        int richest = Integer.MIN_VALUE;
+        for (int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
+            CharacterCard c = selected.get(p);
+            if (c == null || c.getRank() == 1  // Can't rob Assassin (rank 1)
+                    || context.isAssassinated(c)) {
+                continue;
+            }
+            if (p.getGold() > richest) {
+                richest = p.getGold();
+                target = c;
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Chooses the player to swap hands with as the Magician: the other player
+     * holding the most cards, if they hold more than this player.
+     *
+     * @param context the context of the game being played
+     * @return the player to swap with, or null to redraw instead
+     */
+    protected Player chooseMagicianTarget(GameContext context) {
+        List<Player> players = context.getPlayers();
+        Player target = null;
+        int most = getHand().size();
+        for (int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
+            if (p != this && p.getHand().size() > most) {
+                most = p.getHand().size();
+                target = p;
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Chooses the next district to build: the most expensive affordable card in
+     * hand that is not already in the city.
+     *
+     * @param context the context of the game being played
+     * @return the card to build, or null to stop building
+     */
+    protected DistrictCard chooseDistrictToBuild(GameContext context) {
+        DistrictCard best = null;
+        List<DistrictCard> hand = getHand();
+        for (int i = 0; i < hand.size(); i++) {
+            DistrictCard c = hand.get(i);
+            if (c.getCost() <= getGold() && !hasDistrict(c.getName())
+                    && (best == null || c.getCost() > best.getCost())) {
+                best = c;
+            }
+        }
+        return best;
     }
 
     /**
@@ -345,8 +436,12 @@ public class AIPlayer extends Player {
         }
 
         // Check if we have any buildable districts
-        boolean hasBuildable = getHand().stream()
-            .anyMatch(c -> c.getCost() <= getGold() && !hasDistrict(c.getName()));
+        boolean hasBuildable = false;
+        List<DistrictCard> hand = getHand();
+        for (int i = 0; i < hand.size() && !hasBuildable; i++) {
+            DistrictCard c = hand.get(i);
+            hasBuildable = c.getCost() <= getGold() && !hasDistrict(c.getName());
+        }
 
         if (!hasBuildable && deck.size() >= 2) {
             return true;  // Can't build anything, try to get new cards
@@ -357,34 +452,93 @@ public class AIPlayer extends Player {
 
     /**
      * Handles the Warlord's district destruction ability.
-     * The AI targets:
-     * <ul>
-     *   <li>Players close to winning</li>
-     *   <li>Expensive districts that can be destroyed</li>
-     *   <li>Districts that would prevent bonuses</li>
-     * </ul>
+     * The AI destroys the most expensive district it can afford, as found by {@link WarlordTargets}.
+     *
+     * @param context the context of the game being played
      */
-    private void destroyWithWarlord() {
-        // Find the most expensive destroyable district
-        Optional<AbstractMap.SimpleEntry<Player, DistrictCard>> target = Game.players.stream()
-            .filter(p -> p != this)  // Can't destroy own districts
-            .filter(p -> {
-                CharacterCard c = Game.selectedCharacters.get(p);
-                return c != null && !c.getName().equalsIgnoreCase("Bishop");  // Can't destroy Bishop's districts
-            })
-            .flatMap(p -> p.getCity().stream()
-                .filter(d -> !d.getName().equalsIgnoreCase("Great Wall"))  // Can't destroy if protected
-                .filter(d -> d.getCost() - 1 <= getGold())  // Must be able to afford destruction
-                .map(d -> new AbstractMap.SimpleEntry<>(p, d)))
-            .max(Comparator.comparingInt(e -> e.getValue().getCost()));
-
-        if (target.isPresent()) {
-            Player victim = target.get().getKey();
-            DistrictCard district = target.get().getValue();
-            victim.getCity().remove(district);
-            addGold(-(district.getCost() - 1));
-            System.out.println(getName() + " destroyed " + victim.getName() + "'s "
-                + district.getName() + " for " + (district.getCost() - 1) + " gold.");
+    private void destroyWithWarlord(GameContext context) {
+        Player victim = WarlordTargets.findVictim(context, this, getGold());
+        if (victim == null) {
+            return;
+        }
+        int index = WarlordTargets.findDistrict(victim, getGold());
+        if (index < 0) {
+            return;
         }
+        int cost = PurpleCardEffects.getWarlordDestructionCost(victim.getCity().get(index), victim);
+        DistrictCard district = victim.getCity().remove(index);
+        addGold(-cost);
+        context.getEventListener().onDistrictDestroyed(this, victim, district, cost);
+    }
+
+    /**
+     * Finds a card in this player's hand by identity.
+     *
+     * @param card the card to find
+     * @return its index in the hand, or -1 if it is not there
+     */
+    private int indexInHand(DistrictCard card) {
+        List<DistrictCard> hand = getHand();
+        for (int i = 0; i < hand.size(); i++) {
+            if (hand.get(i) == card) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gives two players each other's hands, keeping the order of the cards.
+     * The cards trade places in the lists themselves, so no list is copied.
+     *
+     * @param mine this player's hand
+     * @param theirs the other player's hand
+     */
+    private static void exchangeHands(List<DistrictCard> mine, List<DistrictCard> theirs) {
+        int common = Math.min(mine.size(), theirs.size());
+        for (int i = 0; i < common; i++) {
+            theirs.set(i, mine.set(i, theirs.get(i)));
+        }
+        List<DistrictCard> longer = mine.size() > common ? mine : theirs;
+        List<DistrictCard> shorter = longer == mine ? theirs : mine;
+        for (int i = common; i < longer.size(); i++) {
+            shorter.add(longer.get(i));
+        }
+        for (int i = longer.size() - 1; i >= common; i--) {
+            longer.remove(i);
+        }
+    }
+
+    /**
+     * Replaces every card in hand with one from the top of the deck, then puts
+     * the old cards on the bottom in their order. With fewer cards in the deck
+     * than in hand, the hand shrinks to the size of the deck.
+     *
+     * @param districtDeck the deck to draw from
+     */
+    private void redrawHand(Deck<DistrictCard> districtDeck) {
+        List<DistrictCard> hand = getHand();
+        int size = hand.size();
+        // Only the cards on top of the deck now are drawn, never the old cards going under it
+        int drawn = Math.min(size, districtDeck.size());
+        for (int i = 0; i < drawn; i++) {
+            districtDeck.placeOnBottom(hand.set(i, districtDeck.draw()));
+        }
+        for (int i = drawn; i < size; i++) {
+            districtDeck.placeOnBottom(hand.get(i));
+        }
+        for (int i = size - 1; i >= drawn; i--) {
+            hand.remove(i);
+        }
+    }
+
+    /**
+     * Gets the string the game records an assassinated or robbed character by.
+     *
+     * @param rank the character's rank
+     * @return the rank as a string, shared for the ranks of the eight characters
+     */
+    private static String rankKey(int rank) {
+        return rank >= 0 && rank < RANK_KEYS.length ? RANK_KEYS[rank] : String.valueOf(rank);
     }
 }
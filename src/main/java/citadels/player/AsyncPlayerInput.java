@@ -0,0 +1,152 @@
+package citadels.player;
+
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Player input that is pushed in rather than read. A front end serving many players
+ * from one event loop {@link #submit(String) submits} each line as it arrives and
+ * moves on, never blocking; {@link #close()} tells the game the player has left.
+ * <p>
+ * The game asks for lines with {@link #nextLineAsync()}, which returns at once with a
+ * future completed by the next submitted line, or with {@link #nextLine()}, which waits
+ * for that future. Lines submitted before the game asks for them are kept in order.
+ * Only one line can be awaited at a time. All methods may be called from any thread.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public final class AsyncPlayerInput implements PlayerInput {
+    /** Lines submitted before the game asked for them */
+    private final Queue<String> lines = new ArrayDeque<>();
+    /** The game's request for a line not yet submitted, or null */
+    private CompletableFuture<String> pending;
+    /** Whether the player has left */
+    private boolean closed;
+
+    /**
+     * Creates input with no lines yet.
+     */
+    public AsyncPlayerInput() {
+    }
+
+    /**
+     * Asks for the player's next line without waiting for it.
+     *
+     * @return a future completed with the next line, or completed exceptionally with
+     *         {@link NoSuchElementException} if the player leaves first
+     * @throws IllegalStateException if the game is already waiting for a line
+     */
+    public CompletableFuture<String> nextLineAsync() {
+        synchronized (this) {
+            if (pending != null) {
+                throw new IllegalStateException("Already waiting for a line.");
+            }
+            CompletableFuture<String> future = new CompletableFuture<>();
+            if (!lines.isEmpty()) {
+                future.complete(lines.poll());
+            } else if (closed) {
+                future.completeExceptionally(new NoSuchElementException("The player has left."));
+            } else {
+                pending = future;
+            }
+            return future;
+        }
+    }
+
+    /**
+     * Waits for the player's next line. If the waiting thread is interrupted the
+     * request is withdrawn, so the next line submitted is kept for the next read.
+     *
+     * @return the line
+     * @throws NoSuchElementException if the player leaves first, or the waiting thread is interrupted
+     * @throws IllegalStateException if another thread is already waiting for a line
+     */
+    @Override
+    public String nextLine() {
+        CompletableFuture<String> future = nextLineAsync();
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            synchronized (this) {
+                if (pending == future) {
+                    pending = null;
+                    future.cancel(false);
+                    throw new NoSuchElementException("Interrupted while waiting for input.");
+                }
+            }
+            // A line or the player leaving took the request just as the wait was interrupted
+            try {
+                return future.join();
+            } catch (CompletionException ce) {
+                throw unwrap(ce.getCause());
+            }
+        }
+    }
+
+    /**
+     * Gets the exception to throw for the failure of a request for a line.
+     *
+     * @param cause the exception the request was completed with
+     * @return the exception itself if unchecked, otherwise an IllegalStateException wrapping it
+     */
+    private static RuntimeException unwrap(Throwable cause) {
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+    }
+
+    /**
+     * Hands the game a line the player typed. This never blocks; if the game is
+     * waiting, it carries on in its own thread.
+     *
+     * @param line the line, without its line terminator
+     * @throws IllegalStateException if the input was closed
+     */
+    public void submit(String line) {
+        CompletableFuture<String> waiting;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Input is closed.");
+            }
+            waiting = pending;
+            pending = null;
+            if (waiting == null) {
+                lines.add(line);
+                return;
+            }
+        }
+        waiting.complete(line);
+    }
+
+    /**
+     * Checks whether the game is waiting for the player to type a line.
+     *
+     * @return true if a line has been asked for and not yet submitted
+     */
+    public synchronized boolean isWaiting() {
+        return pending != null;
+    }
+
+    /**
+     * Tells the game the player has left. Lines already submitted can still be read;
+     * after them, and for a request already waiting, reading fails with
+     * {@link NoSuchElementException}.
+     */
+    public void close() {
+        CompletableFuture<String> waiting;
+        synchronized (this) {
+            closed = true;
+            waiting = pending;
+            pending = null;
+        }
+        if (waiting != null) {
+            waiting.completeExceptionally(new NoSuchElementException("The player has left."));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package citadels.player;
+
+import citadels.card.DistrictCard;
+import citadels.util.Zobrist;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A list of district cards that keeps a Zobrist hash of its contents, used for
+ * a player's hand and banked cards. Like {@link City}, every way of changing the
+ * list goes through {@link #add(int, DistrictCard)}, {@link #set(int, DistrictCard)}
+ * or {@link #remove(int)}, so the hash stays up to date however the list is edited.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+final class CardList extends AbstractList<DistrictCard> implements RandomAccess {
+    /** The cards */
+    private final List<DistrictCard> cards = new ArrayList<>();
+    /** The zone the cards are in, one of the {@link Zobrist} zones */
+    private final int zone;
+    /** Sum of the keys of the cards in this zone */
+    private long hash;
+
+    /**
+     * Creates an empty list.
+     *
+     * @param zone the zone the cards are in, one of the {@link Zobrist} zones
+     */
+    CardList(int zone) {
+        this.zone = zone;
+    }
+
+    @Override
+    public DistrictCard get(int index) {
+        return cards.get(index);
+    }
+
+    @Override
+    public int size() {
+        return cards.size();
+    }
+
+    @Override
+    public void add(int index, DistrictCard card) {
+        cards.add(index, card);
+        modCount++;
+        hash += key(card);
+    }
+
+    @Override
+    public DistrictCard set(int index, DistrictCard card) {
+        DistrictCard old = cards.set(index, card);
+        hash += key(card) - key(old);
+        return old;
+    }
+
+    @Override
+    public DistrictCard remove(int index) {
+        DistrictCard old = cards.remove(index);
+        modCount++;
+        hash -= key(old);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        cards.clear();
+        modCount++;
+        hash = 0;
+    }
+
+    /**
+     * Gets the Zobrist hash of the cards, which ignores their order.
+     *
+     * @return the sum of the cards' keys in this list's zone
+     */
+    long hash() {
+        return hash;
+    }
+
+    /**
+     * Gets the key of a card in this list's zone.
+     *
+     * @param card the card, or null
+     * @return the card's key, or 0 for null
+     */
+    private long key(DistrictCard card) {
+        return card == null ? 0 : Zobrist.key(zone, card.getHashKey());
+    }
+}
@@ -0,0 +1,276 @@
+package citadels.player;
+
+import citadels.card.DistrictCard;
+import citadels.card.DistrictColor;
+import citadels.effect.PurpleCardEffects;
+import citadels.effect.WarlordTargets;
+import citadels.util.Zobrist;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The districts built in a player's city.
+ * It behaves like any other list, but also keeps running totals of what it
+ * contains, so the questions asked every turn take constant time:
+ * <ul>
+ *   <li>A case-insensitive count of each district name, for duplicate checks
+ *       and purple district effects</li>
+ *   <li>The number of districts of each color, for income and scoring</li>
+ *   <li>The total cost of the districts, which is the base score</li>
+ *   <li>A {@link Zobrist} hash of the districts, for search AIs</li>
+ *   <li>The costs of the districts the Warlord may destroy, for
+ *       {@link WarlordTargets}</li>
+ * </ul>
+ * Every way of changing the list (building, Warlord destruction, loading a
+ * save, or editing the list directly) goes through {@link #add(int, DistrictCard)},
+ * {@link #set(int, DistrictCard)} or {@link #remove(int)}, which keep the totals
+ * up to date.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+final class City extends AbstractList<DistrictCard> implements RandomAccess {
+    /** Initial number of slots in the name index; always a power of two */
+    private static final int INITIAL_SLOTS = 16;
+    /** The district colors, indexed by ordinal */
+    private static final DistrictColor[] COLORS = DistrictColor.values();
+    /** Highest cost with a bucket of its own among the destroyable districts; costlier ones share it */
+    private static final int MAX_COST_BUCKET = 63;
+
+    /** The districts in the order they were built */
+    private final List<DistrictCard> districts = new ArrayList<>();
+
+    /** Open-addressed table of district names seen in this city */
+    private String[] names = new String[INITIAL_SLOTS];
+    /** Number of copies in the city of the name in the same slot */
+    private int[] counts = new int[INITIAL_SLOTS];
+    /** Number of occupied slots in the name index */
+    private int usedSlots;
+
+    /** Number of districts of each color, indexed by ordinal */
+    private final int[] colorCounts = new int[COLORS.length];
+    /** Total cost of the districts */
+    private int totalCost;
+    /** Sum of the keys of the districts */
+    private long hash;
+
+    /** Number of districts the Warlord may destroy, by cost */
+    private final int[] destroyableByCost = new int[MAX_COST_BUCKET + 1];
+    /** Bit c is set while {@code destroyableByCost[c]} is not zero */
+    private long destroyableCosts;
+
+    @Override
+    public DistrictCard get(int index) {
+        return districts.get(index);
+    }
+
+    @Override
+    public int size() {
+        return districts.size();
+    }
+
+    @Override
+    public void add(int index, DistrictCard district) {
+        districts.add(index, district);
+        modCount++;
+        track(district, 1);
+    }
+
+    @Override
+    public DistrictCard set(int index, DistrictCard district) {
+        DistrictCard old = districts.set(index, district);
+        track(old, -1);
+        track(district, 1);
+        return old;
+    }
+
+    @Override
+    public DistrictCard remove(int index) {
+        DistrictCard old = districts.remove(index);
+        modCount++;
+        track(old, -1);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        districts.clear();
+        modCount++;
+        // Keep the index's arrays, so a city can be refilled over and over without allocating
+        Arrays.fill(names, null);
+        Arrays.fill(counts, 0);
+        usedSlots = 0;
+        Arrays.fill(colorCounts, 0);
+        totalCost = 0;
+        hash = 0;
+        Arrays.fill(destroyableByCost, 0);
+        destroyableCosts = 0;
+    }
+
+    /**
+     * Checks if a district with the given name is built, ignoring case.
+     *
+     * @param name the district name
+     * @return true if at least one district with that name is in the city
+     */
+    boolean containsName(String name) {
+        return countName(name) > 0;
+    }
+
+    /**
+     * Counts the districts with the given name, ignoring case.
+     *
+     * @param name the district name
+     * @return the number of districts with that name in the city
+     */
+    int countName(String name) {
+        if (name == null) return 0;
+        int slot = find(name);
+        return names[slot] != null ? counts[slot] : 0;
+    }
+
+    /**
+     * Counts the districts of a color.
+     *
+     * @param color the color
+     * @return the number of districts of that color in the city
+     */
+    int countColor(DistrictColor color) {
+        return colorCounts[color.ordinal()];
+    }
+
+    /**
+     * Gets the set of colors present in the city.
+     *
+     * @return a mask of {@link DistrictColor#bit()} values
+     */
+    int colorMask() {
+        int mask = 0;
+        for (DistrictColor color : COLORS) {
+            if (colorCounts[color.ordinal()] > 0) {
+                mask |= color.bit();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Gets the total cost of the districts in the city.
+     *
+     * @return the sum of the district costs
+     */
+    int totalCost() {
+        return totalCost;
+    }
+
+    /**
+     * Gets the costs of the districts the Warlord may destroy.
+     *
+     * @return a mask with bit c set while a destroyable district costing c is built
+     * @see Player#getDestroyableCosts()
+     */
+    long destroyableCosts() {
+        return destroyableCosts;
+    }
+
+    /**
+     * Gets the Zobrist hash of the districts in the city, which ignores their order.
+     *
+     * @return the sum of the districts' keys
+     */
+    long hash() {
+        return hash;
+    }
+
+    /**
+     * Records that a district entered or left the city.
+     *
+     * @param district the district, ignored if null
+     * @param delta 1 if it was added, -1 if it was removed
+     */
+    private void track(DistrictCard district, int delta) {
+        if (district == null) return;
+        totalCost += delta * district.getCost();
+        hash += delta * Zobrist.key(Zobrist.CITY, district.getHashKey());
+        DistrictColor color = district.getDistrictColor();
+        if (color != null) {
+            colorCounts[color.ordinal()] += delta;
+        }
+        if (!PurpleCardEffects.isProtectedFromWarlord(district, null)) {
+            int bucket = Math.max(0, Math.min(MAX_COST_BUCKET, district.getCost()));
+            destroyableByCost[bucket] += delta;
+            if (destroyableByCost[bucket] > 0) {
+                destroyableCosts |= 1L << bucket;
+            } else {
+                destroyableCosts &= ~(1L << bucket);
+            }
+        }
+
+        String name = district.getName();
+        if (name == null) return;
+        int slot = find(name);
+        if (names[slot] == null) {
+            if (delta < 0) return;
+            names[slot] = name;
+            usedSlots++;
+        }
+        counts[slot] += delta;
+        // Names stay in the table at count zero, so keep it at most half full
+        if (usedSlots * 2 > names.length) {
+            grow();
+        }
+    }
+
+    /**
+     * Finds the slot holding the given name, or the empty slot where it belongs.
+     *
+     * @param name the district name
+     * @return the slot index
+     */
+    private int find(String name) {
+        int mask = names.length - 1;
+        int slot = hash(name) & mask;
+        while (names[slot] != null && !names[slot].equalsIgnoreCase(name)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the size of the name index, dropping names no longer in the city.
+     */
+    private void grow() {
+        String[] oldNames = names;
+        int[] oldCounts = counts;
+        names = new String[oldNames.length * 2];
+        counts = new int[oldNames.length * 2];
+        usedSlots = 0;
+        for (int i = 0; i < oldNames.length; i++) {
+            if (oldNames[i] != null && oldCounts[i] > 0) {
+                int slot = find(oldNames[i]);
+                names[slot] = oldNames[i];
+                counts[slot] = oldCounts[i];
+                usedSlots++;
+            }
+        }
+    }
+
+    /**
+     * Hashes a name so that names equal ignoring case hash the same,
+     * without allocating a lower-cased copy.
+     *
+     * @param name the district name
+     * @return the hash
+     */
+    private static int hash(String name) {
+        int h = 0;
+        for (int i = 0; i < name.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        }
+        return h ^ (h >>> 16);
+    }
+}
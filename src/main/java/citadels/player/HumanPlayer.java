@@ -1,7 +1,9 @@
 package citadels.player;
 
 import citadels.Game;
+import citadels.GameContext;
 import citadels.card.CharacterCard;
+import citadels.card.CharacterType;
 import citadels.card.DistrictCard;
 import java.util.Scanner;
 import java.util.List;
@@ -45,6 +47,17 @@ public class HumanPlayer extends Player {
         takeTurn(Game.getScanner());
     }
 
+    /**
+     * Executes this player's turn in the given game context, reading from the
+     * context's {@link GameContext#getInput() input}.
+     *
+     * @param context the context of the game being played
+     */
+    @Override
+    public void takeTurn(GameContext context) {
+        takeTurn(context, context.getInput());
+    }
+
     /**
      * Executes this player's turn with a specific Scanner.
      * Handles user input for card selection and actions during the turn.
@@ -57,58 +70,78 @@ public class HumanPlayer extends Player {
      * @param scanner the Scanner to use for input
      */
     public void takeTurn(Scanner scanner) {
-        CharacterCard character = Game.selectedCharacters.get(this);
+        takeTurn(Game.getDefaultContext(), scanner);
+    }
+
+    /**
+     * Executes this player's turn in the given game context with a specific Scanner.
+     *
+     * @param context the context of the game being played
+     * @param scanner the Scanner to use for input
+     */
+    public void takeTurn(GameContext context, Scanner scanner) {
+        takeTurn(context, new ScannerInput(scanner));
+    }
+
+    /**
+     * Executes this player's turn in the given game context, reading from the given input.
+     *
+     * @param context the context of the game being played
+     * @param playerInput the player's input
+     */
+    public void takeTurn(GameContext context, PlayerInput playerInput) {
+        CharacterCard character = context.getSelectedCharacters().get(this);
         if (character == null) return;
 
         // Handle character-specific abilities first
-        String name = character.getName();
-        if (name.equals("Assassin")) {
-            System.out.println("Who do you want to kill? Choose a character from 2-8 or 't' to skip:");
+        CharacterType type = character.getType();
+        if (type == CharacterType.ASSASSIN) {
+            context.getOutput().println("Who do you want to kill? Choose a character from 2-8 or 't' to skip:");
             while (true) {
-                System.out.print("> ");
-                String input = scanner.nextLine().trim().toLowerCase();
+                context.getOutput().print("> ");
+                String input = playerInput.nextLine().trim().toLowerCase();
                 if (input.equals("t") || input.equals("end")) {
-                    Game.setAssassinatedCharacter(null);
+                    context.setAssassinatedCharacter(null);
                     break;
                 }
                 try {
                     int rank = Integer.parseInt(input);
                     if (rank >= 2 && rank <= 8) {
-                        Game.setAssassinatedCharacter(String.valueOf(rank));
+                        context.setAssassinatedCharacter(String.valueOf(rank));
                         break;
                     }
                 } catch (NumberFormatException ignored) {}
-                System.out.println("Invalid choice. Enter a number 2-8 or 't' to skip.");
+                context.getOutput().println("Invalid choice. Enter a number 2-8 or 't' to skip.");
             }
             return;  // Return after handling Assassin ability
         }
 
-        if (name.equals("Thief")) {
-            System.out.println("Who do you want to rob? Choose a character from 2-8 or 't' to skip:");
+        if (type == CharacterType.THIEF) {
+            context.getOutput().println("Who do you want to rob? Choose a character from 2-8 or 't' to skip:");
             while (true) {
-                System.out.print("> ");
-                String input = scanner.nextLine().trim().toLowerCase();
+                context.getOutput().print("> ");
+                String input = playerInput.nextLine().trim().toLowerCase();
                 if (input.equals("t") || input.equals("end")) {
-                    Game.setRobbedCharacter(null);
+                    context.setRobbedCharacter(null);
                     break;
                 }
                 try {
                     int rank = Integer.parseInt(input);
                     if (rank >= 2 && rank <= 8 && rank != 1) {  // Can't rob Assassin
-                        Game.setRobbedCharacter(String.valueOf(rank));
+                        context.setRobbedCharacter(String.valueOf(rank));
                         break;
                     }
                 } catch (NumberFormatException ignored) {}
-                System.out.println("Invalid choice. Enter a number 2-8 or 't' to skip.");
+                context.getOutput().println("Invalid choice. Enter a number 2-8 or 't' to skip.");
             }
             return;  // Return after handling Thief ability
         }
 
-        if (name.equals("Magician")) {
-            System.out.println("Choose action: swap (with another player), redraw (your hand), or skip:");
+        if (type == CharacterType.MAGICIAN) {
+            context.getOutput().println("Choose action: swap (with another player), redraw (your hand), or skip:");
             while (true) {
-                System.out.print("> ");
-                String input = scanner.nextLine().trim().toLowerCase();
+                context.getOutput().print("> ");
+                String input = playerInput.nextLine().trim().toLowerCase();
                 if (input.equals("skip") || input.equals("t")) {
                     break;
                 }
@@ -118,32 +151,32 @@ public class HumanPlayer extends Player {
                     // Clear hand and draw new cards
                     getHand().clear();
                     for (int i = 0; i < oldHand.size(); i++) {
-                        DistrictCard newCard = Game.districtDeck.draw();
+                        DistrictCard newCard = context.getDistrictDeck().draw();
                         if (newCard != null) {
                             drawCard(newCard);
                         }
                     }
                     // Return old cards to deck
                     for (DistrictCard card : oldHand) {
-                        Game.districtDeck.addCard(card);
+                        context.getDistrictDeck().addCard(card);
                     }
-                    Game.districtDeck.shuffle();
+                    context.getDistrictDeck().shuffle();
                     break;
                 }
                 if (input.equals("swap")) {
                     // List other players
-                    List<Player> others = new ArrayList<>(Game.players);
+                    List<Player> others = new ArrayList<>(context.getPlayers());
                     others.remove(this);
                     if (others.isEmpty()) {
-                        System.out.println("No other players to swap with.");
+                        context.getOutput().println("No other players to swap with.");
                         break;
                     }
-                    System.out.println("Choose player to swap with (1-" + others.size() + "):");
+                    context.getOutput().println("Choose player to swap with (1-" + others.size() + "):");
                     for (int i = 0; i < others.size(); i++) {
-                        System.out.println((i+1) + ". " + others.get(i).getName());
+                        context.getOutput().println((i+1) + ". " + others.get(i).getName());
                     }
                     try {
-                        int choice = Integer.parseInt(scanner.nextLine().trim());
+                        int choice = Integer.parseInt(playerInput.nextLine().trim());
                         if (choice >= 1 && choice <= others.size()) {
                             Player other = others.get(choice - 1);
                             // Store both hands
@@ -155,37 +188,37 @@ public class HumanPlayer extends Player {
                             // Swap hands
                             getHand().addAll(theirOldHand);
                             other.getHand().addAll(myOldHand);
-                            System.out.println("Swapped hands with " + other.getName());
+                            context.getOutput().println("Swapped hands with " + other.getName());
                             break;
                         }
                     } catch (NumberFormatException ignored) {}
-                    System.out.println("Invalid choice.");
+                    context.getOutput().println("Invalid choice.");
                     continue;
                 }
-                System.out.println("Invalid choice. Enter 'swap', 'redraw', or 'skip'.");
+                context.getOutput().println("Invalid choice. Enter 'swap', 'redraw', or 'skip'.");
             }
             return;  // Return after handling Magician ability
         }
 
         // Normal turn actions
         while (true) {
-            System.out.print("> ");
-            String input = scanner.nextLine().trim().toLowerCase();
+            context.getOutput().print("> ");
+            String input = playerInput.nextLine().trim().toLowerCase();
             
             if (input.startsWith("collect card")) {
                 if (getHand().size() >= 7) {
-                    System.out.println("Your hand is full.");
+                    context.getOutput().println("Your hand is full.");
                     continue;
                 }
                 input = input.replace("collect card", "").trim();
                 try {
                     int index = Integer.parseInt(input) - 1;
                     if (index >= 0 && index < getHand().size()) {
-                        drawCard(Game.districtDeck.draw());
-                        System.out.println("Drew a card.");
+                        drawCard(context.getDistrictDeck().draw());
+                        context.getOutput().println("Drew a card.");
                     }
                 } catch (NumberFormatException ignored) {
-                    System.out.println("Invalid card index.");
+                    context.getOutput().println("Invalid card index.");
                 }
                 continue;
             }
@@ -193,28 +226,28 @@ public class HumanPlayer extends Player {
             // Handle info commands
             if (input.equals("gold")) {
                 addGold(2);  // Collect 2 gold
-                System.out.println("Collected 2 gold. You now have " + getGold() + " gold.");
+                context.getOutput().println("Collected 2 gold. You now have " + getGold() + " gold.");
                 continue;
             }
             if (input.equals("hand")) {
                 if (getHand().isEmpty()) {
-                    System.out.println("Your hand is empty.");
+                    context.getOutput().println("Your hand is empty.");
                 } else {
-                    System.out.println("Your hand:");
+                    context.getOutput().println("Your hand:");
                     for (int i = 0; i < getHand().size(); i++) {
                         DistrictCard card = getHand().get(i);
-                        System.out.println((i+1) + ". " + card.getName() + " [" + card.getColor() + card.getCost() + "]");
+                        context.getOutput().println((i+1) + ". " + card.getName() + " [" + card.getColor() + card.getCost() + "]");
                     }
                 }
                 continue;
             }
             if (input.equals("city")) {
                 if (getCity().isEmpty()) {
-                    System.out.println("Your city is empty.");
+                    context.getOutput().println("Your city is empty.");
                 } else {
-                    System.out.println("Your city:");
+                    context.getOutput().println("Your city:");
                     for (DistrictCard card : getCity()) {
-                        System.out.println("- " + card.getName() + " [" + card.getColor() + card.getCost() + "]");
+                        context.getOutput().println("- " + card.getName() + " [" + card.getColor() + card.getCost() + "]");
                     }
                 }
                 continue;
@@ -223,35 +256,25 @@ public class HumanPlayer extends Player {
             // Handle action commands
             if (input.equals("t") || input.equals("end")) {
                 // Collect character-specific income
-                if (name.equals("King")) {
-                    int yellowCount = (int) getCity().stream().filter(c -> c.getColor().equals("yellow")).count();
-                    addGold(yellowCount);
-                } else if (name.equals("Bishop")) {
-                    int blueCount = (int) getCity().stream().filter(c -> c.getColor().equals("blue")).count();
-                    addGold(blueCount);
-                } else if (name.equals("Merchant")) {
-                    int greenCount = (int) getCity().stream().filter(c -> c.getColor().equals("green")).count();
-                    addGold(greenCount + 1);  // +1 for being Merchant
-                } else if (name.equals("Warlord")) {
-                    int redCount = (int) getCity().stream().filter(c -> c.getColor().equals("red")).count();
-                    addGold(redCount);
+                if (type != null && type.getIncomeColor() != null) {
+                    addGold(countDistricts(type.getIncomeColor()) + type.getBonusGold());
                 }
                 break;
             }
 
             if (input.equals("cards")) {
                 if (getHand().size() >= 7) {
-                    System.out.println("Your hand is full.");
+                    context.getOutput().println("Your hand is full.");
                     continue;
                 }
-                drawCard(Game.districtDeck.draw());
-                System.out.println("Drew a card.");
+                drawCard(context.getDistrictDeck().draw());
+                context.getOutput().println("Drew a card.");
                 continue;
             }
 
             if (input.startsWith("build ")) {
                 if (getCity().size() >= 8) {
-                    System.out.println("Your city is full.");
+                    context.getOutput().println("Your city is full.");
                     continue;
                 }
                 try {
@@ -260,13 +283,13 @@ public class HumanPlayer extends Player {
                         DistrictCard card = getHand().get(index);
                         if (getGold() >= card.getCost() && !hasDistrict(card.getName())) {
                             buildDistrict(index);
-                            System.out.println("Built " + card.getName());
+                            context.getOutput().println("Built " + card.getName());
                         } else {
-                            System.out.println("Cannot build that district.");
+                            context.getOutput().println("Cannot build that district.");
                         }
                     }
                 } catch (NumberFormatException ignored) {
-                    System.out.println("Invalid build command.");
+                    context.getOutput().println("Invalid build command.");
                 }
                 continue;
             }
@@ -278,13 +301,13 @@ public class HumanPlayer extends Player {
                     if (index >= 0 && index < getHand().size()) {
                         DistrictCard card = getHand().remove(index);
                         bankCard(card);
-                        System.out.println("Banked " + card.getName() + " in Museum.");
+                        context.getOutput().println("Banked " + card.getName() + " in Museum.");
                         continue;
                     }
                 } catch (NumberFormatException ignored) {}
             }
 
-            System.out.println("Invalid command.");
+            context.getOutput().println("Invalid command.");
         }
     }
 }
@@ -0,0 +1,710 @@
+package citadels.player;
+
+import citadels.Game;
+import citadels.GameContext;
+import citadels.GameSnapshot;
+import citadels.card.CharacterCard;
+import citadels.card.CharacterType;
+import citadels.card.DistrictCard;
+import citadels.util.Deck;
+import citadels.util.GameRandom;
+import citadels.util.TranspositionTable;
+import citadels.util.Zobrist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An AI player that searches ahead instead of following fixed heuristics.
+ * Before every character pick and every turn it lists its options (each character
+ * in the draft; or, for a turn, taking gold or drawing cards, which character to kill
+ * or rob, and whether to build expensive or cheap districts first) and plays quick
+ * games out from the current position to see which option wins most often.
+ * <p>
+ * The player cannot see the other hands, the order of the deck, or the characters
+ * that have not been revealed yet, so every playout first deals those at random
+ * from the cards it cannot see (determinisation). Options are tried with UCB1,
+ * which spends most playouts on the promising ones, and below the first decision
+ * every seat plays as a plain {@link AIPlayer} until the game ends or
+ * {@link #setRolloutRounds(int) a round limit} is reached. A win is worth 1 and
+ * a loss up to 1/2, in proportion to the score against the leader's.
+ * <p>
+ * Playouts run on all cores. Each worker restores a {@link GameSnapshot} of the
+ * position into its own scratch game before every playout and keeps its own
+ * statistics, which are summed when the budget runs out, so workers share nothing
+ * but a playout counter. A decision stops at its time budget or its playout budget,
+ * whichever comes first. Under a time budget, decisions depend on the speed of the
+ * machine, so a seed only reproduces them with one worker and a playout budget alone.
+ * <p>
+ * Given a {@link #setTranspositionTable(TranspositionTable) transposition table},
+ * the workers also add their results to it, keyed by the {@link GameContext#getPositionHash()
+ * position hash} and the option, and decisions are made on everything the table holds
+ * for the position, so playouts from earlier searches, or from other searching players
+ * sharing the table, that reached the same position are not wasted.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class MctsAIPlayer extends AIPlayer {
+    /** Default thinking time per decision in milliseconds */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 200;
+    /** Default number of rounds played out after a decision before the game is scored anyway */
+    public static final int DEFAULT_ROLLOUT_ROUNDS = 20;
+    /** Exploration constant of UCB1, for rewards between 0 and 1 */
+    private static final double EXPLORATION = 0.7;
+
+    /** Thinking time per decision in nanoseconds */
+    private long timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TIME_BUDGET_MILLIS);
+    /** Maximum number of playouts per decision */
+    private int playoutBudget = Integer.MAX_VALUE;
+    /** Number of workers running playouts */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    /** Maximum number of rounds per playout */
+    private int rolloutRounds = DEFAULT_ROLLOUT_ROUNDS;
+    /** Shared results of earlier playouts, or null to start every search afresh */
+    private TranspositionTable table;
+    /** Number of playouts behind the last decision */
+    private volatile int lastPlayouts;
+
+    /** Whether this is the copy of a player inside a playout, which plays its plan without searching */
+    private final boolean rollout;
+    /** The plan for the turn being played, or null to play by the heuristics */
+    private TurnPlan plan;
+
+    /**
+     * Creates a new searching AI player with the specified name.
+     *
+     * @param name the name of the player
+     */
+    public MctsAIPlayer(String name) {
+        this(name, new GameRandom());
+    }
+
+    /**
+     * Creates a new searching AI player with the specified name that seeds its
+     * playouts from the given random source.
+     *
+     * @param name the name of the player
+     * @param random the random source, usually split off the game's
+     */
+    public MctsAIPlayer(String name, GameRandom random) {
+        this(name, random, false);
+    }
+
+    /**
+     * Creates a searching AI player, or its copy inside a playout.
+     *
+     * @param name the name of the player
+     * @param random the random source
+     * @param rollout true for the copy inside a playout
+     */
+    private MctsAIPlayer(String name, GameRandom random, boolean rollout) {
+        super(name, random);
+        this.rollout = rollout;
+    }
+
+    /**
+     * Sets the thinking time per decision.
+     * @param millis the time budget in milliseconds
+     */
+    public void setTimeBudget(long millis) { this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(millis); }
+
+    /**
+     * Sets the maximum number of playouts per decision.
+     * @param playouts the playout budget; unlimited by default
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public void setPlayoutBudget(int playouts) {
+        if (playouts < 1) {
+            throw new IllegalArgumentException("Playout budget must be at least 1.");
+        }
+        this.playoutBudget = playouts;
+    }
+
+    /**
+     * Sets the number of workers running playouts at the same time.
+     * @param parallelism the number of workers; one per available processor by default
+     * @throws IllegalArgumentException if the parallelism is not positive
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the number of rounds a playout may last before the game is scored anyway.
+     * @param rounds the round limit
+     */
+    public void setRolloutRounds(int rounds) { this.rolloutRounds = rounds; }
+
+    /**
+     * Sets the table playout results are shared through. One table may be shared
+     * by several searching players, also across threads.
+     * @param table the transposition table, or null to search without one
+     */
+    public void setTranspositionTable(TranspositionTable table) { this.table = table; }
+
+    /**
+     * Gets the number of playouts the last decision was based on.
+     * @return the playout count, or 0 if the last decision was made without searching
+     */
+    public int getLastPlayouts() { return lastPlayouts; }
+
+    /**
+     * Picks the character whose playouts win most often.
+     *
+     * @param context the context of the game being played
+     * @param draft the characters still available, never empty
+     * @return the chosen character, one of {@code draft}
+     */
+    @Override
+    public CharacterCard chooseCharacter(GameContext context, List<CharacterCard> draft) {
+        int seat = context.getSeat(this);
+        lastPlayouts = 0;
+        if (rollout || seat < 0 || draft.size() < 2) {
+            return super.chooseCharacter(context, draft);
+        }
+        List<CharacterCard> options = new ArrayList<>(draft);
+        int best = search(context, seat, new CharacterDecision(options, context.getVisibleDiscard()));
+        return best < 0 ? super.chooseCharacter(context, draft) : options.get(best);
+    }
+
+    /**
+     * Plays the turn whose playouts win most often.
+     *
+     * @param context the context of the game being played
+     * @param role the character card the AI is playing as
+     * @param districtDeck the deck of district cards
+     */
+    @Override
+    public void takeTurn(GameContext context, CharacterCard role, Deck<DistrictCard> districtDeck) {
+        if (!rollout && role != null && districtDeck != null) {
+            int seat = context.getSeat(this);
+            List<TurnPlan> plans = TurnPlan.options(context, role, districtDeck);
+            lastPlayouts = 0;
+            if (seat >= 0 && plans.size() > 1) {
+                int best = search(context, seat, new TurnDecision(role, plans));
+                plan = best < 0 ? null : plans.get(best);
+            }
+        }
+        try {
+            super.takeTurn(context, role, districtDeck);
+        } finally {
+            plan = null;
+        }
+    }
+
+    @Override
+    protected CharacterCard chooseAssassinTarget(GameContext context) {
+        return plan == null ? super.chooseAssassinTarget(context) : plan.target;
+    }
+
+    @Override
+    protected CharacterCard chooseThiefTarget(GameContext context) {
+        return plan == null ? super.chooseThiefTarget(context) : plan.target;
+    }
+
+    @Override
+    public boolean shouldDrawCards(Deck<DistrictCard> deck) {
+        return plan == null ? super.shouldDrawCards(deck) : plan.draw && deck.size() >= 2;
+    }
+
+    @Override
+    protected DistrictCard chooseDistrictToBuild(GameContext context) {
+        if (plan == null || !plan.cheapestFirst) {
+            return super.chooseDistrictToBuild(context);
+        }
+        DistrictCard best = null;
+        for (DistrictCard c : getHand()) {
+            if (c.getCost() <= getGold() && !hasDistrict(c.getName())
+                    && (best == null || c.getCost() < best.getCost())) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Runs playouts for every option of a decision until the budget runs out.
+     *
+     * @param context the context of the game being played
+     * @param seat the seat of this player
+     * @param decision the decision to make
+     * @return the index of the most played option, or -1 if no playout finished in time
+     */
+    private int search(GameContext context, int seat, Decision decision) {
+        int options = decision.size();
+        GameSnapshot snapshot = GameSnapshot.capture(context);
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        AtomicInteger started = new AtomicInteger();
+        TranspositionTable shared = table;
+        long[] keys = shared == null ? null : optionKeys(context, decision);
+
+        int workers = Math.min(parallelism, playoutBudget);
+        List<Callable<double[]>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            GameRandom workerRandom = getRandom().split();
+            tasks.add(() -> runPlayouts(snapshot, seat, decision, workerRandom, deadline, started, shared, keys));
+        }
+
+        // visits and total reward of each option, summed over the workers
+        double[] totals = new double[2 * options];
+        try {
+            for (Future<double[]> f : SearchPool.POOL.invokeAll(tasks)) {
+                double[] stats = f.get();
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += stats[i];
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Playout failed", e.getCause());
+        }
+
+        int playouts = 0;
+        for (int i = 0; i < options; i++) {
+            playouts += (int) totals[2 * i];
+        }
+        lastPlayouts = playouts;
+        if (shared != null) {
+            // The table holds this search's playouts too, unless they were evicted
+            for (int i = 0; i < options; i++) {
+                int count = shared.getCount(keys[i]);
+                if (count >= totals[2 * i]) {
+                    totals[2 * i] = count;
+                    totals[2 * i + 1] = count * shared.getMean(keys[i]);
+                }
+            }
+        }
+
+        int best = -1;
+        for (int i = 0; i < options; i++) {
+            if (totals[2 * i] > 0 && (best < 0 || totals[2 * i] > totals[2 * best]
+                    || (totals[2 * i] == totals[2 * best] && totals[2 * i + 1] > totals[2 * best + 1]))) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the transposition table key of every option of a decision.
+     *
+     * @param context the context of the game being played
+     * @param decision the decision to make
+     * @return the key of each option
+     */
+    private static long[] optionKeys(GameContext context, Decision decision) {
+        long position = context.getPositionHash() + decision.salt();
+        long[] keys = new long[decision.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = Zobrist.key(Zobrist.TABLE, position * 64 + i);
+        }
+        return keys;
+    }
+
+    /**
+     * Runs playouts on one worker, in a scratch game of its own.
+     *
+     * @param snapshot the position to play out from
+     * @param seat the seat of the searching player
+     * @param decision the decision to make
+     * @param random the worker's random source
+     * @param deadline the {@link System#nanoTime()} at which to stop
+     * @param started the number of playouts started by all workers
+     * @param shared the table to add the results to, or null
+     * @param keys the table key of each option, or null without a table
+     * @return the visits and total reward of each option, interleaved
+     */
+    private double[] runPlayouts(GameSnapshot snapshot, int seat, Decision decision, GameRandom random,
+                                 long deadline, AtomicInteger started, TranspositionTable shared, long[] keys) {
+        GameContext game = snapshot.fork();
+        List<Player> players = game.getPlayers();
+        for (int s = 0; s < players.size(); s++) {
+            String name = players.get(s).getName();
+            players.set(s, s == seat ? new MctsAIPlayer(name, random.split(), true) : new AIPlayer(name, random.split()));
+        }
+        MctsAIPlayer self = (MctsAIPlayer) players.get(seat);
+        List<DistrictCard> hidden = new ArrayList<>();
+
+        int options = decision.size();
+        double[] stats = new double[2 * options];
+        int played = 0;
+        while (System.nanoTime() < deadline && started.getAndIncrement() < playoutBudget) {
+            int option = select(stats, played, options);
+            snapshot.restore(game);
+            reseed(game, random);
+            dealHiddenCards(game, self, hidden, random);
+            decision.play(game, self, option, random);
+            playOut(game);
+            stats[2 * option]++;
+            stats[2 * option + 1] += reward(game, self);
+            played++;
+        }
+        if (shared != null) {
+            for (int i = 0; i < options; i++) {
+                if (stats[2 * i] > 0) {
+                    shared.add(keys[i], stats[2 * i + 1], (int) stats[2 * i]);
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Picks the option to play next with UCB1, trying every option once first.
+     *
+     * @param stats the visits and total reward of each option, interleaved
+     * @param played the number of playouts so far
+     * @param options the number of options
+     * @return the index of the option
+     */
+    private static int select(double[] stats, int played, int options) {
+        if (played < options) {
+            return played;
+        }
+        double logPlayed = Math.log(played);
+        int best = 0;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < options; i++) {
+            double visits = stats[2 * i];
+            double value = stats[2 * i + 1] / visits + EXPLORATION * Math.sqrt(logPlayed / visits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gives every random source in a scratch game a fresh state, so that each
+     * playout shuffles and decides differently.
+     *
+     * @param game the scratch game
+     * @param random the worker's random source
+     */
+    private static void reseed(GameContext game, GameRandom random) {
+        game.getRandom().setState(random.nextLong());
+        game.getDistrictDeck().getRandom().setState(random.nextLong());
+        for (Player p : game.getPlayers()) {
+            ((AIPlayer) p).getRandom().setState(random.nextLong());
+        }
+    }
+
+    /**
+     * Deals the other players' hands and the deck at random from the cards the
+     * searching player cannot see, keeping every hand its size.
+     *
+     * @param game the scratch game
+     * @param self the searching player
+     * @param hidden an empty list to gather the cards in
+     * @param random the worker's random source
+     */
+    private static void dealHiddenCards(GameContext game, Player self, List<DistrictCard> hidden, GameRandom random) {
+        Deck<DistrictCard> deck = game.getDistrictDeck();
+        for (Player p : game.getPlayers()) {
+            if (p != self) {
+                hidden.addAll(p.getHand());
+            }
+        }
+        for (int i = 0, n = deck.size(); i < n; i++) {
+            hidden.add(deck.peek(i));
+        }
+        random.shuffle(hidden);
+
+        int pos = 0;
+        for (Player p : game.getPlayers()) {
+            if (p != self) {
+                List<DistrictCard> hand = p.getHand();
+                for (int i = 0, n = hand.size(); i < n; i++) {
+                    hand.set(i, hidden.get(pos++));
+                }
+            }
+        }
+        deck.clear();
+        for (int n = hidden.size(); pos < n; pos++) {
+            deck.addCard(hidden.get(pos));
+        }
+        hidden.clear();
+    }
+
+    /**
+     * Plays whole rounds until a city is complete or the round limit is reached.
+     *
+     * @param game the scratch game
+     */
+    private void playOut(GameContext game) {
+        for (int round = 0; round < rolloutRounds && Game.findCompletedCity(game) == null; round++) {
+            Game.playHeadlessRound(game);
+        }
+    }
+
+    /**
+     * Scores a finished playout for the searching player.
+     *
+     * @param game the scratch game
+     * @param self the searching player
+     * @return 1 for a win, otherwise half the player's score relative to the best score
+     */
+    private static double reward(GameContext game, Player self) {
+        Map<Player, Integer> scores = Game.scoreGame(game);
+        if (Game.findWinner(game, scores) == self) {
+            return 1;
+        }
+        int best = 0;
+        for (int score : scores.values()) {
+            best = Math.max(best, score);
+        }
+        return best <= 0 ? 0 : 0.5 * scores.get(self) / best;
+    }
+
+    /**
+     * Checks whether a list holds a character of the given rank.
+     *
+     * @param cards the characters
+     * @param rank the rank
+     * @return true if one of the characters has that rank
+     */
+    private static boolean containsRank(List<CharacterCard> cards, int rank) {
+        for (CharacterCard c : cards) {
+            if (c.getRank() == rank) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A decision with a fixed list of options, each of which can be played out.
+     */
+    private interface Decision {
+        /**
+         * Gets the number of options.
+         * @return the option count
+         */
+        int size();
+
+        /**
+         * Gets what tells this decision apart from others taken in the same position,
+         * which is added to the position hash to key its options.
+         * @return the decision's salt
+         */
+        long salt();
+
+        /**
+         * Plays an option in a scratch game holding the position of the decision,
+         * dealing the characters the searching player cannot see at random, and
+         * goes on to the end of the round.
+         *
+         * @param game the scratch game
+         * @param self the searching player's copy in the scratch game
+         * @param option the index of the option
+         * @param random the worker's random source
+         */
+        void play(GameContext game, MctsAIPlayer self, int option, GameRandom random);
+    }
+
+    /**
+     * Picking a character from the draft.
+     */
+    private static final class CharacterDecision implements Decision {
+        /** The characters on offer */
+        private final List<CharacterCard> draft;
+        /** The characters nobody can pick and the player cannot see: all but the draft and the face-up discards */
+        private final List<CharacterCard> unseen = new ArrayList<>();
+
+        /**
+         * Creates the decision.
+         *
+         * @param draft the characters on offer
+         * @param visibleDiscard the characters discarded face up
+         */
+        CharacterDecision(List<CharacterCard> draft, List<CharacterCard> visibleDiscard) {
+            this.draft = draft;
+            for (CharacterCard c : Game.getCharacterPool()) {
+                if (!containsRank(draft, c.getRank()) && !containsRank(visibleDiscard, c.getRank())) {
+                    unseen.add(c);
+                }
+            }
+        }
+
+        @Override
+        public int size() {
+            return draft.size();
+        }
+
+        @Override
+        public long salt() {
+            long ranks = 0;
+            for (CharacterCard c : draft) {
+                ranks |= 1L << c.getRank();
+            }
+            return ranks;
+        }
+
+        @Override
+        public void play(GameContext game, MctsAIPlayer self, int option, GameRandom random) {
+            // Earlier pickers took some of the unseen characters; later ones take from the rest of the draft
+            List<CharacterCard> earlier = new ArrayList<>(unseen);
+            List<CharacterCard> later = new ArrayList<>(draft);
+            later.remove(option);
+            random.shuffle(earlier);
+            random.shuffle(later);
+
+            Map<Player, CharacterCard> selected = game.getSelectedCharacters();
+            int e = 0;
+            int l = 0;
+            for (Player p : game.getPlayers()) {
+                if (p == self) {
+                    selected.put(p, draft.get(option));
+                } else if (selected.containsKey(p)) {
+                    selected.put(p, earlier.get(e++));
+                } else {
+                    selected.put(p, later.get(l++));
+                }
+            }
+            game.setCurrentPhase(Game.GamePhase.TURN);
+            Game.playTurnPhase(game);
+        }
+    }
+
+    /**
+     * Playing a turn with one of a list of plans.
+     */
+    private static final class TurnDecision implements Decision {
+        /** The character playing the turn */
+        private final CharacterCard role;
+        /** The plans to choose from */
+        private final List<TurnPlan> plans;
+
+        /**
+         * Creates the decision.
+         *
+         * @param role the character playing the turn
+         * @param plans the plans to choose from
+         */
+        TurnDecision(CharacterCard role, List<TurnPlan> plans) {
+            this.role = role;
+            this.plans = plans;
+        }
+
+        @Override
+        public int size() {
+            return plans.size();
+        }
+
+        @Override
+        public long salt() {
+            return (1L << 9) | role.getRank();
+        }
+
+        @Override
+        public void play(GameContext game, MctsAIPlayer self, int option, GameRandom random) {
+            // Characters ranked after this one have not been called yet
+            Map<Player, CharacterCard> selected = game.getSelectedCharacters();
+            List<CharacterCard> pool = new ArrayList<>();
+            for (CharacterCard c : Game.getCharacterPool()) {
+                if (c.getRank() > role.getRank() && !containsRank(game.getVisibleDiscard(), c.getRank())) {
+                    pool.add(c);
+                }
+            }
+            random.shuffle(pool);
+            int next = 0;
+            for (Player p : game.getPlayers()) {
+                CharacterCard c = selected.get(p);
+                if (p != self && c != null && c.getRank() > role.getRank()) {
+                    selected.put(p, pool.get(next++));
+                }
+            }
+
+            self.plan = plans.get(option);
+            self.takeTurn(game, role, game.getDistrictDeck());
+            Game.playTurnPhase(game, role.getRank() + 1);
+        }
+    }
+
+    /**
+     * The choices a turn is searched over; everything else is left to the heuristics.
+     */
+    private static final class TurnPlan {
+        /** Whether to draw cards rather than take gold */
+        final boolean draw;
+        /** The character to kill or rob, or null for characters without a target */
+        final CharacterCard target;
+        /** Whether to build the cheapest districts first rather than the most expensive */
+        final boolean cheapestFirst;
+
+        /**
+         * Creates a plan.
+         *
+         * @param draw whether to draw cards rather than take gold
+         * @param target the character to kill or rob, or null
+         * @param cheapestFirst whether to build the cheapest districts first
+         */
+        TurnPlan(boolean draw, CharacterCard target, boolean cheapestFirst) {
+            this.draw = draw;
+            this.target = target;
+            this.cheapestFirst = cheapestFirst;
+        }
+
+        /**
+         * Lists the plans open to a character.
+         *
+         * @param context the context of the game being played
+         * @param role the character playing the turn
+         * @param deck the district deck
+         * @return every combination of resource, target and build order
+         */
+        static List<TurnPlan> options(GameContext context, CharacterCard role, Deck<DistrictCard> deck) {
+            List<CharacterCard> targets = new ArrayList<>();
+            boolean assassin = role.getType() == CharacterType.ASSASSIN;
+            boolean thief = role.getType() == CharacterType.THIEF;
+            for (CharacterCard c : Game.getCharacterPool()) {
+                if (containsRank(context.getVisibleDiscard(), c.getRank())) {
+                    continue;
+                }
+                if ((assassin && c.getRank() >= 2)
+                        || (thief && c.getRank() >= 3
+                            && !context.isAssassinated(c))) {
+                    targets.add(c);
+                }
+            }
+            if (targets.isEmpty()) {
+                targets.add(null);
+            }
+
+            List<TurnPlan> plans = new ArrayList<>();
+            for (CharacterCard target : targets) {
+                for (int draw = 0; draw < (deck.size() >= 2 ? 2 : 1); draw++) {
+                    plans.add(new TurnPlan(draw == 1, target, false));
+                    plans.add(new TurnPlan(draw == 1, target, true));
+                }
+            }
+            return plans;
+        }
+    }
+
+    /**
+     * Holder of the workers shared by every searching player. Their threads are
+     * daemons, so they never keep the program from exiting.
+     */
+    private static final class SearchPool {
+        /** The shared workers */
+        static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -1,12 +1,16 @@
 package citadels.player;
 
+import citadels.Game;
+import citadels.GameContext;
 import citadels.card.DistrictCard;
+import citadels.card.DistrictColor;
+import citadels.effect.PurpleCardEffects;
+import citadels.event.BuildRejection;
+import citadels.event.GameEventListener;
+import citadels.util.Zobrist;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashSet;
-import java.util.Set;
 
 /**
  * Abstract base class representing a player in the Citadels game.
@@ -21,12 +25,16 @@ public abstract class Player {
     protected final String name;
     /** The amount of gold the player has */
     protected int gold;
+    /** The player's hand, which also keeps a hash of its cards */
+    private final CardList handCards = new CardList(Zobrist.HAND);
     /** The district cards in the player's hand */
-    protected final List<DistrictCard> hand = new ArrayList<>();
+    protected final List<DistrictCard> hand = handCards;
+    /** The player's city, which also indexes the names of its districts */
+    private final City cityIndex = new City();
     /** The district cards built in the player's city */
-    protected final List<DistrictCard> city = new ArrayList<>();
+    protected final List<DistrictCard> city = cityIndex;
     /** Cards banked by special abilities (e.g., Museum) */
-    private final List<DistrictCard> bankedCards = new ArrayList<>();
+    private final CardList bankedCards = new CardList(Zobrist.BANKED);
 
     /**
      * Creates a new player with the specified name.
@@ -144,42 +152,129 @@ public abstract class Player {
      * @return true if the district was successfully built, false otherwise
      */
     public boolean buildDistrict(int index) {
+        return buildDistrict(index, Game.getDefaultContext().getEventListener());
+    }
+
+    /**
+     * Builds a district from the player's hand into their city, reporting
+     * the outcome to the given listener.
+     *
+     * @param index the index of the card in the player's hand to build
+     * @param events the listener told about the build or why it failed
+     * @return true if the district was successfully built, false otherwise
+     * @see #buildDistrict(int)
+     */
+    public boolean buildDistrict(int index, GameEventListener events) {
         if (index < 0 || index >= hand.size()) {
-            System.out.println("Invalid card index.");
+            events.onBuildRejected(this, null, BuildRejection.INVALID_INDEX);
             return false;
         }
 
         DistrictCard card = hand.get(index);
 
         if (hasDistrict(card.getName())) {
-            System.out.println("You already have a " + card.getName() + " in your city.");
+            events.onBuildRejected(this, card, BuildRejection.ALREADY_BUILT);
             return false;
         }
 
         if (gold < card.getCost()) {
-            System.out.println("Not enough gold to build " + card.getName() 
-                + ". (Cost: " + card.getCost() + ", you have: " + gold + ")");
+            events.onBuildRejected(this, card, BuildRejection.NOT_ENOUGH_GOLD);
             return false;
         }
 
         spendGold(card.getCost());
         hand.remove(index);
         city.add(card);
-        System.out.println("Built: " + card.getName());
+        events.onDistrictBuilt(this, card);
         return true;
     }
 
     /**
      * Checks if the player has a specific district in their city.
+     * Names are compared ignoring case, and the check takes constant time
+     * however large the city is.
      *
      * @param name the name of the district to check for
      * @return true if the player has built this district, false otherwise
      */
     public boolean hasDistrict(String name) {
-        for (DistrictCard c : city) {
-            if (c.getName().equalsIgnoreCase(name)) return true;
-        }
-        return false;
+        return cityIndex.containsName(name);
+    }
+
+    /**
+     * Counts the districts with a specific name in the player's city, ignoring case.
+     *
+     * @param name the name of the district to count
+     * @return the number of districts with that name
+     */
+    public int countDistricts(String name) {
+        return cityIndex.countName(name);
+    }
+
+    /**
+     * Counts the districts of a color in the player's city.
+     * The count is kept up to date as the city changes, so this takes constant time.
+     *
+     * @param color the color to count
+     * @return the number of districts of that color
+     */
+    public int countDistricts(DistrictColor color) {
+        return cityIndex.countColor(color);
+    }
+
+    /**
+     * Gets the set of district colors in the player's city.
+     *
+     * @return a mask of {@link DistrictColor#bit()} values
+     */
+    public int getColorMask() {
+        return cityIndex.colorMask();
+    }
+
+    /**
+     * Gets the total cost of the districts in the player's city,
+     * which is their score before any bonus.
+     *
+     * @return the base score
+     */
+    public int getBaseScore() {
+        return cityIndex.totalCost();
+    }
+
+    /**
+     * Gets the costs of the districts in this city that the Warlord may destroy.
+     * The mask is kept up to date as districts are built and destroyed, so the
+     * Warlord's targets can be found without looking at every district.
+     *
+     * @return a mask with bit c set while the city holds a district costing c that
+     *         is not {@link PurpleCardEffects#isProtectedFromWarlord protected};
+     *         districts costing 63 or more all set bit 63
+     * @see citadels.effect.WarlordTargets
+     */
+    public long getDestroyableCosts() {
+        return cityIndex.destroyableCosts();
+    }
+
+    /**
+     * Checks whether this city has a Great Wall, which makes destroying its other districts cost 1 more.
+     *
+     * @return true if a Great Wall is built
+     */
+    public boolean hasGreatWall() {
+        return cityIndex.containsName("Great Wall");
+    }
+
+    /**
+     * Gets a Zobrist hash of this player's gold, hand, city and banked cards.
+     * The hands and the city keep their hashes up to date as they change, so
+     * this takes constant time. Two players with the same gold and the same
+     * cards in each place hash the same, whatever the order of the cards.
+     *
+     * @return the hash of the player's state
+     * @see Zobrist
+     */
+    public long getStateHash() {
+        return Zobrist.key(Zobrist.GOLD, gold) + handCards.hash() + cityIndex.hash() + bankedCards.hash();
     }
 
     /**
@@ -194,6 +289,16 @@ public abstract class Player {
      * Implementation differs between human and AI players.
      */
     public abstract void takeTurn();
+
+    /**
+     * Executes this player's turn in the given game context.
+     * Players that do not depend on game state simply delegate to {@link #takeTurn()}.
+     *
+     * @param context the context of the game being played
+     */
+    public void takeTurn(GameContext context) {
+        takeTurn();
+    }
     
     /**
      * Banks a card for special district abilities (e.g., Museum).
@@ -223,19 +328,10 @@ public abstract class Player {
      * @return the total score for this player
      */
     public int calculateScore() {
-        int score = 0;
-        Set<String> colors = new HashSet<>();
-        
-        // Add up district costs and collect colors
-        for (DistrictCard district : city) {
-            score += district.getCost();
-            colors.add(district.getColor());
-        }
+        int score = getBaseScore();
         
         // Add rainbow bonus if all colors are present
-        if (colors.contains("blue") && colors.contains("yellow") && 
-            colors.contains("green") && colors.contains("red") && 
-            colors.contains("purple")) {
+        if (DistrictColor.isComplete(getColorMask())) {
             score += 3; // Rainbow bonus
         }
         
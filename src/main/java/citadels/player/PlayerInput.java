@@ -0,0 +1,29 @@
+package citadels.player;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Where a game reads what a human player types in answer to its prompts.
+ * The game asks for one line at a time; every prompt in {@link citadels.Game},
+ * {@link HumanPlayer}, {@link citadels.CommandHandler} and
+ * {@link citadels.effect.PurpleCardEffects} reads through this interface, from the
+ * input of the game's {@link citadels.GameContext}.
+ * <p>
+ * {@link ScannerInput} reads from a {@link java.util.Scanner}, such as the keyboard or
+ * a socket. {@link AsyncPlayerInput} is fed lines by whoever receives them, such as an
+ * event loop serving many players, which never has to block to do so.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+@FunctionalInterface
+public interface PlayerInput {
+
+    /**
+     * Reads the player's next line, waiting until the player has typed it.
+     *
+     * @return the line, without its line terminator
+     * @throws NoSuchElementException if the player has left and no more lines will come
+     */
+    String nextLine();
+}
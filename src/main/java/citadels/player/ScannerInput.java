@@ -0,0 +1,35 @@
+package citadels.player;
+
+import java.util.Scanner;
+
+/**
+ * Player input read from a {@link Scanner}, which blocks the game's thread until
+ * the player has typed a line.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public final class ScannerInput implements PlayerInput {
+    /** The scanner lines are read from */
+    private final Scanner scanner;
+
+    /**
+     * Creates input reading from a scanner.
+     *
+     * @param scanner the scanner to read lines from
+     */
+    public ScannerInput(Scanner scanner) {
+        this.scanner = scanner;
+    }
+
+    /**
+     * Gets the scanner lines are read from.
+     * @return the scanner
+     */
+    public Scanner getScanner() { return scanner; }
+
+    @Override
+    public String nextLine() {
+        return scanner.nextLine();
+    }
+}
@@ -0,0 +1,153 @@
+package citadels.replay;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A recorded game: its seed, every line of input the human typed, and the final
+ * scores if the game was finished.
+ * Every shuffle and AI decision is drawn from the game's seeded random numbers, so
+ * the seed and the input are enough to play the game again exactly.
+ * <p>
+ * A replay file is plain text, one entry per line:
+ * <pre>
+ * citadels-replay 1
+ * seed 8243911
+ * in 4
+ * in t
+ * score 23 Player 1
+ * </pre>
+ * Blank lines and lines starting with {@code #} are ignored.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public final class ReplayLog {
+    /** First line of every replay file */
+    static final String HEADER = "citadels-replay 1";
+    /** Prefix of the seed line */
+    static final String SEED = "seed ";
+    /** Prefix of an input line */
+    static final String INPUT = "in ";
+    /** Prefix of a final score line */
+    static final String SCORE = "score ";
+
+    /** The seed of the game */
+    private final long seed;
+    /** Lines of input, in the order they were read */
+    private final List<String> inputs;
+    /** Final score of each player by name, empty if the game was not finished */
+    private final Map<String, Integer> scores;
+
+    /**
+     * Creates a replay log.
+     *
+     * @param seed the seed of the game
+     * @param inputs the lines of input, in the order they were read
+     * @param scores the final score of each player by name, or an empty map
+     */
+    public ReplayLog(long seed, List<String> inputs, Map<String, Integer> scores) {
+        this.seed = seed;
+        this.inputs = Collections.unmodifiableList(new ArrayList<>(inputs));
+        this.scores = Collections.unmodifiableMap(new LinkedHashMap<>(scores));
+    }
+
+    /**
+     * Gets the seed of the game.
+     * @return the seed
+     */
+    public long getSeed() { return seed; }
+
+    /**
+     * Gets the lines of input, in the order they were read.
+     * @return an unmodifiable list of lines
+     */
+    public List<String> getInputs() { return inputs; }
+
+    /**
+     * Gets the final scores recorded when the game ended.
+     * @return an unmodifiable map of scores by player name, in seat order;
+     *         empty if the recorded game was not finished
+     */
+    public Map<String, Integer> getScores() { return scores; }
+
+    /**
+     * Reads a replay file.
+     *
+     * @param file the file to read
+     * @return the recorded game
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid replay
+     */
+    public static ReplayLog read(Path file) throws IOException {
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a recorded game.
+     *
+     * @param in the input to read from; it is not closed
+     * @return the recorded game
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if the input is not a valid replay
+     */
+    public static ReplayLog read(Reader in) throws IOException {
+        BufferedReader lines = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        if (!HEADER.equals(lines.readLine())) {
+            throw new IllegalArgumentException("Not a replay file");
+        }
+
+        Long seed = null;
+        List<String> inputs = new ArrayList<>();
+        Map<String, Integer> scores = new LinkedHashMap<>();
+        String line;
+        int number = 1;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            if (line.startsWith(INPUT)) {
+                inputs.add(line.substring(INPUT.length()));
+            } else if (line.startsWith(SEED)) {
+                seed = parseLong(line.substring(SEED.length()), number);
+            } else if (line.startsWith(SCORE)) {
+                String[] parts = line.substring(SCORE.length()).split(" ", 2);
+                if (parts.length < 2) {
+                    throw new IllegalArgumentException("Invalid score on line " + number);
+                }
+                scores.put(parts[1], (int) parseLong(parts[0], number));
+            } else if (!line.trim().isEmpty() && !line.startsWith("#")) {
+                throw new IllegalArgumentException("Unknown entry on line " + number + ": " + line);
+            }
+        }
+        if (seed == null) {
+            throw new IllegalArgumentException("Replay has no seed");
+        }
+        return new ReplayLog(seed, inputs, scores);
+    }
+
+    /**
+     * Parses a number in a replay file.
+     *
+     * @param s the text
+     * @param line the line number, for the error message
+     * @return the number
+     * @throws IllegalArgumentException if the text is not a number
+     */
+    private static long parseLong(String s, int line) {
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number on line " + line + ": " + s);
+        }
+    }
+}
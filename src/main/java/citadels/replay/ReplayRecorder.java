@@ -0,0 +1,149 @@
+package citadels.replay;
+
+import citadels.card.CharacterCard;
+import citadels.event.ForwardingEventListener;
+import citadels.event.GameEventListener;
+import citadels.player.Player;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Records a game being played into a replay file that {@link Replayer} can play again.
+ * The recorder wraps the game's input, so it writes down each line exactly when the
+ * game reads it, and it listens to the game's events (passing them on to another
+ * listener, usually the console) to write down the final scores.
+ * Every entry is flushed at once, so the file is complete up to the last line read
+ * even if the game crashes.
+ * <p>
+ * Saves loaded during a game are read from their files again when it is replayed,
+ * so a replay only matches if those files are unchanged.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class ReplayRecorder extends ForwardingEventListener implements Closeable {
+    /** The replay file */
+    private final Writer out;
+    /** Whether writing has failed, after which nothing more is recorded */
+    private boolean failed;
+    /** Whether the game has ended, after which no more scores are recorded */
+    private boolean ended;
+
+    /**
+     * Starts recording a game into a file, replacing it if it exists.
+     *
+     * @param file the replay file
+     * @param seed the seed of the game being recorded
+     * @param delegate the listener every event is passed on to
+     * @throws IOException if the file cannot be created
+     */
+    public ReplayRecorder(Path file, long seed, GameEventListener delegate) throws IOException {
+        super(delegate);
+        this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        write(ReplayLog.HEADER);
+        write(ReplayLog.SEED + seed);
+    }
+
+    /**
+     * Wraps the game's input so every line read from it is recorded.
+     * The wrapped reader hands out one line at a time, so a line is only recorded
+     * once the game asks for it, even when a {@link java.util.Scanner} buffers its input.
+     *
+     * @param input the input the game would read from
+     * @return a reader to give the game instead
+     */
+    public Reader wrap(Reader input) {
+        return new LineRecordingReader(input);
+    }
+
+    @Override
+    public void onScoreComputed(Player player, int base, int bonus, int total) {
+        super.onScoreComputed(player, base, bonus, total);
+        if (!ended) {
+            write(ReplayLog.SCORE + total + " " + player.getName());
+        }
+    }
+
+    @Override
+    public void onGameEnded(Player winner, List<Player> tied, CharacterCard mysteryDiscard) {
+        ended = true;
+        super.onGameEnded(winner, tied, mysteryDiscard);
+    }
+
+    /**
+     * Closes the replay file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Writes an entry and flushes it to the file.
+     *
+     * @param entry the entry, without a line break
+     */
+    private void write(String entry) {
+        if (failed) return;
+        try {
+            out.write(entry);
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            failed = true;
+            System.out.println("Stopped recording replay: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reader that hands out its input one line per read, recording each line as it goes.
+     */
+    private class LineRecordingReader extends Reader {
+        /** The input being recorded */
+        private final BufferedReader source;
+        /** The line being handed out, followed by a line break, or null */
+        private String pending;
+        /** Number of characters of the pending line already handed out */
+        private int pendingPos;
+
+        /**
+         * Creates a reader over the given input.
+         *
+         * @param source the input being recorded
+         */
+        LineRecordingReader(Reader source) {
+            this.source = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        }
+
+        @Override
+        public int read(char[] buf, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (pending == null || pendingPos == pending.length()) {
+                String line = source.readLine();
+                if (line == null) return -1;
+                write(ReplayLog.INPUT + line);
+                pending = line + "\n";
+                pendingPos = 0;
+            }
+            int n = Math.min(len, pending.length() - pendingPos);
+            pending.getChars(pendingPos, pendingPos + n, buf, off);
+            pendingPos += n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+}
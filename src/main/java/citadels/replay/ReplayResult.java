@@ -0,0 +1,98 @@
+package citadels.replay;
+
+import citadels.GameContext;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of replaying a recorded game: how far it got, and the scores at that point.
+ * Regression suites can compare {@link #getScores()} with the scores recorded in the
+ * {@link ReplayLog} to check that a change did not alter how a game plays out.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class ReplayResult {
+    /** The context the game was replayed in */
+    private final GameContext context;
+    /** Number of turns played */
+    private final int turns;
+    /** Whether the game ended */
+    private final boolean finished;
+    /** Score of each player by name, in seat order */
+    private final Map<String, Integer> scores;
+    /** Name of the winner, or null */
+    private final String winner;
+
+    /**
+     * Creates a result.
+     *
+     * @param context the context the game was replayed in
+     * @param turns the number of turns played
+     * @param finished whether the game ended
+     * @param scores the score of each player by name, in seat order
+     * @param winner the name of the winner, or null if the game did not end or the tie was not broken
+     */
+    ReplayResult(GameContext context, int turns, boolean finished, Map<String, Integer> scores, String winner) {
+        this.context = context;
+        this.turns = turns;
+        this.finished = finished;
+        this.scores = Collections.unmodifiableMap(new LinkedHashMap<>(scores));
+        this.winner = winner;
+    }
+
+    /**
+     * Gets the context the game was replayed in, holding its state where the replay stopped.
+     * @return the game context
+     */
+    public GameContext getContext() { return context; }
+
+    /**
+     * Gets the number of turns played, not counting characters nobody picked.
+     * @return the number of turns
+     */
+    public int getTurns() { return turns; }
+
+    /**
+     * Checks whether the game ended, rather than stopping at the turn limit,
+     * running out of input, or being exited.
+     * @return true if the game was scored at its end
+     */
+    public boolean isFinished() { return finished; }
+
+    /**
+     * Gets each player's score: the final score if the game ended, otherwise the
+     * score the player would have if the game ended where the replay stopped.
+     * @return an unmodifiable map of scores by player name, in seat order
+     */
+    public Map<String, Integer> getScores() { return scores; }
+
+    /**
+     * Gets a player's score.
+     *
+     * @param playerName the player's name
+     * @return the player's score, or -1 if there is no such player
+     */
+    public int getScore(String playerName) {
+        Integer score = scores.get(playerName);
+        return score != null ? score : -1;
+    }
+
+    /**
+     * Gets the winner of the game.
+     * @return the winner's name, or null if the game did not end or the tie was not broken
+     */
+    public String getWinner() { return winner; }
+
+    /**
+     * Checks whether the scores match those recorded with the game.
+     *
+     * @param log the recorded game
+     * @return true if the game ended with the recorded scores
+     */
+    public boolean matches(ReplayLog log) {
+        return finished && scores.equals(log.getScores());
+    }
+}
@@ -0,0 +1,158 @@
+package citadels.replay;
+
+import citadels.Game;
+import citadels.GameContext;
+import citadels.card.CharacterCard;
+import citadels.event.ConsoleEventRenderer;
+import citadels.event.ForwardingEventListener;
+import citadels.event.GameEventListener;
+import citadels.player.Player;
+import citadels.player.ScannerInput;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * Plays a recorded game again, headlessly and at full speed.
+ * The game is set up from the recorded seed and fed the recorded input in place
+ * of the keyboard, so it makes exactly the same shuffles, AI decisions and human
+ * moves as the original. A replay can stop after any number of turns to inspect
+ * the game at that point.
+ * <p>
+ * The replayed game reads its input from, and prints to, its own
+ * {@link GameContext}, so any number of replays can run at the same time.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class Replayer {
+    /** Maximum number of turns to play */
+    private int maxTurns = Integer.MAX_VALUE;
+    /** Whether the game's output is discarded instead of printed */
+    private boolean quiet = true;
+
+    /**
+     * Sets the number of turns after which the replay stops.
+     * @param maxTurns the turn limit; the whole game is played by default
+     */
+    public void setMaxTurns(int maxTurns) { this.maxTurns = maxTurns; }
+
+    /**
+     * Sets whether the game's output is discarded instead of printed while replaying.
+     * @param quiet true to replay silently (default), false to print the game to the console
+     */
+    public void setQuiet(boolean quiet) { this.quiet = quiet; }
+
+    /**
+     * Replays a recorded game until it ends, the turn limit is reached, or the
+     * recorded input runs out.
+     *
+     * @param log the recorded game
+     * @return how far the game got and the scores at that point
+     */
+    public ReplayResult play(ReplayLog log) {
+        GameContext ctx = new GameContext(log.getSeed());
+        StopListener listener = new StopListener(quiet ? GameEventListener.NONE : new ConsoleEventRenderer());
+        ctx.setEventListener(listener);
+
+        StringBuilder input = new StringBuilder();
+        for (String line : log.getInputs()) {
+            input.append(line).append('\n');
+        }
+
+        ctx.setInput(new ScannerInput(new Scanner(new StringReader(input.toString()))));
+        if (quiet) {
+            ctx.setOutput(new PrintStream(new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                }
+            }));
+        }
+        try {
+            new Game(ctx).run();
+        } catch (ReplayStopped | NoSuchElementException e) {
+            // Game over, turn limit reached, or out of recorded input
+        }
+
+        if (listener.finished) {
+            return new ReplayResult(ctx, listener.turns, true, listener.scores, listener.winner);
+        }
+        ctx.setEventListener(GameEventListener.NONE);
+        Map<String, Integer> scores = new LinkedHashMap<>();
+        for (Map.Entry<Player, Integer> e : Game.scoreGame(ctx).entrySet()) {
+            scores.put(e.getKey().getName(), e.getValue());
+        }
+        return new ReplayResult(ctx, listener.turns, false, scores, null);
+    }
+
+    /**
+     * Thrown from the game's events to stop a replay, which also keeps the end of
+     * the game from exiting the program.
+     */
+    private static final class ReplayStopped extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Creates the exception without a stack trace, which is never needed.
+         */
+        ReplayStopped() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Listener that counts turns, collects the final scores, and stops the replay.
+     */
+    private final class StopListener extends ForwardingEventListener {
+        /** Number of turns started */
+        int turns;
+        /** Whether the game ended */
+        boolean finished;
+        /** Final scores by player name */
+        final Map<String, Integer> scores = new LinkedHashMap<>();
+        /** Name of the winner */
+        String winner;
+
+        /**
+         * Creates a listener.
+         *
+         * @param delegate the listener every event is passed on to
+         */
+        StopListener(GameEventListener delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void onCharacterCalled(int rank, CharacterCard character, Player player) {
+            if (player != null && turns++ >= maxTurns) {
+                turns = maxTurns;
+                throw new ReplayStopped();
+            }
+            super.onCharacterCalled(rank, character, player);
+        }
+
+        @Override
+        public void onScoreComputed(Player player, int base, int bonus, int total) {
+            super.onScoreComputed(player, base, bonus, total);
+            scores.put(player.getName(), total);
+        }
+
+        @Override
+        public void onGameEnded(Player winner, List<Player> tied, CharacterCard mysteryDiscard) {
+            super.onGameEnded(winner, tied, mysteryDiscard);
+            this.winner = winner != null ? winner.getName() : null;
+            finished = true;
+            throw new ReplayStopped();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * Package containing the deterministic replay engine.
+ * Records the seed and every line a human typed during a game, and plays the
+ * recorded game again headlessly to reproduce a bug or check its final scores.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+package citadels.replay;
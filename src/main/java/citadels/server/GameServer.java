@@ -0,0 +1,162 @@
+package citadels.server;
+
+import citadels.metrics.GameMetrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hosts any number of games at once on a local TCP port.
+ * Every connection is a {@link GameSession}: the player is sent the console game's
+ * text and answers its prompts one line at a time, exactly as at the keyboard.
+ * <p>
+ * The engine reads input by blocking, so every session needs a thread of its own
+ * for as long as it lasts, and almost all of that time is spent waiting for the
+ * player. Sessions therefore run on virtual threads where the JVM has them (see
+ * {@link SessionThreads}), which lets one process hold thousands of idle sessions.
+ * The server only listens on the loopback address; putting it on a network is left
+ * to a proxy in front of it.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class GameServer implements Closeable {
+    /** Socket accepting connections */
+    private final ServerSocket serverSocket;
+    /** Runs the sessions, one thread each */
+    private final ExecutorService sessions = SessionThreads.newExecutor();
+    /** Connections of the sessions still playing */
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    /** Thread accepting connections, once started */
+    private Thread acceptor;
+    /** Whether the server has been closed */
+    private volatile boolean closed;
+    /** Timings shared by every session, or null */
+    private volatile GameMetrics metrics;
+
+    /**
+     * Creates a server listening on the given local port. It accepts no
+     * connections until it is {@link #start() started}.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be opened
+     */
+    public GameServer(int port) throws IOException {
+        serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Starts accepting connections on a background thread.
+     *
+     * @throws IllegalStateException if the server was already started
+     */
+    public synchronized void start() {
+        if (acceptor != null) {
+            throw new IllegalStateException("Server already started.");
+        }
+        acceptor = new Thread(this::acceptConnections, "citadels-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Gets the port the server listens on.
+     * @return the local port
+     */
+    public int getPort() { return serverSocket.getLocalPort(); }
+
+    /**
+     * Gets the number of sessions still playing.
+     * @return the number of open connections
+     */
+    public int getActiveSessions() { return connections.size(); }
+
+    /**
+     * Checks whether sessions run on virtual threads.
+     * @return true if the JVM has virtual threads, false if sessions use ordinary threads
+     */
+    public boolean usesVirtualThreads() { return SessionThreads.hasVirtualThreads(); }
+
+    /**
+     * Records the timings of every session started from now on in the given metrics,
+     * so their percentiles cover all games on the server.
+     * @param metrics the metrics to share, or null to stop timing new sessions
+     */
+    public void setMetrics(GameMetrics metrics) { this.metrics = metrics; }
+
+    /**
+     * Gets the metrics new sessions record their timings in.
+     * @return the shared metrics, or null if sessions are not timed
+     */
+    public GameMetrics getMetrics() { return metrics; }
+
+    /**
+     * Stops accepting connections and ends every session by closing its connection.
+     *
+     * @throws IOException if the listening socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            serverSocket.close();
+        } finally {
+            for (Socket socket : connections) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // The session ends either way
+                }
+            }
+            sessions.shutdown();
+            try {
+                sessions.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Accepts connections and starts a session for each until the server is closed.
+     */
+    private void acceptConnections() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                return; // closed
+            } catch (IOException e) {
+                continue;
+            }
+            connections.add(socket);
+            GameMetrics shared = metrics;
+            try {
+                sessions.execute(() -> {
+                    try {
+                        new GameSession(socket, shared).run();
+                    } finally {
+                        connections.remove(socket);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Closed while the connection was accepted
+                connections.remove(socket);
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // Nothing more to do
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package citadels.server;
+
+import citadels.metrics.GameMetrics;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command-line entry point for the game server.
+ * Listens on a local port and plays a separate game with everyone who connects,
+ * for example with {@code nc localhost 4000}, until the process is stopped.
+ * <p>
+ * Usage: {@code GameServerApp [port] [metrics-seconds]}; given the second argument,
+ * the server times every phase of every game and prints the latencies to standard
+ * error that often.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class GameServerApp {
+    /** Port listened on when none is given */
+    public static final int DEFAULT_PORT = 4000;
+
+    /**
+     * Creates a new GameServerApp instance.
+     */
+    public GameServerApp() {
+    }
+
+    /**
+     * Runs the server described by the command-line arguments.
+     *
+     * @param args an optional port to listen on (default {@value #DEFAULT_PORT}) and
+     *             an optional number of seconds between latency reports
+     * @throws InterruptedException if the main thread is interrupted while serving
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int port = DEFAULT_PORT;
+        long metricsSeconds = 0;
+        try {
+            if (args.length > 0) port = Integer.parseInt(args[0]);
+            if (args.length > 1) metricsSeconds = Long.parseLong(args[1]);
+        } catch (NumberFormatException e) {
+            metricsSeconds = -1;
+        }
+        if (metricsSeconds < 0) {
+            System.out.println("Usage: GameServerApp [port] [metrics-seconds]");
+            return;
+        }
+
+        GameServer server;
+        try {
+            server = new GameServer(port);
+        } catch (IOException e) {
+            System.out.println("Cannot listen on port " + port + ": " + e.getMessage());
+            return;
+        }
+        if (metricsSeconds > 0) {
+            GameMetrics metrics = new GameMetrics();
+            server.setMetrics(metrics);
+            metrics.printEvery(System.err, metricsSeconds, TimeUnit.SECONDS);
+        }
+        server.start();
+        System.out.println("Citadels server listening on localhost:" + server.getPort()
+            + (server.usesVirtualThreads() ? " (virtual threads)" : " (platform threads)"));
+        Thread.currentThread().join();
+    }
+}
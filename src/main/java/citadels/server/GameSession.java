@@ -0,0 +1,109 @@
+package citadels.server;
+
+import citadels.Game;
+import citadels.GameContext;
+import citadels.event.ConsoleEventRenderer;
+import citadels.metrics.GameMetrics;
+import citadels.player.ScannerInput;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * One player's game on a {@link GameServer}: the console game, played over a
+ * socket. The session owns its own {@link GameContext}, which reads the player's
+ * lines from the socket and prints the game's text back to it, so sessions share
+ * nothing but the immutable card catalog. The session ends when the game does,
+ * when the player types {@code exit} between rounds, or when the player disconnects.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+final class GameSession implements Runnable {
+    /** Size of the buffer the game's text is gathered in before it is sent */
+    private static final int OUTPUT_BUFFER = 2048;
+
+    /** Connection to the player */
+    private final Socket socket;
+    /** Timings shared by all of the server's games, or null */
+    private final GameMetrics metrics;
+
+    /**
+     * Creates a session for a connected player.
+     *
+     * @param socket the connection to the player
+     * @param metrics the timings to record the game in, or null
+     */
+    GameSession(Socket socket, GameMetrics metrics) {
+        this.socket = socket;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Plays a game with the connected player and closes the connection afterwards.
+     */
+    @Override
+    public void run() {
+        try (Socket s = socket) {
+            PrintStream out = new PrintStream(new BufferedOutputStream(s.getOutputStream(), OUTPUT_BUFFER),
+                false, StandardCharsets.UTF_8.name());
+            Reader in = new FlushingReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8), out);
+
+            GameContext ctx = new GameContext();
+            ctx.setInput(new ScannerInput(new Scanner(in)));
+            ctx.setOutput(out);
+            ctx.setEventListener(new ConsoleEventRenderer(out));
+            ctx.setExitOnGameEnd(false);
+            ctx.setMetrics(metrics);
+            try {
+                new Game(ctx).run();
+                out.println("Goodbye.");
+            } catch (NoSuchElementException e) {
+                // The player disconnected
+            }
+            out.flush();
+        } catch (IOException e) {
+            // The connection failed; there is nobody left to tell
+        }
+    }
+
+    /**
+     * Sends everything the game has printed before waiting for the player's next
+     * line, so prompts reach the player without sending every print on its own.
+     */
+    private static final class FlushingReader extends FilterReader {
+        /** The stream the game prints to */
+        private final PrintStream out;
+
+        /**
+         * Creates a reader.
+         *
+         * @param in the player's input
+         * @param out the stream the game prints to
+         */
+        FlushingReader(Reader in, PrintStream out) {
+            super(in);
+            this.out = out;
+        }
+
+        @Override
+        public int read() throws IOException {
+            out.flush();
+            return super.read();
+        }
+
+        @Override
+        public int read(char[] buf, int off, int len) throws IOException {
+            out.flush();
+            return super.read(buf, off, len);
+        }
+    }
+}
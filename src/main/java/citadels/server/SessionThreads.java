@@ -0,0 +1,82 @@
+package citadels.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads game sessions run on.
+ * A session spends nearly all its time waiting for its player to type, so on a
+ * JVM with virtual threads (Java 21 and later) every session gets a virtual thread,
+ * which costs a few hundred bytes while parked instead of a whole stack. The game
+ * is built for Java 8, so virtual threads are looked up by reflection, and older
+ * JVMs fall back to a pool of ordinary daemon threads.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+final class SessionThreads {
+
+    /**
+     * Prevents instantiation.
+     */
+    private SessionThreads() {
+    }
+
+    /**
+     * Creates an executor starting a new thread for every session.
+     *
+     * @return an executor running each task on its own virtual thread, or on a
+     *         pooled daemon thread if the JVM has no virtual threads
+     */
+    static ExecutorService newExecutor() {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        return virtual != null ? virtual : Executors.newCachedThreadPool(new DaemonThreadFactory());
+    }
+
+    /**
+     * Checks whether sessions run on virtual threads.
+     *
+     * @return true if the JVM has virtual threads
+     */
+    static boolean hasVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task, if the JVM has them.
+     *
+     * @return the executor, or null on a JVM without virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Names session threads and makes them daemons, so open sessions never keep
+     * the program from exiting.
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        /** Number of the next thread */
+        private final AtomicInteger next = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "citadels-session-" + next.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
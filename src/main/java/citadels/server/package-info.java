@@ -0,0 +1,9 @@
+/**
+ * Package containing the multi-session game server.
+ * Hosts many human games at once over a line-based TCP protocol, each
+ * session playing its own game on its own lightweight thread.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+package citadels.server;
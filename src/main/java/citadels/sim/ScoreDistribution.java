@@ -0,0 +1,127 @@
+package citadels.sim;
+
+import java.util.Arrays;
+
+/**
+ * Collects a distribution of final game scores.
+ * Scores are small non-negative integers, so every value is counted in a
+ * histogram, which allows exact percentiles and cheap merging of the
+ * distributions gathered by different simulation threads.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class ScoreDistribution {
+    /** Number of scores recorded for each score value */
+    private int[] histogram = new int[64];
+    /** Number of scores recorded */
+    private long count;
+    /** Sum of all recorded scores */
+    private long sum;
+    /** Sum of the squares of all recorded scores */
+    private long sumOfSquares;
+    /** Lowest recorded score */
+    private int min = Integer.MAX_VALUE;
+    /** Highest recorded score */
+    private int max = Integer.MIN_VALUE;
+
+    /**
+     * Records a single score.
+     *
+     * @param score the score to record; negative scores are counted as 0
+     */
+    public void add(int score) {
+        int value = Math.max(0, score);
+        if (value >= histogram.length) {
+            histogram = Arrays.copyOf(histogram, Math.max(value + 1, histogram.length * 2));
+        }
+        histogram[value]++;
+        count++;
+        sum += value;
+        sumOfSquares += (long) value * value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all scores recorded by another distribution to this one.
+     *
+     * @param other the distribution to merge into this one
+     */
+    public void merge(ScoreDistribution other) {
+        if (other.histogram.length > histogram.length) {
+            histogram = Arrays.copyOf(histogram, other.histogram.length);
+        }
+        for (int i = 0; i < other.histogram.length; i++) {
+            histogram[i] += other.histogram[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        sumOfSquares += other.sumOfSquares;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Gets the number of recorded scores.
+     * @return the number of scores
+     */
+    public long getCount() { return count; }
+
+    /**
+     * Gets the lowest recorded score.
+     * @return the minimum, or 0 if nothing was recorded
+     */
+    public int getMin() { return count == 0 ? 0 : min; }
+
+    /**
+     * Gets the highest recorded score.
+     * @return the maximum, or 0 if nothing was recorded
+     */
+    public int getMax() { return count == 0 ? 0 : max; }
+
+    /**
+     * Gets the average of all recorded scores.
+     * @return the mean, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Gets the standard deviation of all recorded scores.
+     * @return the population standard deviation, or 0 if nothing was recorded
+     */
+    public double getStdDev() {
+        if (count == 0) return 0;
+        double mean = getMean();
+        return Math.sqrt(Math.max(0, (double) sumOfSquares / count - mean * mean));
+    }
+
+    /**
+     * Gets the score below which the given fraction of recorded scores fall.
+     *
+     * @param fraction the percentile as a fraction between 0 and 1 (e.g., 0.5 for the median)
+     * @return the smallest score covering at least that fraction, or 0 if nothing was recorded
+     */
+    public int getPercentile(double fraction) {
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target) return i;
+        }
+        return max;
+    }
+
+    /**
+     * Gets how many times a score was recorded.
+     *
+     * @param score the score to look up
+     * @return the number of times the score was recorded
+     */
+    public int getFrequency(int score) {
+        return score >= 0 && score < histogram.length ? histogram[score] : 0;
+    }
+}
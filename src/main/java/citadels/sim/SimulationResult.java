@@ -0,0 +1,221 @@
+package citadels.sim;
+
+/**
+ * Aggregated outcome of a batch of simulated games.
+ * Keeps win counts and score distributions for every seat and for every
+ * character (by rank) that was held in the final round of a game, together
+ * with round counts and the wall-clock time the batch took.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class SimulationResult {
+    /** Highest character rank */
+    private static final int MAX_RANK = 8;
+
+    /** Number of players in every game */
+    private final int playerCount;
+    /** Number of games played */
+    private int games;
+    /** Number of games that ended because a city was completed */
+    private int finishedGames;
+    /** Number of games whose tie could not be broken */
+    private int ties;
+    /** Total number of rounds over all games */
+    private long totalRounds;
+    /** Wall-clock time spent playing the batch */
+    private long elapsedNanos;
+
+    /** Wins per seat */
+    private final int[] seatWins;
+    /** Final scores per seat */
+    private final ScoreDistribution[] seatScores;
+    /** Games in which each character was held in the final round, indexed by rank */
+    private final int[] characterGames = new int[MAX_RANK + 1];
+    /** Wins per character, indexed by rank */
+    private final int[] characterWins = new int[MAX_RANK + 1];
+    /** Final scores per character, indexed by rank */
+    private final ScoreDistribution[] characterScores = new ScoreDistribution[MAX_RANK + 1];
+    /** Character names, indexed by rank */
+    private final String[] characterNames = new String[MAX_RANK + 1];
+
+    /**
+     * Creates an empty result for games with the given number of players.
+     *
+     * @param playerCount the number of players in every game
+     */
+    public SimulationResult(int playerCount) {
+        this.playerCount = playerCount;
+        this.seatWins = new int[playerCount];
+        this.seatScores = new ScoreDistribution[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            seatScores[i] = new ScoreDistribution();
+        }
+        for (int r = 0; r <= MAX_RANK; r++) {
+            characterScores[r] = new ScoreDistribution();
+        }
+    }
+
+    /**
+     * Records the end of one game.
+     *
+     * @param rounds the number of rounds the game lasted
+     * @param finished true if a player completed their city
+     * @param tie true if no winner could be determined
+     */
+    void recordGame(int rounds, boolean finished, boolean tie) {
+        games++;
+        totalRounds += rounds;
+        if (finished) finishedGames++;
+        if (tie) ties++;
+    }
+
+    /**
+     * Records the final result of one seat in one game.
+     *
+     * @param seat the seat index (0 for Player 1)
+     * @param rank the rank of the character held in the final round, or 0 if none
+     * @param characterName the name of that character, or null if none
+     * @param score the seat's final score
+     * @param won true if this seat won the game
+     */
+    void recordSeat(int seat, int rank, String characterName, int score, boolean won) {
+        seatScores[seat].add(score);
+        if (won) seatWins[seat]++;
+
+        if (rank >= 1 && rank <= MAX_RANK) {
+            characterGames[rank]++;
+            characterScores[rank].add(score);
+            if (won) characterWins[rank]++;
+            if (characterNames[rank] == null) characterNames[rank] = characterName;
+        }
+    }
+
+    /**
+     * Adds all games recorded by another result to this one.
+     *
+     * @param other the result to merge into this one
+     */
+    void merge(SimulationResult other) {
+        games += other.games;
+        finishedGames += other.finishedGames;
+        ties += other.ties;
+        totalRounds += other.totalRounds;
+        for (int i = 0; i < playerCount; i++) {
+            seatWins[i] += other.seatWins[i];
+            seatScores[i].merge(other.seatScores[i]);
+        }
+        for (int r = 0; r <= MAX_RANK; r++) {
+            characterGames[r] += other.characterGames[r];
+            characterWins[r] += other.characterWins[r];
+            characterScores[r].merge(other.characterScores[r]);
+            if (characterNames[r] == null) characterNames[r] = other.characterNames[r];
+        }
+    }
+
+    /**
+     * Sets the wall-clock time the batch took.
+     * @param nanos the elapsed time in nanoseconds
+     */
+    void setElapsedNanos(long nanos) { elapsedNanos = nanos; }
+
+    /**
+     * Gets the number of players in every game.
+     * @return the player count
+     */
+    public int getPlayerCount() { return playerCount; }
+
+    /**
+     * Gets the number of games played.
+     * @return the number of games
+     */
+    public int getGames() { return games; }
+
+    /**
+     * Gets the number of games that ended because a city was completed,
+     * as opposed to hitting the round limit.
+     * @return the number of finished games
+     */
+    public int getFinishedGames() { return finishedGames; }
+
+    /**
+     * Gets the number of games whose tie could not be broken.
+     * @return the number of ties
+     */
+    public int getTies() { return ties; }
+
+    /**
+     * Gets the average number of rounds per game.
+     * @return the mean round count, or 0 if no games were played
+     */
+    public double getAverageRounds() {
+        return games == 0 ? 0 : (double) totalRounds / games;
+    }
+
+    /**
+     * Gets the wall-clock time the batch took.
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    /**
+     * Gets the simulation throughput.
+     * @return games played per second of wall-clock time
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos <= 0 ? 0 : games / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Gets the number of games won from a seat.
+     * @param seat the seat index (0 for Player 1)
+     * @return the number of wins
+     */
+    public int getSeatWins(int seat) { return seatWins[seat]; }
+
+    /**
+     * Gets the fraction of games won from a seat.
+     * @param seat the seat index (0 for Player 1)
+     * @return the win rate between 0 and 1
+     */
+    public double getSeatWinRate(int seat) {
+        return games == 0 ? 0 : (double) seatWins[seat] / games;
+    }
+
+    /**
+     * Gets the final score distribution of a seat.
+     * @param seat the seat index (0 for Player 1)
+     * @return the score distribution
+     */
+    public ScoreDistribution getSeatScores(int seat) { return seatScores[seat]; }
+
+    /**
+     * Gets the name of a character.
+     * @param rank the character's rank (1-8)
+     * @return the character's name, or null if it never appeared in a final round
+     */
+    public String getCharacterName(int rank) { return characterNames[rank]; }
+
+    /**
+     * Gets how many seats held a character in the final round.
+     * @param rank the character's rank (1-8)
+     * @return the number of final-round appearances
+     */
+    public int getCharacterGames(int rank) { return characterGames[rank]; }
+
+    /**
+     * Gets the fraction of final-round appearances of a character that won the game.
+     * @param rank the character's rank (1-8)
+     * @return the win rate between 0 and 1
+     */
+    public double getCharacterWinRate(int rank) {
+        return characterGames[rank] == 0 ? 0 : (double) characterWins[rank] / characterGames[rank];
+    }
+
+    /**
+     * Gets the final score distribution of players holding a character.
+     * @param rank the character's rank (1-8)
+     * @return the score distribution
+     */
+    public ScoreDistribution getCharacterScores(int rank) { return characterScores[rank]; }
+}
@@ -0,0 +1,197 @@
+package citadels.sim;
+
+import citadels.Game;
+import citadels.GameContext;
+import citadels.card.CharacterCard;
+import citadels.event.ConsoleEventRenderer;
+import citadels.event.GameEventListener;
+import citadels.player.AIPlayer;
+import citadels.player.Player;
+import citadels.util.GameRandom;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Headless engine that plays batches of AI-only Citadels games.
+ * Every game runs in its own {@link GameContext}, without waiting for input and
+ * without calling {@code System.exit}, so many games can be spread over the
+ * cores of a {@link ForkJoinPool}. The per-game results are merged into a
+ * single {@link SimulationResult}.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class Simulator {
+    /** Number of games a fork-join task plays itself instead of splitting further */
+    private static final int BATCH_SIZE = 8;
+    /** Default limit on rounds, in case no player ever completes a city */
+    public static final int DEFAULT_MAX_ROUNDS = 100;
+
+    /** Number of players in every game */
+    private final int playerCount;
+    /** Number of worker threads */
+    private final int parallelism;
+    /** Maximum number of rounds per game */
+    private int maxRounds = DEFAULT_MAX_ROUNDS;
+    /** Whether the games' events are ignored instead of printed while simulating */
+    private boolean quiet = true;
+    /** Seed the per-game seeds are derived from, or null for random games */
+    private Long seed;
+
+    /**
+     * Creates a simulator using one worker thread per available processor.
+     *
+     * @param playerCount the number of AI players in every game (4-7)
+     * @throws IllegalArgumentException if the player count is out of range
+     */
+    public Simulator(int playerCount) {
+        this(playerCount, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a simulator.
+     *
+     * @param playerCount the number of AI players in every game (4-7)
+     * @param parallelism the number of worker threads
+     * @throws IllegalArgumentException if the player count or parallelism is out of range
+     */
+    public Simulator(int playerCount, int parallelism) {
+        if (playerCount < 4 || playerCount > 7) {
+            throw new IllegalArgumentException("Must be between 4 and 7 players.");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        this.playerCount = playerCount;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the maximum number of rounds a game may last before it is scored anyway.
+     * @param maxRounds the round limit
+     */
+    public void setMaxRounds(int maxRounds) { this.maxRounds = maxRounds; }
+
+    /**
+     * Sets whether the games' events are ignored instead of printed while simulating.
+     * @param quiet true to play silently (default), false to print every game to the console
+     */
+    public void setQuiet(boolean quiet) { this.quiet = quiet; }
+
+    /**
+     * Sets the seed every game's own seed is derived from, which makes a whole
+     * batch reproducible regardless of how games are spread over threads.
+     * @param seed the batch seed, or null to play randomly seeded games (default)
+     */
+    public void setSeed(Long seed) { this.seed = seed; }
+
+    /**
+     * Gets the seed of a game in the batch.
+     *
+     * @param game the index of the game in the batch
+     * @return the game's seed
+     */
+    long seedFor(int game) {
+        return seed == null ? GameRandom.newSeed() : new GameRandom(seed + game).nextLong();
+    }
+
+    /**
+     * Plays the given number of games to completion and aggregates the results.
+     *
+     * @param games the number of games to play
+     * @return the combined statistics of all games
+     */
+    public SimulationResult run(int games) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long start = System.nanoTime();
+            SimulationResult result = pool.invoke(new GameBatch(0, games));
+            result.setElapsedNanos(System.nanoTime() - start);
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays one complete game and records it into the given result.
+     *
+     * @param result the result to record the game into
+     * @param gameSeed the seed of the game
+     */
+    void playGame(SimulationResult result, long gameSeed) {
+        GameContext ctx = new GameContext(gameSeed);
+        ctx.setEventListener(quiet ? GameEventListener.NONE : new ConsoleEventRenderer());
+        ctx.setFlightRecorded(false);
+        List<Player> players = ctx.getPlayers();
+        for (int i = 1; i <= playerCount; i++) {
+            players.add(new AIPlayer("Player " + i, ctx.getRandom().split()));
+        }
+        new Game(ctx).dealInitialCards();
+
+        int rounds = 0;
+        boolean finished = false;
+        while (rounds < maxRounds && !finished) {
+            rounds++;
+            Game.playHeadlessRound(ctx);
+            finished = Game.findCompletedCity(ctx) != null;
+        }
+
+        Map<Player, Integer> scores = Game.scoreGame(ctx);
+        Player winner = Game.findWinner(ctx, scores);
+        result.recordGame(rounds, finished, winner == null);
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player p = players.get(seat);
+            CharacterCard c = ctx.getSelectedCharacters().get(p);
+            result.recordSeat(seat,
+                c == null ? 0 : c.getRank(),
+                c == null ? null : c.getName(),
+                scores.get(p),
+                p == winner);
+        }
+    }
+
+    /**
+     * Fork-join task playing a range of games, splitting it in halves until
+     * the range is small enough to be played on the current thread.
+     */
+    private class GameBatch extends RecursiveTask<SimulationResult> {
+        private static final long serialVersionUID = 1L;
+
+        /** First game index (inclusive) */
+        private final int from;
+        /** Last game index (exclusive) */
+        private final int to;
+
+        /**
+         * Creates a task for the games in [from, to).
+         *
+         * @param from first game index (inclusive)
+         * @param to last game index (exclusive)
+         */
+        GameBatch(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (to - from <= BATCH_SIZE) {
+                SimulationResult result = new SimulationResult(playerCount);
+                for (int i = from; i < to; i++) {
+                    playGame(result, seedFor(i));
+                }
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            GameBatch left = new GameBatch(from, mid);
+            left.fork();
+            SimulationResult result = new GameBatch(mid, to).compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package citadels.sim;
+
+import java.io.PrintStream;
+
+/**
+ * Command-line entry point for headless batch simulation.
+ * Plays a number of AI-only games and prints win rates and score
+ * statistics per seat and per character, together with the throughput.
+ * <p>
+ * Usage: {@code SimulatorApp [games] [players] [threads] [seed]}
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class SimulatorApp {
+
+    /**
+     * Creates a new SimulatorApp instance.
+     */
+    public SimulatorApp() {
+    }
+
+    /**
+     * Runs the simulation described by the command-line arguments.
+     *
+     * @param args optional number of games (default 1000), players (default 4)
+     *             and worker threads (default: available processors), and
+     *             an optional seed that makes the whole batch reproducible
+     */
+    public static void main(String[] args) {
+        int games = 1000;
+        int players = 4;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Long seed = null;
+        try {
+            if (args.length > 0) games = Integer.parseInt(args[0]);
+            if (args.length > 1) players = Integer.parseInt(args[1]);
+            if (args.length > 2) threads = Integer.parseInt(args[2]);
+            if (args.length > 3) seed = Long.parseLong(args[3]);
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: SimulatorApp [games] [players] [threads] [seed]");
+            return;
+        }
+
+        Simulator simulator;
+        try {
+            simulator = new Simulator(players, threads);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        simulator.setSeed(seed);
+
+        System.out.println("Simulating " + games + " games with " + players
+            + " players on " + threads + " threads...");
+        printReport(simulator.run(games), System.out);
+    }
+
+    /**
+     * Prints a human-readable summary of a simulation result.
+     *
+     * @param result the result to summarise
+     * @param out the stream to print to
+     */
+    public static void printReport(SimulationResult result, PrintStream out) {
+        out.printf("Games: %d (%d completed a city, %d unbroken ties), avg %.1f rounds%n",
+            result.getGames(), result.getFinishedGames(), result.getTies(), result.getAverageRounds());
+        out.printf("Elapsed: %.3f s, throughput: %.1f games/sec%n",
+            result.getElapsedNanos() / 1_000_000_000.0, result.getGamesPerSecond());
+
+        out.println("--- Per seat ---");
+        for (int seat = 0; seat < result.getPlayerCount(); seat++) {
+            ScoreDistribution s = result.getSeatScores(seat);
+            out.printf("Player %d: win rate %5.1f%%, score mean %.1f sd %.1f (min %d, median %d, max %d)%n",
+                seat + 1, result.getSeatWinRate(seat) * 100, s.getMean(), s.getStdDev(),
+                s.getMin(), s.getPercentile(0.5), s.getMax());
+        }
+
+        out.println("--- Per character (held in final round) ---");
+        for (int rank = 1; rank <= 8; rank++) {
+            if (result.getCharacterGames(rank) == 0) continue;
+            ScoreDistribution s = result.getCharacterScores(rank);
+            out.printf("%d: %-9s win rate %5.1f%% over %d, score mean %.1f sd %.1f%n",
+                rank, result.getCharacterName(rank), result.getCharacterWinRate(rank) * 100,
+                result.getCharacterGames(rank), s.getMean(), s.getStdDev());
+        }
+    }
+}
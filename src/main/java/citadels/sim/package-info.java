@@ -0,0 +1,9 @@
+/**
+ * Package containing the headless simulation engine.
+ * Plays large batches of AI-only games in parallel and collects win rates
+ * and score statistics per seat and per character.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+package citadels.sim;
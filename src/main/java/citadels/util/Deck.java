@@ -1,38 +1,108 @@
 package citadels.util;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
 
 /**
  * A generic deck of cards implementation.
  * This class provides basic deck operations like drawing, shuffling,
  * and adding cards. It can be used with any card type.
+ * <p>
+ * Cards are kept in an array-backed ring buffer: the top of the deck is at
+ * {@code head} and the bottom at {@code head + size - 1} (modulo the capacity),
+ * so drawing from the top and placing on the bottom are both O(1).
+ * <p>
+ * Given a key for each card, the deck also keeps a {@link Zobrist} hash of
+ * the cards it holds, updated on every draw and every card added or removed.
  *
  * @param <T> the type of cards in the deck
- * 
+ *
  * @author Lakshya Sakhuja
  * @version 7.0
  */
 public class Deck<T> implements Iterable<T> {
-    /** The list containing all cards in the deck */
-    private final List<T> cards;
+    /** Initial capacity of the ring buffer; always a power of two */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Ring buffer holding the cards; its length is always a power of two */
+    private Object[] cards;
+    /** Index of the top card in the ring buffer */
+    private int head;
+    /** Number of cards in the deck */
+    private int size;
+    /** Number of structural changes, used to make iterators fail fast */
+    private int modCount;
+    /** Random source used for shuffling */
+    private GameRandom random;
+    /** Gives the Zobrist key of each card, or null if the deck is not hashed */
+    private ToLongFunction<? super T> hashKeys;
+    /** Sum of the keys of the cards in the deck */
+    private long hash;
 
     /**
-     * Creates a new empty deck.
+     * Creates a new empty deck that shuffles with a freshly seeded random source.
      */
     public Deck() {
-        this.cards = new ArrayList<>();
+        this(new GameRandom());
+    }
+
+    /**
+     * Creates a new empty deck that shuffles with the given random source.
+     *
+     * @param random the random source used for shuffling
+     */
+    public Deck(GameRandom random) {
+        this.cards = new Object[INITIAL_CAPACITY];
+        this.random = random;
+    }
+
+    /**
+     * Gets the random source used for shuffling.
+     * @return the random source
+     */
+    public GameRandom getRandom() { return random; }
+
+    /**
+     * Sets the random source used for shuffling, e.g. to make a game reproducible.
+     * @param random the random source
+     */
+    public void setRandom(GameRandom random) { this.random = random; }
+
+    /**
+     * Starts keeping a hash of the cards in the deck, or stops if the keys are null.
+     * The hash is computed once for the cards already in the deck.
+     *
+     * @param hashKeys gives the Zobrist key of a card, or null to stop hashing
+     */
+    public void setHashKeys(ToLongFunction<? super T> hashKeys) {
+        this.hashKeys = hashKeys;
+        hash = 0;
+        if (hashKeys != null) {
+            int mask = cards.length - 1;
+            for (int i = 0; i < size; i++) {
+                hash += hashKeys.applyAsLong(elementAt((head + i) & mask));
+            }
+        }
     }
 
+    /**
+     * Gets the Zobrist hash of the cards in the deck, which ignores their order,
+     * so shuffling leaves it unchanged.
+     *
+     * @return the sum of the cards' keys, or 0 if the deck is not hashed
+     * @see #setHashKeys(ToLongFunction)
+     */
+    public long getContentHash() { return hash; }
+
     /**
      * Adds a single card to the deck.
      *
      * @param card the card to add
      */
     public void addCard(T card) {
-        cards.add(card);
+        placeOnBottom(card);
     }
 
     /**
@@ -41,14 +111,29 @@ public class Deck<T> implements Iterable<T> {
      * @param newCards the list of cards to add
      */
     public void addCards(List<T> newCards) {
-        cards.addAll(newCards);
+        ensureCapacity(size + newCards.size());
+        for (T card : newCards) {
+            cards[(head + size) & (cards.length - 1)] = card;
+            size++;
+            hash += key(card);
+        }
+        modCount++;
     }
 
     /**
-     * Randomly shuffles all cards in the deck.
+     * Randomly shuffles all cards in the deck using the deck's random source.
      */
     public void shuffle() {
-        Collections.shuffle(cards);
+        int mask = cards.length - 1;
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int a = (head + i) & mask;
+            int b = (head + j) & mask;
+            Object tmp = cards[a];
+            cards[a] = cards[b];
+            cards[b] = tmp;
+        }
+        modCount++;
     }
 
     /**
@@ -57,7 +142,57 @@ public class Deck<T> implements Iterable<T> {
      * @return the top card, or null if the deck is empty
      */
     public T draw() {
-        return cards.isEmpty() ? null : cards.remove(0);
+        if (size == 0) {
+            return null;
+        }
+        T card = elementAt(head);
+        cards[head] = null;
+        head = (head + 1) & (cards.length - 1);
+        size--;
+        modCount++;
+        hash -= key(card);
+        return card;
+    }
+
+    /**
+     * Draws up to {@code n} cards from the top of the deck into a caller-supplied array.
+     * Cards are stored from index 0 in the order they were drawn. Fewer cards are
+     * drawn if the deck runs out.
+     *
+     * @param n the number of cards to draw
+     * @param dest the array receiving the drawn cards; must hold at least {@code n} cards
+     * @return the number of cards actually drawn
+     * @throws IllegalArgumentException if {@code n} is negative or larger than {@code dest}
+     */
+    public int drawN(int n, T[] dest) {
+        if (n < 0 || n > dest.length) {
+            throw new IllegalArgumentException("Cannot draw " + n + " cards into an array of " + dest.length);
+        }
+        int count = Math.min(n, size);
+        int mask = cards.length - 1;
+        for (int i = 0; i < count; i++) {
+            dest[i] = elementAt(head);
+            cards[head] = null;
+            head = (head + 1) & mask;
+            hash -= key(dest[i]);
+        }
+        size -= count;
+        modCount++;
+        return count;
+    }
+
+    /**
+     * Gets a card without drawing it.
+     *
+     * @param index the position from the top of the deck, from 0
+     * @return the card at that position
+     * @throws IndexOutOfBoundsException if the position is not in the deck
+     */
+    public T peek(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return elementAt((head + index) & (cards.length - 1));
     }
 
     /**
@@ -66,7 +201,7 @@ public class Deck<T> implements Iterable<T> {
      * @return true if the deck contains no cards, false otherwise
      */
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return size == 0;
     }
 
     /**
@@ -75,24 +210,33 @@ public class Deck<T> implements Iterable<T> {
      * @return the number of cards
      */
     public int size() {
-        return cards.size();
+        return size;
     }
 
     /**
      * Removes all cards from the deck.
      */
     public void clear() {
-        cards.clear();
+        int mask = cards.length - 1;
+        for (int i = 0; i < size; i++) {
+            cards[(head + i) & mask] = null;
+        }
+        head = 0;
+        size = 0;
+        modCount++;
+        hash = 0;
     }
 
     /**
-     * Returns an iterator over the cards in the deck.
+     * Returns an iterator over the cards in the deck, from top to bottom.
+     * The iterator fails fast with a {@link ConcurrentModificationException}
+     * if the deck is changed other than through the iterator itself.
      *
      * @return an Iterator instance
      */
     @Override
     public Iterator<T> iterator() {
-        return cards.iterator();
+        return new DeckIterator();
     }
 
     /**
@@ -101,6 +245,118 @@ public class Deck<T> implements Iterable<T> {
      * @param card the card to place at the bottom
      */
     public void placeOnBottom(T card) {
-        cards.add(card);
+        ensureCapacity(size + 1);
+        cards[(head + size) & (cards.length - 1)] = card;
+        size++;
+        modCount++;
+        hash += key(card);
+    }
+
+    /**
+     * Gets the Zobrist key of a card.
+     *
+     * @param card the card, or null
+     * @return the card's key, or 0 if the card is null or the deck is not hashed
+     */
+    private long key(T card) {
+        return hashKeys == null || card == null ? 0 : hashKeys.applyAsLong(card);
+    }
+
+    /**
+     * Gets the card stored at a physical index of the ring buffer.
+     *
+     * @param physical the index into the backing array
+     * @return the card at that index
+     */
+    @SuppressWarnings("unchecked")
+    private T elementAt(int physical) {
+        return (T) cards[physical];
+    }
+
+    /**
+     * Grows the ring buffer to the next power of two that holds at least
+     * {@code required} cards, moving the top card to index 0.
+     *
+     * @param required the number of cards the buffer must be able to hold
+     */
+    private void ensureCapacity(int required) {
+        if (required <= cards.length) {
+            return;
+        }
+        int capacity = cards.length;
+        while (capacity < required) {
+            capacity <<= 1;
+        }
+        Object[] grown = new Object[capacity];
+        int firstPart = Math.min(size, cards.length - head);
+        System.arraycopy(cards, head, grown, 0, firstPart);
+        System.arraycopy(cards, 0, grown, firstPart, size - firstPart);
+        cards = grown;
+        head = 0;
+    }
+
+    /**
+     * Removes the card at a position counted from the top of the deck,
+     * shifting the cards below it up by one.
+     *
+     * @param index the position from the top of the deck
+     */
+    private void removeAt(int index) {
+        int mask = cards.length - 1;
+        hash -= key(elementAt((head + index) & mask));
+        for (int i = index; i < size - 1; i++) {
+            cards[(head + i) & mask] = cards[(head + i + 1) & mask];
+        }
+        cards[(head + size - 1) & mask] = null;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Fail-fast iterator walking the deck from top to bottom.
+     */
+    private class DeckIterator implements Iterator<T> {
+        /** Position from the top of the next card to return */
+        private int cursor;
+        /** Position of the last card returned, or -1 if none */
+        private int lastReturned = -1;
+        /** Modification count the iterator expects the deck to have */
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        public T next() {
+            checkForModification();
+            if (cursor >= size) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = cursor;
+            return elementAt((head + cursor++) & (cards.length - 1));
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkForModification();
+            removeAt(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Throws if the deck was changed behind this iterator's back.
+         */
+        private void checkForModification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
     }
 }
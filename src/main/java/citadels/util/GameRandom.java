@@ -0,0 +1,162 @@
+package citadels.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A small, fast, seedable source of randomness owned by a single game.
+ * It uses the SplitMix64 algorithm (the generator behind
+ * {@link java.util.SplittableRandom}) so that:
+ * <ul>
+ *   <li>The same seed always produces the same sequence on every JVM</li>
+ *   <li>Independent streams can be split off for the deck, the AI, etc.</li>
+ *   <li>Games running on different threads never contend on a shared lock</li>
+ * </ul>
+ * Instances are not thread-safe; every game uses its own.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public class GameRandom {
+    /** Odd constant added to the state on every step (the golden gamma) */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    /** Source of distinct seeds for generators created without one */
+    private static final AtomicLong SEED_UNIQUIFIER = new AtomicLong(System.nanoTime());
+
+    /** The seed this generator was created with */
+    private final long seed;
+    /** Current internal state */
+    private long state;
+
+    /**
+     * Creates a generator with a fresh, unpredictable seed.
+     */
+    public GameRandom() {
+        this(newSeed());
+    }
+
+    /**
+     * Creates a generator that produces the sequence determined by the given seed.
+     *
+     * @param seed the seed
+     */
+    public GameRandom(long seed) {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    /**
+     * Generates a seed that differs from every other seed generated in this JVM.
+     *
+     * @return a new seed
+     */
+    public static long newSeed() {
+        return mix64(SEED_UNIQUIFIER.getAndAdd(GOLDEN_GAMMA) ^ System.nanoTime());
+    }
+
+    /**
+     * Gets the seed this generator was created with.
+     * @return the seed
+     */
+    public long getSeed() { return seed; }
+
+    /**
+     * Gets the current internal state, from which the rest of the sequence follows.
+     * @return the state
+     */
+    public long getState() { return state; }
+
+    /**
+     * Sets the internal state, e.g. to rewind the generator to a state saved with {@link #getState()}.
+     * @param state the state
+     */
+    public void setState(long state) { this.state = state; }
+
+    /**
+     * Creates a new generator whose sequence is determined by, but independent of,
+     * this one. Splitting advances this generator by one step.
+     *
+     * @return the split-off generator
+     */
+    public GameRandom split() {
+        return new GameRandom(nextLong());
+    }
+
+    /**
+     * Returns the next pseudo-random long.
+     *
+     * @return a uniformly distributed long
+     */
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    /**
+     * Returns a pseudo-random int between 0 (inclusive) and the bound (exclusive).
+     *
+     * @param bound the upper bound; must be positive
+     * @return a uniformly distributed int in [0, bound)
+     * @throws IllegalArgumentException if the bound is not positive
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive: " + bound);
+        }
+        // Lemire's multiply-shift with rejection, so every value is equally likely
+        long m = (nextLong() >>> 32) * bound;
+        long low = m & 0xffffffffL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                m = (nextLong() >>> 32) * bound;
+                low = m & 0xffffffffL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    /**
+     * Returns a pseudo-random double between 0 (inclusive) and 1 (exclusive).
+     *
+     * @return a uniformly distributed double
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Returns a pseudo-random boolean.
+     *
+     * @return true or false with equal probability
+     */
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /**
+     * Randomly permutes a list in place (Fisher-Yates), like
+     * {@link java.util.Collections#shuffle(List)} but driven by this generator.
+     *
+     * @param list the list to shuffle
+     * @param <T> the type of the list's elements
+     */
+    public <T> void shuffle(List<T> list) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            list.set(i, list.set(j, list.get(i)));
+        }
+    }
+
+    /**
+     * The SplitMix64 finaliser, which scrambles the bits of a state value.
+     *
+     * @param z the value to scramble
+     * @return the scrambled value
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
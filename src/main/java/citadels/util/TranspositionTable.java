@@ -0,0 +1,204 @@
+package citadels.util;
+
+/**
+ * A fixed-size cache of position evaluations keyed by {@link Zobrist} hash, shared
+ * by the threads of a search. Each entry accumulates the total value and the number
+ * of evaluations of a position, so results found by different threads, or by earlier
+ * searches that reached the same position, add up.
+ * <p>
+ * Entries live in buckets of {@value #WAYS} slots picked by the low bits of the hash.
+ * When a bucket is full, a new position replaces the entry with the fewest evaluations,
+ * so the table never grows and keeps what cost the most to learn. The table is split
+ * into lock stripes, each guarding an interleaved share of the buckets, so threads
+ * working on different positions rarely wait for each other. All storage is in flat
+ * arrays allocated up front, and no operation allocates.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public final class TranspositionTable {
+    /** Number of slots per bucket */
+    public static final int WAYS = 4;
+    /** Default number of lock stripes */
+    public static final int DEFAULT_STRIPES = 64;
+
+    /** Hash of the position in each slot */
+    private final long[] keys;
+    /** Total value of the evaluations in each slot */
+    private final double[] totals;
+    /** Number of evaluations in each slot; 0 marks an empty slot */
+    private final int[] counts;
+    /** One lock per stripe */
+    private final Object[] locks;
+    /** Mask selecting a bucket from a hash */
+    private final int bucketMask;
+    /** Mask selecting a stripe from a bucket */
+    private final int stripeMask;
+
+    /**
+     * Creates a table with the default number of lock stripes.
+     *
+     * @param capacity the maximum number of positions, rounded up to a power of two
+     * @throws IllegalArgumentException if the capacity is not positive or too large
+     */
+    public TranspositionTable(int capacity) {
+        this(capacity, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a table.
+     *
+     * @param capacity the maximum number of positions, rounded up to a power of two
+     * @param stripes the number of locks, rounded up to a power of two
+     * @throws IllegalArgumentException if the capacity or stripe count is not positive,
+     *                                  or the capacity is too large
+     */
+    public TranspositionTable(int capacity, int stripes) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Stripes must be at least 1: " + stripes);
+        }
+        int slots = Math.max(WAYS, powerOfTwo(capacity));
+        keys = new long[slots];
+        totals = new double[slots];
+        counts = new int[slots];
+        int buckets = slots / WAYS;
+        bucketMask = buckets - 1;
+        locks = new Object[powerOfTwo(Math.min(stripes, buckets))];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        stripeMask = locks.length - 1;
+    }
+
+    /**
+     * Gets the maximum number of positions the table holds.
+     * @return the number of slots
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Adds evaluations of a position, creating its entry if needed and evicting
+     * the least evaluated position in its bucket if the bucket is full.
+     *
+     * @param hash the position's hash
+     * @param total the total value of the evaluations
+     * @param count the number of evaluations
+     * @throws IllegalArgumentException if the count is not positive
+     */
+    public void add(long hash, double total, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        }
+        int bucket = bucket(hash);
+        int first = bucket * WAYS;
+        synchronized (locks[bucket & stripeMask]) {
+            int victim = first;
+            for (int slot = first; slot < first + WAYS; slot++) {
+                if (counts[slot] > 0 && keys[slot] == hash) {
+                    totals[slot] += total;
+                    counts[slot] = saturatedAdd(counts[slot], count);
+                    return;
+                }
+                if (counts[slot] < counts[victim]) {
+                    victim = slot;
+                }
+            }
+            keys[victim] = hash;
+            totals[victim] = total;
+            counts[victim] = count;
+        }
+    }
+
+    /**
+     * Gets the number of evaluations of a position.
+     *
+     * @param hash the position's hash
+     * @return the number of evaluations, or 0 if the position is not in the table
+     */
+    public int getCount(long hash) {
+        int bucket = bucket(hash);
+        int first = bucket * WAYS;
+        synchronized (locks[bucket & stripeMask]) {
+            for (int slot = first; slot < first + WAYS; slot++) {
+                if (counts[slot] > 0 && keys[slot] == hash) {
+                    return counts[slot];
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the mean value of the evaluations of a position.
+     *
+     * @param hash the position's hash
+     * @return the mean value, or NaN if the position is not in the table
+     */
+    public double getMean(long hash) {
+        int bucket = bucket(hash);
+        int first = bucket * WAYS;
+        synchronized (locks[bucket & stripeMask]) {
+            for (int slot = first; slot < first + WAYS; slot++) {
+                if (counts[slot] > 0 && keys[slot] == hash) {
+                    return totals[slot] / counts[slot];
+                }
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Removes every position from the table.
+     */
+    public void clear() {
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            synchronized (locks[stripe]) {
+                for (int bucket = stripe; bucket <= bucketMask; bucket += locks.length) {
+                    for (int slot = bucket * WAYS; slot < (bucket + 1) * WAYS; slot++) {
+                        counts[slot] = 0;
+                        totals[slot] = 0;
+                        keys[slot] = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Picks the bucket of a hash. Zobrist hashes are already well mixed, so the
+     * low bits will do; the high half is folded in for hashes that are not.
+     *
+     * @param hash the position's hash
+     * @return the bucket index
+     */
+    private int bucket(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & bucketMask;
+    }
+
+    /**
+     * Adds two counts, stopping at the largest int instead of overflowing.
+     *
+     * @param a a count
+     * @param b another count
+     * @return the sum, at most {@link Integer#MAX_VALUE}
+     */
+    private static int saturatedAdd(int a, int b) {
+        long sum = (long) a + b;
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+
+    /**
+     * Rounds a positive number up to a power of two.
+     *
+     * @param n the number
+     * @return the smallest power of two at least n
+     */
+    private static int powerOfTwo(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+}
@@ -0,0 +1,74 @@
+package citadels.util;
+
+/**
+ * Keys for Zobrist hashing of game positions.
+ * Every feature of a position (a district in someone's hand, a player's gold, a
+ * character picked) gets a fixed pseudo-random 64-bit key, and the hash of a
+ * position combines the keys of its features. When a feature appears or
+ * disappears, its key is added to or subtracted from the hash, so the collections
+ * holding the game keep their hashes up to date in constant time per change.
+ * <p>
+ * Keys are summed rather than XORed as in classic Zobrist hashing, because a
+ * city, hand or deck can hold several copies of the same district, and XOR would
+ * make two copies cancel out. Sums are order-independent, so reordering a hand
+ * or shuffling the deck leaves the hash unchanged.
+ * <p>
+ * Keys are derived from the feature itself rather than drawn from a table,
+ * so they are the same in every game and every JVM, and need no setup.
+ *
+ * @author Lakshya Sakhuja
+ * @version 7.0
+ */
+public final class Zobrist {
+    /** Zone of cards in a player's hand */
+    public static final int HAND = 1;
+    /** Zone of districts built in a player's city */
+    public static final int CITY = 2;
+    /** Zone of cards banked by a player (Museum) */
+    public static final int BANKED = 3;
+    /** Zone of cards in the district deck */
+    public static final int DECK = 4;
+    /** Feature kind of a player's gold */
+    public static final int GOLD = 5;
+    /** Feature kind of a character picked by a player */
+    public static final int CHARACTER = 6;
+    /** Feature kind of a player's seat, which the player's hash is mixed with */
+    public static final int SEAT = 7;
+    /** Feature kind of the rest of the game: crown, discards, assassinated and robbed characters */
+    public static final int TABLE = 8;
+
+    /** Odd constant spreading feature kinds apart (the golden gamma) */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * Prevents instantiation.
+     */
+    private Zobrist() {
+    }
+
+    /**
+     * Gets the key of a feature.
+     *
+     * @param kind the kind of feature, one of the constants of this class
+     * @param value the value of the feature, such as an amount of gold or the key of a card
+     * @return the feature's key
+     */
+    public static long key(int kind, long value) {
+        return GameRandom.mix64(value + kind * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Gets the key of a card with the given identity, before it is placed in a zone.
+     *
+     * @param name the card's name
+     * @param cost the card's cost
+     * @param color the card's color, or null
+     * @return the card's key
+     */
+    public static long cardKey(String name, int cost, String color) {
+        long h = name == null ? 0 : name.hashCode();
+        h = h * 31 + cost;
+        h = h * 31 + (color == null ? 0 : color.hashCode());
+        return GameRandom.mix64(h);
+    }
+}
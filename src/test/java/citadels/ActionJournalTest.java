@@ -0,0 +1,189 @@
+package citadels;
+
+import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.event.GameEventListener;
+import citadels.player.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the action journal: recording AI games and recovering them after a crash.
+ */
+public class ActionJournalTest {
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        file = Files.createTempFile("citadels", ".journal");
+        Files.delete(file);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Tests that recovery restores the game as it was after the last completed turn,
+     * replaying the records written since the last snapshot.
+     */
+    @Test
+    public void testRecoverRestoresGame() throws Exception {
+        for (long seed = 1; seed <= 5; seed++) {
+            GameContext ctx = TestGames.newGame(seed, 5);
+            // Snapshots only at the start of each round, so a whole round of records is replayed
+            try (ActionJournal journal = new ActionJournal(file, ctx, GameEventListener.NONE, 8)) {
+                ctx.setEventListener(journal);
+                for (int round = 0; round < 3; round++) {
+                    Game.playHeadlessRound(ctx);
+                }
+                assertTrue(journal.size() > 0);
+            }
+
+            GameContext recovered = new GameContext(1L);
+            int nextRank = ActionJournal.recover(file, recovered);
+            assertTrue(nextRank >= 2 && nextRank <= 9);
+            assertSameGame(ctx, recovered);
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that the default journal snapshots once a round and recovers by replaying
+     * the records of the turns completed since the round began.
+     */
+    @Test
+    public void testDefaultJournalReplaysTurns() throws Exception {
+        GameContext ctx = TestGames.newGame(7L, 5);
+        try (ActionJournal journal = new ActionJournal(file, ctx, GameEventListener.NONE)) {
+            ctx.setEventListener(journal);
+            for (int round = 0; round < 3; round++) {
+                Game.playHeadlessRound(ctx);
+            }
+        }
+
+        // Count the snapshots, and the characters called after the last one
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        int snapshots = 0;
+        int calledSince = 0;
+        for (int pos = 0; pos + 4 <= buffer.limit() && buffer.getInt(pos) != 0;
+                pos += 4 + (buffer.getInt(pos) & 0xFFFFFF)) {
+            ActionJournal.RecordType type = ActionJournal.RecordType.fromCode(buffer.getInt(pos) >>> 24);
+            if (type == ActionJournal.RecordType.SNAPSHOT) {
+                snapshots++;
+                calledSince = 0;
+            } else if (type == ActionJournal.RecordType.CALLED) {
+                calledSince++;
+            }
+        }
+        assertEquals(3, snapshots);
+        assertTrue(calledSince >= 2, calledSince + " turns after the last snapshot");
+
+        GameContext recovered = new GameContext(1L);
+        assertEquals(9, ActionJournal.recover(file, recovered));
+        assertSameGame(ctx, recovered);
+    }
+
+    /**
+     * Tests that a journal cut off part way through a record still recovers,
+     * and that a journal without a snapshot recovers nothing.
+     */
+    @Test
+    public void testRecoverTruncatedJournal() throws Exception {
+        GameContext ctx = TestGames.newGame(11L, 5);
+        int size;
+        try (ActionJournal journal = new ActionJournal(file, ctx, GameEventListener.NONE)) {
+            ctx.setEventListener(journal);
+            for (int round = 0; round < 2; round++) {
+                Game.playHeadlessRound(ctx);
+            }
+            size = journal.size();
+        }
+
+        byte[] data = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(data, size / 2 + 1));
+        GameContext recovered = new GameContext(1L);
+        assertTrue(ActionJournal.recover(file, recovered) >= 1);
+        assertFalse(recovered.getPlayers().isEmpty());
+
+        Files.write(file, new byte[16]);
+        GameContext empty = new GameContext(1L);
+        assertEquals(-1, ActionJournal.recover(file, empty));
+        assertTrue(empty.getPlayers().isEmpty());
+        Files.delete(file);
+        assertEquals(-1, ActionJournal.recover(file, empty));
+    }
+
+    /**
+     * Tests that a finished game empties the journal, and that events still reach the delegate.
+     */
+    @Test
+    public void testGameEndedEmptiesJournal() throws Exception {
+        GameContext ctx = TestGames.newGame(3L, 5);
+        List<Player> ended = new ArrayList<>();
+        GameEventListener delegate = new GameEventListener() {
+            @Override
+            public void onGameEnded(Player winner, List<Player> tied, CharacterCard mysteryDiscard) {
+                ended.add(winner);
+            }
+        };
+        try (ActionJournal journal = new ActionJournal(file, ctx, delegate)) {
+            ctx.setEventListener(journal);
+            Game.playHeadlessRound(ctx);
+            journal.onGameEnded(ctx.getPlayers().get(0), ctx.getPlayers(), null);
+            assertEquals(0, journal.size());
+        }
+        assertEquals(1, ended.size());
+        assertEquals(-1, ActionJournal.recover(file, new GameContext(1L)));
+    }
+
+    /**
+     * Asserts that two contexts hold the same game, comparing cards by name.
+     *
+     * @param expected the expected game
+     * @param actual the actual game
+     */
+    private static void assertSameGame(GameContext expected, GameContext actual) {
+        assertEquals(expected.getCrownPlayerIndex(), actual.getCrownPlayerIndex());
+        assertEquals(expected.getAssassinatedCharacter(), actual.getAssassinatedCharacter());
+        assertEquals(expected.getRobbedCharacter(), actual.getRobbedCharacter());
+        assertEquals(expected.getPlayers().size(), actual.getPlayers().size());
+        for (int i = 0; i < expected.getPlayers().size(); i++) {
+            Player e = expected.getPlayers().get(i);
+            Player a = actual.getPlayers().get(i);
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getGold(), a.getGold(), e.getName() + " gold");
+            assertEquals(names(e.getHand()), names(a.getHand()), e.getName() + " hand");
+            assertEquals(names(e.getCity()), names(a.getCity()), e.getName() + " city");
+            assertEquals(names(e.getBankedCards()), names(a.getBankedCards()));
+            assertEquals(expected.getSelectedCharacters().get(e).getName(),
+                actual.getSelectedCharacters().get(a).getName());
+        }
+        assertEquals(names(expected.getDistrictDeck()), names(actual.getDistrictDeck()));
+    }
+
+    /**
+     * Lists the names of cards.
+     *
+     * @param cards the cards
+     * @return their names, in order
+     */
+    private static List<String> names(Iterable<DistrictCard> cards) {
+        List<String> names = new ArrayList<>();
+        for (DistrictCard card : cards) {
+            names.add(card.getName());
+        }
+        return names;
+    }
+}
@@ -2,6 +2,7 @@ package citadels;
 
 import citadels.card.CharacterCard;
 import citadels.card.DistrictCard;
+import citadels.event.GameEventListener;
 import citadels.player.HumanPlayer;
 import citadels.player.Player;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +10,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.AfterEach;
 
 import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -119,6 +123,26 @@ public class CharacterAbilitiesTest {
         assertEquals(initialGold + 4, player.getGold(), "Bishop should get 2 gold from blue districts plus 2 from gold action");
     }
 
+    /**
+     * Tests that the School of Magic does not pay the Bishop as a blue district.
+     */
+    @Test
+    public void testBishopIncomeIgnoresSchoolOfMagic() {
+        player.getCity().add(new DistrictCard("Temple", "blue", 2, 1, null));
+        player.getCity().add(new DistrictCard("School Of Magic", "purple", 6, 1, null));
+
+        CharacterCard bishop = new CharacterCard("Bishop", 5);
+        Game.selectedCharacters.put(player, bishop);
+        GameState.setCurrentPlayer(player);
+        GameState.setCurrentCharacter(bishop);
+
+        int initialGold = player.getGold();
+        setupTestInput("gold\nt\n");  // Take gold action, end turn
+        Game.handlePlayerTurn(player, bishop);
+
+        assertEquals(initialGold + 3, player.getGold(), "Bishop should get 1 gold from the blue district plus 2 from gold action");
+    }
+
     /**
      * Tests Merchant's income generation.
      * Verifies:
@@ -172,6 +196,43 @@ public class CharacterAbilitiesTest {
         assertEquals(initialGold + 4, player.getGold(), "Warlord should get 2 gold from red districts plus 2 from gold action");
     }
 
+    /**
+     * Tests that a Warlord played at the console reports the district it destroys
+     * to the game's listener, as the AI's Warlord does.
+     */
+    @Test
+    public void testWarlordDestructionReported() {
+        Player victim = new HumanPlayer("Victim");
+        victim.getCity().add(new DistrictCard("Manor", "yellow", 3, 1, null));
+        Game.players.add(victim);
+        Game.selectedCharacters.put(victim, new CharacterCard("King", 4));
+        player.addGold(2);
+
+        CharacterCard warlord = new CharacterCard("Warlord", 8);
+        Game.selectedCharacters.put(player, warlord);
+        GameState.setCurrentPlayer(player);
+        GameState.setCurrentCharacter(warlord);
+
+        List<String> destroyed = new ArrayList<>();
+        GameContext ctx = Game.getDefaultContext();
+        GameEventListener listener = ctx.getEventListener();
+        ctx.setEventListener(new GameEventListener() {
+            @Override
+            public void onDistrictDestroyed(Player w, Player v, DistrictCard district, int cost) {
+                destroyed.add(w.getName() + " " + v.getName() + " " + district.getName() + " " + cost);
+            }
+        });
+        try {
+            setupTestInput("gold\nt\n");
+            Game.handlePlayerTurn(player, warlord);
+        } finally {
+            ctx.setEventListener(listener);
+        }
+
+        assertEquals(Collections.singletonList("Test Player Victim Manor 2"), destroyed);
+        assertTrue(victim.getCity().isEmpty());
+    }
+
     /**
      * Tests Thief's steal ability.
      * Verifies:
@@ -9,6 +9,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.AfterEach;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.Scanner;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -1015,6 +1020,28 @@ public class CommandHandlerTest {
         assertFalse(Game.debugMode);
     }
 
+    /**
+     * Tests that debug mode belongs to the game it was turned on in, so one
+     * session typing debug does not change it for another game or the default one.
+     */
+    @Test
+    public void testDebugModePerGame() {
+        boolean defaultMode = Game.debugMode;
+        GameContext first = new GameContext(1L);
+        GameContext second = new GameContext(2L);
+        first.setOutput(new PrintStream(new ByteArrayOutputStream()));
+        Player host = new HumanPlayer("Host");
+        first.getPlayers().add(host);
+        first.getSelectedCharacters().put(host, new CharacterCard("King", 4));
+
+        Deque<String> lines = new ArrayDeque<>(Arrays.asList("debug", "t"));
+        CommandHandler.run(first, host, lines::poll);
+        assertTrue(first.isDebugMode());
+        assertFalse(second.isDebugMode());
+        assertEquals(defaultMode, Game.debugMode);
+        assertEquals(defaultMode, Game.getDefaultContext().isDebugMode());
+    }
+
     /**
      * Tests end turn with pending actions.
      * Verifies that turn end is handled properly with pending actions.
@@ -0,0 +1,361 @@
+package citadels;
+
+import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.effect.PurpleCardEffects;
+import citadels.event.GameEventListener;
+import citadels.player.AIPlayer;
+import citadels.player.Player;
+import citadels.util.Deck;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for GameContext class.
+ * Tests that game state held in separate contexts stays independent
+ * of each other and of the default context used by the static API.
+ */
+public class GameContextTest {
+    private GameContext context;
+
+    /**
+     * Sets up test environment before each test.
+     * Resets the default context and creates a fresh context with a small deck.
+     */
+    @BeforeEach
+    public void setUp() {
+        Game.players.clear();
+        Game.selectedCharacters.clear();
+        Game.districtDeck.clear();
+        Game.setAssassinatedCharacter(null);
+        Game.setRobbedCharacter(null);
+        Game.setCrownPlayerIndex(0);
+
+        Deck<DistrictCard> deck = new Deck<>();
+        for (int i = 0; i < 10; i++) {
+            deck.addCard(new DistrictCard("Tavern " + i, "green", 1, 1, null));
+        }
+        context = new GameContext(deck);
+        System.setProperty("test.env", "true");
+    }
+
+    /**
+     * Tests that a new context starts out empty.
+     */
+    @Test
+    public void testNewContextIsEmpty() {
+        assertTrue(context.getPlayers().isEmpty());
+        assertTrue(context.getSelectedCharacters().isEmpty());
+        assertEquals(0, context.getCrownPlayerIndex());
+        assertNull(context.getAssassinatedCharacter());
+        assertNull(context.getRobbedCharacter());
+        assertNull(context.getMysteryDiscard());
+        assertEquals(Game.GamePhase.SELECTION, context.getCurrentPhase());
+        assertFalse(context.isGameOver());
+    }
+
+    /**
+     * Tests that the static Game API is backed by the default context.
+     */
+    @Test
+    public void testStaticApiUsesDefaultContext() {
+        GameContext def = Game.getDefaultContext();
+        assertSame(def.getPlayers(), Game.players);
+        assertSame(def.getSelectedCharacters(), Game.selectedCharacters);
+        assertSame(def.getDistrictDeck(), Game.districtDeck);
+
+        Game.setAssassinatedCharacter("King");
+        assertEquals("King", def.getAssassinatedCharacter());
+        assertNull(context.getAssassinatedCharacter());
+
+        GameState.setCurrentPlayer(new AIPlayer("Default"));
+        assertNull(context.getCurrentPlayer());
+        GameState.setCurrentPlayer(null);
+    }
+
+    /**
+     * Tests that an AI turn played in a context only changes that context.
+     * Verifies:
+     * 1. The crown moves within the custom context only
+     * 2. Cards are drawn from the custom context's deck
+     */
+    @Test
+    public void testAITurnStaysInsideContext() {
+        AIPlayer other = new AIPlayer("Other");
+        AIPlayer king = new AIPlayer("King Player");
+        context.getPlayers().add(other);
+        context.getPlayers().add(king);
+        context.getSelectedCharacters().put(king, new CharacterCard("King", 4));
+        Game.setCrownPlayerIndex(0);
+
+        int deckBefore = context.getDistrictDeck().size();
+        king.takeTurn(context);
+
+        assertEquals(1, context.getCrownPlayerIndex());
+        assertEquals(0, Game.getCrownPlayerIndex());
+        assertTrue(context.getDistrictDeck().size() < deckBefore);
+        assertTrue(Game.players.isEmpty());
+    }
+
+    /**
+     * Tests that an assassination in one context is not visible in another.
+     */
+    @Test
+    public void testAssassinationIsPerContext() {
+        GameContext second = new GameContext(new Deck<>());
+        for (GameContext ctx : new GameContext[] { context, second }) {
+            AIPlayer assassin = new AIPlayer("Assassin Player");
+            AIPlayer victim = new AIPlayer("Victim");
+            ctx.getPlayers().add(assassin);
+            ctx.getPlayers().add(victim);
+            ctx.getSelectedCharacters().put(assassin, new CharacterCard("Assassin", 1));
+            ctx.getSelectedCharacters().put(victim, new CharacterCard("Warlord", 8));
+        }
+
+        Player assassin = context.getPlayers().get(0);
+        assassin.takeTurn(context);
+
+        assertEquals("8", context.getAssassinatedCharacter());
+        assertNull(second.getAssassinatedCharacter());
+        assertNull(Game.getAssassinatedCharacter());
+    }
+
+    /**
+     * Tests that Laboratory usage is tracked per context.
+     */
+    @Test
+    public void testLaboratoryUsageIsPerContext() {
+        PurpleCardEffects.resetTurnUsage();
+        PurpleCardEffects.markLaboratoryUsed(context);
+
+        assertFalse(PurpleCardEffects.canUseLaboratory(context).getAsBoolean());
+        assertTrue(PurpleCardEffects.canUseLaboratory().getAsBoolean());
+
+        PurpleCardEffects.resetTurnUsage(context);
+        assertTrue(PurpleCardEffects.canUseLaboratory(context).getAsBoolean());
+    }
+
+    /**
+     * Tests that a saved game can be loaded into a separate context.
+     */
+    @Test
+    public void testSaveAndLoadBetweenContexts() {
+        AIPlayer p = new AIPlayer("Player 2");
+        p.addGold(5);
+        context.getPlayers().add(p);
+        context.setCrownPlayerIndex(0);
+
+        GameContext restored = new GameContext(new Deck<>());
+        GameState.loadGame(restored, GameState.saveGame(context));
+
+        assertEquals(1, restored.getPlayers().size());
+        assertEquals(5, restored.getPlayers().get(0).getGold());
+        assertEquals(context.getDistrictDeck().size(), restored.getDistrictDeck().size());
+        assertTrue(Game.players.isEmpty());
+    }
+
+    /**
+     * Tests that contexts created with the same seed deal the same deck and
+     * draft the same characters, and that the seed survives a save and load.
+     */
+    @Test
+    public void testSeededContextsAreReproducible() {
+        GameContext first = new GameContext(1234L);
+        GameContext second = new GameContext(1234L);
+        assertEquals(1234L, first.getSeed());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(first.getDistrictDeck().draw().getName(), second.getDistrictDeck().draw().getName());
+        }
+
+        for (GameContext ctx : new GameContext[] {first, second}) {
+            for (int i = 1; i <= 4; i++) {
+                ctx.getPlayers().add(new AIPlayer("Player " + i, ctx.getRandom().split()));
+            }
+            Game.isSelectionPhase(ctx);
+        }
+        for (int i = 0; i < 4; i++) {
+            assertEquals(first.getSelectedCharacters().get(first.getPlayers().get(i)).getName(),
+                second.getSelectedCharacters().get(second.getPlayers().get(i)).getName());
+        }
+
+        GameContext restored = new GameContext(new Deck<>());
+        GameState.loadGame(restored, GameState.saveGame(first));
+        assertEquals(1234L, restored.getSeed());
+    }
+
+    /**
+     * Tests that a context's events go to its own listener.
+     * Verifies that every player's character choice is reported.
+     */
+    @Test
+    public void testEventListenerReceivesEvents() {
+        List<Player> chosen = new ArrayList<>();
+        context.setEventListener(new GameEventListener() {
+            @Override
+            public void onCharacterChosen(Player player, CharacterCard character) {
+                chosen.add(player);
+            }
+        });
+        for (int i = 1; i <= 4; i++) {
+            context.getPlayers().add(new AIPlayer("Player " + i));
+        }
+
+        Game.startCharacterSelectionPhase(context);
+
+        assertEquals(context.getPlayers(), chosen);
+    }
+
+    /**
+     * Tests that seats and character ranks are found through the index and
+     * follow the players and picks as they change.
+     */
+    @Test
+    public void testSeatAndRankIndex() {
+        Player a = new AIPlayer("A");
+        Player b = new AIPlayer("B");
+        Player c = new AIPlayer("C");
+        context.getPlayers().add(a);
+        context.getPlayers().add(b);
+        context.getPlayers().add(c);
+        assertEquals(1, context.getSeat(b));
+        assertSame(c, context.getPlayer("C"));
+        assertNull(context.getPlayer("c"));
+
+        context.getSelectedCharacters().put(b, new CharacterCard("King", 4));
+        context.getSelectedCharacters().put(c, new CharacterCard("Warlord", 8));
+        assertSame(b, context.getCharacterHolder(4));
+        assertEquals(2, context.getCharacterSeat(8));
+        assertEquals(4, context.getCharacterRank(1));
+        assertEquals(0, context.getCharacterRank(0));
+        assertNull(context.getCharacterHolder(5));
+
+        context.getPlayers().remove(a);
+        assertEquals(-1, context.getSeat(a));
+        assertEquals(0, context.getSeat(b));
+        assertEquals(1, context.getCharacterSeat(8));
+        assertEquals(8, context.getCharacterRank(1));
+
+        context.getSelectedCharacters().put(b, new CharacterCard("Bishop", 5));
+        assertEquals(-1, context.getCharacterSeat(4));
+        assertSame(b, context.getCharacterHolder(5));
+        context.getSelectedCharacters().remove(c);
+        assertNull(context.getCharacterHolder(8));
+
+        // Players who are not seated can still be found by rank
+        context.getSelectedCharacters().put(a, new CharacterCard("Thief", 2));
+        assertEquals(-1, context.getCharacterSeat(2));
+        assertSame(a, context.getCharacterHolder(2));
+
+        context.getSelectedCharacters().clear();
+        assertNull(context.getCharacterHolder(5));
+    }
+
+    /**
+     * Tests that the rank index, updated one pick at a time, always agrees with
+     * a scan of the picks, including ranks picked twice and players leaving.
+     */
+    @Test
+    public void testRankIndexMatchesPicks() {
+        Random random = new Random(11L);
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            players.add(new AIPlayer("P" + i));
+            context.getPlayers().add(players.get(i));
+        }
+        Map<Player, CharacterCard> picks = context.getSelectedCharacters();
+        for (int step = 0; step < 2000; step++) {
+            Player p = players.get(random.nextInt(players.size()));
+            int action = random.nextInt(10);
+            if (action == 0) {
+                picks.remove(p);
+            } else if (action == 1 && context.getPlayers().size() > 3) {
+                context.getPlayers().remove(p);
+            } else if (action == 2 && !context.getPlayers().contains(p)) {
+                context.getPlayers().add(p);
+            } else if (action == 3 && random.nextInt(20) == 0) {
+                picks.clear();
+            } else {
+                int rank = 1 + random.nextInt(CharacterAssignments.MAX_RANK);
+                picks.put(p, new CharacterCard("Character" + rank, rank));
+            }
+
+            List<Player> seated = context.getPlayers();
+            for (int seat = 0; seat < seated.size(); seat++) {
+                CharacterCard c = picks.get(seated.get(seat));
+                assertEquals(c == null ? 0 : c.getRank(), context.getCharacterRank(seat));
+            }
+            for (int rank = 1; rank <= CharacterAssignments.MAX_RANK; rank++) {
+                int first = -1;
+                for (int seat = seated.size() - 1; seat >= 0; seat--) {
+                    if (context.getCharacterRank(seat) == rank) {
+                        first = seat;
+                    }
+                }
+                assertEquals(first, context.getCharacterSeat(rank));
+                Player holder = context.getCharacterHolder(rank);
+                if (holder == null) {
+                    for (CharacterCard c : picks.values()) {
+                        assertNotEquals(rank, c.getRank());
+                    }
+                } else {
+                    assertEquals(rank, picks.get(holder).getRank());
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that characters loaded from a JSON save get their ranks back, so
+     * they are called in the turn phase.
+     */
+    @Test
+    public void testLoadedCharactersHaveRanks() {
+        Player a = new AIPlayer("Player 2");
+        context.getPlayers().add(a);
+        context.getSelectedCharacters().put(a, new CharacterCard("Merchant", 6));
+
+        GameContext loaded = new GameContext(3L);
+        GameState.loadGame(loaded, GameState.saveGame(context));
+        Player a2 = loaded.getPlayer("Player 2");
+        assertNotNull(a2);
+        assertEquals(6, loaded.getSelectedCharacters().get(a2).getRank());
+        assertSame(a2, loaded.getCharacterHolder(6));
+    }
+
+    /**
+     * Tests that the Assassin's and Thief's targets match whether they were
+     * recorded by name, as the console game does, or by rank, as the AI does.
+     */
+    @Test
+    public void testTargetsMatchByNameOrRank() {
+        CharacterCard king = new CharacterCard("King", 4);
+        CharacterCard bishop = new CharacterCard("Bishop", 5);
+
+        context.setAssassinatedCharacter("king");
+        assertTrue(context.isAssassinated(king));
+        assertFalse(context.isAssassinated(bishop));
+        context.setAssassinatedCharacter("4");
+        assertTrue(context.isAssassinated(king));
+        context.setAssassinatedCharacter(null);
+        assertFalse(context.isAssassinated(king));
+
+        context.setRobbedCharacter("5");
+        assertTrue(context.isRobbed(bishop));
+        assertFalse(context.isRobbed(king));
+        assertFalse(context.isRobbed(null));
+
+        // Cards of other names match by name only
+        CharacterCard custom = new CharacterCard("Character2", 2);
+        context.setAssassinatedCharacter("Character2");
+        assertTrue(context.isAssassinated(custom));
+        context.setAssassinatedCharacter("2");
+        assertFalse(context.isAssassinated(custom));
+    }
+}
@@ -0,0 +1,118 @@
+package citadels;
+
+import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.event.GameEventListener;
+import citadels.player.AIPlayer;
+import citadels.player.Player;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests capturing, restoring and forking games with GameSnapshot.
+ */
+public class GameSnapshotTest {
+
+    /**
+     * Tests that restoring a snapshot rewinds a game completely, random sources
+     * included, so the same round plays out the same way again.
+     */
+    @Test
+    public void testRestoreReplaysSameRound() {
+        GameContext ctx = TestGames.newGame(21L);
+        Game.playHeadlessRound(ctx);
+        ctx.getLaboratoryUsage().add("Player 2");
+        ctx.setAssassinatedCharacter("Thief");
+        String before = describe(ctx);
+        GameSnapshot snapshot = GameSnapshot.capture(ctx);
+
+        Game.playHeadlessRound(ctx);
+        String after = describe(ctx);
+        assertNotEquals(before, after);
+
+        snapshot.restore(ctx);
+        assertEquals(before, describe(ctx));
+        Game.playHeadlessRound(ctx);
+        assertEquals(after, describe(ctx));
+    }
+
+    /**
+     * Tests that a forked game starts in the captured state and is independent of the original.
+     */
+    @Test
+    public void testForkIsIndependent() {
+        GameContext ctx = TestGames.newGame(5L);
+        Game.playHeadlessRound(ctx);
+        String original = describe(ctx);
+        GameSnapshot snapshot = GameSnapshot.capture(ctx);
+
+        GameContext fork = snapshot.fork();
+        assertEquals(original, describe(fork));
+        assertNotSame(ctx.getPlayers().get(0), fork.getPlayers().get(0));
+        assertSame(GameEventListener.NONE, fork.getEventListener());
+
+        Game.playHeadlessRound(fork);
+        assertEquals(original, describe(ctx));
+        assertNotEquals(original, describe(fork));
+
+        // Forks of the same snapshot play out the same way
+        GameContext other = snapshot.fork();
+        Game.playHeadlessRound(other);
+        assertEquals(describe(fork), describe(other));
+    }
+
+    /**
+     * Tests that cards outside the catalog survive a snapshot,
+     * and that a snapshot only restores into a game with as many players.
+     */
+    @Test
+    public void testCustomCardsAndPlayerCount() {
+        GameContext ctx = TestGames.newGame(9L);
+        DistrictCard custom = new DistrictCard("Folly", "purple", 9, 1, null);
+        ctx.getPlayers().get(1).getCity().add(custom);
+        GameSnapshot snapshot = GameSnapshot.capture(ctx);
+        assertEquals(4, snapshot.getPlayerCount());
+
+        ctx.getPlayers().get(1).getCity().clear();
+        snapshot.restore(ctx);
+        assertSame(custom, ctx.getPlayers().get(1).getCity().get(ctx.getPlayers().get(1).getCity().size() - 1));
+        assertTrue(ctx.getPlayers().get(1).hasDistrict("folly"));
+
+        GameContext smaller = new GameContext(1L);
+        smaller.getPlayers().add(new AIPlayer("Solo"));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.restore(smaller));
+    }
+
+    /**
+     * Describes everything about a game that a snapshot covers.
+     *
+     * @param ctx the context of the game
+     * @return a description that differs whenever the games differ
+     */
+    private static String describe(GameContext ctx) {
+        StringBuilder sb = new StringBuilder();
+        for (Player p : ctx.getPlayers()) {
+            CharacterCard c = ctx.getSelectedCharacters().get(p);
+            sb.append(p.getName()).append(' ').append(p.getGold())
+                .append(" hand=").append(p.getHand())
+                .append(" city=").append(p.getCity())
+                .append(" banked=").append(p.getBankedCards())
+                .append(" character=").append(c == null ? null : c.getName())
+                .append(" random=").append(((AIPlayer) p).getRandom().getState())
+                .append('\n');
+        }
+        sb.append("deck=");
+        ctx.getDistrictDeck().forEach(d -> sb.append(d.getName()).append(','));
+        sb.append("\ndiscard=").append(ctx.getVisibleDiscard())
+            .append(" mystery=").append(ctx.getMysteryDiscard())
+            .append(" crown=").append(ctx.getCrownPlayerIndex())
+            .append(" assassinated=").append(ctx.getAssassinatedCharacter())
+            .append(" robbed=").append(ctx.getRobbedCharacter())
+            .append(" lab=").append(ctx.getLaboratoryUsage())
+            .append(" phase=").append(ctx.getCurrentPhase())
+            .append(" random=").append(ctx.getRandom().getState())
+            .append(" deckRandom=").append(ctx.getDistrictDeck().getRandom().getState());
+        return sb.toString();
+    }
+}
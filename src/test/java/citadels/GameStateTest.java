@@ -1,12 +1,26 @@
 package citadels;
 
+import citadels.card.CardCatalog;
 import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.player.AIPlayer;
 import citadels.player.HumanPlayer;
 import citadels.player.Player;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.AfterEach;
 
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -91,4 +105,183 @@ public class GameStateTest {
         GameState.setCurrentCharacter(null);
         assertNull(GameState.getCurrentCharacter(), "Current character should be null after clearing");
     }
+
+    /**
+     * Tests saving and loading a game in the binary format.
+     * Verifies that players, cards, characters and the deck order survive the round trip.
+     */
+    @Test
+    public void testBinaryRoundTrip() {
+        GameContext ctx = new GameContext(42L);
+        Player human = new HumanPlayer("Player 1");
+        Player ai = new AIPlayer("Player 2");
+        human.addGold(5);
+        human.drawCard(ctx.getDistrictDeck().draw());
+        ai.getCity().add(ctx.getDistrictDeck().draw());
+        ai.getCity().add(new DistrictCard("Homemade Hut", "green", 1, 1, null));
+        ai.bankCard(ctx.getDistrictDeck().draw());
+        ctx.getPlayers().add(human);
+        ctx.getPlayers().add(ai);
+        ctx.getSelectedCharacters().put(ai, new CharacterCard("Warlord", 8));
+        ctx.setCrownPlayerIndex(1);
+        List<DistrictCard> deck = new ArrayList<>();
+        ctx.getDistrictDeck().forEach(deck::add);
+
+        byte[] data = GameState.saveBinary(ctx);
+        assertTrue(GameState.isBinary(data));
+        assertTrue(data.length < 200, "Binary save should be compact, was " + data.length + " bytes");
+
+        GameContext loaded = new GameContext(7L);
+        GameState.loadBinary(loaded, data);
+
+        assertEquals(42L, loaded.getSeed());
+        assertEquals(1, loaded.getCrownPlayerIndex());
+        assertEquals(2, loaded.getPlayers().size());
+        Player human2 = loaded.getPlayers().get(0);
+        Player ai2 = loaded.getPlayers().get(1);
+        assertTrue(human2.isHuman());
+        assertFalse(ai2.isHuman());
+        assertEquals(5, human2.getGold());
+        assertSame(human.getHand().get(0), human2.getHand().get(0), "Catalog cards load as shared instances");
+        assertEquals(2, ai2.getCity().size());
+        assertEquals("Homemade Hut", ai2.getCity().get(1).getName());
+        assertEquals(1, ai2.getBankedCards().size());
+        assertEquals(8, loaded.getSelectedCharacters().get(ai2).getRank());
+
+        List<DistrictCard> deck2 = new ArrayList<>();
+        loaded.getDistrictDeck().forEach(deck2::add);
+        assertEquals(deck, deck2, "Deck order is kept");
+    }
+
+    /**
+     * Tests that invalid binary saves are rejected without changing the game.
+     * Verifies truncated data, other formats and saves from a different card catalog.
+     */
+    @Test
+    public void testBinaryRejectsInvalidData() {
+        GameContext ctx = new GameContext(1L);
+        ctx.getPlayers().add(new HumanPlayer("Player 1"));
+        byte[] data = GameState.saveBinary(ctx);
+
+        GameContext target = new GameContext(2L);
+        target.getPlayers().add(new AIPlayer("Keeper"));
+        assertThrows(IllegalArgumentException.class,
+            () -> GameState.loadBinary(target, Arrays.copyOf(data, data.length - 1)));
+        assertThrows(IllegalArgumentException.class,
+            () -> GameState.loadBinary(target, "{\"players\":[]}".getBytes()));
+        assertEquals("Keeper", target.getPlayers().get(0).getName());
+
+        CardCatalog other = new CardCatalog(Arrays.asList(new DistrictCard("Tavern", "green", 1, 5, null)));
+        assertThrows(IllegalArgumentException.class, () -> BinarySaveFormat.read(target, data, other));
+    }
+
+    /**
+     * Tests that the streaming JSON writer produces the same document as the tree-based save.
+     */
+    @Test
+    public void testStreamingWriteMatchesTreeSave() throws Exception {
+        GameContext ctx = newSavedGame();
+
+        StringWriter out = new StringWriter();
+        GameState.writeGame(ctx, out);
+
+        JSONObject streamed = (JSONObject) new JSONParser().parse(out.toString());
+        JSONObject tree = (JSONObject) new JSONParser().parse(GameState.saveGame(ctx).toJSONString());
+        assertEquals(tree, streamed);
+    }
+
+    /**
+     * Tests that the streaming JSON reader restores the same game as the tree-based load,
+     * including a file written and read through a file channel.
+     */
+    @Test
+    public void testStreamingReadMatchesTreeLoad() throws Exception {
+        GameContext ctx = newSavedGame();
+        String json = GameState.saveGame(ctx).toJSONString();
+
+        GameContext viaTree = new GameContext(1L);
+        GameState.loadGame(viaTree, (JSONObject) new JSONParser().parse(json));
+        GameContext viaStream = new GameContext(2L);
+        GameState.readGame(viaStream, new StringReader(json));
+        assertSameGame(viaTree, viaStream);
+
+        Path file = Files.createTempFile("citadels", ".json");
+        try {
+            GameState.writeGame(ctx, file);
+            GameContext viaFile = new GameContext(3L);
+            GameState.readGame(viaFile, file);
+            assertSameGame(viaTree, viaFile);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Tests that a truncated or malformed JSON save fails without changing the
+     * game it was loaded into.
+     */
+    @Test
+    public void testStreamingReadFailureLeavesGameUnchanged() throws Exception {
+        GameContext ctx = newSavedGame();
+        String json = GameState.saveGame(ctx).toJSONString();
+        long hash = ctx.getPositionHash();
+        int players = ctx.getPlayers().size();
+        int deck = ctx.getDistrictDeck().size();
+
+        String[] broken = {json.substring(0, json.length() * 3 / 4), json.replace("\"deck\":[", "\"deck\":[}")};
+        for (String save : broken) {
+            assertThrows(ParseException.class, () -> GameState.readGame(ctx, new StringReader(save)));
+            assertEquals(players, ctx.getPlayers().size());
+            assertEquals(deck, ctx.getDistrictDeck().size());
+            assertEquals(hash, ctx.getPositionHash());
+        }
+    }
+
+    /**
+     * Creates a small game in progress to save.
+     *
+     * @return the context of the game
+     */
+    private static GameContext newSavedGame() {
+        GameContext ctx = new GameContext(99L);
+        Player human = new HumanPlayer("Player 1");
+        Player ai = new AIPlayer("Player \"2\"");
+        human.addGold(3);
+        human.drawCard(ctx.getDistrictDeck().draw());
+        ai.getCity().add(ctx.getDistrictDeck().draw());
+        ctx.getPlayers().add(human);
+        ctx.getPlayers().add(ai);
+        ctx.getSelectedCharacters().put(human, new CharacterCard("King", 4));
+        ctx.setCrownPlayerIndex(1);
+        return ctx;
+    }
+
+    /**
+     * Asserts that two contexts hold the same game.
+     *
+     * @param expected the expected game
+     * @param actual the actual game
+     */
+    private static void assertSameGame(GameContext expected, GameContext actual) {
+        assertEquals(expected.getSeed(), actual.getSeed());
+        assertEquals(expected.getCrownPlayerIndex(), actual.getCrownPlayerIndex());
+        assertEquals(expected.getPlayers().size(), actual.getPlayers().size());
+        for (int i = 0; i < expected.getPlayers().size(); i++) {
+            Player e = expected.getPlayers().get(i);
+            Player a = actual.getPlayers().get(i);
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.isHuman(), a.isHuman());
+            assertEquals(e.getGold(), a.getGold());
+            assertEquals(e.getHand(), a.getHand());
+            assertEquals(e.getCity(), a.getCity());
+            CharacterCard ec = expected.getSelectedCharacters().get(e);
+            CharacterCard ac = actual.getSelectedCharacters().get(a);
+            assertEquals(ec == null ? null : ec.getName(), ac == null ? null : ac.getName());
+        }
+        List<DistrictCard> expectedDeck = new ArrayList<>();
+        expected.getDistrictDeck().forEach(expectedDeck::add);
+        List<DistrictCard> actualDeck = new ArrayList<>();
+        actual.getDistrictDeck().forEach(actualDeck::add);
+        assertEquals(expectedDeck, actualDeck);
+    }
 }
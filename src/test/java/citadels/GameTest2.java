@@ -134,9 +134,9 @@ public class GameTest2 {
         
         // Set up a mystery discarded character using reflection
         CharacterCard mysteryCard = new CharacterCard("King", 4);
-        Field mysteryField = Game.class.getDeclaredField("mysteryDiscard");
+        Field mysteryField = GameContext.class.getDeclaredField("mysteryDiscard");
         mysteryField.setAccessible(true);
-        mysteryField.set(null, mysteryCard);
+        mysteryField.set(Game.getDefaultContext(), mysteryCard);
         
         // Call endGame
         Game.endGame();
@@ -187,9 +187,9 @@ public class GameTest2 {
         Game.setRoundInProgress(false);
         
         // Set the assassinated character
-        Field assassinatedField = Game.class.getDeclaredField("assassinatedCharacter");
+        Field assassinatedField = GameContext.class.getDeclaredField("assassinatedCharacter");
         assassinatedField.setAccessible(true);
-        assassinatedField.set(null, "King");
+        assassinatedField.set(Game.getDefaultContext(), "King");
         
         // Prepare input for character selection and turns
         StringBuilder input = new StringBuilder();
@@ -362,9 +362,9 @@ public class GameTest2 {
         Game.setRoundInProgress(false);
         
         // Set the robbed character
-        Field robbedField = Game.class.getDeclaredField("robbedCharacter");
+        Field robbedField = GameContext.class.getDeclaredField("robbedCharacter");
         robbedField.setAccessible(true);
-        robbedField.set(null, "King");
+        robbedField.set(Game.getDefaultContext(), "King");
         
         // Prepare input for character selection and turns
         StringBuilder input = new StringBuilder();
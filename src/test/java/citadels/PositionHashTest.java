@@ -0,0 +1,142 @@
+package citadels;
+
+import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.player.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the incremental Zobrist hashes of players, the deck and the character picks,
+ * and the position hash built from them.
+ */
+public class PositionHashTest {
+
+    /**
+     * Tests that the incrementally kept hash matches that of a fresh copy of the game,
+     * after a round has changed every part of it.
+     */
+    @Test
+    public void testIncrementalHashMatchesCopy() {
+        GameContext ctx = TestGames.newGame(17L);
+        Game.playHeadlessRound(ctx);
+        GameContext fork = GameSnapshot.capture(ctx).fork();
+        assertEquals(ctx.getPositionHash(), fork.getPositionHash());
+
+        GameSnapshot start = GameSnapshot.capture(TestGames.newGame(17L));
+        GameContext replayed = start.fork();
+        long initial = replayed.getPositionHash();
+        Game.playHeadlessRound(replayed);
+        start.restore(replayed);
+        assertEquals(initial, replayed.getPositionHash());
+    }
+
+    /**
+     * Tests that the order of a hand and of the deck do not change the hash.
+     */
+    @Test
+    public void testOrderIndependent() {
+        GameContext ctx = TestGames.newGame(4L);
+        long before = ctx.getPositionHash();
+
+        Collections.reverse(ctx.getPlayers().get(0).getHand());
+        ctx.getDistrictDeck().shuffle();
+        assertEquals(before, ctx.getPositionHash());
+    }
+
+    /**
+     * Tests that the hash changes when a card moves, gold changes hands or a character is picked,
+     * and that copies of the same district do not cancel out.
+     */
+    @Test
+    public void testChangesAreSeen() {
+        GameContext ctx = TestGames.newGame(6L);
+        Player first = ctx.getPlayers().get(0);
+        Player second = ctx.getPlayers().get(1);
+        long before = ctx.getPositionHash();
+
+        DistrictCard card = first.getHand().remove(0);
+        long removed = ctx.getPositionHash();
+        assertNotEquals(before, removed);
+        second.getHand().add(card);
+        assertNotEquals(before, ctx.getPositionHash());
+        second.getHand().remove(second.getHand().size() - 1);
+        first.getHand().add(card);
+        assertEquals(before, ctx.getPositionHash());
+
+        first.addGold(1);
+        assertNotEquals(before, ctx.getPositionHash());
+        first.spendGold(1);
+        assertEquals(before, ctx.getPositionHash());
+
+        CharacterCard king = Game.getCharacterPool().get(3);
+        ctx.getSelectedCharacters().put(first, king);
+        long picked = ctx.getPositionHash();
+        assertNotEquals(before, picked);
+        ctx.getSelectedCharacters().put(second, king);
+        assertNotEquals(picked, ctx.getPositionHash());
+        ctx.getSelectedCharacters().clear();
+        assertEquals(before, ctx.getPositionHash());
+
+        DistrictCard copy = new DistrictCard(card.getName(), card.getColor(), card.getCost(), 1, null);
+        first.getCity().add(card);
+        long once = ctx.getPositionHash();
+        first.getCity().add(copy);
+        assertNotEquals(once, ctx.getPositionHash());
+        assertNotEquals(before, ctx.getPositionHash());
+    }
+
+    /**
+     * Tests that the Assassin's and Thief's targets hash the same whether they were
+     * recorded by name, as the console game does, or by rank, as the AI does.
+     */
+    @Test
+    public void testTargetsHashByRank() {
+        GameContext byName = TestGames.newGame(8L);
+        GameContext byRank = TestGames.newGame(8L);
+        long before = byName.getPositionHash();
+        assertEquals(before, byRank.getPositionHash());
+
+        byName.setAssassinatedCharacter("Magician");
+        byRank.setAssassinatedCharacter("3");
+        assertNotEquals(before, byName.getPositionHash());
+        assertEquals(byName.getPositionHash(), byRank.getPositionHash());
+
+        byName.setRobbedCharacter("merchant");
+        byRank.setRobbedCharacter("6");
+        assertEquals(byName.getPositionHash(), byRank.getPositionHash());
+
+        byRank.setRobbedCharacter("7");
+        assertNotEquals(byName.getPositionHash(), byRank.getPositionHash());
+    }
+
+    /**
+     * Tests that the views of the character picks cannot change the picks behind
+     * the hash's back: edits through them either fail or go through the map itself.
+     */
+    @Test
+    public void testSelectedCharacterViews() {
+        GameContext ctx = TestGames.newGame(2L);
+        long before = ctx.getPositionHash();
+        Map<Player, CharacterCard> selected = ctx.getSelectedCharacters();
+        selected.put(ctx.getPlayers().get(0), Game.getCharacterPool().get(0));
+
+        assertThrows(UnsupportedOperationException.class,
+            () -> selected.entrySet().iterator().next().setValue(Game.getCharacterPool().get(1)));
+        assertThrows(UnsupportedOperationException.class, () -> {
+            Iterator<Player> it = selected.keySet().iterator();
+            it.next();
+            it.remove();
+        });
+        assertNotEquals(before, ctx.getPositionHash());
+
+        selected.values().clear();
+        assertTrue(selected.isEmpty());
+        assertEquals(before, ctx.getPositionHash());
+    }
+}
@@ -0,0 +1,60 @@
+package citadels;
+
+import citadels.event.GameEventListener;
+import citadels.player.AIPlayer;
+import citadels.player.Player;
+import citadels.util.GameRandom;
+
+import java.util.function.BiFunction;
+
+/**
+ * Builds the games the tests play: dealt, seeded games of AI players named
+ * "Player 1", "Player 2" and so on, which report no events.
+ */
+public final class TestGames {
+
+    private TestGames() {
+    }
+
+    /**
+     * Creates a dealt four-player all-AI game.
+     *
+     * @param seed the seed of the game
+     * @return the context of the game
+     */
+    public static GameContext newGame(long seed) {
+        return newGame(seed, 4);
+    }
+
+    /**
+     * Creates a dealt all-AI game.
+     *
+     * @param seed the seed of the game
+     * @param playerCount the number of players
+     * @return the context of the game
+     */
+    public static GameContext newGame(long seed, int playerCount) {
+        return newGame(seed, playerCount, AIPlayer::new);
+    }
+
+    /**
+     * Creates a dealt game with a chosen kind of player in the first seat and AI
+     * players in the others. Every player gets its own split of the game's random source.
+     *
+     * @param seed the seed of the game
+     * @param playerCount the number of players
+     * @param firstSeat creates the first player from its name and random source
+     * @return the context of the game
+     */
+    public static GameContext newGame(long seed, int playerCount,
+                                      BiFunction<String, GameRandom, Player> firstSeat) {
+        GameContext ctx = new GameContext(seed);
+        ctx.setEventListener(GameEventListener.NONE);
+        ctx.getPlayers().add(firstSeat.apply("Player 1", ctx.getRandom().split()));
+        for (int i = 2; i <= playerCount; i++) {
+            ctx.getPlayers().add(new AIPlayer("Player " + i, ctx.getRandom().split()));
+        }
+        new Game(ctx).dealInitialCards();
+        return ctx;
+    }
+}
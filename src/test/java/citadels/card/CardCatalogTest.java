@@ -0,0 +1,109 @@
+package citadels.card;
+
+import citadels.GameContext;
+import citadels.GameState;
+import citadels.player.AIPlayer;
+import citadels.util.Deck;
+import citadels.util.GameRandom;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CardCatalog.
+ * Tests dense id assignment, shared card instances, conversion to and
+ * from id arrays, and resolving saved cards back to catalogued instances.
+ */
+public class CardCatalogTest {
+
+    /**
+     * Tests that the default catalog is loaded once and numbers its districts densely.
+     */
+    @Test
+    public void testDefaultCatalogIds() {
+        CardCatalog catalog = CardCatalog.getDefault();
+        assertSame(catalog, CardCatalog.getDefault());
+        assertTrue(catalog.size() > 0);
+
+        int copies = 0;
+        for (int id = 0; id < catalog.size(); id++) {
+            DistrictCard card = catalog.get(id);
+            assertEquals(id, card.getId());
+            assertEquals(id, catalog.idOf(card));
+            assertSame(card, catalog.lookup(card.getName()));
+            copies += card.getQuantity();
+        }
+        assertEquals(copies, catalog.getDeckSize());
+        assertEquals(-1, catalog.idOf("No Such District"));
+        assertEquals(-1, catalog.idOf(new DistrictCard("Temple", "blue", 1, 1, null)));
+    }
+
+    /**
+     * Tests that a new deck holds every copy of every district as shared instances.
+     */
+    @Test
+    public void testNewDeckSharesInstances() {
+        CardCatalog catalog = CardCatalog.getDefault();
+        Deck<DistrictCard> deck = catalog.newDeck(new GameRandom(3));
+        assertEquals(catalog.getDeckSize(), deck.size());
+
+        int[] counts = new int[catalog.size()];
+        for (DistrictCard card : deck) {
+            assertSame(catalog.get(card.getId()), card);
+            counts[card.getId()]++;
+        }
+        for (int id = 0; id < catalog.size(); id++) {
+            assertEquals(catalog.get(id).getQuantity(), counts[id]);
+        }
+    }
+
+    /**
+     * Tests converting cards to ids and back.
+     */
+    @Test
+    public void testIdRoundTrip() {
+        CardCatalog catalog = CardCatalog.getDefault();
+        List<DistrictCard> cards = Arrays.asList(catalog.get(2), catalog.get(0), catalog.get(2));
+        int[] ids = catalog.toIds(cards);
+        assertArrayEquals(new int[] {2, 0, 2}, ids);
+        assertEquals(cards, catalog.fromIds(ids, ids.length));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> catalog.toIds(Arrays.asList(new DistrictCard("Custom", "red", 1, 1, null))));
+    }
+
+    /**
+     * Tests that loading a saved game restores catalogued cards with their
+     * quantity and ability, and keeps unknown cards as stand-alone cards.
+     */
+    @Test
+    public void testLoadGameResolvesCatalogCards() {
+        CardCatalog catalog = CardCatalog.getDefault();
+        DistrictCard purple = null;
+        for (DistrictCard card : catalog.getDistricts()) {
+            if (card.isPurple() && card.getAbility() != null) {
+                purple = card;
+                break;
+            }
+        }
+        assertNotNull(purple);
+
+        GameContext ctx = new GameContext(new Deck<>());
+        AIPlayer p = new AIPlayer("Player 2");
+        p.drawCard(purple);
+        p.drawCard(new DistrictCard("Custom", "red", 4, 1, null));
+        ctx.getPlayers().add(p);
+
+        GameContext restored = new GameContext(new Deck<>());
+        GameState.loadGame(restored, GameState.saveGame(ctx));
+
+        List<DistrictCard> hand = restored.getPlayers().get(0).getHand();
+        assertSame(purple, hand.get(0));
+        assertEquals(purple.getAbility(), hand.get(0).getAbility());
+        assertEquals(-1, hand.get(1).getId());
+        assertEquals(4, hand.get(1).getCost());
+    }
+}
@@ -0,0 +1,70 @@
+package citadels.card;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the CharacterType enum.
+ * Tests the character table and looking characters up by rank, name and recorded key.
+ */
+public class CharacterTypeTest {
+
+    /**
+     * Tests that the characters are in rank order and can be found by rank.
+     */
+    @Test
+    public void testRanks() {
+        CharacterType[] types = CharacterType.values();
+        for (int i = 0; i < types.length; i++) {
+            assertEquals(i + 1, types[i].getRank());
+            assertSame(types[i], CharacterType.fromRank(i + 1));
+        }
+        assertNull(CharacterType.fromRank(0));
+        assertNull(CharacterType.fromRank(9));
+    }
+
+    /**
+     * Tests the income, bonus, extra cards, build limit and School of Magic rule of the characters.
+     */
+    @Test
+    public void testTable() {
+        assertEquals(DistrictColor.YELLOW, CharacterType.KING.getIncomeColor());
+        assertEquals(DistrictColor.BLUE, CharacterType.BISHOP.getIncomeColor());
+        assertEquals(DistrictColor.GREEN, CharacterType.MERCHANT.getIncomeColor());
+        assertEquals(DistrictColor.RED, CharacterType.WARLORD.getIncomeColor());
+        assertNull(CharacterType.ARCHITECT.getIncomeColor());
+        assertEquals(1, CharacterType.MERCHANT.getBonusGold());
+        assertEquals(2, CharacterType.ARCHITECT.getExtraCards());
+        assertEquals(3, CharacterType.ARCHITECT.getBuildLimit());
+        assertEquals(1, CharacterType.WARLORD.getBuildLimit());
+        assertTrue(CharacterType.KING.isSchoolPaidAtConsole());
+        assertFalse(CharacterType.BISHOP.isSchoolPaidAtConsole());
+    }
+
+    /**
+     * Tests looking characters up by name and by the keys the game records targets with.
+     */
+    @Test
+    public void testLookup() {
+        assertSame(CharacterType.MAGICIAN, CharacterType.fromName("mAgIcIaN"));
+        assertNull(CharacterType.fromName("Jester"));
+        assertNull(CharacterType.fromName(null));
+
+        assertSame(CharacterType.KING, CharacterType.parse("King"));
+        assertSame(CharacterType.KING, CharacterType.parse("4"));
+        assertNull(CharacterType.parse("9"));
+        assertNull(CharacterType.parse("44"));
+        assertNull(CharacterType.parse(null));
+    }
+
+    /**
+     * Tests that character cards know their type from their name.
+     */
+    @Test
+    public void testCardType() {
+        assertSame(CharacterType.WARLORD, new CharacterCard("Warlord", 8).getType());
+        assertSame(CharacterType.THIEF, new CharacterCard("thief", 0).getType());
+        assertNull(new CharacterCard("Character2", 2).getType());
+    }
+}
@@ -0,0 +1,66 @@
+package citadels.card;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the DistrictColor enum.
+ * Tests parsing color names and the int-bitmask color set operations.
+ */
+public class DistrictColorTest {
+
+    /**
+     * Tests looking up colors by name, ignoring case.
+     */
+    @Test
+    public void testFromName() {
+        assertEquals(DistrictColor.PURPLE, DistrictColor.fromName("PuRpLe"));
+        assertEquals(DistrictColor.YELLOW, DistrictColor.fromName("yellow"));
+        assertNull(DistrictColor.fromName("orange"));
+        assertNull(DistrictColor.fromName(null));
+        assertEquals("green", DistrictColor.GREEN.getLabel());
+    }
+
+    /**
+     * Tests that every color has its own bit and that cards expose it.
+     */
+    @Test
+    public void testBits() {
+        int all = 0;
+        for (DistrictColor c : DistrictColor.values()) {
+            assertEquals(1, Integer.bitCount(c.bit()));
+            assertEquals(0, all & c.bit());
+            all |= c.bit();
+        }
+        assertEquals(DistrictColor.ALL, all);
+
+        DistrictCard temple = new DistrictCard("Temple", "BLUE", 1, 1, null);
+        assertEquals(DistrictColor.BLUE, temple.getDistrictColor());
+        assertEquals(DistrictColor.BLUE.bit(), temple.getColorBit());
+        assertEquals(0, new DistrictCard("Odd", "orange", 1, 1, null).getColorBit());
+    }
+
+    /**
+     * Tests building a mask from districts and checking it.
+     */
+    @Test
+    public void testMaskOperations() {
+        int mask = DistrictColor.maskOf(Arrays.asList(
+            new DistrictCard("Temple", "blue", 1, 1, null),
+            new DistrictCard("Church", "blue", 2, 1, null),
+            new DistrictCard("Market", "green", 2, 1, null),
+            new DistrictCard("Manor", "yellow", 3, 1, null),
+            new DistrictCard("Prison", "red", 2, 1, null)));
+
+        assertEquals(4, DistrictColor.count(mask));
+        assertTrue(DistrictColor.contains(mask, DistrictColor.RED));
+        assertFalse(DistrictColor.contains(mask, DistrictColor.PURPLE));
+        assertFalse(DistrictColor.isComplete(mask));
+        assertTrue(DistrictColor.isComplete(mask | DistrictColor.PURPLE.bit()));
+        assertEquals(0, DistrictColor.maskOf(Collections.<DistrictCard>emptyList()));
+    }
+}
@@ -1,6 +1,8 @@
 package citadels.card;
 
 import citadels.util.Deck;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.lang.reflect.Field;
 import static org.junit.jupiter.api.Assertions.*;
@@ -10,6 +12,32 @@ import static org.junit.jupiter.api.Assertions.*;
  * Tests loading district cards from TSV file, including error cases.
  */
 public class DistrictDeckLoaderTest {
+    private String savedCardsFile;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        savedCardsFile = (String) cardsFileField().get(null);
+    }
+
+    /**
+     * Puts the card list back even when a test fails before restoring it,
+     * so later tests in the same run still play with the full deck.
+     */
+    @AfterEach
+    public void tearDown() throws Exception {
+        cardsFileField().set(null, savedCardsFile);
+    }
+
+    /**
+     * Gets the field holding the card list resource.
+     *
+     * @return the accessible field
+     */
+    private static Field cardsFileField() throws NoSuchFieldException {
+        Field field = DistrictDeckLoader.class.getDeclaredField("CARDS_FILE");
+        field.setAccessible(true);
+        return field;
+    }
 
     /**
      * Tests that the constructor can be called.
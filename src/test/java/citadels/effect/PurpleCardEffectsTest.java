@@ -1,6 +1,7 @@
 package citadels.effect;
 
 import citadels.card.DistrictCard;
+import citadels.card.DistrictColor;
 import citadels.player.HumanPlayer;
 import citadels.player.Player;
 import citadels.player.AIPlayer;
@@ -357,4 +358,21 @@ public class PurpleCardEffectsTest {
         target.getCity().add(new DistrictCard("Market", "green", 2, 1, null));
         assertEquals(4, PurpleCardEffects.destroyCost(target, victim));
     }
+
+    /**
+     * Tests income district counting.
+     * Verifies that the School of Magic pays income for every color.
+     */
+    @Test
+    public void testIncomeDistricts() {
+        player.getCity().add(new DistrictCard("Manor", "yellow", 3, 1, null));
+        player.getCity().add(new DistrictCard("Temple", "blue", 1, 1, null));
+        assertEquals(1, PurpleCardEffects.incomeDistricts(player, DistrictColor.YELLOW));
+        assertEquals(0, PurpleCardEffects.incomeDistricts(player, DistrictColor.RED));
+
+        player.getCity().add(new DistrictCard("School Of Magic", "purple", 6, 1, null));
+        assertEquals(2, PurpleCardEffects.incomeDistricts(player, DistrictColor.YELLOW));
+        assertEquals(2, PurpleCardEffects.incomeDistricts(player, DistrictColor.BLUE));
+        assertEquals(1, PurpleCardEffects.incomeDistricts(player, DistrictColor.RED));
+    }
 }
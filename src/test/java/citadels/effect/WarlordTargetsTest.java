@@ -0,0 +1,193 @@
+package citadels.effect;
+
+import citadels.GameContext;
+import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.player.AIPlayer;
+import citadels.player.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for WarlordTargets.
+ * Tests the destroyable cost masks kept by each city and the Warlord's choice
+ * of victim against the Keep, Great Wall and Bishop.
+ */
+public class WarlordTargetsTest {
+
+    private GameContext ctx;
+    private Player warlord;
+    private Player first;
+    private Player second;
+
+    /**
+     * Sets up a three player game with the first player as the Warlord.
+     */
+    @BeforeEach
+    public void setUp() {
+        ctx = new GameContext(1L);
+        warlord = new AIPlayer("Warlord");
+        first = new AIPlayer("First");
+        second = new AIPlayer("Second");
+        ctx.getPlayers().add(warlord);
+        ctx.getPlayers().add(first);
+        ctx.getPlayers().add(second);
+        ctx.getSelectedCharacters().put(warlord, new CharacterCard("Warlord", 8));
+        ctx.getSelectedCharacters().put(first, new CharacterCard("King", 4));
+        ctx.getSelectedCharacters().put(second, new CharacterCard("Merchant", 6));
+    }
+
+    /**
+     * Tests that the cost mask follows districts being built, destroyed and cleared,
+     * and leaves out the Keep and Great Wall.
+     */
+    @Test
+    public void testDestroyableCostsFollowCity() {
+        assertEquals(0L, first.getDestroyableCosts());
+        first.getCity().add(district("Temple", 2));
+        first.getCity().add(district("Castle", 4));
+        first.getCity().add(district("Manor", 4));
+        first.getCity().add(district("Keep", 3));
+        first.getCity().add(district("Great Wall", 6));
+        assertEquals((1L << 2) | (1L << 4), first.getDestroyableCosts());
+        assertTrue(first.hasGreatWall());
+
+        first.getCity().remove(1);
+        assertEquals((1L << 2) | (1L << 4), first.getDestroyableCosts());
+        first.getCity().remove(1);
+        assertEquals(1L << 2, first.getDestroyableCosts());
+
+        first.getCity().clear();
+        assertEquals(0L, first.getDestroyableCosts());
+        assertFalse(first.hasGreatWall());
+    }
+
+    /**
+     * Tests that the most expensive affordable district is chosen, with ties
+     * going to the player seated first and never to the Warlord himself.
+     */
+    @Test
+    public void testFindsMostExpensiveAffordable() {
+        warlord.getCity().add(district("Palace", 5));
+        first.getCity().add(district("Temple", 2));
+        first.getCity().add(district("Castle", 4));
+        second.getCity().add(district("Manor", 3));
+        second.getCity().add(district("Fortress", 5));
+        second.getCity().add(district("Watchtower", 4));
+
+        assertSame(second, WarlordTargets.findVictim(ctx, warlord, 4));
+        assertEquals(1, WarlordTargets.findDistrict(second, 4));
+
+        assertSame(first, WarlordTargets.findVictim(ctx, warlord, 3));
+        assertEquals(1, WarlordTargets.findDistrict(first, 3));
+
+        assertSame(first, WarlordTargets.findVictim(ctx, warlord, 1));
+        assertEquals(0, WarlordTargets.findDistrict(first, 1));
+        assertNull(WarlordTargets.findVictim(ctx, warlord, -1));
+    }
+
+    /**
+     * Tests that the Great Wall makes the owner's districts cost 1 more to destroy.
+     */
+    @Test
+    public void testGreatWallSurcharge() {
+        first.getCity().add(district("Castle", 4));
+        first.getCity().add(district("Great Wall", 6));
+        second.getCity().add(district("Manor", 3));
+
+        assertSame(second, WarlordTargets.findVictim(ctx, warlord, 3));
+        assertEquals(-1, WarlordTargets.findDistrict(first, 3));
+        assertSame(first, WarlordTargets.findVictim(ctx, warlord, 4));
+        assertEquals(0, WarlordTargets.findDistrict(first, 4));
+    }
+
+    /**
+     * Tests that the Bishop protects his city unless he was assassinated,
+     * whether the assassination was recorded by name or by rank.
+     */
+    @Test
+    public void testBishopShield() {
+        ctx.getSelectedCharacters().put(first, new CharacterCard("Bishop", 5));
+        first.getCity().add(district("Castle", 4));
+        second.getCity().add(district("Manor", 3));
+
+        assertTrue(WarlordTargets.isShielded(ctx, first));
+        assertSame(second, WarlordTargets.findVictim(ctx, warlord, 10));
+
+        ctx.setAssassinatedCharacter("Bishop");
+        assertFalse(WarlordTargets.isShielded(ctx, first));
+        assertSame(first, WarlordTargets.findVictim(ctx, warlord, 10));
+
+        ctx.setAssassinatedCharacter("5");
+        assertFalse(WarlordTargets.isShielded(ctx, first));
+
+        ctx.setAssassinatedCharacter("6");
+        assertTrue(WarlordTargets.isShielded(ctx, first));
+        assertFalse(WarlordTargets.isShielded(ctx, second));
+    }
+
+    /**
+     * Tests the indexed query against a scan of every district in random cities.
+     */
+    @Test
+    public void testMatchesFullScan() {
+        Random random = new Random(42L);
+        String[] names = {"Temple", "Castle", "Manor", "Keep", "Great Wall", "Market"};
+        for (int trial = 0; trial < 500; trial++) {
+            for (Player p : ctx.getPlayers()) {
+                p.getCity().clear();
+                int size = random.nextInt(6);
+                for (int i = 0; i < size; i++) {
+                    p.getCity().add(district(names[random.nextInt(names.length)], 1 + random.nextInt(6)));
+                }
+                if (!p.getCity().isEmpty() && random.nextBoolean()) {
+                    p.getCity().remove(random.nextInt(p.getCity().size()));
+                }
+            }
+            int gold = random.nextInt(8);
+
+            Player victim = WarlordTargets.findVictim(ctx, warlord, gold);
+            DistrictCard expected = scan(gold);
+            if (expected == null) {
+                assertNull(victim);
+            } else {
+                assertNotNull(victim);
+                int index = WarlordTargets.findDistrict(victim, gold);
+                assertSame(expected, victim.getCity().get(index));
+            }
+        }
+    }
+
+    /**
+     * Finds the district the Warlord should destroy by looking at every district.
+     *
+     * @param gold the gold the Warlord may spend
+     * @return the district, or null if there is none
+     */
+    private DistrictCard scan(int gold) {
+        DistrictCard best = null;
+        for (Player p : ctx.getPlayers()) {
+            if (p == warlord) {
+                continue;
+            }
+            List<DistrictCard> city = p.getCity();
+            for (DistrictCard d : city) {
+                if (!PurpleCardEffects.isProtectedFromWarlord(d, p)
+                        && PurpleCardEffects.getWarlordDestructionCost(d, p) <= gold
+                        && (best == null || d.getCost() > best.getCost())) {
+                    best = d;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static DistrictCard district(String name, int cost) {
+        return new DistrictCard(name, "red", cost, 1, null);
+    }
+}
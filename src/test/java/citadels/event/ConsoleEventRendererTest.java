@@ -0,0 +1,123 @@
+package citadels.event;
+
+import citadels.Game;
+import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.player.AIPlayer;
+import citadels.player.HumanPlayer;
+import citadels.player.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ConsoleEventRenderer.
+ * Tests that events are printed as the classic console text.
+ */
+public class ConsoleEventRendererTest {
+    private ByteArrayOutputStream buffer;
+    private ConsoleEventRenderer renderer;
+    private Player ai;
+    private Player human;
+
+    @BeforeEach
+    public void setUp() {
+        buffer = new ByteArrayOutputStream();
+        renderer = new ConsoleEventRenderer(new PrintStream(buffer, true));
+        ai = new AIPlayer("Player 2");
+        human = new HumanPlayer("Player 1");
+    }
+
+    /**
+     * Gets the text printed so far with platform line separators normalised.
+     *
+     * @return the printed text
+     */
+    private String output() {
+        return buffer.toString().replace(System.lineSeparator(), "\n");
+    }
+
+    /**
+     * Tests the messages of the character selection phase.
+     * Verifies that only AI players' choices are announced.
+     */
+    @Test
+    public void testSelectionMessages() {
+        CharacterCard king = new CharacterCard("King", 4);
+        renderer.onCharacterRemoved(king, false);
+        renderer.onCharacterRemoved(king, true);
+        renderer.onCharacterChoosing(ai);
+        renderer.onCharacterChosen(ai, king);
+        renderer.onCharacterChosen(human, king);
+
+        assertEquals("A mystery character was removed.\n"
+            + "King was removed.\n"
+            + "Player 2 is choosing a character.\n"
+            + "Player 2 chose a character.\n", output());
+    }
+
+    /**
+     * Tests the messages of an AI turn, including the build narration.
+     */
+    @Test
+    public void testTurnMessages() {
+        CharacterCard warlord = new CharacterCard("Warlord", 8);
+        DistrictCard temple = new DistrictCard("Temple", "blue", 1, 1, null);
+        ai.addGold(3);
+        renderer.onCharacterCalled(8, warlord, ai);
+        renderer.onGoldTaken(ai, 2);
+        renderer.onDistrictBuilt(ai, temple);
+        renderer.onDistrictDestroyed(ai, human, temple, 0);
+        renderer.onTurnEnded(ai, warlord);
+
+        assertEquals("8: Warlord\n"
+            + "Player 2 is the Warlord\n"
+            + "Player 2 took 2 gold (has 3)\n"
+            + "Built: Temple\n"
+            + "Player 2 built Temple [blue1]. Remaining gold=3\n"
+            + "Player 2 destroyed Player 1's Temple for 0 gold.\n"
+            + "Player 2 ends turn as 8: Warlord\n", output());
+    }
+
+    /**
+     * Tests the messages of final scoring and the end of the game.
+     */
+    @Test
+    public void testScoringMessages() {
+        renderer.onScoringStarted();
+        renderer.onBonusScored(ai, ScoreBonus.ALL_COLORS, 3);
+        renderer.onBonusScored(ai, ScoreBonus.MUSEUM, 2);
+        renderer.onScoreComputed(ai, 10, 5, 15);
+        renderer.onGameEnded(ai, Arrays.asList(ai), null);
+
+        assertEquals("\n--- Final Scores ---\n"
+            + "Player 2 has all district colors (+3 bonus)\n"
+            + "Bonus +2 for Museum (banked cards)\n"
+            + "Player 2: 15 points (base=10, bonus=5)\n"
+            + "\nWinner: Player 2\n"
+            + "Mystery discarded character was: Unknown\n"
+            + "\nCongratulations, Player 2 wins the game!\n"
+            + "Thanks for playing Citadels!\n", output());
+    }
+
+    /**
+     * Tests that the default renderer follows System.out when it is redirected.
+     */
+    @Test
+    public void testFollowsSystemOut() {
+        PrintStream original = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true));
+        try {
+            new ConsoleEventRenderer().onPhaseStarted(Game.GamePhase.SELECTION);
+        } finally {
+            System.setOut(original);
+        }
+        assertTrue(captured.toString().contains("SELECTION PHASE"));
+    }
+}
@@ -0,0 +1,135 @@
+package citadels.jfr;
+
+import citadels.CommandHandler;
+import citadels.Game;
+import citadels.GameContext;
+import citadels.GameSnapshot;
+import citadels.TestGames;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests that a recording with the bundled settings captures the events of a played round
+ * and of saving and loading it.
+ */
+public class FlightEventsTest {
+
+    /**
+     * Tests the events recorded while a round is played, saved and loaded.
+     * Verifies:
+     * 1. One round and one character selection are recorded, with the game's seed
+     * 2. Every turn played is recorded with its character and player, and every AI choice
+ *    of a character or a turn as a decision
+     * 3. Saves and loads are recorded with their outcome
+     *
+     * @param dir a temporary directory
+     * @throws Exception if the recording cannot be written or read
+     */
+    @Test
+    public void testRoundRecorded(@TempDir Path dir) throws Exception {
+        assumeTrue(JfrSupport.AVAILABLE);
+        GameContext ctx = TestGames.newGame(21L);
+        ctx.setOutput(new PrintStream(new ByteArrayOutputStream()));
+        ctx.setInput(() -> "t");
+        Path save = dir.resolve("game.bin");
+        Deque<String> lines = new ArrayDeque<>(Arrays.asList(
+            "savegame --format=bin " + save, "loadgame " + save, "loadgame " + dir.resolve("missing.json"), "t"));
+
+        Path file = dir.resolve("game.jfr");
+        Map<String, String> settings = new HashMap<>(JfrSupport.loadSettings().getSettings());
+        settings.put("citadels.AIDecision#threshold", "0 ms");
+        try (Recording recording = new Recording(settings)) {
+            recording.start();
+            Game.playRound(ctx);
+            CommandHandler.run(ctx, ctx.getPlayers().get(0), lines::poll);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(e -> e.getEventType().getName().startsWith("citadels.")
+                && (!e.hasField("game") || e.getLong("game") == 21L))
+            .collect(Collectors.toList());
+
+        assertEquals(1, count(events, "citadels.Round"));
+        assertEquals(1, count(events, "citadels.CharacterSelection"));
+        RecordedEvent round = first(events, "citadels.Round");
+        assertEquals(4, round.getInt("players"));
+        assertEquals(ctx.isGameOver(), round.getBoolean("gameOver"));
+
+        long turns = count(events, "citadels.Turn");
+        assertTrue(turns >= 1 && turns <= 4, "Turns recorded: " + turns);
+        RecordedEvent turn = first(events, "citadels.Turn");
+        assertTrue(turn.getInt("rank") >= 1 && turn.getInt("rank") <= 8);
+        assertTrue(turn.getString("player").startsWith("Player "));
+        assertFalse(turn.getBoolean("human"));
+
+        List<RecordedEvent> decisions = events.stream()
+            .filter(e -> e.getEventType().getName().equals("citadels.AIDecision")).collect(Collectors.toList());
+        assertEquals(4, decisions.stream().filter(e -> "character".equals(e.getString("decision"))).count());
+        long turnDecisions = decisions.stream().filter(e -> "turn".equals(e.getString("decision"))).count();
+        assertTrue(turnDecisions >= 1 && turnDecisions <= turns);
+
+        RecordedEvent saved = first(events, "citadels.Save");
+        assertEquals("game", saved.getString("content"));
+        assertTrue(saved.getBoolean("succeeded"));
+        List<RecordedEvent> loads = events.stream()
+            .filter(e -> e.getEventType().getName().equals("citadels.Load")).collect(Collectors.toList());
+        assertEquals(2, loads.size());
+        assertTrue(loads.get(0).getBoolean("succeeded"));
+        assertFalse(loads.get(1).getBoolean("succeeded"));
+    }
+
+    /**
+     * Tests that games played out to look ahead emit no events.
+     */
+    @Test
+    public void testForksNotRecorded() {
+        GameContext ctx = TestGames.newGame(3L);
+        assertTrue(ctx.isFlightRecorded());
+        GameContext fork = GameSnapshot.capture(ctx).fork();
+        assertFalse(fork.isFlightRecorded());
+        assertFalse(JfrSupport.records(fork));
+        assertEquals(JfrSupport.AVAILABLE, JfrSupport.records(ctx));
+    }
+
+    /**
+     * Counts the events of a type.
+     *
+     * @param events the recorded events
+     * @param name the name of the event type
+     * @return the number of events of that type
+     */
+    private static long count(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).count();
+    }
+
+    /**
+     * Gets the first event of a type.
+     *
+     * @param events the recorded events
+     * @param name the name of the event type
+     * @return the first event of that type
+     */
+    private static RecordedEvent first(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).findFirst()
+            .orElseThrow(() -> new AssertionError("No " + name + " event"));
+    }
+}
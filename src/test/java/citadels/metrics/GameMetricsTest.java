@@ -0,0 +1,77 @@
+package citadels.metrics;
+
+import citadels.Game;
+import citadels.GameContext;
+import citadels.GameState;
+import citadels.TestGames;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the engine times its phases into the metrics of a game, and only when it has some.
+ */
+public class GameMetricsTest {
+
+    /**
+     * Tests the counts recorded while rounds of an all-AI game are played, saved and loaded.
+     * Verifies:
+     * 1. Every round records one character selection and one AI choice per player
+     * 2. Every character's turn is counted both overall and under its rank
+     * 3. Saving and loading are timed
+     * 4. The report lists the recorded phases
+     */
+    @Test
+    public void testPhasesRecorded() {
+        GameContext ctx = TestGames.newGame(5L);
+        GameMetrics metrics = new GameMetrics();
+        ctx.setMetrics(metrics);
+
+        for (int round = 0; round < 3; round++) {
+            Game.playHeadlessRound(ctx);
+        }
+
+        assertEquals(3, metrics.get(GameMetrics.Phase.CHARACTER_SELECTION).getCount());
+        assertEquals(12, metrics.get(GameMetrics.Phase.AI_CHARACTER_CHOICE).getCount());
+        long ranks = 0;
+        for (int rank = 1; rank <= 8; rank++) {
+            ranks += metrics.getTurn(rank).getCount();
+        }
+        assertEquals(metrics.get(GameMetrics.Phase.TURN).getCount(), ranks);
+        assertTrue(ranks >= 3 * 3, "Expected a turn for nearly every player, got " + ranks);
+        assertTrue(metrics.get(GameMetrics.Phase.AI_TURN).getCount() <= ranks);
+
+        byte[] saved = GameState.saveBinary(ctx);
+        GameState.loadBinary(ctx, saved);
+        assertEquals(1, metrics.get(GameMetrics.Phase.SAVE).getCount());
+        assertEquals(1, metrics.get(GameMetrics.Phase.LOAD).getCount());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        metrics.printReport(new PrintStream(out, true));
+        String report = out.toString();
+        assertTrue(report.contains("selection"));
+        assertTrue(report.contains("ai.turn"));
+        assertFalse(report.contains("scoring"));
+
+        metrics.reset();
+        assertEquals(0, metrics.get(GameMetrics.Phase.TURN).getCount());
+        assertThrows(IllegalArgumentException.class, () -> metrics.getTurn(9));
+        assertThrows(IllegalArgumentException.class,
+            () -> metrics.printEvery(new PrintStream(new ByteArrayOutputStream()), 0, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Tests that a game without metrics plays the same without recording anywhere.
+     */
+    @Test
+    public void testNoMetricsByDefault() {
+        GameContext ctx = TestGames.newGame(5L);
+        assertNull(ctx.getMetrics());
+        Game.playHeadlessRound(ctx);
+        assertNull(ctx.getMetrics());
+    }
+}
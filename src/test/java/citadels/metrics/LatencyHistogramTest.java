@@ -0,0 +1,69 @@
+package citadels.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the buckets, percentiles and reset of LatencyHistogram.
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Tests that every value falls into a bucket whose bound is within the promised precision,
+     * and that buckets grow with the values.
+     */
+    @Test
+    public void testBucketPrecision() {
+        int previous = -1;
+        for (long value = 0; value < 100_000; value += 7) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(bucket >= previous);
+            previous = bucket;
+            long high = LatencyHistogram.highestInBucket(bucket);
+            assertTrue(high >= value);
+            assertTrue(high - value <= value / LatencyHistogram.SUB_BUCKETS, "Value " + value + " reported as " + high);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestInBucket(LatencyHistogram.bucket(Long.MAX_VALUE)));
+    }
+
+    /**
+     * Tests the count, mean, maximum and percentiles of a uniform spread of durations.
+     */
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            h.record(micros * 1000);
+        }
+
+        assertEquals(1000, h.getCount());
+        assertEquals(1_000_000, h.getMax());
+        assertEquals(500_500, h.getMean(), 1e-6);
+        assertEquals(500_000, h.getPercentile(0.5), 500_000 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(990_000, h.getPercentile(0.99), 990_000 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(1_000_000, h.getPercentile(1));
+        assertTrue(h.getPercentile(0) >= 1000);
+    }
+
+    /**
+     * Tests that an empty or reset histogram reports zeros, and that fractions outside 0 to 1 are rejected.
+     */
+    @Test
+    public void testResetAndInvalidFraction() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.getPercentile(0.9));
+        h.record(42);
+        h.record(-5);
+        assertEquals(2, h.getCount());
+        assertEquals(42, h.getMax());
+
+        h.reset();
+        assertEquals(0, h.getCount());
+        assertEquals(0, h.getMax());
+        assertEquals(0, h.getMean());
+        assertEquals(0, h.getPercentile(0.5));
+        assertThrows(IllegalArgumentException.class, () -> h.getPercentile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> h.getPercentile(Double.NaN));
+    }
+}
@@ -0,0 +1,142 @@
+package citadels.player;
+
+import citadels.Game;
+import citadels.GameContext;
+import citadels.card.CharacterCard;
+import citadels.card.DistrictCard;
+import citadels.card.DistrictColor;
+import citadels.event.GameEventListener;
+import citadels.util.Deck;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests that an AI turn allocates nothing once the game's lists have grown to size,
+ * by counting the bytes the test thread allocates over thousands of turns.
+ */
+public class AIPlayerAllocationTest {
+    /** Gold each player starts a round of turns with */
+    private static final int[] START_GOLD = {3, 6, 1, 12};
+    /** Cards each player starts a round of turns with */
+    private static final int[] HAND_SIZES = {1, 3, 5, 2};
+    /** Districts each player has built before a round of turns */
+    private static final int CITY_SIZE = 3;
+
+    /**
+     * Tests that every character's turn runs without allocating.
+     * Every round of turns starts from the same position and covers the drawing,
+     * income, swapping, redrawing, destroying and building paths of the AI.
+     */
+    @Test
+    public void testTurnsDoNotAllocate() {
+        com.sun.management.ThreadMXBean threads = threadBean();
+        assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        GameContext ctx = new GameContext(9L);
+        ctx.setEventListener(GameEventListener.NONE);
+        for (int i = 1; i <= START_GOLD.length; i++) {
+            ctx.getPlayers().add(new AIPlayer("Player " + i, ctx.getRandom().split()));
+        }
+        List<CharacterCard> roles = Game.getCharacterPool();
+        DistrictCard[] cards = plainDistricts(ctx.getDistrictDeck());
+
+        // Grow every list to the size the rounds need
+        for (int round = 0; round < 50; round++) {
+            playRound(ctx, roles, cards);
+        }
+
+        long id = Thread.currentThread().getId();
+        long start = threads.getThreadAllocatedBytes(id);
+        long overhead = threads.getThreadAllocatedBytes(id) - start;
+        int rounds = 200;
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int round = 0; round < rounds; round++) {
+            playRound(ctx, roles, cards);
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before - overhead;
+
+        int turns = rounds * roles.size() * START_GOLD.length;
+        assertTrue(allocated < turns, allocated + " bytes allocated in " + turns + " turns");
+    }
+
+    /**
+     * Resets the position and lets every player take a turn as every character,
+     * the way the game starts a turn, so the assassinated and robbed checks run too.
+     *
+     * @param ctx the context of the game
+     * @param roles the characters, in rank order
+     * @param cards the districts to fill the deck, hands and cities with
+     */
+    private static void playRound(GameContext ctx, List<CharacterCard> roles, DistrictCard[] cards) {
+        Deck<DistrictCard> deck = ctx.getDistrictDeck();
+        List<Player> players = ctx.getPlayers();
+        deck.clear();
+        int next = 0;
+        for (int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
+            p.getHand().clear();
+            p.getCity().clear();
+            p.addGold(START_GOLD[i] - p.getGold());
+            for (int j = 0; j < HAND_SIZES[i]; j++) {
+                p.getHand().add(cards[next++]);
+            }
+            for (int j = 0; j < CITY_SIZE; j++) {
+                p.getCity().add(cards[next++]);
+            }
+        }
+        for (int i = next; i < cards.length; i++) {
+            deck.placeOnBottom(cards[i]);
+        }
+        ctx.setAssassinatedCharacter(null);
+        ctx.setRobbedCharacter(null);
+
+        for (int r = 0; r < roles.size(); r++) {
+            for (int i = 0; i < players.size(); i++) {
+                Player p = players.get(i);
+                ctx.getSelectedCharacters().put(p, roles.get(r));
+                p.takeTurn(ctx);
+            }
+        }
+    }
+
+    /**
+     * Takes the non-purple districts out of a deck, so no turn waits for input or scores bonuses.
+     *
+     * @param deck the deck of the game
+     * @return the districts, with distinct names first
+     */
+    private static DistrictCard[] plainDistricts(Deck<DistrictCard> deck) {
+        List<DistrictCard> distinct = new ArrayList<>();
+        List<DistrictCard> copies = new ArrayList<>();
+        for (DistrictCard card : deck) {
+            if (card.getDistrictColor() == DistrictColor.PURPLE) {
+                continue;
+            }
+            boolean seen = false;
+            for (DistrictCard d : distinct) {
+                seen |= d.getName().equals(card.getName());
+            }
+            (seen ? copies : distinct).add(card);
+        }
+        distinct.addAll(copies);
+        assertTrue(distinct.size() > 40);
+        return distinct.toArray(new DistrictCard[0]);
+    }
+
+    /**
+     * Gets the JVM's thread bean with allocation counters, if it has one.
+     *
+     * @return the bean, or null on JVMs without per-thread allocation counters
+     */
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+    }
+}
@@ -0,0 +1,152 @@
+package citadels.player;
+
+import citadels.CommandHandler;
+import citadels.GameContext;
+import citadels.card.CharacterCard;
+import citadels.event.GameEventListener;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for AsyncPlayerInput.
+ * Tests that submitted lines reach the game in order, whether or not it is
+ * already waiting, and that closing the input ends the game's reads.
+ */
+public class AsyncPlayerInputTest {
+
+    /**
+     * Tests that lines submitted before the game asks for them are read in order.
+     */
+    @Test
+    public void testQueuedLinesInOrder() {
+        AsyncPlayerInput input = new AsyncPlayerInput();
+        input.submit("4");
+        input.submit("t");
+        assertFalse(input.isWaiting());
+        assertEquals("4", input.nextLine());
+        assertEquals("t", input.nextLineAsync().getNow(null));
+    }
+
+    /**
+     * Tests that a request made before any line arrives is completed by the next submitted line.
+     * Verifies:
+     * 1. The future is not done and the input reports the game as waiting
+     * 2. Submitting completes the future and clears the waiting state
+     * 3. Only one line can be awaited at a time
+     */
+    @Test
+    public void testPendingRequestCompletedBySubmit() {
+        AsyncPlayerInput input = new AsyncPlayerInput();
+        CompletableFuture<String> line = input.nextLineAsync();
+        assertFalse(line.isDone());
+        assertTrue(input.isWaiting());
+        assertThrows(IllegalStateException.class, input::nextLineAsync);
+
+        input.submit("gold");
+        assertEquals("gold", line.getNow(null));
+        assertFalse(input.isWaiting());
+    }
+
+    /**
+     * Tests that closing the input fails a waiting request, still delivers lines
+     * already submitted, and refuses new ones.
+     */
+    @Test
+    public void testClose() {
+        AsyncPlayerInput input = new AsyncPlayerInput();
+        CompletableFuture<String> waiting = input.nextLineAsync();
+        input.close();
+        ExecutionException e = assertThrows(ExecutionException.class, waiting::get);
+        assertTrue(e.getCause() instanceof NoSuchElementException);
+        assertThrows(IllegalStateException.class, () -> input.submit("t"));
+
+        AsyncPlayerInput queued = new AsyncPlayerInput();
+        queued.submit("t");
+        queued.close();
+        assertEquals("t", queued.nextLine());
+        assertThrows(NoSuchElementException.class, queued::nextLine);
+    }
+
+    /**
+     * Tests that interrupting a waiting reader withdraws its request, so the next
+     * line submitted is not lost and can be read again.
+     */
+    @Test
+    public void testInterruptedReadWithdrawn() throws Exception {
+        AsyncPlayerInput input = new AsyncPlayerInput();
+        CompletableFuture<Throwable> failure = new CompletableFuture<>();
+        Thread reader = new Thread(() -> {
+            try {
+                input.nextLine();
+                failure.complete(null);
+            } catch (RuntimeException e) {
+                failure.complete(e);
+            }
+        });
+        reader.start();
+        awaitWaiting(input);
+        reader.interrupt();
+        reader.join(5_000);
+
+        assertTrue(failure.get(5, TimeUnit.SECONDS) instanceof NoSuchElementException);
+        assertFalse(input.isWaiting());
+        input.submit("gold");
+        assertEquals("gold", input.nextLine());
+        input.submit("t");
+        assertEquals("t", input.nextLine());
+    }
+
+    /**
+     * Tests that a front end thread can drive a human turn by submitting lines
+     * only when the game asks for them.
+     */
+    @Test
+    public void testDrivesHumanTurn() throws Exception {
+        GameContext ctx = new GameContext(1L);
+        ctx.setEventListener(GameEventListener.NONE);
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        ctx.setOutput(new PrintStream(text, true, StandardCharsets.UTF_8.name()));
+        AsyncPlayerInput input = new AsyncPlayerInput();
+        ctx.setInput(input);
+
+        HumanPlayer player = new HumanPlayer("Player 1");
+        player.addGold(3);
+        ctx.getPlayers().add(player);
+        ctx.getSelectedCharacters().put(player, new CharacterCard("Merchant", 6));
+
+        CompletableFuture<Void> turn = CompletableFuture.runAsync(
+            () -> CommandHandler.run(ctx, player, ctx.getInput()));
+        for (String line : new String[] {"gold", "t"}) {
+            awaitWaiting(input);
+            input.submit(line);
+        }
+        turn.get(5, TimeUnit.SECONDS);
+
+        String out = new String(text.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(out.contains("You have 3 gold."), out);
+        assertTrue(out.contains("You ended your turn."), out);
+        assertFalse(input.isWaiting());
+    }
+
+    /**
+     * Waits until the game asks for a line, failing after a few seconds.
+     *
+     * @param input the input the game reads from
+     */
+    private static void awaitWaiting(AsyncPlayerInput input) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!input.isWaiting()) {
+            assertTrue(System.currentTimeMillis() < deadline, "The game never asked for input");
+            Thread.sleep(1);
+        }
+    }
+}
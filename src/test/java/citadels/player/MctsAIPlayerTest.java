@@ -0,0 +1,164 @@
+package citadels.player;
+
+import citadels.Game;
+import citadels.GameContext;
+import citadels.TestGames;
+import citadels.card.CharacterCard;
+import citadels.util.GameRandom;
+import citadels.util.TranspositionTable;
+import citadels.util.Zobrist;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for MctsAIPlayer.
+ * Tests that the search respects its budgets, leaves the real game untouched,
+ * and plays legal moves through a whole game.
+ */
+public class MctsAIPlayerTest {
+
+    /**
+     * Tests that a character pick runs exactly the playout budget and changes nothing in the game.
+     */
+    @Test
+    public void testPlayoutBudgetLeavesGameUntouched() {
+        GameContext ctx = TestGames.newGame(3L, 4, MctsAIPlayer::new);
+        MctsAIPlayer mcts = (MctsAIPlayer) ctx.getPlayers().get(0);
+        mcts.setTimeBudget(60_000);
+        mcts.setPlayoutBudget(64);
+        mcts.setParallelism(2);
+
+        List<CharacterCard> draft = new ArrayList<>(Game.getCharacterPool().subList(1, 6));
+        String before = describe(ctx);
+        CharacterCard chosen = mcts.chooseCharacter(ctx, draft);
+
+        assertTrue(draft.contains(chosen));
+        assertEquals(64, mcts.getLastPlayouts());
+        assertEquals(before, describe(ctx));
+        assertEquals(5, draft.size());
+    }
+
+    /**
+     * Tests that searches of the same position share their playouts through a transposition table.
+     */
+    @Test
+    public void testTranspositionTableSharesPlayouts() {
+        GameContext ctx = TestGames.newGame(3L, 4, MctsAIPlayer::new);
+        MctsAIPlayer mcts = (MctsAIPlayer) ctx.getPlayers().get(0);
+        TranspositionTable table = new TranspositionTable(1024);
+        mcts.setTranspositionTable(table);
+        mcts.setTimeBudget(60_000);
+        mcts.setPlayoutBudget(32);
+        mcts.setParallelism(2);
+
+        List<CharacterCard> draft = new ArrayList<>(Game.getCharacterPool().subList(1, 6));
+        long position = ctx.getPositionHash();
+        mcts.chooseCharacter(ctx, draft);
+        assertEquals(position, ctx.getPositionHash());
+        assertEquals(32, totalCount(table, ctx, draft));
+
+        mcts.chooseCharacter(ctx, draft);
+        assertEquals(32, mcts.getLastPlayouts());
+        assertEquals(64, totalCount(table, ctx, draft));
+    }
+
+    /**
+     * Tests that a time budget bounds how long a decision takes.
+     */
+    @Test
+    public void testTimeBudgetBoundsLatency() {
+        GameContext ctx = TestGames.newGame(8L, 4, MctsAIPlayer::new);
+        MctsAIPlayer mcts = (MctsAIPlayer) ctx.getPlayers().get(0);
+        mcts.setTimeBudget(50);
+
+        long start = System.nanoTime();
+        CharacterCard chosen = mcts.chooseCharacter(ctx, new ArrayList<>(Game.getCharacterPool()));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertNotNull(chosen);
+        assertTrue(mcts.getLastPlayouts() > 0);
+        assertTrue(millis < 2_000, "Decision took " + millis + " ms");
+    }
+
+    /**
+     * Tests that a searching player plays a whole game against heuristic players.
+     * Verifies:
+     * 1. Every round every player holds a different character
+     * 2. The searching player searched for its turns
+     * 3. The game ends with a completed city
+     */
+    @Test
+    public void testPlaysWholeGame() {
+        GameContext ctx = TestGames.newGame(11L, 4, MctsAIPlayer::new);
+        MctsAIPlayer mcts = (MctsAIPlayer) ctx.getPlayers().get(0);
+        mcts.setPlayoutBudget(24);
+        mcts.setParallelism(2);
+
+        int searches = 0;
+        for (int round = 0; round < 60 && Game.findCompletedCity(ctx) == null; round++) {
+            Game.playHeadlessRound(ctx);
+            Set<CharacterCard> picked = new HashSet<>(ctx.getSelectedCharacters().values());
+            assertEquals(ctx.getPlayers().size(), picked.size());
+            if (mcts.getLastPlayouts() > 0) {
+                searches++;
+            }
+        }
+
+        assertNotNull(Game.findCompletedCity(ctx));
+        assertTrue(searches > 0);
+    }
+
+    /**
+     * Tests that invalid budgets are rejected.
+     */
+    @Test
+    public void testInvalidBudgets() {
+        MctsAIPlayer mcts = new MctsAIPlayer("Search", new GameRandom(1L));
+        assertThrows(IllegalArgumentException.class, () -> mcts.setPlayoutBudget(0));
+        assertThrows(IllegalArgumentException.class, () -> mcts.setParallelism(0));
+        assertFalse(mcts.isHuman());
+    }
+
+    /**
+     * Sums the playouts a table holds for the options of a character pick.
+     *
+     * @param table the transposition table
+     * @param ctx the context of the game
+     * @param draft the characters on offer
+     * @return the number of playouts over all options
+     */
+    private static int totalCount(TranspositionTable table, GameContext ctx, List<CharacterCard> draft) {
+        long ranks = 0;
+        for (CharacterCard c : draft) {
+            ranks |= 1L << c.getRank();
+        }
+        int total = 0;
+        for (int i = 0; i < draft.size(); i++) {
+            total += table.getCount(Zobrist.key(Zobrist.TABLE, (ctx.getPositionHash() + ranks) * 64 + i));
+        }
+        return total;
+    }
+
+    /**
+     * Describes the parts of a game a search could disturb.
+     *
+     * @param ctx the context of the game
+     * @return a description that differs whenever those parts differ
+     */
+    private static String describe(GameContext ctx) {
+        StringBuilder sb = new StringBuilder();
+        for (Player p : ctx.getPlayers()) {
+            sb.append(p.getName()).append(' ').append(p.getGold())
+                .append(' ').append(p.getHand()).append(' ').append(p.getCity())
+                .append(' ').append(ctx.getSelectedCharacters().get(p)).append('\n');
+        }
+        ctx.getDistrictDeck().forEach(d -> sb.append(d.getName()).append(','));
+        return sb.append(ctx.getRandom().getState()).toString();
+    }
+}
@@ -1,6 +1,7 @@
 package citadels.player;
 
 import citadels.card.DistrictCard;
+import citadels.card.DistrictColor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -190,6 +191,71 @@ public class PlayerTest {
         assertFalse(player.hasDistrict("Castle"));
     }
 
+    /**
+     * Tests that the district index follows every change made to the city.
+     * Verifies removal, replacement, duplicates, clearing and a large city.
+     */
+    @Test
+    public void testHasDistrictTracksCityChanges() {
+        DistrictCard temple = new DistrictCard("Temple", "blue", 2, 1, null);
+        player.getCity().add(temple);
+        player.getCity().add(new DistrictCard("TEMPLE", "blue", 2, 1, null));
+
+        // One copy left after removing the first
+        player.getCity().remove(temple);
+        assertTrue(player.hasDistrict("temple"));
+        player.getCity().remove(0);
+        assertFalse(player.hasDistrict("Temple"));
+
+        // Replacing a district swaps the names
+        player.getCity().add(temple);
+        player.getCity().set(0, new DistrictCard("Castle", "yellow", 4, 1, null));
+        assertFalse(player.hasDistrict("Temple"));
+        assertTrue(player.hasDistrict("castle"));
+
+        // Enough names to grow the index
+        for (int i = 0; i < 50; i++) {
+            player.getCity().add(new DistrictCard("District " + i, "red", 1, 1, null));
+        }
+        player.getCity().removeIf(d -> d.getName().endsWith("7"));
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i % 10 != 7, player.hasDistrict("district " + i));
+        }
+        assertTrue(player.hasDistrict("Castle"));
+
+        player.getCity().clear();
+        assertFalse(player.hasDistrict("Castle"));
+        assertFalse(player.hasDistrict(null));
+    }
+
+    /**
+     * Tests the running totals kept for the city.
+     * Verifies base score, color counts and name counts through builds and removals.
+     */
+    @Test
+    public void testCityTotals() {
+        player.addGold(10);
+        player.drawCard(new DistrictCard("Castle", "yellow", 4, 1, null));
+        assertTrue(player.buildDistrict(0));
+        DistrictCard temple = new DistrictCard("Temple", "blue", 1, 1, null);
+        player.getCity().add(temple);
+        player.getCity().add(new DistrictCard("Haunted City", "purple", 2, 1, null));
+
+        assertEquals(7, player.getBaseScore());
+        assertEquals(1, player.countDistricts(DistrictColor.YELLOW));
+        assertEquals(1, player.countDistricts(DistrictColor.PURPLE));
+        assertEquals(0, player.countDistricts(DistrictColor.RED));
+        assertEquals(1, player.countDistricts("haunted city"));
+        assertEquals(DistrictColor.YELLOW.bit() | DistrictColor.BLUE.bit() | DistrictColor.PURPLE.bit(),
+            player.getColorMask());
+
+        // Destroying a district takes it out of every total
+        player.getCity().remove(temple);
+        assertEquals(6, player.getBaseScore());
+        assertEquals(0, player.countDistricts(DistrictColor.BLUE));
+        assertEquals(player.getBaseScore(), player.calculateScore());
+    }
+
     /**
      * Tests card banking functionality.
      * Verifies proper storage of banked cards.
@@ -0,0 +1,143 @@
+package citadels.replay;
+
+import citadels.Game;
+import citadels.GameContext;
+import citadels.player.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for recording and replaying games.
+ * Tests that a recorded game replays to the same scores, that a replay can stop
+ * at any turn, and that invalid replay files are rejected.
+ */
+public class ReplayerTest {
+    /** Answers typed by the scripted human, repeated for as long as the game asks */
+    private static final String[] SCRIPT = {"t", "1", "gold", "t", "2"};
+
+    private Path file;
+    private Scanner savedScanner;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        System.setProperty("test.env", "true");
+        file = Files.createTempFile("citadels", ".replay");
+        savedScanner = Game.getScanner();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        Game.setScanner(savedScanner);
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Tests that a recorded game replays to the end with the recorded scores.
+     * Verifies:
+     * 1. The recording holds the seed, the input and the final scores
+     * 2. The replay finishes with the same scores and winner every time
+     */
+    @Test
+    public void testReplayMatchesRecording() throws Exception {
+        record(42L);
+
+        ReplayLog log = ReplayLog.read(file);
+        assertEquals(42L, log.getSeed());
+        assertEquals("4", log.getInputs().get(0));
+        assertEquals(4, log.getScores().size());
+
+        ReplayResult first = new Replayer().play(log);
+        assertTrue(first.isFinished());
+        assertTrue(first.matches(log));
+        assertEquals(log.getScores(), first.getScores());
+        assertTrue(first.getTurns() > 4);
+
+        ReplayResult second = new Replayer().play(log);
+        assertEquals(first.getScores(), second.getScores());
+        assertEquals(first.getWinner(), second.getWinner());
+        assertEquals(first.getTurns(), second.getTurns());
+    }
+
+    /**
+     * Tests that a replay stops after the requested number of turns, in the same state every time.
+     */
+    @Test
+    public void testReplayStopsAtTurn() throws Exception {
+        record(7L);
+        ReplayLog log = ReplayLog.read(file);
+
+        Replayer replayer = new Replayer();
+        replayer.setMaxTurns(6);
+        ReplayResult first = replayer.play(log);
+        ReplayResult second = replayer.play(log);
+
+        assertFalse(first.isFinished());
+        assertEquals(6, first.getTurns());
+        assertNull(first.getWinner());
+        assertEquals(first.getScores(), second.getScores());
+        GameContext a = first.getContext();
+        GameContext b = second.getContext();
+        for (int i = 0; i < a.getPlayers().size(); i++) {
+            Player pa = a.getPlayers().get(i);
+            Player pb = b.getPlayers().get(i);
+            assertEquals(pa.getGold(), pb.getGold());
+            assertEquals(pa.getHand(), pb.getHand());
+            assertTrue(first.getScore(pa.getName()) >= pa.getBaseScore());
+        }
+        assertEquals(-1, first.getScore("Nobody"));
+    }
+
+    /**
+     * Tests that invalid replay files are rejected.
+     */
+    @Test
+    public void testReadRejectsInvalidLog() {
+        assertThrows(IllegalArgumentException.class, () -> ReplayLog.read(new StringReader("hello\n")));
+        assertThrows(IllegalArgumentException.class,
+            () -> ReplayLog.read(new StringReader(ReplayLog.HEADER + "\nin 4\n")));
+        assertThrows(IllegalArgumentException.class,
+            () -> ReplayLog.read(new StringReader(ReplayLog.HEADER + "\nseed x\n")));
+        assertThrows(IllegalArgumentException.class,
+            () -> ReplayLog.read(new StringReader(ReplayLog.HEADER + "\nseed 1\nmove 3\n")));
+    }
+
+    /**
+     * Records a four-player game in which the human answers from {@link #SCRIPT}.
+     *
+     * @param seed the seed of the game
+     */
+    private void record(long seed) throws Exception {
+        StringBuilder input = new StringBuilder("4\n");
+        for (int i = 0; i < 4000; i++) {
+            input.append(SCRIPT[i % SCRIPT.length]).append('\n');
+        }
+
+        GameContext ctx = new GameContext(seed);
+        PrintStream savedOut = System.out;
+        try (ReplayRecorder recorder = new ReplayRecorder(file, seed, ctx.getEventListener())) {
+            ctx.setEventListener(recorder);
+            Game.setScanner(new Scanner(recorder.wrap(new StringReader(input.toString()))));
+            System.setOut(new PrintStream(new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+            }));
+            new Game(ctx).run();
+        } catch (NoSuchElementException e) {
+            // In test mode the game goes on after it ends, until the script runs out
+        } finally {
+            System.setOut(savedOut);
+        }
+    }
+}
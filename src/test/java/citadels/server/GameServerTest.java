@@ -0,0 +1,127 @@
+package citadels.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the GameServer: that every connection plays its own game, and that
+ * sessions end when their player leaves or the server closes.
+ */
+public class GameServerTest {
+    private GameServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new GameServer(0);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    /**
+     * Tests that two players connected at the same time play separate games.
+     * Verifies:
+     * 1. Each player is asked for the number of players
+     * 2. Each game starts with the number its own player typed
+     * 3. Both sessions end when their players disconnect
+     */
+    @Test
+    public void testSessionsAreIndependent() throws Exception {
+        try (Client first = new Client(server.getPort()); Client second = new Client(server.getPort())) {
+            first.readUntil("Enter how many players [4-7]:");
+            second.readUntil("Enter how many players [4-7]:");
+            second.send("6");
+            first.send("4");
+
+            first.readUntil("Starting Citadels with 4 players...");
+            second.readUntil("Starting Citadels with 6 players...");
+            first.readUntil("Press t to process turns");
+            assertEquals(2, server.getActiveSessions());
+        }
+        awaitNoSessions();
+    }
+
+    /**
+     * Tests that closing the server ends the sessions still playing.
+     */
+    @Test
+    public void testCloseEndsSessions() throws Exception {
+        try (Client client = new Client(server.getPort())) {
+            client.readUntil("Enter how many players [4-7]:");
+            assertEquals(1, server.getActiveSessions());
+
+            server.close();
+            while (client.in.readLine() != null) {
+                // drain until the server hangs up
+            }
+            awaitNoSessions();
+        }
+    }
+
+    /**
+     * Tests that a server cannot be started twice.
+     */
+    @Test
+    public void testStartTwice() {
+        assertThrows(IllegalStateException.class, server::start);
+    }
+
+    /**
+     * Waits for every session to end, failing after a few seconds.
+     */
+    private void awaitNoSessions() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (server.getActiveSessions() > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "Sessions did not end");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * A player connected to the server.
+     */
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        Client(int port) throws IOException {
+            socket = new Socket("localhost", port);
+            socket.setSoTimeout(5_000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(socket.getOutputStream(), true);
+        }
+
+        void send(String line) {
+            out.println(line);
+        }
+
+        void readUntil(String expected) throws IOException {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.contains(expected)) {
+                    return;
+                }
+            }
+            fail("Connection closed before \"" + expected + "\"");
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
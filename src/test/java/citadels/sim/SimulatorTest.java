@@ -0,0 +1,160 @@
+package citadels.sim;
+
+import citadels.Game;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the Simulator class.
+ * Tests that headless AI-only games run to completion in parallel
+ * and that their results are aggregated correctly.
+ */
+public class SimulatorTest {
+
+    @BeforeEach
+    public void setUp() {
+        System.setProperty("test.env", "true");
+    }
+
+    /**
+     * Tests running a small batch of games on several threads.
+     * Verifies:
+     * 1. Every game is counted once
+     * 2. Every seat has one score per game
+     * 3. Win rates never exceed 100% in total
+     * 4. Throughput is reported
+     */
+    @Test
+    public void testRunBatch() {
+        Simulator simulator = new Simulator(4, 2);
+        SimulationResult result = simulator.run(20);
+
+        assertEquals(20, result.getGames());
+        assertEquals(4, result.getPlayerCount());
+        double totalWinRate = 0;
+        for (int seat = 0; seat < 4; seat++) {
+            assertEquals(20, result.getSeatScores(seat).getCount());
+            totalWinRate += result.getSeatWinRate(seat);
+        }
+        assertTrue(totalWinRate <= 1.0 + 1e-9);
+        assertEquals(20 - result.getTies(), Math.round(totalWinRate * 20));
+        assertTrue(result.getAverageRounds() >= 1);
+        assertTrue(result.getGamesPerSecond() > 0);
+    }
+
+    /**
+     * Tests that characters held in the final round are tracked by rank.
+     */
+    @Test
+    public void testCharacterStatistics() {
+        SimulationResult result = new Simulator(5, 1).run(4);
+
+        int appearances = 0;
+        for (int rank = 1; rank <= 8; rank++) {
+            appearances += result.getCharacterGames(rank);
+            if (result.getCharacterGames(rank) > 0) {
+                assertNotNull(result.getCharacterName(rank));
+            }
+        }
+        assertEquals(4 * 5, appearances);
+    }
+
+    /**
+     * Tests that the round limit stops games that would otherwise go on.
+     */
+    @Test
+    public void testMaxRounds() {
+        Simulator simulator = new Simulator(4, 1);
+        simulator.setMaxRounds(1);
+        SimulationResult result = simulator.run(3);
+
+        assertEquals(3, result.getGames());
+        assertEquals(1.0, result.getAverageRounds(), 1e-9);
+        assertEquals(0, result.getFinishedGames());
+    }
+
+    /**
+     * Tests that simulated games leave the default game context untouched.
+     */
+    @Test
+    public void testDoesNotTouchDefaultContext() {
+        Game.players.clear();
+        new Simulator(4, 2).run(4);
+        assertTrue(Game.players.isEmpty());
+    }
+
+    /**
+     * Tests that invalid player counts and thread counts are rejected.
+     */
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new Simulator(3, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Simulator(8, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Simulator(4, 0));
+    }
+
+    /**
+     * Tests the score distribution statistics.
+     * Verifies count, min, max, mean, percentiles and merging.
+     */
+    @Test
+    public void testScoreDistribution() {
+        ScoreDistribution a = new ScoreDistribution();
+        a.add(2);
+        a.add(4);
+        ScoreDistribution b = new ScoreDistribution();
+        b.add(6);
+        b.add(100);
+        a.merge(b);
+
+        assertEquals(4, a.getCount());
+        assertEquals(2, a.getMin());
+        assertEquals(100, a.getMax());
+        assertEquals(28.0, a.getMean(), 1e-9);
+        assertEquals(4, a.getPercentile(0.5));
+        assertEquals(100, a.getPercentile(1.0));
+        assertEquals(1, a.getFrequency(100));
+        assertEquals(0, new ScoreDistribution().getMean());
+    }
+
+    /**
+     * Tests that a seeded batch is reproducible regardless of the number of threads.
+     */
+    @Test
+    public void testSeededRunIsReproducible() {
+        Simulator single = new Simulator(4, 1);
+        single.setSeed(2024L);
+        Simulator parallel = new Simulator(4, 3);
+        parallel.setSeed(2024L);
+
+        SimulationResult a = single.run(12);
+        SimulationResult b = parallel.run(12);
+
+        assertEquals(a.getAverageRounds(), b.getAverageRounds());
+        for (int seat = 0; seat < 4; seat++) {
+            assertEquals(a.getSeatWins(seat), b.getSeatWins(seat));
+            assertEquals(a.getSeatScores(seat).getMean(), b.getSeatScores(seat).getMean());
+        }
+    }
+
+    /**
+     * Tests that a quiet batch prints nothing, since its games ignore their events.
+     */
+    @Test
+    public void testQuietRunPrintsNothing() {
+        PrintStream original = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true));
+        try {
+            new Simulator(4, 2).run(4);
+        } finally {
+            System.setOut(original);
+        }
+        assertEquals("", captured.toString());
+    }
+}
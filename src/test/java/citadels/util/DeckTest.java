@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 
@@ -166,4 +167,72 @@ public class DeckTest {
         assertEquals("Card1", deck.draw());
         assertEquals("Card2", deck.draw());
     }
-} 
\ No newline at end of file
+
+    /**
+     * Tests drawing several cards at once into a caller-supplied array.
+     * Verifies that cards come out in FIFO order and that only the
+     * remaining cards are drawn when the deck runs out.
+     */
+    @Test
+    public void testDrawN() {
+        deck.addCards(Arrays.asList("Card1", "Card2", "Card3"));
+        String[] drawn = new String[2];
+        assertEquals(2, deck.drawN(2, drawn));
+        assertArrayEquals(new String[] {"Card1", "Card2"}, drawn);
+        assertEquals(1, deck.size());
+
+        assertEquals(1, deck.drawN(2, drawn));
+        assertEquals("Card3", drawn[0]);
+        assertTrue(deck.isEmpty());
+        assertEquals(0, deck.drawN(2, drawn));
+        assertThrows(IllegalArgumentException.class, () -> deck.drawN(3, drawn));
+    }
+
+    /**
+     * Tests that FIFO order survives the buffer wrapping around and growing.
+     * Cards are cycled from the top to the bottom many times while the deck grows
+     * past its initial capacity.
+     */
+    @Test
+    public void testWrapAroundAndGrowth() {
+        for (int i = 0; i < 10; i++) {
+            deck.addCard("Card" + i);
+        }
+        for (int i = 0; i < 25; i++) {
+            deck.placeOnBottom(deck.draw());
+        }
+        for (int i = 10; i < 40; i++) {
+            deck.addCard("Card" + i);
+        }
+        assertEquals(40, deck.size());
+
+        int i = 0;
+        for (String card : deck) {
+            int expected = i < 10 ? (i + 5) % 10 : i;
+            assertEquals("Card" + expected, card);
+            i++;
+        }
+        assertEquals(40, i);
+    }
+
+    /**
+     * Tests that the iterator fails fast when the deck is changed during iteration,
+     * and that removing through the iterator itself is allowed.
+     */
+    @Test
+    public void testIteratorFailFast() {
+        deck.addCards(Arrays.asList("Card1", "Card2", "Card3"));
+        Iterator<String> iterator = deck.iterator();
+        iterator.next();
+        deck.draw();
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+
+        iterator = deck.iterator();
+        assertEquals("Card2", iterator.next());
+        iterator.remove();
+        assertEquals("Card3", iterator.next());
+        assertFalse(iterator.hasNext());
+        assertEquals(1, deck.size());
+        assertEquals("Card3", deck.draw());
+    }
+}
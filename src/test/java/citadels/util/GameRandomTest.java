@@ -0,0 +1,98 @@
+package citadels.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the GameRandom utility class.
+ * Tests that seeded generators are reproducible, that bounded values
+ * stay in range, and that shuffling keeps every element.
+ */
+public class GameRandomTest {
+
+    /**
+     * Tests that two generators with the same seed produce the same sequence
+     * and that the seed is reported back.
+     */
+    @Test
+    public void testSameSeedSameSequence() {
+        GameRandom a = new GameRandom(42);
+        GameRandom b = new GameRandom(42);
+        assertEquals(42, a.getSeed());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(a.nextLong(), b.nextLong());
+        }
+        assertNotEquals(new GameRandom(1).nextLong(), new GameRandom(2).nextLong());
+    }
+
+    /**
+     * Tests that bounded ints stay within [0, bound), hit every value,
+     * and that a non-positive bound is rejected.
+     */
+    @Test
+    public void testNextIntBounds() {
+        GameRandom random = new GameRandom(7);
+        boolean[] seen = new boolean[6];
+        for (int i = 0; i < 1000; i++) {
+            int value = random.nextInt(6);
+            assertTrue(value >= 0 && value < 6);
+            seen[value] = true;
+        }
+        for (boolean s : seen) {
+            assertTrue(s);
+        }
+        assertThrows(IllegalArgumentException.class, () -> random.nextInt(0));
+    }
+
+    /**
+     * Tests that split-off generators are reproducible and differ from their parent.
+     */
+    @Test
+    public void testSplit() {
+        GameRandom parent = new GameRandom(99);
+        GameRandom child = parent.split();
+        GameRandom sameChild = new GameRandom(99).split();
+        long childValue = child.nextLong();
+        assertEquals(childValue, sameChild.nextLong());
+        assertNotEquals(childValue, parent.nextLong());
+    }
+
+    /**
+     * Tests that shuffling a list keeps every element and is reproducible from the seed.
+     */
+    @Test
+    public void testShuffle() {
+        List<Integer> first = new ArrayList<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+        List<Integer> second = new ArrayList<>(first);
+        new GameRandom(5).shuffle(first);
+        new GameRandom(5).shuffle(second);
+
+        assertEquals(first, second);
+        List<Integer> sorted = new ArrayList<>(first);
+        sorted.sort(null);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), sorted);
+    }
+
+    /**
+     * Tests that decks sharing a seed shuffle into the same order.
+     */
+    @Test
+    public void testSeededDeckShuffle() {
+        Deck<Integer> a = new Deck<>(new GameRandom(11));
+        Deck<Integer> b = new Deck<>(new GameRandom(11));
+        for (int i = 0; i < 20; i++) {
+            a.addCard(i);
+            b.addCard(i);
+        }
+        a.shuffle();
+        b.shuffle();
+        for (int i = 0; i < 20; i++) {
+            assertEquals(a.draw(), b.draw());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package citadels.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the TranspositionTable: accumulating evaluations, evicting the least
+ * evaluated positions when a bucket is full, and concurrent updates.
+ */
+public class TranspositionTableTest {
+
+    /**
+     * Tests that evaluations of the same position add up and that missing positions read as empty.
+     */
+    @Test
+    public void testAccumulates() {
+        TranspositionTable table = new TranspositionTable(100);
+        assertEquals(128, table.capacity());
+        assertEquals(0, table.getCount(42L));
+        assertTrue(Double.isNaN(table.getMean(42L)));
+
+        table.add(42L, 1.0, 2);
+        table.add(42L, 2.0, 2);
+        assertEquals(4, table.getCount(42L));
+        assertEquals(0.75, table.getMean(42L), 1e-12);
+
+        table.clear();
+        assertEquals(0, table.getCount(42L));
+    }
+
+    /**
+     * Tests that a full bucket makes room by evicting its least evaluated position.
+     * Verifies:
+     * 1. A table of one bucket holds {@value TranspositionTable#WAYS} positions
+     * 2. The next position replaces the one with the fewest evaluations
+     */
+    @Test
+    public void testEvictsLeastEvaluated() {
+        TranspositionTable table = new TranspositionTable(TranspositionTable.WAYS, 1);
+        for (int i = 0; i < TranspositionTable.WAYS; i++) {
+            table.add(i, 0, 10 + i);
+        }
+        table.add(0L, 0, 5);
+        table.add(99L, 1, 1);
+
+        assertEquals(1, table.getCount(99L));
+        assertEquals(0, table.getCount(1L));
+        assertEquals(15, table.getCount(0L));
+        assertEquals(12, table.getCount(2L));
+        assertEquals(13, table.getCount(3L));
+    }
+
+    /**
+     * Tests that concurrent updates of shared positions lose nothing.
+     */
+    @Test
+    public void testConcurrentAdds() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1 << 12, 8);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    table.add(Zobrist.key(Zobrist.TABLE, i % 64), 0.5, 1);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int total = 0;
+        for (int i = 0; i < 64; i++) {
+            long key = Zobrist.key(Zobrist.TABLE, i);
+            total += table.getCount(key);
+            assertEquals(0.5, table.getMean(key), 1e-12);
+        }
+        assertEquals(40_000, total);
+    }
+
+    /**
+     * Tests that invalid sizes and counts are rejected.
+     */
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(16, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable((1 << 30) + 1));
+        TranspositionTable table = new TranspositionTable(16);
+        assertThrows(IllegalArgumentException.class, () -> table.add(1L, 1.0, 0));
+    }
+}